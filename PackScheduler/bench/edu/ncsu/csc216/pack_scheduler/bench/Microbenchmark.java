@@ -0,0 +1,196 @@
+package edu.ncsu.csc216.pack_scheduler.bench;
+
+/**
+ * Measures the average time of an operation. The operation is run for a number of warmup iterations
+ * whose times are thrown away, so the JIT compiler can compile it, and then for a number of measured
+ * iterations. Each iteration runs the operation back to back for a fixed time, in batches that grow
+ * until the clock is read rarely enough not to matter, and scores the iteration in nanoseconds per
+ * operation. Every result of the operation is written to a volatile field, so the compiler cannot
+ * remove the work that made it.
+ */
+public class Microbenchmark {
+
+	/**
+	 * An operation to measure.
+	 */
+	public interface Operation {
+
+		/**
+		 * Runs the operation once.
+		 * @param invocation the number of times the operation has run before, across all iterations,
+		 *                   which can be used to pick its input
+		 * @return a result of the operation, so it is not optimized away
+		 * @throws Exception if the operation fails, which fails the benchmark
+		 */
+		Object run(long invocation) throws Exception;
+	}
+
+	/** Batches shorter than this many nanoseconds are doubled */
+	private static final long MIN_BATCH_NANOS = 10000;
+
+	/** Number of iterations thrown away */
+	private final int warmupIterations;
+	/** Number of iterations measured */
+	private final int measuredIterations;
+	/** Nanoseconds each iteration runs for */
+	private final long iterationNanos;
+	/** Receives every result, so no result is dead code */
+	private volatile Object sink;
+
+	/**
+	 * Creates a benchmark runner.
+	 * @param warmupIterations the number of iterations thrown away
+	 * @param measuredIterations the number of iterations measured
+	 * @param iterationMillis the milliseconds each iteration runs for
+	 * @throws IllegalArgumentException if warmupIterations or iterationMillis is negative, or
+	 *                                  measuredIterations is less than 1
+	 */
+	public Microbenchmark(int warmupIterations, int measuredIterations, long iterationMillis) {
+		if (warmupIterations < 0 || measuredIterations < 1 || iterationMillis < 0) {
+			throw new IllegalArgumentException("Invalid iterations.");
+		}
+		this.warmupIterations = warmupIterations;
+		this.measuredIterations = measuredIterations;
+		this.iterationNanos = iterationMillis * 1000000;
+	}
+
+	/**
+	 * Warms up and measures an operation.
+	 * @param name the name of the benchmark
+	 * @param scale the size of the data the operation runs on
+	 * @param operation the operation
+	 * @return the scores of the measured iterations
+	 * @throws Exception if the operation fails
+	 */
+	public Result measure(String name, int scale, Operation operation) throws Exception {
+		long[] invocations = new long[1];
+		for (int i = 0; i < warmupIterations; i++) {
+			iteration(operation, invocations);
+		}
+		double[] scores = new double[measuredIterations];
+		for (int i = 0; i < measuredIterations; i++) {
+			scores[i] = iteration(operation, invocations);
+		}
+		return new Result(name, scale, scores);
+	}
+
+	/**
+	 * Runs one iteration of an operation.
+	 * @param operation the operation
+	 * @param invocations holds the number of times the operation has run, which is updated
+	 * @return the nanoseconds per operation
+	 * @throws Exception if the operation fails
+	 */
+	private double iteration(Operation operation, long[] invocations) throws Exception {
+		long next = invocations[0];
+		long batch = 1;
+		long start = System.nanoTime();
+		long deadline = start + iterationNanos;
+		long now = start;
+		do {
+			long batchStart = now;
+			for (long i = 0; i < batch; i++) {
+				sink = operation.run(next++);
+			}
+			now = System.nanoTime();
+			if (now - batchStart < MIN_BATCH_NANOS) {
+				batch *= 2;
+			}
+		} while (now < deadline);
+		long ops = next - invocations[0];
+		invocations[0] = next;
+		return (double) (now - start) / ops;
+	}
+
+	/**
+	 * The scores of one benchmark, in nanoseconds per operation.
+	 */
+	public static final class Result {
+
+		/** Name of the benchmark */
+		private final String name;
+		/** Size of the data */
+		private final int scale;
+		/** Score of each measured iteration */
+		private final double[] scores;
+
+		/**
+		 * Creates a result.
+		 * @param name the name of the benchmark
+		 * @param scale the size of the data
+		 * @param scores the score of each measured iteration
+		 */
+		Result(String name, int scale, double[] scores) {
+			this.name = name;
+			this.scale = scale;
+			this.scores = scores;
+		}
+
+		/**
+		 * Returns the name of the benchmark.
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the size of the data.
+		 * @return the scale
+		 */
+		public int getScale() {
+			return scale;
+		}
+
+		/**
+		 * Returns the mean of the scores.
+		 * @return the mean nanoseconds per operation
+		 */
+		public double getMean() {
+			double sum = 0;
+			for (double s : scores) {
+				sum += s;
+			}
+			return sum / scores.length;
+		}
+
+		/**
+		 * Returns the sample standard deviation of the scores, or 0 for a single score.
+		 * @return the standard deviation in nanoseconds per operation
+		 */
+		public double getStandardDeviation() {
+			if (scores.length < 2) {
+				return 0;
+			}
+			double mean = getMean();
+			double sum = 0;
+			for (double s : scores) {
+				sum += (s - mean) * (s - mean);
+			}
+			return Math.sqrt(sum / (scores.length - 1));
+		}
+
+		/**
+		 * Returns the lowest score.
+		 * @return the lowest nanoseconds per operation
+		 */
+		public double getMin() {
+			double min = Double.POSITIVE_INFINITY;
+			for (double s : scores) {
+				min = Math.min(min, s);
+			}
+			return min;
+		}
+
+		/**
+		 * Returns the result as a row of a table with the benchmark name, scale, number of scores,
+		 * mean, standard deviation, and lowest score.
+		 * @return the row
+		 */
+		@Override
+		public String toString() {
+			return String.format("%-44s %8d %4d %16.1f +- %12.1f %16.1f  ns/op", name, scale, scores.length,
+					getMean(), getStandardDeviation(), getMin());
+		}
+	}
+}
@@ -0,0 +1,302 @@
+package edu.ncsu.csc216.pack_scheduler.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
+import edu.ncsu.csc216.pack_scheduler.course.ConflictException;
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.FacultyRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.StudentRecordIO;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationManager;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
+import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
+
+/**
+ * Benchmarks the registration hot paths on synthetic data of growing size: catalog lookups, schedule
+ * and conflict checks, enrolling in and dropping from a course roll, logging in, and reading and
+ * writing the three kinds of record files. Each benchmark is run at each scale, where the scale is the
+ * number of courses, students, and faculty members generated, and prints one row of nanoseconds per
+ * operation. Run from the project directory, so the RegistrationManager finds registrar.properties.
+ * <p>
+ * Arguments, all optional: a comma separated list of scales (default 1000,10000,100000), and a
+ * string that the names of the benchmarks to run must contain (default all). For example,
+ * {@code RegistrationBenchmarks 1000,10000 RecordIO} runs the record file benchmarks at two scales.
+ * The system properties bench.seed, bench.warmup, bench.iterations, and bench.millis set the seed of
+ * the data (default 217), the warmup and measured iterations (default 3 and 5), and the length of an
+ * iteration in milliseconds (default 500). An iteration always runs its operation at least once, so
+ * readers that build a SortedList or LinkedList, which take time quadratic in the number of records,
+ * can run for minutes at the largest scale; the filter skips them.
+ */
+public class RegistrationBenchmarks {
+
+	/** Scales run when none are given */
+	private static final int[] DEFAULT_SCALES = { 1000, 10000, 100000 };
+	/** Number of students already enrolled in the course roll benchmarks */
+	private static final int ROLL_SIZE = 200;
+	/** Number of courses put in the schedule of the schedule benchmarks */
+	private static final int SCHEDULE_SIZE = 5;
+
+	/** Runs and times the operations */
+	private final Microbenchmark runner;
+	/** Generates the data */
+	private final SyntheticData data;
+	/** Only benchmarks whose names contain this are run */
+	private final String filter;
+
+	/**
+	 * Creates the benchmarks.
+	 * @param runner runs and times the operations
+	 * @param data generates the data
+	 * @param filter only benchmarks whose names contain this are run
+	 */
+	public RegistrationBenchmarks(Microbenchmark runner, SyntheticData data, String filter) {
+		this.runner = runner;
+		this.data = data;
+		this.filter = filter;
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 * @param args the scales and the name filter, both optional
+	 * @throws Exception if a benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+		int[] scales = DEFAULT_SCALES;
+		if (args.length > 0) {
+			String[] parts = args[0].split(",");
+			scales = new int[parts.length];
+			for (int i = 0; i < parts.length; i++) {
+				scales[i] = Integer.parseInt(parts[i].trim());
+			}
+		}
+		String filter = args.length > 1 ? args[1] : "";
+		Microbenchmark runner = new Microbenchmark(Integer.getInteger("bench.warmup", 3),
+				Integer.getInteger("bench.iterations", 5), Long.getLong("bench.millis", 500));
+		SyntheticData data = new SyntheticData(Long.getLong("bench.seed", 217));
+		RegistrationBenchmarks benchmarks = new RegistrationBenchmarks(runner, data, filter);
+		System.out.println(String.format("%-44s %8s %4s %16s   %12s %16s", "Benchmark", "Scale", "Cnt", "Mean",
+				"Stdev", "Min"));
+		for (int scale : scales) {
+			benchmarks.run(scale);
+		}
+	}
+
+	/**
+	 * Runs every benchmark that passes the filter at one scale and prints the results.
+	 * @param scale the number of courses, students, and faculty members
+	 * @throws Exception if a benchmark fails
+	 */
+	public void run(int scale) throws Exception {
+		List<Course> courses = data.courses(scale);
+		List<Student> students = data.students(scale);
+		List<Faculty> faculty = data.faculty(scale);
+		benchmarkCatalog(scale, courses);
+		benchmarkSchedule(scale, courses);
+		benchmarkConflicts(scale, courses);
+		benchmarkCourseRoll(scale, students);
+		benchmarkLogin(scale, students, faculty);
+		benchmarkRecordIO(scale, courses, students, faculty);
+	}
+
+	/**
+	 * Benchmarks finding courses in a catalog by name and section.
+	 * @param scale the scale
+	 * @param courses the courses
+	 * @throws Exception if the benchmark fails
+	 */
+	private void benchmarkCatalog(int scale, List<Course> courses) throws Exception {
+		CourseCatalog catalog = new CourseCatalog();
+		catalog.restoreCourses(courses);
+		int n = courses.size();
+		String[] names = new String[n];
+		String[] sections = new String[n];
+		for (int i = 0; i < n; i++) {
+			names[i] = courses.get(i).getName();
+			sections[i] = courses.get(i).getSection();
+		}
+		report("CourseCatalog.getCourseFromCatalog", scale,
+				i -> catalog.getCourseFromCatalog(names[(int) (i % n)], sections[(int) (i % n)]));
+	}
+
+	/**
+	 * Benchmarks checking whether courses can be added to a schedule holding a few courses.
+	 * @param scale the scale
+	 * @param courses the courses
+	 * @throws Exception if the benchmark fails
+	 */
+	private void benchmarkSchedule(int scale, List<Course> courses) throws Exception {
+		Schedule schedule = new Schedule();
+		for (int i = 0; i < courses.size() && schedule.getScheduledCourses().length < SCHEDULE_SIZE; i += 7) {
+			if (schedule.canAdd(courses.get(i))) {
+				schedule.addCourseToSchedule(courses.get(i));
+			}
+		}
+		int n = courses.size();
+		report("Schedule.canAdd", scale, i -> schedule.canAdd(courses.get((int) (i % n))));
+	}
+
+	/**
+	 * Benchmarks checking pairs of courses for conflicts, where a conflict throws a ConflictException.
+	 * @param scale the scale
+	 * @param courses the courses
+	 * @throws Exception if the benchmark fails
+	 */
+	private void benchmarkConflicts(int scale, List<Course> courses) throws Exception {
+		int n = courses.size();
+		report("Activity.checkConflict", scale, i -> {
+			Course a = courses.get((int) (i % n));
+			Course b = courses.get((int) ((i * 31 + 17) % n));
+			try {
+				a.checkConflict(b);
+				return a;
+			} catch (ConflictException e) {
+				return e;
+			}
+		});
+	}
+
+	/**
+	 * Benchmarks enrolling a student in a course that already has ROLL_SIZE students and dropping them
+	 * again, so the roll is the same after each operation.
+	 * @param scale the scale
+	 * @param students the students
+	 * @throws Exception if the benchmark fails
+	 */
+	private void benchmarkCourseRoll(int scale, List<Student> students) throws Exception {
+		if (students.size() <= ROLL_SIZE) {
+			return;
+		}
+		Course course = new Course("BNCH101", "Benchmark", "001", 3, null, 250, "A");
+		CourseRoll roll = course.getCourseRoll();
+		for (int i = 0; i < ROLL_SIZE; i++) {
+			roll.enroll(students.get(i));
+		}
+		int others = students.size() - ROLL_SIZE;
+		report("CourseRoll.enroll+drop", scale, i -> {
+			Student s = students.get(ROLL_SIZE + (int) (i % others));
+			roll.enroll(s);
+			return roll.drop(s);
+		});
+	}
+
+	/**
+	 * Benchmarks logging a student in to the RegistrationManager and out again, with the directories
+	 * holding the given students and faculty members.
+	 * @param scale the scale
+	 * @param students the students
+	 * @param faculty the faculty members
+	 * @throws Exception if the benchmark fails
+	 */
+	private void benchmarkLogin(int scale, List<Student> students, List<Faculty> faculty) throws Exception {
+		RegistrationManager manager = RegistrationManager.getInstance();
+		manager.logout();
+		manager.clearData();
+		manager.getStudentDirectory().restoreStudents(students);
+		manager.getFacultyDirectory().restoreFaculty(faculty);
+		int n = students.size();
+		String[] ids = new String[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = students.get(i).getId();
+		}
+		try {
+			report("RegistrationManager.login+logout", scale, i -> {
+				boolean in = manager.login(ids[(int) (i % n)], SyntheticData.PASSWORD);
+				manager.logout();
+				return in;
+			});
+		} finally {
+			manager.clearData();
+		}
+	}
+
+	/**
+	 * Benchmarks writing and reading course, student, and faculty record files.
+	 * @param scale the scale
+	 * @param courses the courses
+	 * @param students the students
+	 * @param faculty the faculty members
+	 * @throws Exception if the benchmark fails
+	 */
+	private void benchmarkRecordIO(int scale, List<Course> courses, List<Student> students, List<Faculty> faculty)
+			throws Exception {
+		// The course readers assign instructors found in the manager's directory, so keep it empty
+		RegistrationManager.getInstance().clearData();
+		LinkedList<Faculty> facultyList = new LinkedList<Faculty>();
+		if (matches("FacultyRecordIO")) {
+			for (Faculty f : faculty) {
+				facultyList.add(facultyList.size(), f);
+			}
+		}
+		String courseFile = tempFile("courses");
+		String studentFile = tempFile("students");
+		String facultyFile = tempFile("faculty");
+		try {
+			CourseRecordIO.writeCourseRecords(courseFile, courses);
+			StudentRecordIO.writeStudentRecords(studentFile, students);
+			FacultyRecordIO.writeFacultyRecords(facultyFile, facultyList);
+			report("CourseRecordIO.writeCourseRecords", scale, i -> {
+				CourseRecordIO.writeCourseRecords(courseFile, courses);
+				return courseFile;
+			});
+			report("CourseRecordIO.readCourseRecords", scale, i -> CourseRecordIO.readCourseRecords(courseFile));
+			report("CourseRecordIO.streamCourseRecords", scale, i -> CourseRecordIO.streamCourseRecords(courseFile));
+			report("StudentRecordIO.writeStudentRecords", scale, i -> {
+				StudentRecordIO.writeStudentRecords(studentFile, students);
+				return studentFile;
+			});
+			report("StudentRecordIO.readStudentRecords", scale, i -> StudentRecordIO.readStudentRecords(studentFile));
+			report("StudentRecordIO.readStudentRecordsInParallel", scale,
+					i -> StudentRecordIO.readStudentRecordsInParallel(studentFile));
+			report("FacultyRecordIO.writeFacultyRecords", scale, i -> {
+				FacultyRecordIO.writeFacultyRecords(facultyFile, facultyList);
+				return facultyFile;
+			});
+			report("FacultyRecordIO.readFacultyRecords", scale, i -> FacultyRecordIO.readFacultyRecords(facultyFile));
+		} finally {
+			new File(courseFile).delete();
+			new File(studentFile).delete();
+			new File(facultyFile).delete();
+		}
+	}
+
+	/**
+	 * Measures an operation and prints its result, if its name passes the filter.
+	 * @param name the name of the benchmark
+	 * @param scale the scale
+	 * @param operation the operation
+	 * @throws Exception if the operation fails
+	 */
+	private void report(String name, int scale, Microbenchmark.Operation operation) throws Exception {
+		if (matches(name)) {
+			System.out.println(runner.measure(name, scale, operation));
+		}
+	}
+
+	/**
+	 * Returns true if the benchmarks with the given name, or starting with it, pass the filter.
+	 * @param name the name, or the start of names
+	 * @return true if they pass
+	 */
+	private boolean matches(String name) {
+		return name.contains(filter) || filter.startsWith(name);
+	}
+
+	/**
+	 * Returns the path of a new empty temporary file.
+	 * @param prefix the start of the file name
+	 * @return the path
+	 * @throws IOException if the file cannot be created
+	 */
+	private static String tempFile(String prefix) throws IOException {
+		File file = File.createTempFile(prefix, ".txt");
+		file.deleteOnExit();
+		return file.getPath();
+	}
+
+}
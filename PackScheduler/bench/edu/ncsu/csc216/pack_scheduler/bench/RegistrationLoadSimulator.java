@@ -0,0 +1,517 @@
+package edu.ncsu.csc216.pack_scheduler.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.manager.EnrollmentResult;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationManager;
+import edu.ncsu.csc216.pack_scheduler.util.LatencyHistogram;
+
+/**
+ * Replays an enrollment trace written by TermDataGenerator against the RegistrationManager with many
+ * threads, each playing one student session at a time, and reports the latency of each kind of request
+ * at the 50th, 99th, and 99.9th percentiles, the throughput, and how many requests were rejected and
+ * why.
+ * <p>
+ * In SESSIONS mode each thread logs its student in with openSession and makes its requests with the
+ * session token, so students register at the same time. In SINGLE_USER mode the threads take turns
+ * with the manager's one logged in user: a thread holds a lock from login to logout, and the latency of
+ * a login includes the wait for the lock, which is the queue a registration rush would see.
+ * <p>
+ * The reason a failed enrollment is counted under is read from the EnrollmentResult the manager
+ * returns for it: the course was full, the course conflicts with or repeats one in the student's
+ * schedule, or it would take the student over their maximum credits. The result is decided under the
+ * same locks as the enrollment, so the reasons are exact even when many threads run at once.
+ * <p>
+ * Run with the directory of a generated term, and optionally the number of threads (default 64), the
+ * mode (default SESSIONS), and the number of seconds after which no more sessions are started
+ * (default no limit). The faculty records are not loaded, since no request uses them.
+ */
+public class RegistrationLoadSimulator {
+
+	/**
+	 * How the threads use the manager.
+	 */
+	public enum Mode {
+		/** Each student has their own session and students register at the same time */
+		SESSIONS,
+		/** Students take turns as the manager's one logged in user */
+		SINGLE_USER
+	}
+
+	/**
+	 * A kind of request in a trace.
+	 */
+	public enum Request {
+		/** Logs a student in */
+		LOGIN(TermDataGenerator.LOGIN),
+		/** Enrolls a student in a course */
+		ENROLL(TermDataGenerator.ENROLL),
+		/** Drops a course */
+		DROP(TermDataGenerator.DROP),
+		/** Resets a student's schedule */
+		RESET(TermDataGenerator.RESET),
+		/** Logs a student out */
+		LOGOUT(TermDataGenerator.LOGOUT);
+
+		/** The request's type in a trace line */
+		private final char type;
+
+		/**
+		 * Creates a request kind.
+		 * @param type the request's type in a trace line
+		 */
+		Request(char type) {
+			this.type = type;
+		}
+
+		/**
+		 * Returns the kind of request of a trace line type.
+		 * @param type the type
+		 * @return the kind of request
+		 * @throws IllegalArgumentException if the type is unknown
+		 */
+		static Request of(char type) {
+			for (Request r : values()) {
+				if (r.type == type) {
+					return r;
+				}
+			}
+			throw new IllegalArgumentException("Invalid trace request.");
+		}
+	}
+
+	/**
+	 * What happened to a request.
+	 */
+	public enum Result {
+		/** The request succeeded */
+		OK,
+		/** The course had no open seat */
+		FULL,
+		/** The course conflicts with or repeats a course in the student's schedule */
+		CONFLICT,
+		/** The course would take the student over their maximum credits */
+		CREDITS,
+		/** The request failed for another reason, such as a wrong password or a course not taken */
+		REJECTED,
+		/** The trace names a course that is not in the catalog */
+		UNKNOWN_COURSE,
+		/** The request threw an exception */
+		ERROR
+	}
+
+	/** Sessions each thread may have waiting */
+	private static final int QUEUE_PER_THREAD = 64;
+	/** Marks the end of the sessions */
+	private static final List<String[]> END = Collections.emptyList();
+
+	/** The manager requests are made to */
+	private final RegistrationManager manager;
+	/** How the threads use the manager */
+	private final Mode mode;
+	/** Number of threads */
+	private final int threads;
+	/** Latency of each kind of request, in nanoseconds */
+	private final LatencyHistogram[] latencies;
+	/** Number of requests of each kind with each result */
+	private final LongAdder[][] results;
+	/** Held by the thread whose student is the manager's logged in user, in SINGLE_USER mode */
+	private final ReentrantLock singleUser = new ReentrantLock(true);
+	/** Nanoseconds the last replay took */
+	private long elapsedNanos;
+
+	/**
+	 * Creates a simulator.
+	 * @param manager the manager requests are made to
+	 * @param mode how the threads use the manager
+	 * @param threads the number of threads
+	 * @throws IllegalArgumentException if manager or mode is null or threads is less than 1
+	 */
+	public RegistrationLoadSimulator(RegistrationManager manager, Mode mode, int threads) {
+		if (manager == null || mode == null || threads < 1) {
+			throw new IllegalArgumentException("Invalid simulation.");
+		}
+		this.manager = manager;
+		this.mode = mode;
+		this.threads = threads;
+		this.latencies = new LatencyHistogram[Request.values().length];
+		this.results = new LongAdder[Request.values().length][Result.values().length];
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = new LatencyHistogram();
+			for (int j = 0; j < results[i].length; j++) {
+				results[i][j] = new LongAdder();
+			}
+		}
+	}
+
+	/**
+	 * Loads a generated term and replays its trace.
+	 * @param args the term directory, and optionally the threads, the mode, and the seconds
+	 * @throws Exception if the term cannot be read or the replay fails
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("Usage: RegistrationLoadSimulator directory [threads [SESSIONS|SINGLE_USER [seconds]]]");
+			System.exit(1);
+		}
+		String directory = args[0];
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+		Mode mode = args.length > 2 ? Mode.valueOf(args[2]) : Mode.SESSIONS;
+		long seconds = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+		RegistrationManager manager = RegistrationManager.getInstance();
+		manager.logout();
+		manager.clearData();
+		manager.getStudentDirectory().loadStudentsFromFile(Paths.get(directory, TermDataGenerator.STUDENT_FILE).toString());
+		manager.getCourseCatalog().loadCoursesFromFile(Paths.get(directory, TermDataGenerator.COURSE_FILE).toString());
+		RegistrationLoadSimulator simulator = new RegistrationLoadSimulator(manager, mode, threads);
+		try (BufferedReader trace = Files.newBufferedReader(Paths.get(directory, TermDataGenerator.TRACE_FILE),
+				StandardCharsets.UTF_8)) {
+			simulator.replay(trace, seconds * 1000000000L);
+		}
+		simulator.printReport(System.out);
+	}
+
+	/**
+	 * Replays a trace. This thread reads the sessions and hands them to the worker threads, and returns
+	 * when every session handed out is done.
+	 * @param trace the trace
+	 * @param maxNanos nanoseconds after which no more sessions are started, or 0 for no limit
+	 * @throws IOException if the trace cannot be read
+	 * @throws InterruptedException if interrupted while waiting for the workers
+	 * @throws IllegalArgumentException if the trace has an invalid line
+	 */
+	public void replay(BufferedReader trace, long maxNanos) throws IOException, InterruptedException {
+		BlockingQueue<List<String[]>> sessions = new ArrayBlockingQueue<List<String[]>>(threads * QUEUE_PER_THREAD);
+		Thread[] workers = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Thread(() -> work(sessions), "registration-load-" + i);
+		}
+		long start = System.nanoTime();
+		for (Thread w : workers) {
+			w.start();
+		}
+		try {
+			List<String[]> session = new ArrayList<String[]>();
+			String line;
+			while ((line = trace.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				String[] fields = parseLine(line);
+				if (Request.of(fields[0].charAt(0)) == Request.LOGIN && !session.isEmpty()) {
+					sessions.put(session);
+					session = new ArrayList<String[]>();
+					if (maxNanos > 0 && System.nanoTime() - start >= maxNanos) {
+						break;
+					}
+				}
+				session.add(fields);
+			}
+			if (!session.isEmpty() && (maxNanos == 0 || System.nanoTime() - start < maxNanos)) {
+				sessions.put(session);
+			}
+		} finally {
+			for (int i = 0; i < threads; i++) {
+				sessions.put(END);
+			}
+			for (Thread w : workers) {
+				w.join();
+			}
+			elapsedNanos = System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Splits a trace line into its fields and checks that it has the fields its kind of request needs:
+	 * a type and a student id, and a course name and section for an enroll or a drop. Lines are checked
+	 * here, before they are handed out, so a worker never reads a field a line does not have.
+	 * @param line the trace line
+	 * @return the fields of the line
+	 * @throws IllegalArgumentException if the line is invalid
+	 */
+	private static String[] parseLine(String line) {
+		String[] fields = line.split(",", -1);
+		if (fields[0].length() != 1) {
+			throw new IllegalArgumentException("Invalid trace line.");
+		}
+		Request request = Request.of(fields[0].charAt(0));
+		int expected = request == Request.ENROLL || request == Request.DROP ? 4 : 2;
+		if (fields.length != expected) {
+			throw new IllegalArgumentException("Invalid trace line.");
+		}
+		return fields;
+	}
+
+	/**
+	 * Plays sessions until the end mark. A session that throws is counted as an error and ended, and
+	 * the worker goes on to the next one, so the thread reading the trace never waits on a queue that
+	 * no worker is taking from.
+	 * @param sessions the sessions to play
+	 */
+	private void work(BlockingQueue<List<String[]>> sessions) {
+		try {
+			for (List<String[]> session = sessions.take(); session != END; session = sessions.take()) {
+				try {
+					if (mode == Mode.SESSIONS) {
+						playSession(session);
+					} else {
+						playSingleUser(session);
+					}
+				} catch (RuntimeException e) {
+					// Only the logout that ends every session runs outside the per-request checks
+					results[Request.LOGOUT.ordinal()][Result.ERROR.ordinal()].increment();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Plays a session with a session token. A request that throws an exception the manager does not
+	 * report is counted as an error and ends the session.
+	 * @param session the lines of the session
+	 */
+	private void playSession(List<String[]> session) {
+		String token = null;
+		Request request = null;
+		try {
+			for (String[] fields : session) {
+				request = Request.of(fields[0].charAt(0));
+				if (request == Request.LOGIN) {
+					long t = System.nanoTime();
+					try {
+						token = manager.openSession(fields[1], SyntheticData.PASSWORD);
+					} catch (IllegalArgumentException e) {
+						record(request, t, Result.ERROR);
+						return;
+					}
+					record(request, t, token != null ? Result.OK : Result.REJECTED);
+					if (token == null) {
+						return;
+					}
+				} else if (request == Request.LOGOUT) {
+					long t = System.nanoTime();
+					manager.closeSession(token);
+					token = null;
+					record(request, t, Result.OK);
+				} else {
+					String sessionToken = token;
+					play(request, fields, c -> manager.tryEnrollStudentInCourse(sessionToken, c),
+							c -> manager.dropStudentFromCourse(sessionToken, c),
+							() -> manager.resetSchedule(sessionToken));
+				}
+			}
+		} catch (RuntimeException e) {
+			results[request.ordinal()][Result.ERROR.ordinal()].increment();
+		} finally {
+			manager.closeSession(token);
+		}
+	}
+
+	/**
+	 * Plays a session as the manager's one logged in user, holding the single user lock from the
+	 * login to the logout. A request that throws an exception the manager does not report is counted
+	 * as an error and ends the session.
+	 * @param session the lines of the session
+	 */
+	private void playSingleUser(List<String[]> session) {
+		boolean locked = false;
+		Request request = null;
+		try {
+			for (String[] fields : session) {
+				request = Request.of(fields[0].charAt(0));
+				if (request == Request.LOGIN) {
+					long t = System.nanoTime();
+					singleUser.lock();
+					locked = true;
+					boolean in;
+					try {
+						in = manager.login(fields[1], SyntheticData.PASSWORD);
+					} catch (IllegalArgumentException e) {
+						record(request, t, Result.ERROR);
+						return;
+					}
+					record(request, t, in ? Result.OK : Result.REJECTED);
+					if (!in) {
+						return;
+					}
+				} else if (request == Request.LOGOUT) {
+					long t = System.nanoTime();
+					manager.logout();
+					record(request, t, Result.OK);
+				} else {
+					play(request, fields, manager::tryEnrollStudentInCourse, manager::dropStudentFromCourse,
+							manager::resetSchedule);
+				}
+			}
+		} catch (RuntimeException e) {
+			results[request.ordinal()][Result.ERROR.ordinal()].increment();
+		} finally {
+			if (locked) {
+				manager.logout();
+				singleUser.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Makes an enroll, drop, or reset request and records its latency and result.
+	 * @param request the kind of request
+	 * @param fields the fields of the trace line
+	 * @param enroll makes an enroll request
+	 * @param drop makes a drop request
+	 * @param reset makes a reset request
+	 */
+	private void play(Request request, String[] fields, EnrollRequest enroll, CourseRequest drop, Runnable reset) {
+		if (request == Request.RESET) {
+			long t = System.nanoTime();
+			try {
+				reset.run();
+				record(request, t, Result.OK);
+			} catch (IllegalArgumentException e) {
+				record(request, t, Result.ERROR);
+			}
+			return;
+		}
+		Course c = manager.getCourseCatalog().getCourseFromCatalog(fields[2], fields[3]);
+		if (c == null) {
+			results[request.ordinal()][Result.UNKNOWN_COURSE.ordinal()].increment();
+			return;
+		}
+		long t = System.nanoTime();
+		Result result;
+		try {
+			if (request == Request.ENROLL) {
+				result = resultOf(enroll.make(c));
+			} else {
+				result = drop.make(c) ? Result.OK : Result.REJECTED;
+			}
+		} catch (IllegalArgumentException e) {
+			result = Result.ERROR;
+		}
+		record(request, t, result);
+	}
+
+	/**
+	 * Returns the result of an enroll request that the manager reported.
+	 * @param enrollment the manager's result
+	 * @return the result
+	 */
+	private static Result resultOf(EnrollmentResult enrollment) {
+		switch (enrollment) {
+			case ENROLLED:
+				return Result.OK;
+			case COURSE_FULL:
+				return Result.FULL;
+			case DUPLICATE_COURSE:
+			case CONFLICT:
+				return Result.CONFLICT;
+			case CREDIT_LIMIT:
+				return Result.CREDITS;
+			default:
+				return Result.REJECTED;
+		}
+	}
+
+	/**
+	 * Records the latency of a request started at the given time, and its result.
+	 * @param request the kind of request
+	 * @param start the System.nanoTime when the request was made
+	 * @param result the result
+	 */
+	private void record(Request request, long start, Result result) {
+		latencies[request.ordinal()].record(System.nanoTime() - start);
+		results[request.ordinal()][result.ordinal()].increment();
+	}
+
+	/**
+	 * Returns the latencies of a kind of request in the last replay.
+	 * @param request the kind of request
+	 * @return the latencies in nanoseconds
+	 */
+	public LatencyHistogram getLatencies(Request request) {
+		return latencies[request.ordinal()];
+	}
+
+	/**
+	 * Returns the number of requests of a kind with a result in the last replay.
+	 * @param request the kind of request
+	 * @param result the result
+	 * @return the number of requests
+	 */
+	public long getCount(Request request, Result result) {
+		return results[request.ordinal()][result.ordinal()].sum();
+	}
+
+	/**
+	 * Prints the latency percentiles of each kind of request in microseconds, the throughput, and the
+	 * number of requests with each result.
+	 * @param out the stream to print to
+	 */
+	public void printReport(PrintStream out) {
+		out.println(String.format("%-8s %10s %10s %10s %10s %10s %10s", "Request", "Count", "p50 us", "p99 us",
+				"p999 us", "max us", "mean us"));
+		long requests = 0;
+		for (Request r : Request.values()) {
+			LatencyHistogram h = latencies[r.ordinal()];
+			requests += h.getCount();
+			out.println(String.format("%-8s %10d %10.1f %10.1f %10.1f %10.1f %10.1f", r, h.getCount(),
+					h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+					h.getValueAtPercentile(99.9) / 1000.0, h.getMax() / 1000.0, h.getMean() / 1000.0));
+		}
+		double seconds = elapsedNanos / 1e9;
+		out.println(String.format("%d requests in %.2f s with %d threads in %s mode: %.0f requests/s", requests,
+				seconds, threads, mode, seconds > 0 ? requests / seconds : 0));
+		for (Request r : Request.values()) {
+			StringBuilder sb = new StringBuilder(String.format("%-8s", r));
+			for (Result result : Result.values()) {
+				long n = getCount(r, result);
+				if (n > 0) {
+					sb.append(' ').append(result).append('=').append(n);
+				}
+			}
+			out.println(sb);
+		}
+	}
+
+	/**
+	 * Makes an enroll request.
+	 */
+	private interface EnrollRequest {
+
+		/**
+		 * Makes the request.
+		 * @param c the course
+		 * @return ENROLLED, or why the request did not enroll the student
+		 */
+		EnrollmentResult make(Course c);
+	}
+
+	/**
+	 * Makes a request about a course.
+	 */
+	private interface CourseRequest {
+
+		/**
+		 * Makes the request.
+		 * @param c the course
+		 * @return true if the request succeeded
+		 */
+		boolean make(Course c);
+	}
+}
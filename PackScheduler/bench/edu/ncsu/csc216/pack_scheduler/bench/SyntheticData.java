@@ -0,0 +1,339 @@
+package edu.ncsu.csc216.pack_scheduler.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Generates synthetic courses, students, and faculty members for benchmarks. The same seed always gives
+ * the same data. Students and faculty members are generated from their index alone, so any one of them
+ * can be made without making the ones before it. Courses are generated in one pass, department by
+ * department, and course i is taught by faculty member i / 3 unless that faculty member teaches fewer
+ * courses or the course would conflict with one they already teach, in which case it has no instructor.
+ * Every generated user has the password PASSWORD.
+ */
+public class SyntheticData {
+
+	/** Password of every generated user */
+	public static final String PASSWORD = "pw";
+	/** PASSWORD hashed the way the directories store it */
+	public static final String HASHED_PASSWORD = "MMlS+rEiw/l1nwKm2Vw3WLJGtP7iOZV7LU/uRuJhcMQ=";
+
+	/** Department codes used before generated codes */
+	private static final String[] DEPARTMENTS = { "ACC", "BIO", "BME", "CE", "CH", "CHE", "COM", "CSC", "E", "EA",
+			"EC", "ECE", "ENG", "FL", "GN", "HI", "HS", "IE", "MA", "MAE", "MB", "MSE", "MUS", "NE", "NR", "PHI",
+			"PS", "PSY", "PY", "SOC", "ST", "TE" };
+	/** Syllables that names are made of */
+	private static final String[] SYLLABLES = { "al", "an", "ar", "bel", "bro", "car", "da", "del", "el", "en",
+			"fa", "gar", "ha", "is", "jo", "ka", "la", "li", "lo", "ma", "mi", "na", "no", "or", "pe", "ra", "ri",
+			"ro", "sa", "se", "ta", "ti", "to", "va", "vi", "wen", "ya", "za" };
+	/** Words that course titles are made of */
+	private static final String[] TOPICS = { "Algorithms", "Analysis", "Biology", "Chemistry", "Circuits",
+			"Design", "Dynamics", "Economics", "Ethics", "Finance", "Geometry", "History", "Languages", "Logic",
+			"Materials", "Mechanics", "Methods", "Music", "Networks", "Optics", "Policy", "Programming",
+			"Statistics", "Systems", "Theory", "Writing" };
+	/** Words put in front of a course title */
+	private static final String[] LEVELS = { "Introduction to", "Foundations of", "Topics in", "Applied",
+			"Advanced", "Seminar in" };
+	/** Start times of 50 minute meetings on MWF, MW, or one day */
+	private static final int[] SHORT_STARTS = { 800, 910, 1020, 1130, 1240, 1350, 1500, 1610 };
+	/** Start times of 75 minute meetings on TH or MW */
+	private static final int[] LONG_STARTS = { 830, 1005, 1140, 1315, 1450, 1625, 1800 };
+	/** Enrollment caps of sections, from small seminars to large lectures */
+	private static final int[] CAPS = { 10, 15, 20, 24, 30, 35, 40, 48, 60, 80, 100, 150, 200, 250 };
+	/** Multiplier used to spread the seeds of consecutive indexes */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/** The seed of the data */
+	private final long seed;
+
+	/**
+	 * Creates a generator with the given seed.
+	 * @param seed the seed of the data
+	 */
+	public SyntheticData(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the given number of courses sorted by name and section.
+	 * @param count the number of courses
+	 * @return the sorted courses
+	 */
+	public List<Course> courses(int count) {
+		List<Course> courses = new ArrayList<Course>(count);
+		forEachCourse(count, courses::add);
+		courses.sort(null);
+		return courses;
+	}
+
+	/**
+	 * Generates the given number of courses and hands each one to the action in generation order, which
+	 * is sorted within a department. No two courses share a name and section.
+	 * @param count the number of courses
+	 * @param action the action to take for each course
+	 */
+	public void forEachCourse(int count, Consumer<Course> action) {
+		Random random = new Random(seed);
+		Course[] taught = new Course[3];
+		int made = 0;
+		for (int dept = 0; made < count; dept++) {
+			String code = departmentCode(dept);
+			for (int number = 100 + random.nextInt(10); number <= 899 && made < count; number += 1
+					+ random.nextInt(4)) {
+				String name = code + number;
+				String title = title(random, number);
+				int credits = credits(random);
+				int sections = sectionCount(random, number);
+				for (int s = 1; s <= sections && made < count; s++) {
+					Course course = section(random, made, name, title, s, credits);
+					int slot = made % 3;
+					taught[slot] = course;
+					Faculty instructor = facultyMember(made / 3);
+					if (slot < instructor.getMaxCourses() && !conflicts(taught, slot)) {
+						course.setInstructorId(instructor.getId());
+					} else {
+						taught[slot] = null;
+					}
+					action.accept(course);
+					made++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the given number of students sorted by last name, first name, and id, the order of a
+	 * StudentDirectory.
+	 * @param count the number of students
+	 * @return the sorted students
+	 */
+	public List<Student> students(int count) {
+		List<Student> students = new ArrayList<Student>(count);
+		for (int i = 0; i < count; i++) {
+			students.add(student(i));
+		}
+		students.sort(null);
+		return students;
+	}
+
+	/**
+	 * Returns the student with the given index. The student's id ends with the index, so no two indexes
+	 * give the same id.
+	 * @param index the index of the student
+	 * @return the student
+	 */
+	public Student student(int index) {
+		SplittableRandom random = random(1, index);
+		String first = name(random);
+		String last = name(random);
+		String id = userId(first, last) + index;
+		int p = random.nextInt(100);
+		int maxCredits = p < 70 ? 18 : p < 85 ? 15 : p < 95 ? 12 : 3 + random.nextInt(9);
+		return new Student(first, last, id, id + "@example.edu", HASHED_PASSWORD, maxCredits);
+	}
+
+	/**
+	 * Returns the given number of faculty members in index order.
+	 * @param count the number of faculty members
+	 * @return the faculty members
+	 */
+	public List<Faculty> faculty(int count) {
+		List<Faculty> faculty = new ArrayList<Faculty>(count);
+		for (int i = 0; i < count; i++) {
+			faculty.add(facultyMember(i));
+		}
+		return faculty;
+	}
+
+	/**
+	 * Returns the faculty member with the given index. The faculty member's id ends with the index and
+	 * an f, so it is never the id of a student or another faculty member.
+	 * @param index the index of the faculty member
+	 * @return the faculty member
+	 */
+	public Faculty facultyMember(int index) {
+		SplittableRandom random = random(2, index);
+		String first = name(random);
+		String last = name(random);
+		String id = userId(first, last) + index + "f";
+		int p = random.nextInt(100);
+		int maxCourses = p < 60 ? 3 : p < 90 ? 2 : 1;
+		return new Faculty(first, last, id, id + "@example.edu", HASHED_PASSWORD, maxCourses);
+	}
+
+	/**
+	 * Returns the department code with the given index: a listed code, or after those a generated code
+	 * of four letters.
+	 * @param index the index of the department
+	 * @return the department code
+	 */
+	private static String departmentCode(int index) {
+		if (index < DEPARTMENTS.length) {
+			return DEPARTMENTS[index];
+		}
+		int n = index - DEPARTMENTS.length;
+		char[] code = new char[4];
+		for (int i = 3; i >= 0; i--) {
+			code[i] = (char) ('A' + n % 26);
+			n /= 26;
+		}
+		return new String(code);
+	}
+
+	/**
+	 * Returns a course title.
+	 * @param random the source of randomness
+	 * @param number the course number
+	 * @return the title
+	 */
+	private static String title(Random random, int number) {
+		String topic = TOPICS[random.nextInt(TOPICS.length)];
+		if (number < 200) {
+			return LEVELS[0] + " " + topic;
+		}
+		return LEVELS[1 + random.nextInt(LEVELS.length - 1)] + " " + topic;
+	}
+
+	/**
+	 * Returns the credits of a course, usually 3.
+	 * @param random the source of randomness
+	 * @return the credits, from 1 to 5
+	 */
+	private static int credits(Random random) {
+		int p = random.nextInt(100);
+		return p < 60 ? 3 : p < 75 ? 4 : p < 85 ? 1 : p < 95 ? 2 : 5;
+	}
+
+	/**
+	 * Returns the number of sections of a course. Introductory courses have more sections.
+	 * @param random the source of randomness
+	 * @param number the course number
+	 * @return the number of sections, from 1 to 12
+	 */
+	private static int sectionCount(Random random, int number) {
+		if (number < 200) {
+			return 2 + random.nextInt(11);
+		}
+		if (number < 400) {
+			return 1 + random.nextInt(4);
+		}
+		return 1 + random.nextInt(2);
+	}
+
+	/**
+	 * Returns a section of a course. Courses taught by the same faculty member are put in different time
+	 * bands by their position: position 0 meets MWF or MW, position 1 meets TH, and position 2 meets on
+	 * one day or is arranged. A small share of each band is arranged.
+	 * @param random the source of randomness
+	 * @param index the index of the course
+	 * @param name the course name
+	 * @param title the course title
+	 * @param section the section number
+	 * @param credits the course credits
+	 * @return the section
+	 */
+	private static Course section(Random random, int index, String name, String title, int section,
+			int credits) {
+		String sectionNumber = String.format("%03d", section);
+		int cap = CAPS[random.nextInt(CAPS.length)];
+		if (random.nextInt(100) < 5) {
+			return new Course(name, title, sectionNumber, credits, null, cap, "A");
+		}
+		String days;
+		int start;
+		int length;
+		switch (index % 3) {
+		case 0:
+			if (random.nextBoolean()) {
+				days = "MWF";
+				start = SHORT_STARTS[random.nextInt(SHORT_STARTS.length)];
+				length = 50;
+			} else {
+				days = "MW";
+				start = LONG_STARTS[random.nextInt(LONG_STARTS.length)];
+				length = 75;
+			}
+			break;
+		case 1:
+			days = "TH";
+			start = LONG_STARTS[random.nextInt(LONG_STARTS.length)];
+			length = 75;
+			break;
+		default:
+			days = String.valueOf("MTWHF".charAt(random.nextInt(5)));
+			start = SHORT_STARTS[random.nextInt(SHORT_STARTS.length)];
+			length = 110;
+			break;
+		}
+		return new Course(name, title, sectionNumber, credits, null, cap, days, start, addMinutes(start, length));
+	}
+
+	/**
+	 * Returns true if the course at the given position conflicts with a course at an earlier position.
+	 * @param taught the courses of a faculty member by position, with null for untaught positions
+	 * @param slot the position of the course
+	 * @return true if the course conflicts
+	 */
+	private static boolean conflicts(Course[] taught, int slot) {
+		for (int i = 0; i < slot; i++) {
+			if (taught[i] != null && taught[i].conflictsWith(taught[slot])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds minutes to a time of day.
+	 * @param time the time in hhmm form
+	 * @param minutes the minutes to add
+	 * @return the later time in hhmm form
+	 */
+	private static int addMinutes(int time, int minutes) {
+		int total = time / 100 * 60 + time % 100 + minutes;
+		return total / 60 * 100 + total % 60;
+	}
+
+	/**
+	 * Returns a capitalized name of two or three syllables.
+	 * @param random the source of randomness
+	 * @return the name
+	 */
+	private static String name(SplittableRandom random) {
+		StringBuilder sb = new StringBuilder();
+		int syllables = 2 + random.nextInt(2);
+		for (int i = 0; i < syllables; i++) {
+			sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the start of a user id: the first initial and up to six letters of the last name.
+	 * @param first the first name
+	 * @param last the last name
+	 * @return the start of the user id
+	 */
+	private static String userId(String first, String last) {
+		return (first.charAt(0) + last.substring(0, Math.min(6, last.length()))).toLowerCase();
+	}
+
+	/**
+	 * Returns a source of randomness for one generated item, such as a user. Each kind of item has its
+	 * own sequence of sources.
+	 * @param kind the kind of item
+	 * @param index the index of the item
+	 * @return the source of randomness
+	 */
+	SplittableRandom random(int kind, int index) {
+		return new SplittableRandom(seed ^ (kind * GOLDEN_GAMMA) ^ ((index + 1L) * GOLDEN_GAMMA * 31));
+	}
+}
@@ -0,0 +1,342 @@
+package edu.ncsu.csc216.pack_scheduler.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Writes the data of a synthetic term: course, student, and faculty record files in the formats
+ * CourseRecordIO, StudentRecordIO, and FacultyRecordIO read, and a trace of enrollment requests. The
+ * records come from SyntheticData, so the same seed always writes the same files, and every record is
+ * written as soon as it is made, so a term of millions of students needs little memory. A course record
+ * with no instructor names the instructor null, as CourseRecordIO writes it.
+ * <p>
+ * The trace is a text file with one request per line, each starting with a request type and the id
+ * of the student making it:
+ * <ul>
+ * <li>{@code L,id} logs the student in with SyntheticData.PASSWORD</li>
+ * <li>{@code E,id,name,section} enrolls the student in a course</li>
+ * <li>{@code D,id,name,section} drops a course</li>
+ * <li>{@code R,id} resets the student's schedule</li>
+ * <li>{@code O,id} logs the student out</li>
+ * </ul>
+ * Each session is written as a block of lines from a login to a logout. Students arrive in a scrambled
+ * order and each first tries to enroll in three to six sections, sometimes drops one, and now and then
+ * resets their schedule and starts over. A quarter of the students then come back in a second round,
+ * after every first session, to drop a section from their first session and try one or two others. The
+ * sections are picked at random, so introductory courses, which have the most sections, are picked
+ * most, and many requests are rejected for conflicts and full courses as in a real registration period.
+ * <p>
+ * Run with an output directory, a number of students, and optionally a number of courses (default one
+ * for every six students, at least 100), a number of faculty members (default enough to teach every
+ * course), and a seed (default 217).
+ */
+public class TermDataGenerator {
+
+	/** Name of the course record file */
+	public static final String COURSE_FILE = "course_records.txt";
+	/** Name of the student record file */
+	public static final String STUDENT_FILE = "student_records.txt";
+	/** Name of the faculty record file */
+	public static final String FACULTY_FILE = "faculty_records.txt";
+	/** Name of the enrollment trace file */
+	public static final String TRACE_FILE = "enrollment_trace.txt";
+
+	/** Trace request that logs a student in */
+	public static final char LOGIN = 'L';
+	/** Trace request that enrolls a student in a course */
+	public static final char ENROLL = 'E';
+	/** Trace request that drops a course */
+	public static final char DROP = 'D';
+	/** Trace request that resets a student's schedule */
+	public static final char RESET = 'R';
+	/** Trace request that logs a student out */
+	public static final char LOGOUT = 'O';
+
+	/** Kind of randomness of a student's first session */
+	private static final int FIRST_SESSION = 3;
+	/** Kind of randomness of a student's second session */
+	private static final int SECOND_SESSION = 4;
+	/** Kind of randomness of the requests of a student's first session other than its enrollments */
+	private static final int FIRST_SESSION_EXTRAS = 5;
+	/** Percent of students with a second session */
+	private static final int RETURN_PERCENT = 25;
+
+	/** The generator the records come from */
+	private final SyntheticData data;
+	/** The seed of the data */
+	private final long seed;
+
+	/**
+	 * Creates a generator with the given seed.
+	 * @param seed the seed of the data
+	 */
+	public TermDataGenerator(long seed) {
+		this.data = new SyntheticData(seed);
+		this.seed = seed;
+	}
+
+	/**
+	 * Writes a term to a directory.
+	 * @param args the directory, the number of students, and optionally the number of courses, the
+	 *             number of faculty members, and the seed
+	 * @throws IOException if a file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: TermDataGenerator directory students [courses [faculty [seed]]]");
+			System.exit(1);
+		}
+		int students = Integer.parseInt(args[1]);
+		int courses = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(100, students / 6);
+		int faculty = args.length > 3 ? Integer.parseInt(args[3]) : (courses + 2) / 3;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 217;
+		new TermDataGenerator(seed).writeTerm(args[0], students, courses, faculty);
+	}
+
+	/**
+	 * Writes the record files and the trace of a term to a directory, which is created if needed.
+	 * @param directory the directory
+	 * @param students the number of students
+	 * @param courses the number of courses
+	 * @param faculty the number of faculty members
+	 * @throws IOException if a file cannot be written
+	 * @throws IllegalArgumentException if a count is negative, or there are students but no courses
+	 */
+	public void writeTerm(String directory, int students, int courses, int faculty) throws IOException {
+		if (students < 0 || courses < 0 || faculty < 0 || (students > 0 && courses == 0)) {
+			throw new IllegalArgumentException("Invalid term size.");
+		}
+		new File(directory).mkdirs();
+		try (Writer out = open(directory, COURSE_FILE)) {
+			writeCourseRecords(out, courses);
+		}
+		try (Writer out = open(directory, STUDENT_FILE)) {
+			writeStudentRecords(out, students);
+		}
+		try (Writer out = open(directory, FACULTY_FILE)) {
+			writeFacultyRecords(out, faculty);
+		}
+		try (Writer out = open(directory, TRACE_FILE)) {
+			writeEnrollmentTrace(out, students, courses);
+		}
+	}
+
+	/**
+	 * Writes the records of the given number of courses, in generation order.
+	 * @param out the writer to write to
+	 * @param courses the number of courses
+	 * @throws IOException if the records cannot be written
+	 */
+	public void writeCourseRecords(Writer out, int courses) throws IOException {
+		StringBuilder line = new StringBuilder();
+		IOException[] failure = new IOException[1];
+		data.forEachCourse(courses, c -> {
+			if (failure[0] != null) {
+				return;
+			}
+			line.setLength(0);
+			line.append(c.getName()).append(',').append(c.getTitle()).append(',').append(c.getSection())
+					.append(',').append(c.getCredits()).append(',').append(c.getInstructorId()).append(',')
+					.append(c.getCourseRoll().getEnrollmentCap()).append(',').append(c.getMeetingDays());
+			if (!"A".equals(c.getMeetingDays())) {
+				line.append(',').append(time(c.getStartTime())).append(',').append(time(c.getEndTime()));
+			}
+			line.append('\n');
+			try {
+				out.write(line.toString());
+			} catch (IOException e) {
+				failure[0] = e;
+			}
+		});
+		if (failure[0] != null) {
+			throw failure[0];
+		}
+	}
+
+	/**
+	 * Writes the records of the given number of students, in index order.
+	 * @param out the writer to write to
+	 * @param students the number of students
+	 * @throws IOException if the records cannot be written
+	 */
+	public void writeStudentRecords(Writer out, int students) throws IOException {
+		for (int i = 0; i < students; i++) {
+			out.write(data.student(i).toString());
+			out.write('\n');
+		}
+	}
+
+	/**
+	 * Writes the records of the given number of faculty members, in index order.
+	 * @param out the writer to write to
+	 * @param faculty the number of faculty members
+	 * @throws IOException if the records cannot be written
+	 */
+	public void writeFacultyRecords(Writer out, int faculty) throws IOException {
+		for (int i = 0; i < faculty; i++) {
+			out.write(data.facultyMember(i).toString());
+			out.write('\n');
+		}
+	}
+
+	/**
+	 * Writes the enrollment trace of the given number of students registering for sections of the given
+	 * number of courses, which are the courses writeCourseRecords writes.
+	 * @param out the writer to write to
+	 * @param students the number of students
+	 * @param courses the number of courses
+	 * @throws IOException if the trace cannot be written
+	 * @throws IllegalArgumentException if there are students but no courses
+	 */
+	public void writeEnrollmentTrace(Writer out, int students, int courses) throws IOException {
+		if (students > 0 && courses <= 0) {
+			throw new IllegalArgumentException("Invalid term size.");
+		}
+		List<String> sections = new ArrayList<String>(courses);
+		data.forEachCourse(courses, c -> sections.add(sectionKey(c)));
+		StringBuilder session = new StringBuilder();
+		List<String> chosen = new ArrayList<String>();
+		long step = arrivalStep(students);
+		long offset = students == 0 ? 0 : Math.floorMod(seed, (long) students);
+		for (int j = 0; j < students; j++) {
+			int i = (int) ((offset + j * step) % students);
+			String id = data.student(i).getId();
+			firstChoices(i, sections, chosen);
+			SplittableRandom random = data.random(FIRST_SESSION_EXTRAS, i);
+			session.setLength(0);
+			request(session, LOGIN, id, null);
+			if (random.nextInt(100) < 3) {
+				request(session, ENROLL, id, chosen.get(0));
+				request(session, RESET, id, null);
+			}
+			for (String section : chosen) {
+				request(session, ENROLL, id, section);
+			}
+			if (random.nextInt(100) < 10) {
+				request(session, DROP, id, chosen.get(random.nextInt(chosen.size())));
+			}
+			request(session, LOGOUT, id, null);
+			out.write(session.toString());
+		}
+		for (int j = 0; j < students; j++) {
+			int i = (int) ((offset + j * step) % students);
+			SplittableRandom random = data.random(SECOND_SESSION, i);
+			if (random.nextInt(100) >= RETURN_PERCENT) {
+				continue;
+			}
+			String id = data.student(i).getId();
+			firstChoices(i, sections, chosen);
+			session.setLength(0);
+			request(session, LOGIN, id, null);
+			request(session, DROP, id, chosen.get(random.nextInt(chosen.size())));
+			int adds = 1 + random.nextInt(2);
+			for (int k = 0; k < adds; k++) {
+				request(session, ENROLL, id, sections.get(random.nextInt(sections.size())));
+			}
+			request(session, LOGOUT, id, null);
+			out.write(session.toString());
+		}
+	}
+
+	/**
+	 * Puts the sections a student tries to enroll in during their first session in chosen. The choice
+	 * depends only on the seed and the student, so the second session can drop one of them.
+	 * @param student the index of the student
+	 * @param sections the name and section of every course, joined by a comma
+	 * @param chosen the list to fill, which is cleared first
+	 */
+	private void firstChoices(int student, List<String> sections, List<String> chosen) {
+		SplittableRandom random = data.random(FIRST_SESSION, student);
+		int wanted = 3 + random.nextInt(4);
+		chosen.clear();
+		for (int k = 0; k < wanted; k++) {
+			chosen.add(sections.get(random.nextInt(sections.size())));
+		}
+	}
+
+	/**
+	 * Returns a step that visits every index below students once when added repeatedly modulo
+	 * students, so students arrive in a scrambled order without keeping a permutation in memory.
+	 * @param students the number of students
+	 * @return a step coprime to students
+	 */
+	private long arrivalStep(int students) {
+		if (students < 2) {
+			return 1;
+		}
+		long step = (long) (students * 0.6180339887) | 1;
+		while (gcd(step, students) != 1) {
+			step += 2;
+		}
+		return step % students;
+	}
+
+	/**
+	 * Returns the greatest common divisor of two numbers.
+	 * @param a a positive number
+	 * @param b a positive number
+	 * @return their greatest common divisor
+	 */
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/**
+	 * Appends a request line to a session.
+	 * @param session the session
+	 * @param type the request type
+	 * @param id the id of the student
+	 * @param section the name and section of the course joined by a comma, or null for requests
+	 *                without a course
+	 */
+	private static void request(StringBuilder session, char type, String id, String section) {
+		session.append(type).append(',').append(id);
+		if (section != null) {
+			session.append(',').append(section);
+		}
+		session.append('\n');
+	}
+
+	/**
+	 * Returns a time of day as four digits, the way the course record files write them.
+	 * @param time the time in hhmm form
+	 * @return the time with leading zeros
+	 */
+	private static String time(int time) {
+		return String.format("%04d", time);
+	}
+
+	/**
+	 * Opens a file in a directory for writing, replacing any file of the same name.
+	 * @param directory the directory
+	 * @param name the name of the file
+	 * @return a buffered writer to the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	private static Writer open(String directory, String name) throws IOException {
+		return Files.newBufferedWriter(Paths.get(directory, name), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns a course's name and section joined by a comma, the way they appear in the trace.
+	 * @param course the course
+	 * @return the name and section
+	 */
+	private static String sectionKey(Course course) {
+		return course.getName() + "," + course.getSection();
+	}
+}
@@ -0,0 +1,121 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Which sections of a catalog conflict with which, kept as one BitSet row per section. Each Course
+ * is given a slot number when it is added, and bit j of a Course's row is set when the Course
+ * conflicts with the Course in slot j. Conflicts are symmetric, so adding a Course checks it once
+ * against each other Course and sets a bit in both rows, and removing a Course clears its bit in
+ * the rows of the Courses it conflicted with. Slots of removed Courses are reused.
+ *
+ * The sections that conflict with a set of Courses are the OR of their rows. A Course with meeting
+ * times conflicts with itself, so its own bit is set in its row.
+ */
+class ConflictMatrix {
+
+	/** Initial number of slots */
+	private static final int INITIAL_SLOTS = 16;
+
+	/** Slot of each Course in the matrix */
+	private final IdentityHashMap<Course, Integer> slots = new IdentityHashMap<Course, Integer>();
+	/** Course in each slot, or null if the slot is free */
+	private Course[] courses = new Course[INITIAL_SLOTS];
+	/** Conflict row of each slot, or null if the slot is free */
+	private BitSet[] rows = new BitSet[INITIAL_SLOTS];
+	/** Slots that hold a Course */
+	private final BitSet used = new BitSet();
+
+	/**
+	 * Creates a matrix of the conflicts between the given Courses.
+	 * @param catalog the Courses
+	 */
+	ConflictMatrix(Iterable<Course> catalog) {
+		for (Course c : catalog) {
+			add(c);
+		}
+	}
+
+	/**
+	 * Adds a Course to the matrix, checking it for conflicts with every Course already in it.
+	 * Adding a Course that is already in the matrix does nothing.
+	 * @param course the Course to add
+	 */
+	void add(Course course) {
+		if (slots.containsKey(course)) {
+			return;
+		}
+		int slot = used.nextClearBit(0);
+		if (slot == courses.length) {
+			Course[] newCourses = new Course[courses.length * 2];
+			System.arraycopy(courses, 0, newCourses, 0, courses.length);
+			courses = newCourses;
+			BitSet[] newRows = new BitSet[rows.length * 2];
+			System.arraycopy(rows, 0, newRows, 0, rows.length);
+			rows = newRows;
+		}
+		BitSet row = new BitSet();
+		for (int j = used.nextSetBit(0); j >= 0; j = used.nextSetBit(j + 1)) {
+			if (courses[j].conflictsWith(course)) {
+				row.set(j);
+				rows[j].set(slot);
+			}
+		}
+		if (course.conflictsWith(course)) {
+			row.set(slot);
+		}
+		courses[slot] = course;
+		rows[slot] = row;
+		used.set(slot);
+		slots.put(course, slot);
+	}
+
+	/**
+	 * Removes a Course from the matrix. Removing a Course that is not in the matrix does nothing.
+	 * @param course the Course to remove
+	 */
+	void remove(Course course) {
+		Integer slot = slots.remove(course);
+		if (slot == null) {
+			return;
+		}
+		BitSet row = rows[slot];
+		for (int j = row.nextSetBit(0); j >= 0; j = row.nextSetBit(j + 1)) {
+			rows[j].clear(slot);
+		}
+		courses[slot] = null;
+		rows[slot] = null;
+		used.clear(slot);
+	}
+
+	/**
+	 * Returns the slots of the Courses that conflict with any of the given Courses. Courses that are
+	 * not in the matrix are ignored.
+	 * @param scheduled the Courses to find conflicts with
+	 * @return the slots of the conflicting Courses
+	 */
+	BitSet conflictsWith(Iterable<Course> scheduled) {
+		BitSet conflicts = new BitSet();
+		for (Course c : scheduled) {
+			Integer slot = slots.get(c);
+			if (slot != null) {
+				conflicts.or(rows[slot]);
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Returns true if a Course is in the given set of slots.
+	 * @param set the slots
+	 * @param course the Course
+	 * @return true if the Course is in the matrix and its slot is in the set
+	 */
+	boolean contains(BitSet set, Course course) {
+		Integer slot = slots.get(course);
+		return slot != null && set.get(slot);
+	}
+}
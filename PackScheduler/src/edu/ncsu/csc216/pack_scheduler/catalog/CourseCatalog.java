@@ -2,34 +2,49 @@ package edu.ncsu.csc216.pack_scheduler.catalog;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import edu.ncsu.csc217.collections.list.SortedList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
 import edu.ncsu.csc216.pack_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
 
 /**
- * CourseCatalog class uses a SortedList of courses that make up 
+ * CourseCatalog class uses a sorted list of courses that make up 
  * the catalog it can make a new catalog, load courses from a file, 
  * add courses to catalog, remove and get courses from catalog,and get and save the course catalog.
+ * Courses are also indexed by name and section so that lookups do not have to scan the sorted list.
+ * The first time conflicts with a schedule are asked for, a matrix of which sections conflict is
+ * built, and it is kept up to date as Courses are added and removed.
  * @author Dreese Abdelilah
  */
 public class CourseCatalog {
-    /** The catalog that Courses are stored in. */
-    private SortedList<Course> catalog;
+    /** The catalog that Courses are stored in, kept sorted by name and section. */
+    private ArrayList<Course> catalog;
+    /** Index of the Courses in the catalog keyed on name and section. */
+    private HashMap<String, Course> index;
+    /** Which Courses in the catalog conflict, or null if it has not been built. */
+    private ConflictMatrix conflicts;
 
     /**
      * Course Catalog constructor that constructs an empty catalog
      */
     public CourseCatalog() {
-        catalog = new SortedList<>();
-        
+        newCourseCatalog();
     }
 
     /**
      * newCourseCatalog constructs an empty catalog
      */
     public void newCourseCatalog() {
-        catalog = new SortedList<>();
+        catalog = new ArrayList<>();
+        index = new HashMap<>();
+        conflicts = null;
     }
 
     /**
@@ -40,7 +55,8 @@ public class CourseCatalog {
      */
     public void loadCoursesFromFile(String fileName) {
         try {
-            this.catalog = CourseRecordIO.readCourseRecords(fileName);
+            this.catalog = new ArrayList<>(CourseRecordIO.streamCourseRecords(fileName));
+            rebuildIndex();
         } catch (FileNotFoundException e) {
             throw new IllegalArgumentException("Invalid file name.");
         }
@@ -68,14 +84,16 @@ public class CourseCatalog {
         // let any exceptions propagate up to the user
         course = new Course(name, title, section, credits, instructorId, enrollmentCap, meetingDays, startTime, endTime);
 
-        for (int i = 0; i < catalog.size(); i++) {
-            Course c1 = catalog.get(i);
-
-            if (c1.compareTo(course) == 0) {
-                return false;
-            }
+        String key = indexKey(name, section);
+        if (index.containsKey(key)) {
+            return false;
+        }
+        int insertionPoint = Collections.binarySearch(catalog, course);
+        catalog.add(-(insertionPoint + 1), course);
+        index.put(key, course);
+        if (conflicts != null) {
+            conflicts.add(course);
         }
-        catalog.add(course);
         return true;
     }
 
@@ -86,15 +104,15 @@ public class CourseCatalog {
      * @return true if the course is removed and false if the course is not in the catalog
      */
     public boolean removeCourseFromCatalog(String name, String section) {
-        for(int i = 0; i < catalog.size(); i++) {
-            Course course = catalog.get(i);
-
-            if(course.getName().equals(name) && course.getSection().equals(section)) {
-                catalog.remove(i);
-                return true;
-            }
+        Course course = index.remove(indexKey(name, section));
+        if (course == null) {
+            return false;
         }
-        return false;
+        catalog.remove(Collections.binarySearch(catalog, course));
+        if (conflicts != null) {
+            conflicts.remove(course);
+        }
+        return true;
     }
 
     /**
@@ -107,12 +125,7 @@ public class CourseCatalog {
      * @return Course or null
      */
     public Course getCourseFromCatalog(String name, String section) {
-        for (int i = 0; i < catalog.size(); i++) {
-            if (catalog.get(i).getName().equals(name) && catalog.get(i).getSection().equals(section)) {
-                return catalog.get(i);
-            }
-        }
-        return null;
+        return index.get(indexKey(name, section));
     }
 
     /**
@@ -129,6 +142,116 @@ public class CourseCatalog {
         return catalogArray;
     }
 
+    /**
+     * Returns the Courses in the catalog sorted by name and section. The returned list cannot be modified.
+     * @return the Courses in the catalog
+     */
+    public List<Course> getCourses() {
+        return Collections.unmodifiableList(catalog);
+    }
+
+    /**
+     * Replaces the Courses in the catalog with the given Courses, such as Courses restored from a saved
+     * snapshot of a catalog. The Courses must already be sorted by name and section with no two sharing a
+     * name and section; they are not sorted or checked for duplicates again.
+     * @param courses the sorted Courses to put in the catalog
+     */
+    public void restoreCourses(List<Course> courses) {
+        catalog = new ArrayList<>(courses);
+        rebuildIndex();
+    }
+
+    /**
+     * Returns the name, section, title, and meeting information of the courses in the catalog that
+     * conflict with a course in the student's schedule, in catalog order. The courses in the schedule
+     * are included, since each conflicts with itself unless its meeting days are arranged. Courses in
+     * the schedule that are not in the catalog are ignored.
+     * 
+     * @param student the student whose schedule is checked
+     * @return a 2D string array of the conflicting courses' name, section, title, and meeting information
+     * @throws IllegalArgumentException if student is null
+     */
+    public String[][] getConflictingCourses(Student student) {
+        if (student == null) {
+            throw new IllegalArgumentException("Invalid student.");
+        }
+        ConflictMatrix matrix = getConflictMatrix();
+        BitSet conflicting = matrix.conflictsWith(getScheduledCourses(student));
+        ArrayList<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            Course c = catalog.get(i);
+            if (matrix.contains(conflicting, c)) {
+                rows.add(c.getShortDisplayArray());
+            }
+        }
+        return rows.toArray(new String[rows.size()][]);
+    }
+
+    /**
+     * Returns the name, section, title, and meeting information of the courses in the catalog that the
+     * student can add, in catalog order. A course can be added if the student is not enrolled in a
+     * course with the same name, it does not conflict with a course in the student's schedule, its
+     * credits fit within the student's maximum credits, and it has an open seat or room on its wait
+     * list. The courses are found in one pass over the catalog using the conflict matrix and the
+     * names in the schedule, rather than checking each course against each scheduled course. Courses in
+     * the schedule that are not in the catalog are not checked for conflicts.
+     * 
+     * @param student the student whose schedule is checked
+     * @return a 2D string array of the addable courses' name, section, title, and meeting information
+     * @throws IllegalArgumentException if student is null
+     */
+    public String[][] getAddableCourses(Student student) {
+        if (student == null) {
+            throw new IllegalArgumentException("Invalid student.");
+        }
+        ConflictMatrix matrix = getConflictMatrix();
+        String[][] scheduled = student.getSchedule().getScheduledCourses();
+        HashSet<String> names = new HashSet<>();
+        for (String[] course : scheduled) {
+            names.add(course[0]);
+        }
+        BitSet conflicting = matrix.conflictsWith(getScheduledCourses(student));
+        int creditsLeft = student.getMaxCredits() - student.getSchedule().getScheduleCredits();
+        ArrayList<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            Course c = catalog.get(i);
+            CourseRoll roll = c.getCourseRoll();
+            if (c.getCredits() <= creditsLeft && !names.contains(c.getName()) && !matrix.contains(conflicting, c)
+                    && (roll.getOpenSeats() > 0 || !roll.isWaitlistFull())) {
+                rows.add(c.getShortDisplayArray());
+            }
+        }
+        return rows.toArray(new String[rows.size()][]);
+    }
+
+    /**
+     * Returns the matrix of conflicts between Courses in the catalog, building it if it has not been built.
+     * @return the conflict matrix
+     */
+    private ConflictMatrix getConflictMatrix() {
+        if (conflicts == null) {
+            conflicts = new ConflictMatrix(catalog);
+        }
+        return conflicts;
+    }
+
+    /**
+     * Returns the Courses in the catalog that are in the student's schedule.
+     * @param student the student
+     * @return the scheduled Courses that are in the catalog
+     */
+    private List<Course> getScheduledCourses(Student student) {
+        String[][] scheduled = student.getSchedule().getScheduledCourses();
+        List<Course> courses = new ArrayList<>(scheduled.length);
+        for (String[] course : scheduled) {
+            Course c = getCourseFromCatalog(course[0], course[1]);
+            if (c != null) {
+                courses.add(c);
+            }
+        }
+        return courses;
+    }
+
     /**
      * saveCourseCatalog saves the catalog course records to the given file and any IOExceptions are caught and an 
      * IllegalArgumentException is thrown to the client
@@ -144,4 +267,28 @@ public class CourseCatalog {
         }
     }
 
+    /**
+     * Rebuilds the name and section index from the Courses currently in the catalog. The conflict
+     * matrix is dropped and built again the next time it is needed.
+     */
+    private void rebuildIndex() {
+        conflicts = null;
+        index = new HashMap<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            Course c = catalog.get(i);
+            index.put(indexKey(c.getName(), c.getSection()), c);
+        }
+    }
+
+    /**
+     * Returns the key used to index a Course by its name and section. Names and sections
+     * never contain commas, so joining them with one keeps keys unique.
+     * @param name Course name
+     * @param section Course section
+     * @return the index key for the name and section
+     */
+    private static String indexKey(String name, String section) {
+        return name + "," + section;
+    }
+
 }
@@ -0,0 +1,517 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Builds conflict-free schedules for a student from a list of wanted course names. For each wanted
+ * name the candidates are the catalog sections of that course with an open seat that do not
+ * conflict with the student's current schedule. The builder then searches for the best ways to
+ * choose at most one section of each course so that no two chosen sections conflict and their
+ * credits fit within what the student has left of their maximum credits.
+ *
+ * The search is a backtracking search over the wanted courses, fewest candidate sections first. Each
+ * candidate has a bit mask of the candidates it conflicts with, computed once with
+ * Activity.conflictsWith, so a section is checked against everything chosen so far with a few AND
+ * operations. Branches that cannot place enough courses to beat the options already found are cut.
+ * The first levels of the search tree are split into tasks on a fork-join pool, and the search stops
+ * when the time limit runs out, returning the best options found so far.
+ *
+ * Options are ranked by ScheduleOption.compareRank, so options that place every wanted course come
+ * before options that leave some out.
+ */
+public class ScheduleBuilder {
+
+	/** Levels of the search tree that are split into parallel tasks */
+	private static final int PARALLEL_DEPTH = 2;
+	/** Number of search nodes between checks of the time limit */
+	private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+	/** The catalog the sections come from */
+	private final CourseCatalog catalog;
+	/** The pool the search runs on */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a builder for the given catalog that searches on the common fork-join pool.
+	 * @param catalog the catalog the sections come from
+	 * @throws IllegalArgumentException if catalog is null
+	 */
+	public ScheduleBuilder(CourseCatalog catalog) {
+		this(catalog, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a builder for the given catalog that searches on the given pool.
+	 * @param catalog the catalog the sections come from
+	 * @param pool the pool the search runs on
+	 * @throws IllegalArgumentException if catalog or pool is null
+	 */
+	public ScheduleBuilder(CourseCatalog catalog, ForkJoinPool pool) {
+		if (catalog == null || pool == null) {
+			throw new IllegalArgumentException("Invalid schedule builder.");
+		}
+		this.catalog = catalog;
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the best conflict-free choices of sections of the wanted courses for the student, best
+	 * first. Courses the student is already enrolled in and names that are not in the catalog are
+	 * left out of every option. The catalog and the rolls should not change while the search runs.
+	 * @param student the student the schedules are for
+	 * @param courseNames names of the wanted courses
+	 * @param maxOptions the most options to return
+	 * @param timeLimitMillis how long the search may run, in milliseconds
+	 * @return up to maxOptions options, best first, or an empty list if no wanted section can be added
+	 * @throws IllegalArgumentException if student or courseNames is null, maxOptions is less than 1,
+	 *                                  or timeLimitMillis is negative
+	 */
+	public List<ScheduleOption> buildSchedules(Student student, List<String> courseNames, int maxOptions,
+			long timeLimitMillis) {
+		if (student == null || courseNames == null || maxOptions < 1 || timeLimitMillis < 0) {
+			throw new IllegalArgumentException("Invalid schedule request.");
+		}
+		long deadline = System.nanoTime() + timeLimitMillis * 1000000L;
+		Search search = new Search(student, courseNames, maxOptions, deadline);
+		if (search.levels > 0) {
+			pool.invoke(new SearchTask(search, new State(search)));
+		}
+		return search.results.toList();
+	}
+
+	/**
+	 * The candidates and conflict masks of one search, shared by all of its tasks.
+	 */
+	private final class Search {
+
+		/** Number of wanted courses that have candidates */
+		private final int levels;
+		/** Candidate sections of each level */
+		private final Course[][] candidates;
+		/** Index, in the wanted names, of the course of each level */
+		private final int[] nameOrder;
+		/** Conflict mask of each candidate, by level and candidate, with one bit per candidate overall */
+		private final long[][][] conflictMasks;
+		/** Bit number of each candidate, by level and candidate */
+		private final int[][] bits;
+		/** Day mask of each candidate, by level and candidate */
+		private final int[][] dayMasks;
+		/** Credits the student has left */
+		private final int creditBudget;
+		/** Number of long words in a mask */
+		private final int words;
+		/** System.nanoTime() at which the search stops */
+		private final long deadline;
+		/** Whether the time limit has run out */
+		private volatile boolean expired;
+		/** The best options found */
+		private final TopOptions results;
+
+		/**
+		 * Finds the candidate sections of the wanted courses and computes their conflict masks.
+		 * @param student the student the schedules are for
+		 * @param courseNames names of the wanted courses
+		 * @param maxOptions the most options to keep
+		 * @param deadline System.nanoTime() at which the search stops
+		 */
+		Search(Student student, List<String> courseNames, int maxOptions, long deadline) {
+			this.deadline = deadline;
+			this.results = new TopOptions(maxOptions);
+			this.creditBudget = student.getMaxCredits() - student.getSchedule().getScheduleCredits();
+
+			String[][] scheduledArray = student.getSchedule().getScheduledCourses();
+			LinkedHashSet<String> scheduledNames = new LinkedHashSet<String>();
+			List<Course> scheduled = new ArrayList<Course>();
+			for (String[] s : scheduledArray) {
+				scheduledNames.add(s[0]);
+				Course c = catalog.getCourseFromCatalog(s[0], s[1]);
+				if (c != null) {
+					scheduled.add(c);
+				}
+			}
+
+			List<String> names = new ArrayList<String>(new LinkedHashSet<String>(courseNames));
+			List<Course[]> found = new ArrayList<Course[]>();
+			List<Integer> order = new ArrayList<Integer>();
+			for (int i = 0; i < names.size(); i++) {
+				String name = names.get(i);
+				if (name == null || scheduledNames.contains(name)) {
+					continue;
+				}
+				List<Course> sections = new ArrayList<Course>();
+				for (Course c : catalog.getCourses()) {
+					if (c.getName().equals(name) && c.getCourseRoll().getOpenSeats() > 0
+							&& c.getCredits() <= creditBudget && !conflictsWithAny(c, scheduled)) {
+						sections.add(c);
+					}
+				}
+				if (!sections.isEmpty()) {
+					sections.sort(Comparator.comparingInt((Course c) -> -c.getCourseRoll().getOpenSeats()));
+					found.add(sections.toArray(new Course[sections.size()]));
+					order.add(i);
+				}
+			}
+
+			Integer[] byCandidates = new Integer[found.size()];
+			for (int i = 0; i < byCandidates.length; i++) {
+				byCandidates[i] = i;
+			}
+			Arrays.sort(byCandidates, Comparator.comparingInt((Integer i) -> found.get(i).length));
+			levels = found.size();
+			candidates = new Course[levels][];
+			nameOrder = new int[levels];
+			for (int level = 0; level < levels; level++) {
+				candidates[level] = found.get(byCandidates[level]);
+				nameOrder[level] = order.get(byCandidates[level]);
+			}
+
+			int total = 0;
+			bits = new int[levels][];
+			dayMasks = new int[levels][];
+			for (int level = 0; level < levels; level++) {
+				bits[level] = new int[candidates[level].length];
+				dayMasks[level] = new int[candidates[level].length];
+				for (int i = 0; i < candidates[level].length; i++) {
+					bits[level][i] = total++;
+					dayMasks[level][i] = candidates[level][i].getDayMask();
+				}
+			}
+			words = (total + 63) / 64;
+			conflictMasks = new long[levels][][];
+			for (int level = 0; level < levels; level++) {
+				conflictMasks[level] = new long[candidates[level].length][words];
+				for (int i = 0; i < candidates[level].length; i++) {
+					Course c = candidates[level][i];
+					for (int otherLevel = 0; otherLevel < levels; otherLevel++) {
+						for (int j = 0; j < candidates[otherLevel].length; j++) {
+							if (otherLevel != level && c.conflictsWith(candidates[otherLevel][j])) {
+								int bit = bits[otherLevel][j];
+								conflictMasks[level][i][bit >>> 6] |= 1L << bit;
+							}
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Returns true if the time limit has run out, checking the clock only every
+		 * DEADLINE_CHECK_INTERVAL nodes.
+		 * @param state the state of the task asking
+		 * @return true if the search should stop
+		 */
+		boolean isExpired(State state) {
+			if (expired) {
+				return true;
+			}
+			if (++state.nodes % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+				expired = true;
+			}
+			return expired;
+		}
+
+		/**
+		 * Searches the subtree below the given state one level at a time, without forking.
+		 * @param state the state to search from, which is restored before returning
+		 */
+		void searchFrom(State state) {
+			if (isExpired(state)) {
+				return;
+			}
+			if (state.level == levels) {
+				if (state.placed > 0) {
+					results.offer(state.toOption(this));
+				}
+				return;
+			}
+			if (state.placed + levels - state.level < results.minimumPlaced()) {
+				return;
+			}
+			int level = state.level;
+			for (int i = 0; i < candidates[level].length; i++) {
+				if (state.canChoose(this, level, i)) {
+					state.choose(this, level, i);
+					searchFrom(state);
+					state.unchoose(this, level, i);
+				}
+			}
+			state.skip();
+			searchFrom(state);
+			state.unskip();
+		}
+	}
+
+	/**
+	 * The sections chosen on one path of the search tree.
+	 */
+	private static final class State {
+
+		/** Level the search is at */
+		private int level;
+		/** Candidate chosen at each level, or -1 if the course was left out */
+		private final int[] chosen;
+		/** Bits of the chosen candidates */
+		private final long[] chosenMask;
+		/** Union of the conflict masks of the candidates chosen above each level, so undo only moves the level */
+		private final long[][] conflictMasks;
+		/** Number of chosen sections */
+		private int placed;
+		/** Credits of the chosen sections */
+		private int credits;
+		/** Search nodes visited by this state's task */
+		private int nodes;
+
+		/**
+		 * Creates the state at the root of the search tree.
+		 * @param search the search
+		 */
+		State(Search search) {
+			chosen = new int[search.levels];
+			chosenMask = new long[search.words];
+			conflictMasks = new long[search.levels + 1][search.words];
+		}
+
+		/**
+		 * Creates a copy of a state for a forked task.
+		 * @param other the state to copy
+		 */
+		State(State other) {
+			level = other.level;
+			chosen = other.chosen.clone();
+			chosenMask = other.chosenMask.clone();
+			conflictMasks = new long[other.conflictMasks.length][];
+			for (int l = 0; l < conflictMasks.length; l++) {
+				conflictMasks[l] = other.conflictMasks[l].clone();
+			}
+			placed = other.placed;
+			credits = other.credits;
+		}
+
+		/**
+		 * Returns true if a candidate fits the credit budget and conflicts with no chosen section.
+		 * @param search the search
+		 * @param level the level of the candidate
+		 * @param i the candidate
+		 * @return true if the candidate can be chosen
+		 */
+		boolean canChoose(Search search, int level, int i) {
+			if (credits + search.candidates[level][i].getCredits() > search.creditBudget) {
+				return false;
+			}
+			int bit = search.bits[level][i];
+			return (conflictMasks[level][bit >>> 6] & (1L << bit)) == 0;
+		}
+
+		/**
+		 * Chooses a candidate and moves to the next level.
+		 * @param search the search
+		 * @param level the level of the candidate
+		 * @param i the candidate
+		 */
+		void choose(Search search, int level, int i) {
+			int bit = search.bits[level][i];
+			chosenMask[bit >>> 6] |= 1L << bit;
+			long[] mask = search.conflictMasks[level][i];
+			long[] from = conflictMasks[level];
+			long[] to = conflictMasks[level + 1];
+			for (int w = 0; w < mask.length; w++) {
+				to[w] = from[w] | mask[w];
+			}
+			chosen[level] = i;
+			placed++;
+			credits += search.candidates[level][i].getCredits();
+			this.level++;
+		}
+
+		/**
+		 * Undoes choose, returning to the level of the candidate.
+		 * @param search the search
+		 * @param level the level of the candidate
+		 * @param i the candidate
+		 */
+		void unchoose(Search search, int level, int i) {
+			this.level--;
+			credits -= search.candidates[level][i].getCredits();
+			placed--;
+			chosen[level] = -1;
+			int bit = search.bits[level][i];
+			chosenMask[bit >>> 6] &= ~(1L << bit);
+		}
+
+		/**
+		 * Leaves out the course of the current level and moves to the next level.
+		 */
+		void skip() {
+			chosen[level] = -1;
+			System.arraycopy(conflictMasks[level], 0, conflictMasks[level + 1], 0, conflictMasks[level].length);
+			level++;
+		}
+
+		/**
+		 * Undoes skip.
+		 */
+		void unskip() {
+			level--;
+		}
+
+		/**
+		 * Creates an option from the chosen sections, listed in the order the course names were wanted.
+		 * @param search the search
+		 * @return the option
+		 */
+		ScheduleOption toOption(Search search) {
+			Course[] courses = new Course[placed];
+			int[] wantedOrder = new int[placed];
+			int days = 0;
+			int seats = 0;
+			int n = 0;
+			for (int l = 0; l < search.levels; l++) {
+				if (chosen[l] >= 0) {
+					Course c = search.candidates[l][chosen[l]];
+					int at = n++;
+					// insertion sort by the index of the course name in the wanted names
+					while (at > 0 && wantedOrder[at - 1] > search.nameOrder[l]) {
+						courses[at] = courses[at - 1];
+						wantedOrder[at] = wantedOrder[at - 1];
+						at--;
+					}
+					courses[at] = c;
+					wantedOrder[at] = search.nameOrder[l];
+					days |= search.dayMasks[l][chosen[l]];
+					seats += c.getCourseRoll().getOpenSeats();
+				}
+			}
+			return new ScheduleOption(courses, credits, Integer.bitCount(days), seats);
+		}
+	}
+
+	/**
+	 * Searches a subtree, forking a task for each branch while the search is in its first levels.
+	 */
+	private static final class SearchTask extends RecursiveAction {
+
+		/** ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** The search */
+		private final transient Search search;
+		/** The state this task searches from */
+		private final transient State state;
+
+		/**
+		 * Creates a task that searches below a state.
+		 * @param search the search
+		 * @param state the state to search from
+		 */
+		SearchTask(Search search, State state) {
+			this.search = search;
+			this.state = state;
+		}
+
+		/**
+		 * Forks a task for each branch below the state while it is above PARALLEL_DEPTH, and searches
+		 * sequentially below that.
+		 */
+		@Override
+		protected void compute() {
+			if (state.level >= PARALLEL_DEPTH || state.level >= search.levels - 1) {
+				search.searchFrom(state);
+				return;
+			}
+			int level = state.level;
+			List<SearchTask> tasks = new ArrayList<SearchTask>();
+			for (int i = 0; i < search.candidates[level].length; i++) {
+				if (state.canChoose(search, level, i)) {
+					State branch = new State(state);
+					branch.choose(search, level, i);
+					tasks.add(new SearchTask(search, branch));
+				}
+			}
+			State skipped = new State(state);
+			skipped.skip();
+			tasks.add(new SearchTask(search, skipped));
+			invokeAll(tasks);
+		}
+	}
+
+	/**
+	 * The best options found so far, shared by the tasks of a search.
+	 */
+	private static final class TopOptions {
+
+		/** The most options to keep */
+		private final int capacity;
+		/** The options kept, worst first */
+		private final PriorityQueue<ScheduleOption> options;
+		/**
+		 * Fewest sections an option must place to still be kept, which is the size of the worst
+		 * option once capacity options are kept
+		 */
+		private volatile int minimumPlaced;
+
+		/**
+		 * Creates an empty set of options.
+		 * @param capacity the most options to keep
+		 */
+		TopOptions(int capacity) {
+			this.capacity = capacity;
+			this.options = new PriorityQueue<ScheduleOption>(capacity + 1, (a, b) -> b.compareRank(a));
+		}
+
+		/**
+		 * Returns the fewest sections an option must place to be kept.
+		 * @return the fewest sections
+		 */
+		int minimumPlaced() {
+			return minimumPlaced;
+		}
+
+		/**
+		 * Keeps an option if there is room or it ranks ahead of the worst option kept.
+		 * @param option the option
+		 */
+		synchronized void offer(ScheduleOption option) {
+			options.add(option);
+			if (options.size() > capacity) {
+				options.poll();
+			}
+			if (options.size() == capacity) {
+				minimumPlaced = options.peek().getNumberOfCourses();
+			}
+		}
+
+		/**
+		 * Returns the options kept, best first.
+		 * @return the options
+		 */
+		synchronized List<ScheduleOption> toList() {
+			List<ScheduleOption> list = new ArrayList<ScheduleOption>(options);
+			list.sort(ScheduleOption::compareRank);
+			return list;
+		}
+	}
+
+	/**
+	 * Returns true if a Course conflicts with any of the given Courses.
+	 * @param course the Course
+	 * @param others the other Courses
+	 * @return true if there is a conflict
+	 */
+	private static boolean conflictsWithAny(Course course, List<Course> others) {
+		for (Course other : others) {
+			if (other.conflictsWith(course)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
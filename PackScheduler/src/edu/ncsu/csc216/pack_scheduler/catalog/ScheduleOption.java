@@ -0,0 +1,112 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * One conflict-free choice of sections produced by ScheduleBuilder. The sections are listed in the
+ * order the wanted course names were given. An option may hold fewer sections than courses were
+ * wanted when not all of them fit.
+ */
+public class ScheduleOption {
+
+	/** The chosen sections */
+	private final Course[] courses;
+	/** Total credits of the chosen sections */
+	private final int credits;
+	/** Number of different days the chosen sections meet on */
+	private final int meetingDayCount;
+	/** Total open seats of the chosen sections when the option was built */
+	private final int openSeats;
+
+	/**
+	 * Creates an option from the chosen sections.
+	 * @param courses the chosen sections
+	 * @param credits total credits of the sections
+	 * @param meetingDayCount number of different days the sections meet on
+	 * @param openSeats total open seats of the sections
+	 */
+	ScheduleOption(Course[] courses, int credits, int meetingDayCount, int openSeats) {
+		this.courses = courses;
+		this.credits = credits;
+		this.meetingDayCount = meetingDayCount;
+		this.openSeats = openSeats;
+	}
+
+	/**
+	 * Returns the chosen sections.
+	 * @return a copy of the array of chosen sections
+	 */
+	public Course[] getCourses() {
+		return courses.clone();
+	}
+
+	/**
+	 * Returns the number of chosen sections.
+	 * @return the number of sections
+	 */
+	public int getNumberOfCourses() {
+		return courses.length;
+	}
+
+	/**
+	 * Returns the total credits of the chosen sections.
+	 * @return the total credits
+	 */
+	public int getCredits() {
+		return credits;
+	}
+
+	/**
+	 * Returns the number of different days the chosen sections meet on. Arranged sections do not count.
+	 * @return the number of meeting days
+	 */
+	public int getMeetingDayCount() {
+		return meetingDayCount;
+	}
+
+	/**
+	 * Returns the total open seats of the chosen sections when the option was built.
+	 * @return the total open seats
+	 */
+	public int getOpenSeats() {
+		return openSeats;
+	}
+
+	/**
+	 * Returns the name, section, title, and meeting information of the chosen sections.
+	 * @return a 2D string array of the chosen sections
+	 */
+	public String[][] getScheduledCourses() {
+		String[][] scheduleArray = new String[courses.length][];
+		for (int i = 0; i < courses.length; i++) {
+			scheduleArray[i] = courses[i].getShortDisplayArray();
+		}
+		return scheduleArray;
+	}
+
+	/**
+	 * Compares this option to another by rank. Options with more sections rank first, then options
+	 * meeting on fewer days, then options with more open seats, and finally by the names and sections
+	 * of the chosen sections so the order is always the same.
+	 * @param other the option to compare to
+	 * @return a negative number if this option ranks first, a positive number if the other does
+	 */
+	int compareRank(ScheduleOption other) {
+		if (courses.length != other.courses.length) {
+			return other.courses.length - courses.length;
+		}
+		if (meetingDayCount != other.meetingDayCount) {
+			return meetingDayCount - other.meetingDayCount;
+		}
+		if (openSeats != other.openSeats) {
+			return other.openSeats - openSeats;
+		}
+		for (int i = 0; i < courses.length; i++) {
+			int result = courses[i].compareTo(other.courses[i]);
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+}
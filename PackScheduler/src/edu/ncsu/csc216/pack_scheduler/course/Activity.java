@@ -24,6 +24,15 @@ public abstract class Activity implements Conflict {
     
     /** Activity's ending time */
     private int endTime;
+    
+    /**
+     * Activity's meeting days as a bit set, with bit (day - 'A') set for each meeting day from
+     * 'A' to 'Z', or OTHER_DAYS if a meeting day is outside that range. 0 for arranged meetings.
+     */
+    private int dayMask;
+    
+    /** Day mask of meeting days that do not all fit in the bits for 'A' to 'Z' */
+    private static final int OTHER_DAYS = -1;
 
     /**
      * Creates an Activity given the title, meeting days, and start and end times.
@@ -119,6 +128,27 @@ public abstract class Activity implements Conflict {
         this.meetingDays = meetingDays;
         this.startTime = startTime;
         this.endTime = endTime;
+        this.dayMask = toDayMask(meetingDays);
+    }
+    
+    /**
+     * Converts meeting days to a day mask with one bit for each day from 'A' to 'Z'.
+     * @param meetingDays the meeting days
+     * @return the day mask, 0 for arranged meetings, or OTHER_DAYS if a day is outside 'A' to 'Z'
+     */
+    private static int toDayMask(String meetingDays) {
+        if (meetingDays == null || "A".equals(meetingDays)) {
+            return 0;
+        }
+        int mask = 0;
+        for (int i = 0; i < meetingDays.length(); i++) {
+            char day = meetingDays.charAt(i);
+            if (day < 'A' || day > 'Z') {
+                return OTHER_DAYS;
+            }
+            mask |= 1 << (day - 'A');
+        }
+        return mask;
     }
 
     /**
@@ -177,34 +207,44 @@ public abstract class Activity implements Conflict {
      */
     @Override
     public void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
-        // information about the days and times of the Activity to be checked
-        String pMeetingDays = possibleConflictingActivity.getMeetingDays();
-        int pStartTime = possibleConflictingActivity.getStartTime();
-        
-        // tracks whether or not a meeting day of one Activity is in the other
-        boolean sharesDay = false;
-        
-        // skip the checks if either activity has arranged meeting days
-        if (!("A".equals(this.meetingDays) || "A".equals(pMeetingDays))) {
-         // if any meeting day is found in common, the times need to be checked for similarities
-            for (int i = 0; i < pMeetingDays.length(); i++) {
-                char temp = pMeetingDays.charAt(i);
-                // if temp has an index in the other meeting days string, they share a meeting day
-                if (this.meetingDays.indexOf(temp) != -1) {
-                    sharesDay = true;
-                    break;
-                }
-            }
+        if (conflictsWith(possibleConflictingActivity)) {
+            throw new ConflictException();
         }
-        
-        // check the times for overlap if at least one day is shared.
-        if (sharesDay && pStartTime <= this.endTime) {
-            if (pStartTime >= this.startTime) {
-                throw new ConflictException();
-            } else if (possibleConflictingActivity.getEndTime() >= this.startTime) {
-                throw new ConflictException();
+    }
+    
+    /**
+     * Returns true if another activity conflicts with this activity. Activities have a conflict if 
+     * they have an overlap of times on at least one shared meeting day, where an activity that
+     * starts at the minute another ends overlaps it. Activities with arranged meeting days never
+     * conflict. This is the check checkConflict makes, without creating an exception.
+     * @param possibleConflictingActivity an Activity that may conflict with this one
+     * @return true if the given Activity conflicts with this one
+     */
+    public boolean conflictsWith(Activity possibleConflictingActivity) {
+        int pDayMask = possibleConflictingActivity.dayMask;
+        if ((dayMask & pDayMask) == 0) {
+            return false;
+        }
+        if ((dayMask == OTHER_DAYS || pDayMask == OTHER_DAYS) && !sharesDay(possibleConflictingActivity)) {
+            return false;
+        }
+        return possibleConflictingActivity.startTime <= this.endTime
+                && possibleConflictingActivity.endTime >= this.startTime;
+    }
+    
+    /**
+     * Returns true if the activities share a meeting day, comparing the meeting day chars.
+     * Used when a day mask cannot hold the meeting days.
+     * @param other the other activity
+     * @return true if a meeting day of the other activity is a meeting day of this one
+     */
+    private boolean sharesDay(Activity other) {
+        for (int i = 0; i < other.meetingDays.length(); i++) {
+            if (this.meetingDays.indexOf(other.meetingDays.charAt(i)) != -1) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
@@ -215,6 +255,16 @@ public abstract class Activity implements Conflict {
         return meetingDays;
     }
 
+    /**
+     * Returns the Activity's meeting days as a bit set, with bit (day - 'A') set for each meeting
+     * day from 'A' to 'Z'. The set is empty for arranged meetings, and -1 if a meeting day is
+     * outside 'A' to 'Z'.
+     * @return the day mask
+     */
+    public int getDayMask() {
+        return dayMask;
+    }
+
     /**
      * Returns the Activity's start time.
      * @return the startTime
@@ -1,14 +1,30 @@
 package edu.ncsu.csc216.pack_scheduler.course.roll;
 
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
-import edu.ncsu.csc216.pack_scheduler.util.ArrayQueue;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedAbstractList;
 
 /**
  * Represents a course roll, which is a list of students enrolled in a course with 
  * a specific enrollment capacity. The course roll maintains a minimum and maximum 
  * enrollment size.
+ * 
+ * Open seats are counted by an atomic counter rather than from the size of the roll.
+ * A registration front end can take a seat with reserveSeat(), which never locks, and
+ * later either confirm the reservation with a student, which adds them to the roll,
+ * or release it. Reserved seats are not open, but their students are not on the roll
+ * until the reservation is confirmed. getOpenSeats() and reserveSeat() are safe to
+ * call from any thread; the other methods that change the roll must not run at the
+ * same time as each other.
+ * 
+ * The wait list is a TieredWaitlist, so checking whether a student is wait listed,
+ * dropping a wait listed student, and finding a student's place on the wait list
+ * do not dequeue and re-enqueue the whole wait list. Its capacity can be set for
+ * each course, including TieredWaitlist.UNBOUNDED, and a WaitlistPriority can
+ * promote some students, such as seniors or majors, ahead of others.
  */
 public class CourseRoll {
 
@@ -18,16 +34,20 @@ public class CourseRoll {
     /** The maximum number of students that can be enrolled in the course. */
     private static final int MAX_ENROLLMENT = 250;
 
-    /**Wait list size*/
-    private static final int WAITLIST_SIZE = 10;
+    /** Wait list capacity of a new course roll */
+    public static final int DEFAULT_WAITLIST_SIZE = 10;
     
+    /** The course the roll belongs to */
+    private final Course course;
     /** The list of students enrolled in the course, implemented as a custom LinkedAbstractList. */
     private LinkedAbstractList<Student> roll;
-    /** wait list using array queue of students*/
-    private ArrayQueue<Student> waitlist;
+    /** wait list of students, in priority tiers */
+    private TieredWaitlist waitlist;
 
     /** The enrollment cap for the course. */
-    private int enrollmentCap;
+    private volatile int enrollmentCap;
+    /** Seats that are neither filled by an enrolled student nor reserved. */
+    private final AtomicInteger openSeats = new AtomicInteger();
     
 
 
@@ -41,7 +61,8 @@ public class CourseRoll {
     	if(c == null) {
     		throw new IllegalArgumentException();
     	}
-    	waitlist = new ArrayQueue<Student>(WAITLIST_SIZE);
+    	course = c;
+    	waitlist = new TieredWaitlist(DEFAULT_WAITLIST_SIZE);
         roll = new LinkedAbstractList<>(enrollmentCap);
         setEnrollmentCap(enrollmentCap);
     }
@@ -58,20 +79,67 @@ public class CourseRoll {
         if (enrollmentCap < MIN_ENROLLMENT || enrollmentCap > MAX_ENROLLMENT) {
             throw new IllegalArgumentException("Invalid enrollment cap.");
         }
-        if (enrollmentCap < roll.size()) {
-            throw new IllegalArgumentException("Enrollment cap cannot be less than the number of enrolled students.");
-        }
+        int change = enrollmentCap - this.enrollmentCap;
+        int seats;
+        do {
+            seats = openSeats.get();
+            if (seats + change < 0) {
+                throw new IllegalArgumentException("Enrollment cap cannot be less than the number of enrolled students.");
+            }
+        } while (!openSeats.compareAndSet(seats, seats + change));
         this.enrollmentCap = enrollmentCap;
         roll.setCapacity(enrollmentCap);
     }
 
     /**
-     * Gets the current number of open seats.
+     * Gets the current number of open seats. Seats that are reserved are not open.
+     * This never locks.
      * 
-     * @return the difference between enrollmentCap and roll size
+     * @return the difference between enrollmentCap and the number of enrolled students and reserved seats
      */
     public int getOpenSeats() {
-        return enrollmentCap - roll.size();
+        return openSeats.get();
+    }
+
+    /**
+     * Reserves an open seat, if there is one, with a compare-and-set on the seat counter.
+     * The reservation must later be confirmed with confirmReservation or given back with
+     * releaseReservation. This never locks.
+     * 
+     * @return true if a seat was reserved, false if there are no open seats
+     */
+    public boolean reserveSeat() {
+        int seats;
+        do {
+            seats = openSeats.get();
+            if (seats <= 0) {
+                return false;
+            }
+        } while (!openSeats.compareAndSet(seats, seats - 1));
+        return true;
+    }
+
+    /**
+     * Fills a seat reserved with reserveSeat by adding the student to the end of the roll.
+     * If the student cannot be added, the reservation is released.
+     * 
+     * @param s the student to enroll in the reserved seat
+     * @throws IllegalArgumentException if student is null or already enrolled or wait listed
+     */
+    public void confirmReservation(Student s) {
+        if (s == null || roll.contains(s) || waitlist.contains(s)) {
+            releaseReservation();
+            throw new IllegalArgumentException("Cannot enroll student.");
+        }
+        roll.add(roll.size(), s);
+    }
+
+    /**
+     * Gives back a seat reserved with reserveSeat, making it open again. Students on the
+     * wait list are not moved onto the roll. This never locks.
+     */
+    public void releaseReservation() {
+        openSeats.incrementAndGet();
     }
 
     /**
@@ -88,18 +156,18 @@ public class CourseRoll {
      * 
      * @param s the student to enroll
      * @throws IllegalArgumentException if student is null, no room in class,
-     *                                  student is already enrolled, or if an
+     *                                  student is already enrolled or wait listed, or if an
      *                                  exception is thrown by LinkedAbstractList
      */
     public void enroll(Student s) {
         if (s == null) {
             throw new IllegalArgumentException("Student cannot be null.");
         }
-        if (roll.contains(s)) {
+        if (roll.contains(s) || waitlist.contains(s)) {
             throw new IllegalArgumentException("Cannot enroll student.");
         }
-        if(roll.size() == enrollmentCap) {
-        	if(waitlist.size() < WAITLIST_SIZE) {
+        if(!reserveSeat()) {
+        	if(!waitlist.isFull()) {
         		waitlist.enqueue(s);
         	} else {
         		throw new IllegalArgumentException();
@@ -110,35 +178,153 @@ public class CourseRoll {
     }
 
     /**
-     * Drops a student from the course.
+     * Drops a student from the course and removes the course from their schedule. If the student was
+     * enrolled, their seat goes to the first wait listed student who can add the course, who is moved
+     * onto the roll with the course added to their schedule and returned. Wait listed students who
+     * cannot add the course keep their place, and if none can, the seat is opened. This is dropAndHold
+     * followed by promoteFromWaitlist, so the roll and the schedules always agree.
+     * 
+     * @param s the student to drop
+     * @return the student moved from the wait list onto the roll, or null if no student was moved
+     * @throws IllegalArgumentException if student is null
+     */
+    public Student drop(Student s) {
+        boolean held = dropAndHold(s);
+        s.getSchedule().removeCourseFromSchedule(course);
+        if (!held) {
+            return null;
+        }
+        Student promoted = null;
+        for (Student w : waitlist) {
+            if (w.canAdd(course)) {
+                promoted = w;
+                break;
+            }
+        }
+        if (promoted == null) {
+            releaseReservation();
+            return null;
+        }
+        promoteFromWaitlist(promoted);
+        promoted.getSchedule().addCourseToSchedule(course);
+        return promoted;
+    }
+    
+    /**
+     * Drops a student from the course without promoting anyone from the wait list. If the student was
+     * enrolled and students are wait listed, the student's seat is held as a reservation for the
+     * promotion, so no new student can take it, and true is returned. The holder must later either
+     * fill the seat with promoteFromWaitlist or give it back with releaseReservation. Otherwise the
+     * seat, if any, is opened. A wait listed student is removed from the wait list.
      * 
      * @param s the student to drop
-     * @throws IllegalArgumentException if student is null or if an exception is
-     *                                  thrown by LinkedAbstractList
+     * @return true if the student's seat is held for a promotion
+     * @throws IllegalArgumentException if student is null
      */
-    public void drop(Student s) {
+    public boolean dropAndHold(Student s) {
         if (s == null) {
             throw new IllegalArgumentException("Student cannot be null.");
         }
-        
         for (int i = 0; i < roll.size(); i++) {
             if (roll.get(i).equals(s)) {
                 roll.remove(i);
-                
-               if(!waitlist.isEmpty()) {
-            	   roll.add(waitlist.dequeue());
-               }
-                return;
+                if (!waitlist.isEmpty()) {
+                    return true;
+                }
+                releaseReservation();
+                return false;
             }
         }
-     
-        for(int i = 0; i < waitlist.size(); i++) {
-        	Student student = waitlist.dequeue();
-        	if(!student.equals(s)) {
-        		waitlist.enqueue(student);
-        	}
+        waitlist.remove(s);
+        return false;
+    }
+
+    /**
+     * Moves a wait listed student onto the end of the roll, into a seat reserved with reserveSeat or
+     * held by dropAndHold. Any wait listed student may be promoted, not only the first.
+     * 
+     * @param s the wait listed student to promote
+     * @throws IllegalArgumentException if the student is not wait listed; the reservation is kept
+     */
+    public void promoteFromWaitlist(Student s) {
+        if (!waitlist.remove(s)) {
+            throw new IllegalArgumentException("Student is not wait listed.");
         }
-      
+        roll.add(roll.size(), s);
+    }
+    
+    /**
+     * Adds a student to the end of the wait list without checking for open seats. Used to restore
+     * a wait list that was saved.
+     * 
+     * @param s the student to add
+     * @throws IllegalArgumentException if student is null, already on the roll or wait list, or the
+     *                                  wait list is full
+     */
+    public void addToWaitlist(Student s) {
+        if (s == null) {
+            throw new IllegalArgumentException("Student cannot be null.");
+        }
+        if (roll.contains(s) || waitlist.contains(s)) {
+            throw new IllegalArgumentException("Cannot enroll student.");
+        }
+        waitlist.enqueue(s);
+    }
+    
+    /**
+     * Returns the students enrolled in the course, in the order they were enrolled.
+     * @return an array of the enrolled students
+     */
+    public Student[] getEnrolledStudents() {
+        return roll.toArray(new Student[roll.size()]);
+    }
+    
+    /**
+     * Returns the students on the wait list, in the order they would be promoted.
+     * The wait list is unchanged.
+     * @return an array of the waitlisted students
+     */
+    public Student[] getWaitlistedStudents() {
+        return waitlist.toArray(new Student[waitlist.size()]);
+    }
+    /**
+     * Returns true if the student is on the wait list. This takes constant time.
+     * @param s the student
+     * @return true if the student is wait listed
+     */
+    public boolean isWaitlisted(Student s) {
+    	return waitlist.contains(s);
+    }
+    /**
+     * Returns an iterator over the wait listed students in the order they would be promoted, without
+     * copying the wait list. The roll must not be changed while the iterator is in use, and the
+     * iterator cannot remove students.
+     * @return an iterator over the wait listed students
+     */
+    public Iterator<Student> waitlistIterator() {
+    	return waitlist.iterator();
+    }
+    /**
+     * Returns an iterator over the wait listed students who would be promoted after the given student,
+     * in promotion order, without walking the students ahead of them. The roll must not be changed
+     * while the iterator is in use, and the iterator cannot remove students.
+     * @param s the wait listed student to start after
+     * @return an iterator over the students after s
+     * @throws IllegalArgumentException if the student is not wait listed
+     */
+    public Iterator<Student> waitlistIteratorAfter(Student s) {
+    	return waitlist.iteratorAfter(s);
+    }
+    /**
+     * Returns a student's place on the wait list, counting from 1 for the student at the front.
+     * This walks the wait list up to the student, so use isWaitlisted to check whether a student is
+     * wait listed.
+     * @param s the student
+     * @return the student's place on the wait list, or -1 if they are not wait listed
+     */
+    public int getWaitlistPosition(Student s) {
+    	int index = waitlist.indexOf(s);
+    	return index < 0 ? -1 : index + 1;
     }
     /**
      * method gets the number of students of the wait list
@@ -147,6 +333,45 @@ public class CourseRoll {
     public int getNumberOnWaitlist() {
     	return waitlist.size();
     }
+    /**
+     * Returns true if the wait list cannot take another student.
+     * @return true if the wait list is full
+     */
+    public boolean isWaitlistFull() {
+    	return waitlist.isFull();
+    }
+    /**
+     * Returns the most students the wait list can hold.
+     * @return the wait list capacity, or TieredWaitlist.UNBOUNDED
+     */
+    public int getWaitlistCapacity() {
+    	return waitlist.getCapacity();
+    }
+    /**
+     * Sets the most students the wait list can hold.
+     * @param capacity the wait list capacity, or TieredWaitlist.UNBOUNDED for no limit
+     * @throws IllegalArgumentException if capacity is negative or less than the number of
+     *                                  wait listed students
+     */
+    public void setWaitlistCapacity(int capacity) {
+    	waitlist.setCapacity(capacity);
+    }
+    /**
+     * Returns the priority that decides the order wait listed students are promoted in.
+     * @return the wait list priority
+     */
+    public WaitlistPriority getWaitlistPriority() {
+    	return waitlist.getPriority();
+    }
+    /**
+     * Sets the priority that decides the order wait listed students are promoted in. Students
+     * already wait listed are reordered by the new priority.
+     * @param priority the wait list priority
+     * @throws IllegalArgumentException if priority is null
+     */
+    public void setWaitlistPriority(WaitlistPriority priority) {
+    	waitlist.setPriority(priority);
+    }
     /**
      * Checks if a student can enroll in the course.
      * 
@@ -154,10 +379,10 @@ public class CourseRoll {
      * @return true if student can enroll, false otherwise
      */
     public boolean canEnroll(Student s) {
-        if (s == null || roll.size() >= enrollmentCap) {
+        if (s == null || openSeats.get() <= 0) {
             return false;
         }
-      if(waitlist.contains(s)) {
+      if(isWaitlisted(s)) {
     	  return false;
       }
         
@@ -0,0 +1,325 @@
+package edu.ncsu.csc216.pack_scheduler.course.roll;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+import edu.ncsu.csc216.pack_scheduler.util.IndexedQueue;
+import edu.ncsu.csc216.pack_scheduler.util.Queue;
+
+/**
+ * A course wait list with a configurable capacity and priority tiers. Each tier is an IndexedQueue,
+ * and the tiers that hold students are kept in a TreeMap by tier, so the student to promote is the
+ * front of the first tier. Adding, promoting, and removing a student take time in proportion to the
+ * log of the number of tiers that hold students, however many students are wait listed. A map from
+ * each student to their tier finds the queue a student is in. Students are found by identity, since a
+ * Student's equals and hashCode change with fields such as their maximum credits.
+ *
+ * The capacity can be UNBOUNDED, so popular sections need not turn students away.
+ */
+public class TieredWaitlist implements Queue<Student>, Iterable<Student> {
+
+	/** Capacity of a wait list with no limit */
+	public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+	/** Tiers that hold students, by tier */
+	private final TreeMap<Integer, IndexedQueue<Student>> tiers;
+	/** Tier of each wait listed student */
+	private final Map<Student, Integer> tierOf;
+	/** Places students in tiers */
+	private WaitlistPriority priority;
+	/** The maximum number of wait listed students */
+	private int capacity;
+
+	/**
+	 * Creates an empty first come, first served wait list with the given capacity.
+	 * @param capacity the maximum number of wait listed students, or UNBOUNDED
+	 * @throws IllegalArgumentException if capacity is negative
+	 */
+	public TieredWaitlist(int capacity) {
+		this(capacity, WaitlistPriority.FIRST_COME);
+	}
+
+	/**
+	 * Creates an empty wait list with the given capacity and priority.
+	 * @param capacity the maximum number of wait listed students, or UNBOUNDED
+	 * @param priority places students in tiers
+	 * @throws IllegalArgumentException if capacity is negative or priority is null
+	 */
+	public TieredWaitlist(int capacity, WaitlistPriority priority) {
+		if (priority == null) {
+			throw new IllegalArgumentException("Invalid waitlist priority.");
+		}
+		this.tiers = new TreeMap<Integer, IndexedQueue<Student>>();
+		this.tierOf = new IdentityHashMap<Student, Integer>();
+		this.priority = priority;
+		setCapacity(capacity);
+	}
+
+	/**
+	 * Adds a student to the back of their tier.
+	 * @param student the student to add
+	 * @throws IllegalArgumentException if the student is null or already wait listed, or the wait
+	 *                                  list is full
+	 */
+	@Override
+	public void enqueue(Student student) {
+		if (student == null || tierOf.containsKey(student)) {
+			throw new IllegalArgumentException("Invalid element.");
+		}
+		if (isFull()) {
+			throw new IllegalArgumentException("Size cannot be bigger than capacity.");
+		}
+		Integer tier = priority.getTier(student);
+		IndexedQueue<Student> queue = tiers.get(tier);
+		if (queue == null) {
+			queue = new IndexedQueue<Student>(UNBOUNDED);
+			tiers.put(tier, queue);
+		}
+		queue.enqueue(student);
+		tierOf.put(student, tier);
+	}
+
+	/**
+	 * Removes and returns the student to promote, the front student of the first tier.
+	 * @return the student removed from the front of the wait list
+	 * @throws NoSuchElementException if the wait list is empty
+	 */
+	@Override
+	public Student dequeue() {
+		Map.Entry<Integer, IndexedQueue<Student>> first = tiers.firstEntry();
+		if (first == null) {
+			throw new NoSuchElementException();
+		}
+		Student student = first.getValue().dequeue();
+		if (first.getValue().isEmpty()) {
+			tiers.remove(first.getKey());
+		}
+		tierOf.remove(student);
+		return student;
+	}
+
+	/**
+	 * Returns true if the student is wait listed.
+	 * @param student the student
+	 * @return true if the student is wait listed
+	 */
+	public boolean contains(Student student) {
+		return student != null && tierOf.containsKey(student);
+	}
+
+	/**
+	 * Removes a student from wherever they are on the wait list.
+	 * @param student the student to remove
+	 * @return true if the student was wait listed
+	 */
+	public boolean remove(Student student) {
+		if (student == null) {
+			return false;
+		}
+		Integer tier = tierOf.remove(student);
+		if (tier == null) {
+			return false;
+		}
+		IndexedQueue<Student> queue = tiers.get(tier);
+		queue.remove(student);
+		if (queue.isEmpty()) {
+			tiers.remove(tier);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a student's position on the wait list, counting from 0 for the student who would be
+	 * promoted next. This takes time in proportion to the number of tiers ahead of the student's and
+	 * the student's position in their tier.
+	 * @param student the student
+	 * @return the student's position, or -1 if they are not wait listed
+	 */
+	public int indexOf(Student student) {
+		if (student == null) {
+			return -1;
+		}
+		Integer tier = tierOf.get(student);
+		if (tier == null) {
+			return -1;
+		}
+		int ahead = 0;
+		for (IndexedQueue<Student> queue : tiers.headMap(tier).values()) {
+			ahead += queue.size();
+		}
+		return ahead + tiers.get(tier).indexOf(student);
+	}
+
+	/**
+	 * Returns the wait listed students in the order they would be promoted, in the given array if it
+	 * is large enough or otherwise in a new array. The wait list is unchanged.
+	 * @param a the array to fill
+	 * @return the array of students
+	 */
+	public Student[] toArray(Student[] a) {
+		Student[] students = a.length >= size() ? a : new Student[size()];
+		int i = 0;
+		for (Student s : this) {
+			students[i++] = s;
+		}
+		if (students.length > i) {
+			students[i] = null;
+		}
+		return students;
+	}
+
+	/**
+	 * Returns an iterator over the wait listed students in the order they would be promoted. The wait
+	 * list must not be changed while the iterator is in use, and the iterator cannot remove students.
+	 * @return an iterator over the students
+	 */
+	@Override
+	public Iterator<Student> iterator() {
+		return new WaitlistIterator(tiers.values().iterator(), Collections.<Student>emptyIterator());
+	}
+
+	/**
+	 * Returns an iterator over the students who would be promoted after the given student, in the
+	 * order they would be promoted. The student is found through the tier map and their tier's index,
+	 * so this takes time in proportion to the log of the number of tiers. The wait list must not be
+	 * changed while the iterator is in use, and the iterator cannot remove students.
+	 * @param student the wait listed student to start after
+	 * @return an iterator over the students after the student
+	 * @throws IllegalArgumentException if the student is not wait listed
+	 */
+	public Iterator<Student> iteratorAfter(Student student) {
+		Integer tier = student == null ? null : tierOf.get(student);
+		if (tier == null) {
+			throw new IllegalArgumentException("Student is not wait listed.");
+		}
+		return new WaitlistIterator(tiers.tailMap(tier, false).values().iterator(),
+				tiers.get(tier).iteratorAfter(student));
+	}
+
+	/**
+	 * Returns the priority that places students in tiers.
+	 * @return the priority
+	 */
+	public WaitlistPriority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Sets the priority that places students in tiers. Students already wait listed are placed in
+	 * their tiers under the new priority, keeping the order they had among students of the same
+	 * new tier.
+	 * @param priority places students in tiers
+	 * @throws IllegalArgumentException if priority is null
+	 */
+	public void setPriority(WaitlistPriority priority) {
+		if (priority == null) {
+			throw new IllegalArgumentException("Invalid waitlist priority.");
+		}
+		Student[] students = toArray(new Student[size()]);
+		tiers.clear();
+		tierOf.clear();
+		this.priority = priority;
+		for (Student s : students) {
+			enqueue(s);
+		}
+	}
+
+	/**
+	 * Returns true if the wait list cannot take another student.
+	 * @return true if the wait list is full
+	 */
+	public boolean isFull() {
+		return tierOf.size() >= capacity;
+	}
+
+	/**
+	 * Returns true if no students are wait listed.
+	 * @return true if the wait list is empty
+	 */
+	@Override
+	public boolean isEmpty() {
+		return tierOf.isEmpty();
+	}
+
+	/**
+	 * Returns the number of wait listed students.
+	 * @return the number of students
+	 */
+	@Override
+	public int size() {
+		return tierOf.size();
+	}
+
+	/**
+	 * Returns the maximum number of wait listed students.
+	 * @return the capacity, or UNBOUNDED
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Sets the maximum number of wait listed students.
+	 * @param capacity the capacity, or UNBOUNDED
+	 * @throws IllegalArgumentException if capacity is negative or less than the number of wait
+	 *                                  listed students
+	 */
+	@Override
+	public void setCapacity(int capacity) {
+		if (capacity < 0 || capacity < size()) {
+			throw new IllegalArgumentException("Invalid capacity.");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Walks the tiers in order, and each tier from front to back.
+	 */
+	private class WaitlistIterator implements Iterator<Student> {
+
+		/** The tiers not yet walked */
+		private final Iterator<IndexedQueue<Student>> tierIterator;
+		/** The students left in the tier being walked */
+		private Iterator<Student> students;
+
+		/**
+		 * Creates an iterator that walks the given students and then the given tiers.
+		 * @param tierIterator the tiers to walk after the students
+		 * @param students the students to walk first
+		 */
+		WaitlistIterator(Iterator<IndexedQueue<Student>> tierIterator, Iterator<Student> students) {
+			this.tierIterator = tierIterator;
+			this.students = students;
+		}
+
+		/**
+		 * Returns true if there are more students.
+		 * @return true if next has a student to return
+		 */
+		@Override
+		public boolean hasNext() {
+			while (!students.hasNext() && tierIterator.hasNext()) {
+				students = tierIterator.next().iterator();
+			}
+			return students.hasNext();
+		}
+
+		/**
+		 * Returns the next student.
+		 * @return the next student
+		 * @throws NoSuchElementException if there are no more students
+		 */
+		@Override
+		public Student next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return students.next();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package edu.ncsu.csc216.pack_scheduler.course.roll;
+
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Places wait listed students in priority tiers. Students in a lower tier are promoted from a wait
+ * list before students in a higher tier, and students in the same tier are promoted in the order they
+ * joined the wait list. A registrar might, for example, put seniors in tier 0, majors in tier 1, and
+ * everyone else in tier 2.
+ *
+ * A priority is code, so it cannot be written to a file. Snapshots save a wait list's priority by the
+ * name it was registered under with register, and restore it with forName. FIRST_COME is registered as
+ * "FIRST_COME".
+ */
+public interface WaitlistPriority {
+
+	/** Places every student in the same tier, so the wait list is first come, first served */
+	WaitlistPriority FIRST_COME = s -> 0;
+
+	/**
+	 * Returns the tier of a student. A student's tier must not change while they are wait listed.
+	 * @param student the student
+	 * @return the student's tier, where lower tiers are promoted first
+	 */
+	int getTier(Student student);
+
+	/**
+	 * Registers a priority under a name, so wait lists that use it are saved and restored with it.
+	 * Names are made of letters, digits, and underscores.
+	 * @param name the name of the priority
+	 * @param priority the priority
+	 * @throws IllegalArgumentException if the name is invalid or already registered to another
+	 *                                  priority, the priority is null, or the priority is already
+	 *                                  registered under another name
+	 */
+	static void register(String name, WaitlistPriority priority) {
+		WaitlistPriorityNames.register(name, priority);
+	}
+
+	/**
+	 * Returns the priority registered under a name.
+	 * @param name the name
+	 * @return the priority, or null if no priority is registered under the name
+	 */
+	static WaitlistPriority forName(String name) {
+		return WaitlistPriorityNames.forName(name);
+	}
+
+	/**
+	 * Returns the name a priority is registered under.
+	 * @param priority the priority
+	 * @return the name, or null if the priority is not registered
+	 */
+	static String nameOf(WaitlistPriority priority) {
+		return WaitlistPriorityNames.nameOf(priority);
+	}
+}
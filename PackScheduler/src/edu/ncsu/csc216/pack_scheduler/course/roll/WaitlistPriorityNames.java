@@ -0,0 +1,68 @@
+package edu.ncsu.csc216.pack_scheduler.course.roll;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * The names WaitlistPriority instances are registered under, so wait lists can be saved with their
+ * priority. Priorities are lambdas, so they are found by identity.
+ */
+final class WaitlistPriorityNames {
+
+	/** Registered priorities, by name */
+	private static final HashMap<String, WaitlistPriority> PRIORITIES = new HashMap<String, WaitlistPriority>();
+	/** Names of the registered priorities */
+	private static final IdentityHashMap<WaitlistPriority, String> NAMES = new IdentityHashMap<WaitlistPriority, String>();
+
+	static {
+		register("FIRST_COME", WaitlistPriority.FIRST_COME);
+	}
+
+	/**
+	 * Prevents instances; the names are only reached through WaitlistPriority.
+	 */
+	private WaitlistPriorityNames() {
+	}
+
+	/**
+	 * Registers a priority under a name. Registering a priority under the name it already has does nothing.
+	 * @param name the name of the priority
+	 * @param priority the priority
+	 * @throws IllegalArgumentException if the name is invalid or already registered to another
+	 *                                  priority, the priority is null, or the priority is already
+	 *                                  registered under another name
+	 */
+	static synchronized void register(String name, WaitlistPriority priority) {
+		if (name == null || !name.matches("\\w+") || priority == null) {
+			throw new IllegalArgumentException("Invalid waitlist priority.");
+		}
+		WaitlistPriority registered = PRIORITIES.get(name);
+		String registeredName = NAMES.get(priority);
+		if (registered == priority) {
+			return;
+		}
+		if (registered != null || registeredName != null) {
+			throw new IllegalArgumentException("Waitlist priority already registered.");
+		}
+		PRIORITIES.put(name, priority);
+		NAMES.put(priority, name);
+	}
+
+	/**
+	 * Returns the priority registered under a name.
+	 * @param name the name
+	 * @return the priority, or null if no priority is registered under the name
+	 */
+	static synchronized WaitlistPriority forName(String name) {
+		return name == null ? null : PRIORITIES.get(name);
+	}
+
+	/**
+	 * Returns the name a priority is registered under.
+	 * @param priority the priority
+	 * @return the name, or null if the priority is not registered
+	 */
+	static synchronized String nameOf(WaitlistPriority priority) {
+		return priority == null ? null : NAMES.get(priority);
+	}
+}
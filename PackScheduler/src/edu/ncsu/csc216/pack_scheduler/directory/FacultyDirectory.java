@@ -8,19 +8,25 @@ import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 
 import edu.ncsu.csc216.pack_scheduler.io.FacultyRecordIO;
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedList;
 
 /**
- * Maintains a directory of the all the faculty at NC State
+ * Maintains a directory of the all the faculty at NC State.
+ * Faculty are indexed by id so that lookups, adds, and removes do not have to walk the list.
  * @author Cameron Edwards
  * @author Matt Stanaland
  */
 public class FacultyDirectory {
 	/** List of faculty members in the directory */
 	private LinkedList<Faculty> facultyDirectory;
+	/** Index of the faculty members in the directory keyed on id */
+	private HashMap<String, Faculty> facultyIndex;
 	/** Hashing algorithm */
 	private static final String HASH_ALGORITHM = "SHA-256";
 	
@@ -37,6 +43,7 @@ public class FacultyDirectory {
 	 */
 	public void newFacultyDirectory() {
 		facultyDirectory = new LinkedList<Faculty>();
+		facultyIndex = new HashMap<String, Faculty>();
 	}
 	
 	/**
@@ -49,6 +56,7 @@ public class FacultyDirectory {
 	public void loadFacultyFromFile(String fileName) {
 		try {
 			facultyDirectory = FacultyRecordIO.readFacultyRecords(fileName);
+			rebuildIndex();
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Unable to read file " + fileName);
 		}
@@ -93,13 +101,12 @@ public class FacultyDirectory {
 			faculty = new Faculty(firstName, lastName, id, email, hashPW, maxCourses);
 		}
 				
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			Faculty f = facultyDirectory.get(i);
-			if (f.getId().equals(faculty.getId())) {
-				return false;
-			}
+		if (facultyIndex.containsKey(faculty.getId())) {
+			return false;
 		}
-		return facultyDirectory.add(faculty);
+		facultyDirectory.add(faculty);
+		facultyIndex.put(faculty.getId(), faculty);
+		return true;
 	}
 	
 	/**
@@ -127,14 +134,12 @@ public class FacultyDirectory {
 	 * @return true if removed
 	 */
 	public boolean removeFaculty(String facultyId) {
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			Faculty f = facultyDirectory.get(i);
-			if (f.getId().equals(facultyId)) {
-				facultyDirectory.remove(i);
-				return true;
-			}
+		Faculty f = facultyIndex.remove(facultyId);
+		if (f == null) {
+			return false;
 		}
-		return false;
+		facultyDirectory.remove(f);
+		return true;
 	}
 	
 	/**
@@ -152,6 +157,32 @@ public class FacultyDirectory {
 		return directory;
 	}
 	
+	/**
+	 * Returns the faculty members in the directory in directory order. The returned list cannot be modified.
+	 * @return the faculty members in the directory
+	 */
+	public List<Faculty> getFacultyMembers() {
+		return Collections.unmodifiableList(facultyDirectory);
+	}
+	
+	/**
+	 * Replaces the faculty members in the directory with the given faculty members, such as faculty members
+	 * restored from a saved snapshot of a directory. Faculty members that are duplicates of an earlier one
+	 * in the list are skipped.
+	 * @param faculty the faculty members to put in the directory
+	 */
+	public void restoreFaculty(List<Faculty> faculty) {
+		facultyDirectory = new LinkedList<Faculty>();
+		for (Faculty f : faculty) {
+			try {
+				facultyDirectory.add(f);
+			} catch (IllegalArgumentException e) {
+				// Skip duplicate faculty members
+			}
+		}
+		rebuildIndex();
+	}
+	
 	/**
 	 * Saves all faculty members in the directory to a file. If fileName is not accessible to be 
 	 * written to, an IllegalArgumentException is thrown.
@@ -173,12 +204,18 @@ public class FacultyDirectory {
 	 * @return the Faculty with the id, or null if there is no match
 	 */
 	public Faculty getFacultyById(String id) {
-		for (int i = 0; i < facultyDirectory.size(); i++) {
-			Faculty faculty = facultyDirectory.get(i);
-			if (id.equals(faculty.getId())) {
-				return faculty;
-			}
+		return facultyIndex.get(id);
+	}
+	
+	/**
+	 * Rebuilds the id index from the faculty members currently in the directory. If a file
+	 * contained more than one faculty member with the same id, the first one in the list is kept
+	 * in the index, matching the result of a walk of the list.
+	 */
+	private void rebuildIndex() {
+		facultyIndex = new HashMap<String, Faculty>();
+		for (Faculty f : facultyDirectory) {
+			facultyIndex.putIfAbsent(f.getId(), f);
 		}
-		return null;
 	}
 }
@@ -4,21 +4,27 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 
 import edu.ncsu.csc216.pack_scheduler.io.StudentRecordIO;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
-import edu.ncsu.csc217.collections.list.SortedList;
 
 /**
  * Maintains a directory of all students enrolled at NC State.
- * All students have a unique id.
+ * All students have a unique id, and students are indexed by id so that
+ * lookups, adds, and removes do not have to scan the sorted list.
  * @author Sarah Heckman
  */
 public class StudentDirectory {
 	
-	/** List of students in the directory */
-	private SortedList<Student> studentDirectory;
+	/** List of students in the directory, kept sorted by last name, first name, and id */
+	private ArrayList<Student> studentDirectory;
+	/** Index of the students in the directory keyed on id */
+	private HashMap<String, Student> studentIndex;
 	/** Hashing algorithm */
 	private static final String HASH_ALGORITHM = "SHA-256";
 	
@@ -30,23 +36,26 @@ public class StudentDirectory {
 	}
 	
 	/**
-	 * Creates an empty student directory as a SortedList.
+	 * Creates an empty student directory as a sorted list.
 	 * All students in the previous list are lost unless saved by the user.
 	 */
 	public void newStudentDirectory() {
-		studentDirectory = new SortedList<Student>();
+		studentDirectory = new ArrayList<Student>();
+		studentIndex = new HashMap<String, Student>();
 	}
 	
 	/**
 	 * Constructs the student directory by reading in student information
-	 * from the given file.  Throws an IllegalArgumentException if the 
+	 * from the given file.  The file is parsed in parallel chunks that are
+	 * merged in sorted order.  Throws an IllegalArgumentException if the 
 	 * file cannot be found.
 	 * @param fileName file containing list of students
 	 * @throws IllegalArgumentException if fileName is invalid
 	 */
 	public void loadStudentsFromFile(String fileName) {
 		try {
-			studentDirectory = StudentRecordIO.readStudentRecords(fileName);
+			studentDirectory = new ArrayList<Student>(StudentRecordIO.readStudentRecordsInParallel(fileName));
+			rebuildIndex();
 		} catch (FileNotFoundException e) {
 			throw new IllegalArgumentException("Unable to read file " + fileName);
 		}
@@ -92,13 +101,16 @@ public class StudentDirectory {
 			student = new Student(firstName, lastName, id, email, hashPW, maxCredits);
 		}
 		
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			Student s = studentDirectory.get(i);
-			if (s.getId().equals(student.getId())) {
-				return false;
-			}
+		if (studentIndex.containsKey(student.getId())) {
+			return false;
+		}
+		int insertionPoint = Collections.binarySearch(studentDirectory, student);
+		if (insertionPoint < 0) {
+			insertionPoint = -(insertionPoint + 1);
 		}
-		return studentDirectory.add(student);
+		studentDirectory.add(insertionPoint, student);
+		studentIndex.put(student.getId(), student);
+		return true;
 	}
 	
 	/**
@@ -126,14 +138,18 @@ public class StudentDirectory {
 	 * @return true if removed
 	 */
 	public boolean removeStudent(String studentId) {
-		for (int i = 0; i < studentDirectory.size(); i++) {
-			Student s = studentDirectory.get(i);
-			if (s.getId().equals(studentId)) {
-				studentDirectory.remove(i);
-				return true;
-			}
+		Student s = studentIndex.remove(studentId);
+		if (s == null) {
+			return false;
 		}
-		return false;
+		int i = Collections.binarySearch(studentDirectory, s);
+		if (i >= 0 && studentDirectory.get(i) == s) {
+			studentDirectory.remove(i);
+		} else {
+			// another student compares the same, so fall back to a search by equality
+			studentDirectory.remove(s);
+		}
+		return true;
 	}
 	
 	/**
@@ -151,6 +167,26 @@ public class StudentDirectory {
 		return directory;
 	}
 	
+	/**
+	 * Returns the students in the directory sorted by last name, first name, and id. The returned list
+	 * cannot be modified.
+	 * @return the students in the directory
+	 */
+	public List<Student> getStudents() {
+		return Collections.unmodifiableList(studentDirectory);
+	}
+	
+	/**
+	 * Replaces the students in the directory with the given students, such as students restored from a
+	 * saved snapshot of a directory. The students must already be sorted by last name, first name, and id;
+	 * they are not sorted again.
+	 * @param students the sorted students to put in the directory
+	 */
+	public void restoreStudents(List<Student> students) {
+		studentDirectory = new ArrayList<Student>(students);
+		rebuildIndex();
+	}
+	
 	/**
 	 * Saves all students in the directory to a file. If fileName is not accessible to be 
 	 * written to, an IllegalArgumentException is thrown.
@@ -172,13 +208,20 @@ public class StudentDirectory {
 	 * @return the Student with the id, or null if there is no match
 	 */
 	public Student getStudentById(String id) {
+		return studentIndex.get(id);
+	}
+	
+	/**
+	 * Rebuilds the id index from the students currently in the directory. If a file
+	 * contained more than one student with the same id, the first one in sorted order is kept
+	 * in the index, matching the result of a scan of the sorted list.
+	 */
+	private void rebuildIndex() {
+		studentIndex = new HashMap<String, Student>();
 		for (int i = 0; i < studentDirectory.size(); i++) {
-			Student student = studentDirectory.get(i);
-			if (id.equals(student.getId())) {
-				return student;
-			}
+			Student s = studentDirectory.get(i);
+			studentIndex.putIfAbsent(s.getId(), s);
 		}
-		return null;
 	}
 
 }
@@ -0,0 +1,107 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A temporary file that replaces a target file when it is committed. Bytes are written to a
+ * temporary file in the same directory as the target, and commit() forces them to the disk and
+ * renames the temporary file over the target. If the file is closed without being committed, or the
+ * process stops part way through, the target is left as it was.
+ */
+final class AtomicFile implements Closeable {
+
+	/** The file being replaced */
+	private final Path target;
+	/** The temporary file the bytes are written to */
+	private final Path temp;
+	/** Channel to the temporary file */
+	private final FileChannel channel;
+	/** Whether the temporary file has replaced the target */
+	private boolean committed;
+
+	/**
+	 * Creates a temporary file next to the given target file.
+	 * @param fileName the name of the file to replace
+	 * @throws FileNotFoundException if the directory of the target does not exist or cannot be written to
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	AtomicFile(String fileName) throws IOException {
+		try {
+			target = Paths.get(fileName).toAbsolutePath();
+		} catch (InvalidPathException e) {
+			throw new FileNotFoundException(fileName + " (Invalid path)");
+		}
+		FileChannel opened = null;
+		Path tempFile = null;
+		while (opened == null) {
+			tempFile = target.resolveSibling("." + target.getFileName() + "."
+					+ Long.toHexString(System.nanoTime()) + ".tmp");
+			try {
+				opened = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			} catch (FileAlreadyExistsException e) {
+				// Another writer picked the same name, so try again with a new one
+			} catch (NoSuchFileException e) {
+				throw new FileNotFoundException(fileName + " (No such file or directory)");
+			} catch (AccessDeniedException e) {
+				throw new FileNotFoundException(fileName + " (Permission denied)");
+			}
+		}
+		temp = tempFile;
+		channel = opened;
+	}
+
+	/**
+	 * Writes all of the remaining bytes in the buffer to the temporary file and clears the buffer.
+	 * @param bytes the buffer to write, flipped for reading
+	 * @throws IOException if the bytes cannot be written
+	 */
+	void write(ByteBuffer bytes) throws IOException {
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		bytes.clear();
+	}
+
+	/**
+	 * Forces the temporary file to the disk and renames it over the target. The rename is atomic
+	 * when the file system supports it.
+	 * @throws IOException if the file cannot be forced to the disk or renamed
+	 */
+	void commit() throws IOException {
+		channel.force(true);
+		channel.close();
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		committed = true;
+	}
+
+	/**
+	 * Closes the file. If it was not committed, the temporary file is deleted and the target is left
+	 * as it was.
+	 * @throws IOException if the temporary file cannot be closed or deleted
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!committed) {
+			channel.close();
+			Files.deleteIfExists(temp);
+		}
+	}
+}
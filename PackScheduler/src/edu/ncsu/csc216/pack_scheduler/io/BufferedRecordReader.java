@@ -0,0 +1,391 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads comma separated records straight out of the bytes of a record file. The reader walks
+ * the file one line at a time and only records where each field starts and ends, so a caller can
+ * check the number of fields and parse the number fields of a record before any Strings are built
+ * for it. Lines may end with \n, \r\n, or \r, and empty lines are skipped.
+ *
+ * A reader made with open streams the file through a heap buffer of CHUNK_SIZE bytes, which only
+ * grows if a single line does not fit in it, so memory use does not depend on the size of the file.
+ * The file is read through a FileChannel and never mapped, and close() releases it, so the file can
+ * be truncated or replaced as soon as the reader is closed. A reader made from a ByteBuffer reads a
+ * range of bytes that are already in memory, such as one part of a file being parsed in parallel.
+ *
+ * Fields are split to match what a Scanner using "," as its delimiter returns for the same line:
+ * one leading comma and one trailing comma are skipped, and every other pair of adjacent commas
+ * produces an empty field. This keeps the record readers accepting and rejecting exactly the same
+ * lines they did when they tokenized each line with a Scanner.
+ *
+ * A reader over a ByteBuffer only uses absolute reads of it, so several readers can share one buffer
+ * as long as each has its own range.
+ */
+final class BufferedRecordReader implements Closeable {
+
+	/** Field delimiter used by all of the record files */
+	static final char DELIMITER = ',';
+
+	/** Number of bytes read from a file at a time */
+	static final int CHUNK_SIZE = 65536;
+
+	/** Initial number of fields that can be tracked for a line */
+	private static final int INIT_FIELDS = 16;
+
+	/** The channel the file is read from, or null if the reader only reads its buffer */
+	private final ReadableByteChannel channel;
+	/** The bytes being read */
+	private ByteBuffer buffer;
+	/** Index one past the last byte of the buffer this reader may read */
+	private int end;
+	/** Offset in the file of index 0 of the buffer */
+	private long bufferOffset;
+	/** Whether every byte of the input is in the buffer */
+	private boolean endOfInput;
+	/** Charset used to decode fields into Strings */
+	private final Charset charset;
+	/** Index of the first byte of the next line */
+	private int position;
+	/** Offset in the file of the first byte of the current line */
+	private long recordOffset;
+	/** Whether the current line ended with a line break rather than at the end of the input */
+	private boolean terminated;
+	/** Start index of each field in the current line */
+	private int[] fieldStarts;
+	/** End index, exclusive, of each field in the current line */
+	private int[] fieldEnds;
+	/** Number of fields in the current line */
+	private int fieldCount;
+	/** Scratch space fields are copied into before they are decoded */
+	private byte[] scratch;
+
+	/**
+	 * Creates a reader for the given range of bytes that are already in memory.
+	 * @param buffer the bytes to read
+	 * @param start index of the first byte to read
+	 * @param end index one past the last byte to read
+	 */
+	BufferedRecordReader(ByteBuffer buffer, int start, int end) {
+		this(null, buffer, start, end);
+		this.endOfInput = true;
+	}
+
+	/**
+	 * Creates a reader for all of the bytes in a buffer.
+	 * @param buffer the bytes to read
+	 */
+	BufferedRecordReader(ByteBuffer buffer) {
+		this(buffer, 0, buffer.limit());
+	}
+
+	/**
+	 * Creates a reader for a channel or a buffer.
+	 * @param channel the channel to read, or null to only read the buffer
+	 * @param buffer the buffer to read into, or the bytes to read
+	 * @param start index of the first byte to read
+	 * @param end index one past the last byte to read
+	 */
+	private BufferedRecordReader(ReadableByteChannel channel, ByteBuffer buffer, int start, int end) {
+		this.channel = channel;
+		this.buffer = buffer;
+		this.end = end;
+		this.position = start;
+		this.charset = Charset.defaultCharset();
+		this.fieldStarts = new int[INIT_FIELDS];
+		this.fieldEnds = new int[INIT_FIELDS];
+		this.scratch = new byte[INIT_FIELDS * 8];
+	}
+
+	/**
+	 * Opens a reader that streams the given file a chunk at a time. The reader must be closed.
+	 * @param fileName the name of the file to read
+	 * @return the reader
+	 * @throws FileNotFoundException if the file cannot be opened
+	 */
+	static BufferedRecordReader open(String fileName) throws FileNotFoundException {
+		try {
+			FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+			return new BufferedRecordReader(channel, ByteBuffer.allocate(CHUNK_SIZE), 0, 0);
+		} catch (IOException | InvalidPathException e) {
+			throw new FileNotFoundException("Unable to read " + fileName);
+		}
+	}
+
+	/**
+	 * Reads the whole of the given file into a heap buffer through a FileChannel, for callers that need
+	 * every byte at once, such as a parser that splits the file into ranges or a binary snapshot. The
+	 * file is not left open or mapped, so it can be truncated or replaced as soon as this method returns.
+	 * @param fileName the name of the file to read
+	 * @return a buffer holding the contents of the file
+	 * @throws FileNotFoundException if the file cannot be opened, read, or is too large to read
+	 */
+	static ByteBuffer readAll(String fileName) throws FileNotFoundException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size <= Integer.MAX_VALUE) {
+				ByteBuffer buffer = ByteBuffer.allocate((int) size);
+				while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+					// keep reading until the buffer is full or the file ends
+				}
+				buffer.flip();
+				return buffer;
+			}
+		} catch (IOException | InvalidPathException e) {
+			throw new FileNotFoundException("Unable to read " + fileName);
+		}
+		throw new FileNotFoundException("Too large to read " + fileName);
+	}
+
+	/**
+	 * Returns true if the byte is a line feed or carriage return.
+	 * @param b the byte to check
+	 * @return true if b ends a line
+	 */
+	static boolean isLineBreak(byte b) {
+		return b == '\n' || b == '\r';
+	}
+
+	/**
+	 * Moves to the next non-empty line and finds its fields.
+	 * @return true if there was another line, false if the end of the input was reached
+	 * @throws IOException if the file cannot be read
+	 */
+	boolean nextRecord() throws IOException {
+		while (true) {
+			while (position < end && isLineBreak(buffer.get(position))) {
+				position++;
+			}
+			if (position < end) {
+				break;
+			}
+			if (!fill()) {
+				return false;
+			}
+		}
+		int lineEnd = position;
+		while (true) {
+			while (lineEnd < end && !isLineBreak(buffer.get(lineEnd))) {
+				lineEnd++;
+			}
+			if (lineEnd < end) {
+				break;
+			}
+			// fill moves the line to the front of the buffer
+			int scanned = lineEnd - position;
+			boolean more = fill();
+			lineEnd = position + scanned;
+			if (!more) {
+				break;
+			}
+		}
+		terminated = lineEnd < end;
+		recordOffset = bufferOffset + position;
+		fieldCount = 0;
+		int start = position;
+		if (buffer.get(start) == DELIMITER) {
+			start++;
+		}
+		while (start < lineEnd) {
+			int fieldEnd = start;
+			while (fieldEnd < lineEnd && buffer.get(fieldEnd) != DELIMITER) {
+				fieldEnd++;
+			}
+			addField(start, fieldEnd);
+			start = fieldEnd + 1;
+		}
+		position = lineEnd;
+		return true;
+	}
+
+	/**
+	 * Moves the unread bytes to the front of the buffer and reads more of the file after them, growing
+	 * the buffer if the unread bytes fill it.
+	 * @return true if more bytes were read, false if there are no more to read
+	 * @throws IOException if the file cannot be read
+	 */
+	private boolean fill() throws IOException {
+		if (endOfInput) {
+			return false;
+		}
+		int unread = end - position;
+		if (unread == buffer.capacity()) {
+			ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+			buffer.limit(end).position(position);
+			larger.put(buffer);
+			buffer = larger;
+		} else {
+			buffer.limit(end).position(position);
+			buffer.compact();
+		}
+		bufferOffset += position;
+		position = 0;
+		end = unread;
+		buffer.limit(buffer.capacity()).position(end);
+		int read = 0;
+		while (read == 0) {
+			read = channel.read(buffer);
+		}
+		if (read < 0) {
+			endOfInput = true;
+			return false;
+		}
+		end += read;
+		return true;
+	}
+
+	/**
+	 * Returns the offset in the file of the first byte of the current line, or its index in the buffer
+	 * for a reader made from a ByteBuffer.
+	 * @return the offset of the current line
+	 */
+	long getRecordOffset() {
+		return recordOffset;
+	}
+
+	/**
+	 * Returns true if the current line ended with a line break, and false if it ran to the end of the
+	 * input, as the last line of a file that was cut off part way through a write does.
+	 * @return true if the current line ended with a line break
+	 */
+	boolean isTerminated() {
+		return terminated;
+	}
+
+	/**
+	 * Closes the file the reader streams, if it has one.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Records the bounds of a field in the current line, growing the bounds arrays if needed.
+	 * @param start index of the first byte of the field
+	 * @param fieldEnd index one past the last byte of the field
+	 */
+	private void addField(int start, int fieldEnd) {
+		if (fieldCount == fieldStarts.length) {
+			int[] newStarts = new int[fieldStarts.length * 2];
+			int[] newEnds = new int[fieldEnds.length * 2];
+			System.arraycopy(fieldStarts, 0, newStarts, 0, fieldCount);
+			System.arraycopy(fieldEnds, 0, newEnds, 0, fieldCount);
+			fieldStarts = newStarts;
+			fieldEnds = newEnds;
+		}
+		fieldStarts[fieldCount] = start;
+		fieldEnds[fieldCount] = fieldEnd;
+		fieldCount++;
+	}
+
+	/**
+	 * Returns the number of fields in the current line.
+	 * @return the number of fields
+	 */
+	int getFieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * Decodes the given field of the current line into a String.
+	 * @param field index of the field
+	 * @return the field as a String
+	 * @throws IndexOutOfBoundsException if the line does not have the field
+	 */
+	String getField(int field) {
+		checkField(field);
+		int start = fieldStarts[field];
+		int length = fieldEnds[field] - start;
+		if (length > scratch.length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+		for (int i = 0; i < length; i++) {
+			scratch[i] = buffer.get(start + i);
+		}
+		return new String(scratch, 0, length, charset);
+	}
+
+	/**
+	 * Returns true if the given field of the current line is exactly the given ASCII character.
+	 * @param field index of the field
+	 * @param c the character to compare against
+	 * @return true if the field is the one character c
+	 * @throws IndexOutOfBoundsException if the line does not have the field
+	 */
+	boolean isField(int field, char c) {
+		checkField(field);
+		return fieldEnds[field] - fieldStarts[field] == 1 && buffer.get(fieldStarts[field]) == c;
+	}
+
+	/**
+	 * Parses the given field of the current line as a base 10 int without building a String for it.
+	 * Accepts the same input as Integer.parseInt.
+	 * @param field index of the field
+	 * @return the value of the field
+	 * @throws NumberFormatException if the field is not a valid int
+	 * @throws IndexOutOfBoundsException if the line does not have the field
+	 */
+	int getIntField(int field) {
+		checkField(field);
+		int i = fieldStarts[field];
+		int fieldEnd = fieldEnds[field];
+		if (i == fieldEnd) {
+			throw new NumberFormatException();
+		}
+		boolean negative = false;
+		byte first = buffer.get(i);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			i++;
+			if (i == fieldEnd) {
+				throw new NumberFormatException();
+			}
+		}
+		long value = 0;
+		for (; i < fieldEnd; i++) {
+			byte b = buffer.get(i);
+			if (b < 0) {
+				// non-ASCII digits are valid for Integer.parseInt, so let it decide
+				return Integer.parseInt(getField(field));
+			}
+			if (b < '0' || b > '9') {
+				throw new NumberFormatException();
+			}
+			value = value * 10 + (b - '0');
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				throw new NumberFormatException();
+			}
+		}
+		if (negative) {
+			value = -value;
+		}
+		if (value > Integer.MAX_VALUE) {
+			throw new NumberFormatException();
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Throws an IndexOutOfBoundsException if the current line does not have the given field.
+	 * @param field index of the field
+	 * @throws IndexOutOfBoundsException if field is out of range
+	 */
+	private void checkField(int field) {
+		if (field < 0 || field >= fieldCount) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+}
@@ -3,12 +3,9 @@ package edu.ncsu.csc216.pack_scheduler.io;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.util.InputMismatchException;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
-import java.io.FileInputStream;
-import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
@@ -35,115 +32,142 @@ public class CourseRecordIO {
      * @throws FileNotFoundException if the file cannot be found or read
      */
 	public static SortedList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
-	    Scanner fileReader = new Scanner(new FileInputStream(fileName));  //Create a file scanner to read the file
-	    SortedList<Course> courses = new SortedList<Course>(); //Create an empty array of Course objects
-	    while (fileReader.hasNextLine()) { //While we have more lines in the file
-	        try { //Attempt to do the following
-	            //Read the line, process it in readCourse, and get the object
-	            //If trying to construct a Course in readCourse() results in an exception, flow of control will transfer to the catch block, below
-	            Course course = readCourse(fileReader.nextLine()); 
+	    SortedList<Course> courses = new SortedList<Course>();
+	    for (Course course : streamCourseRecords(fileName)) {
+	        courses.add(course);
+	    }
+	    return courses;
+	}
 
-	            //Create a flag to see if the newly created Course is a duplicate of something already in the list  
-	            boolean duplicate = false;
-	            //Look at all the courses in our list
-	            for (int i = 0; i < courses.size(); i++) {
-	                //Get the course at index i
-	                Course current = courses.get(i);
-	                //Check if the name and section are the same
-	                if (course.getName().equals(current.getName()) &&
-	                        course.getSection().equals(current.getSection())) {
-	                    //It's a duplicate!
-	                    duplicate = true;
-	                    break; //We can break out of the loop, no need to continue searching
+	/**
+	 * Reads course records from a file in a single pass and returns the valid Courses in sorted order.
+	 * The file is streamed a chunk at a time and each line's fields are read straight from its bytes, so the
+	 * number fields are checked before any Strings are built for a line. Duplicate name and section pairs
+	 * are found through a hash set instead of a scan of the Courses read so far, and the list is sorted
+	 * once after the whole file is read. Invalid and duplicate lines are ignored, and the first of several
+	 * duplicate lines wins. If a valid Course's instructor is in the RegistrationManager's FacultyDirectory,
+	 * the Course is added to that faculty member's schedule.
+	 * @param fileName file to read Course records from
+	 * @return a sorted list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static List<Course> streamCourseRecords(String fileName) throws FileNotFoundException {
+	    ArrayList<Course> courses = new ArrayList<Course>();
+	    HashSet<String> seen = new HashSet<String>();
+	    FacultyDirectory directory = null;
+	    try (BufferedRecordReader reader = BufferedRecordReader.open(fileName)) {
+	        while (reader.nextRecord()) {
+	            try {
+	                Course course = readCourse(reader);
+	                String key = course.getName() + "," + course.getSection();
+	                if (!seen.contains(key)) {
+	                    if (directory == null) {
+	                        directory = RegistrationManager.getInstance().getFacultyDirectory();
+	                    }
+	                    assignInstructor(course, reader.getField(4), directory);
+	                    // Only a Course that was accepted hides later lines with its name and section
+	                    seen.add(key);
+	                    courses.add(course);
 	                }
+	            } catch (IllegalArgumentException e) {
+	                //The line is invalid b/c we couldn't create a course, skip it!
 	            }
-	            //If the course is NOT a duplicate
-	            if (!duplicate) {
-	                courses.add(course); //Add to the ArrayList!
-	            } //Otherwise ignore
-	        } catch (IllegalArgumentException e) {
-	            //The line is invalid b/c we couldn't create a course, skip it!
 	        }
+	    } catch (IOException e) {
+	        throw new FileNotFoundException("Unable to read " + fileName);
 	    }
-	    //Close the Scanner b/c we're responsible with our file handles
-	    fileReader.close();
-	    //Return the ArrayList with all the courses we read!
+	    courses.sort(null);
 	    return courses;
 	}
 	
 	/**
-	 * Reads the course in the next line of the file being read, attempts to create a Course object 
-	 * with the given info in the line, and returns it. IllegalArgumentException is thrown if the line has more 
-	 * info than it should with an "A" meetingDay class, if the line has more tokens than it should in general,
-	 * an InputMismatchException or a NoSuchElementException is caught when reading the line.
-	 * @param nextLine the nextLine from the FileInputStream to be read 
-	 * @return Course object in the next line of the CourseRecord
+	 * Attempts to create a Course object with the fields of the reader's current course record line and
+	 * returns it. IllegalArgumentException is thrown if the line has more info than it should with an "A"
+	 * meetingDay class, if the line has more or fewer fields than it should in general, or if a number
+	 * field cannot be parsed. The line's Strings are only built once its field count and number fields
+	 * are valid.
+	 * @param reader the reader positioned at a course record line
+	 * @return Course object for the record
 	 * @throws IllegalArgumentException when parameters are invalid.
 	 */
-    private static Course readCourse(String nextLine) {
-    	Scanner scnr = new Scanner(nextLine);
-		scnr.useDelimiter(",");
-		try {
-			int startTime = 0;
-			int endTime = 0;
-			String name = scnr.next();
-			String title = scnr.next();
-			String section = scnr.next();
-			int creditHours = Integer.parseInt(scnr.next());
-		    String instructor = scnr.next();
-			int enrollmentCap = Integer.parseInt(scnr.next());
-			String meetingDay = scnr.next();
-			if("A".equals(meetingDay)) {
-				if(scnr.hasNext()) {
-					scnr.close();
-					throw new IllegalArgumentException();
-				}
-			}
-			else {
-				startTime = Integer.parseInt(scnr.next());
-				endTime = Integer.parseInt(scnr.next());
-			}
-			if(scnr.hasNext()) {
-				scnr.close();
+    private static Course readCourse(BufferedRecordReader reader) {
+		int startTime = 0;
+		int endTime = 0;
+		int fieldCount = reader.getFieldCount();
+		if (fieldCount < 7) {
+			throw new IllegalArgumentException();
+		}
+		// getIntField throws a NumberFormatException, which is an IllegalArgumentException
+		int creditHours = reader.getIntField(3);
+		int enrollmentCap = reader.getIntField(5);
+		if (reader.isField(6, 'A')) {
+			if (fieldCount != 7) {
 				throw new IllegalArgumentException();
 			}
-			Course course = new Course(name, title, section, creditHours, null, enrollmentCap, meetingDay, startTime, endTime);
-			if(instructor != null) {
-				FacultyDirectory directory = RegistrationManager.getInstance().getFacultyDirectory();
-				Faculty faculty = directory.getFacultyById(instructor);
-				if (faculty != null) {
-					FacultySchedule schedule = faculty.getSchedule();
-					schedule.addCourseToSchedule(course);
-				} 
+		} else {
+			if (fieldCount != 9) {
+				throw new IllegalArgumentException();
 			}
-			scnr.close();
-			return course;
-		}
-		catch(InputMismatchException e) {
-			scnr.close();
-			throw new IllegalArgumentException();
+			startTime = reader.getIntField(7);
+			endTime = reader.getIntField(8);
 		}
-		catch(NoSuchElementException f) {
-			scnr.close();
-			throw new IllegalArgumentException();
-		}
-
+		return new Course(reader.getField(0), reader.getField(1), reader.getField(2), creditHours, null,
+				enrollmentCap, reader.getField(6), startTime, endTime);
 	}
+    
+    /**
+     * Adds the given Course to the schedule of the faculty member with the given id, if that faculty
+     * member is in the directory.
+     * @param course the Course read from the record
+     * @param instructor the instructor id listed in the record
+     * @param directory the FacultyDirectory to look the instructor up in
+     * @throws IllegalArgumentException if the faculty member's schedule cannot take the Course
+     */
+    private static void assignInstructor(Course course, String instructor, FacultyDirectory directory) {
+    	Faculty faculty = directory.getFacultyById(instructor);
+		if (faculty != null) {
+			FacultySchedule schedule = faculty.getSchedule();
+			schedule.addCourseToSchedule(course);
+		}
+    }
 		
 	/**
-     * Writes the given list of Courses to a file with name fileName
+     * Writes the given list of Courses to a file with name fileName. The records are written to a
+     * temporary file that replaces the file once every record is written, so a failed write leaves
+     * the old file in place.
      * @param fileName file to write schedule of Courses to
      * @param catalog list of Courses to write
      * @throws IOException if cannot write to file
      */
     public static void writeCourseRecords(String fileName, SortedList<Course> catalog) throws IOException {
-    	PrintStream fileWriter = new PrintStream(new File(fileName));
+    	RecordWriter.writeRecords(fileName, catalog.size(), catalog::get, CourseRecordIO::writeCourse);
+    }
 
-    	for (int i = 0; i < catalog.size(); i++) {
-    	    fileWriter.println(catalog.get(i).toString());
-    	}
+	/**
+     * Writes the given list of Courses to a file with name fileName. The records are written to a
+     * temporary file that replaces the file once every record is written, so a failed write leaves
+     * the old file in place.
+     * @param fileName file to write schedule of Courses to
+     * @param catalog list of Courses to write
+     * @throws IOException if cannot write to file
+     */
+    public static void writeCourseRecords(String fileName, List<Course> catalog) throws IOException {
+    	RecordWriter.writeRecords(fileName, catalog.size(), catalog::get, CourseRecordIO::writeCourse);
+    }
 
-    	fileWriter.close();
+    /**
+     * Appends the fields of a Course to the current record, the same fields as its toString().
+     * @param fileWriter the writer to write the fields to
+     * @param course the Course to write
+     * @throws IOException if cannot write to file
+     */
+    private static void writeCourse(RecordWriter fileWriter, Course course) throws IOException {
+    	fileWriter.field(course.getName()).field(course.getTitle()).field(course.getSection())
+    	        .field(course.getCredits()).field(course.getInstructorId())
+    	        .field(course.getCourseRoll().getEnrollmentCap()).field(course.getMeetingDays());
+    	if (!"A".equals(course.getMeetingDays())) {
+    	    fileWriter.field(course.getStartTime()).field(course.getEndTime());
+    	}
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,540 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.course.roll.WaitlistPriority;
+import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Persists course rolls, wait lists, and student schedules as a snapshot file plus an append-only
+ * log of enrollment events. Every enroll, drop, and wait list promotion is appended to the log as
+ * one line before the registration action returns, so the log only ever grows by whole events.
+ * Compaction writes the current rolls, wait lists, and schedules to the snapshot file and empties
+ * the log, which keeps recovery time bounded by the size of the registration data rather than the
+ * number of actions taken.
+ *
+ * Each log line holds a sequence number, an event type, the course name and section, and the student
+ * id. The snapshot records the sequence number of the last event it includes, so if the process stops
+ * after a snapshot is written but before the log is emptied, recovery skips the events the snapshot
+ * already holds. A partial line at the end of the log, left by a write that did not finish, is ignored
+ * and cut off when the log is reopened.
+ *
+ * The snapshot also saves the capacity and priority of each wait list that does not use the defaults,
+ * ahead of the wait list itself, so recovery restores them before the wait list is refilled. A priority
+ * is saved by the name it is registered under with WaitlistPriority.register; a wait list with an
+ * unregistered priority is restored first come, first served, in the order it was saved in.
+ *
+ * Recovery loads the snapshot and then replays the log against the given catalog and directory. An
+ * enrollment takes an open seat before the course is added to the student's schedule, and is skipped
+ * as a whole if there is no seat, so the rolls and schedules always agree. A drop
+ * opens the dropped seat without promoting anyone, and a promotion moves the logged student from the
+ * wait list into an open seat and adds the course to their schedule, since promotions are made after
+ * the drop and need not go to the first wait listed student. Logs written when drops promoted inline,
+ * with each promotion logged right after its drop, replay the same way.
+ *
+ * The journal's methods are synchronized, so concurrent registration sessions can log through one journal.
+ */
+public class EnrollmentJournal implements Closeable {
+
+	/** Log event for a student enrolling in a course */
+	public static final char ENROLL = 'E';
+	/** Log event for a student dropping a course */
+	public static final char DROP = 'D';
+	/** Log event for a student moving from a course's wait list onto its roll */
+	public static final char PROMOTE = 'P';
+
+	/** Snapshot line holding the sequence number of the last event in the snapshot */
+	private static final char SEQUENCE_LINE = 'J';
+	/** Snapshot line holding the roll of a course */
+	private static final char ROLL_LINE = 'R';
+	/** Snapshot line holding the wait list of a course */
+	private static final char WAITLIST_LINE = 'W';
+	/** Snapshot line holding the wait list capacity and priority of a course */
+	private static final char WAITLIST_SETTINGS_LINE = 'C';
+	/** Snapshot line holding the schedule of a student */
+	private static final char SCHEDULE_LINE = 'S';
+
+	/** Default number of events logged between compactions */
+	public static final int DEFAULT_COMPACTION_INTERVAL = 10000;
+
+	/** Name of the snapshot file */
+	private final String snapshotFileName;
+	/** Name of the log file */
+	private final String logFileName;
+	/** Channel the log is appended through, or null if the log is not open */
+	private FileChannel log;
+	/** Builds each log line before it is encoded */
+	private final StringBuilder line;
+	/** Charset log lines are encoded with */
+	private final Charset charset;
+	/** Sequence number of the last event logged or recovered */
+	private long sequence;
+	/** Number of events logged since the last compaction */
+	private int eventsSinceCompaction;
+	/** Number of events logged between compactions */
+	private int compactionInterval;
+	/** Whether each event is forced to the disk before it is acknowledged */
+	private boolean syncOnAppend;
+
+	/**
+	 * Creates a journal that uses the given snapshot and log files. Neither file is read or written
+	 * until the journal is recovered or an event is logged.
+	 * @param snapshotFileName the name of the snapshot file
+	 * @param logFileName the name of the log file
+	 * @throws IllegalArgumentException if either file name is null or empty
+	 */
+	public EnrollmentJournal(String snapshotFileName, String logFileName) {
+		if (snapshotFileName == null || "".equals(snapshotFileName) || logFileName == null || "".equals(logFileName)) {
+			throw new IllegalArgumentException("Invalid journal file.");
+		}
+		this.snapshotFileName = snapshotFileName;
+		this.logFileName = logFileName;
+		this.line = new StringBuilder();
+		this.charset = Charset.defaultCharset();
+		this.compactionInterval = DEFAULT_COMPACTION_INTERVAL;
+		this.syncOnAppend = true;
+	}
+
+	/**
+	 * Sets the number of events logged between compactions.
+	 * @param compactionInterval the number of events between compactions
+	 * @throws IllegalArgumentException if compactionInterval is less than 1
+	 */
+	public synchronized void setCompactionInterval(int compactionInterval) {
+		if (compactionInterval < 1) {
+			throw new IllegalArgumentException("Invalid compaction interval.");
+		}
+		this.compactionInterval = compactionInterval;
+	}
+
+	/**
+	 * Sets whether each event is forced to the disk before logEvent returns. Turning this off is faster,
+	 * but events logged just before a crash of the machine may be lost.
+	 * @param syncOnAppend true to force each event to the disk
+	 */
+	public synchronized void setSyncOnAppend(boolean syncOnAppend) {
+		this.syncOnAppend = syncOnAppend;
+	}
+
+	/**
+	 * Returns true if enough events have been logged since the last compaction that the journal
+	 * should be compacted.
+	 * @return true if the journal should be compacted
+	 */
+	public synchronized boolean isCompactionDue() {
+		return eventsSinceCompaction >= compactionInterval;
+	}
+
+	/**
+	 * Returns the sequence number of the last event logged or recovered.
+	 * @return the last sequence number
+	 */
+	public synchronized long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Appends an event to the log.
+	 * @param event the type of event, one of ENROLL, DROP, or PROMOTE
+	 * @param course the course of the event
+	 * @param student the student of the event
+	 * @throws IllegalArgumentException if the event type is unknown or the course or student is null
+	 * @throws IOException if the event cannot be written
+	 */
+	public synchronized void logEvent(char event, Course course, Student student) throws IOException {
+		if (event != ENROLL && event != DROP && event != PROMOTE) {
+			throw new IllegalArgumentException("Invalid journal event.");
+		}
+		if (course == null || student == null) {
+			throw new IllegalArgumentException("Invalid journal event.");
+		}
+		openLog();
+		line.setLength(0);
+		appendEvent(sequence + 1, event, course, student);
+		writeLines();
+		sequence++;
+		eventsSinceCompaction++;
+	}
+
+	/**
+	 * Appends one event of the same type and course for each of the given students to the log. The
+	 * events are written together and forced to the disk once, which makes logging a batch of changes
+	 * to one course much cheaper than logging each with logEvent.
+	 * @param event the type of event, one of ENROLL, DROP, or PROMOTE
+	 * @param course the course of the events
+	 * @param students the students of the events, in the order the events happened
+	 * @throws IllegalArgumentException if the event type is unknown or the course, the list, or a
+	 *                                  student is null
+	 * @throws IOException if the events cannot be written
+	 */
+	public synchronized void logEvents(char event, Course course, List<Student> students) throws IOException {
+		if (event != ENROLL && event != DROP && event != PROMOTE) {
+			throw new IllegalArgumentException("Invalid journal event.");
+		}
+		if (course == null || students == null || students.contains(null)) {
+			throw new IllegalArgumentException("Invalid journal event.");
+		}
+		if (students.isEmpty()) {
+			return;
+		}
+		openLog();
+		line.setLength(0);
+		for (int i = 0; i < students.size(); i++) {
+			appendEvent(sequence + 1 + i, event, course, students.get(i));
+		}
+		writeLines();
+		sequence += students.size();
+		eventsSinceCompaction += students.size();
+	}
+
+	/**
+	 * Appends the log line of an event to the line buffer.
+	 * @param eventSequence the sequence number of the event
+	 * @param event the type of event
+	 * @param course the course of the event
+	 * @param student the student of the event
+	 */
+	private void appendEvent(long eventSequence, char event, Course course, Student student) {
+		line.append(eventSequence).append(BufferedRecordReader.DELIMITER).append(event)
+				.append(BufferedRecordReader.DELIMITER).append(course.getName())
+				.append(BufferedRecordReader.DELIMITER).append(course.getSection())
+				.append(BufferedRecordReader.DELIMITER).append(student.getId()).append('\n');
+	}
+
+	/**
+	 * Writes the line buffer to the log, forcing it to the disk if syncOnAppend is set.
+	 * @throws IOException if the lines cannot be written
+	 */
+	private void writeLines() throws IOException {
+		ByteBuffer bytes = charset.encode(line.toString());
+		while (bytes.hasRemaining()) {
+			log.write(bytes);
+		}
+		if (syncOnAppend) {
+			log.force(false);
+		}
+	}
+
+	/**
+	 * Loads the snapshot and replays the log into the given catalog and directory. The courses and
+	 * students must already be loaded, and their rolls, wait lists, and schedules should be empty.
+	 * Entries for courses or students that are no longer in the catalog or directory, and entries that
+	 * can no longer be applied, are skipped. Missing snapshot or log files are treated as empty.
+	 * @param catalog the catalog holding the courses
+	 * @param directory the directory holding the students
+	 * @throws IOException if the snapshot or log exists but cannot be read
+	 */
+	public synchronized void recover(CourseCatalog catalog, StudentDirectory directory) throws IOException {
+		close();
+		long snapshotSequence = 0;
+		if (Files.exists(Paths.get(snapshotFileName))) {
+			snapshotSequence = loadSnapshot(catalog, directory);
+		}
+		sequence = snapshotSequence;
+		eventsSinceCompaction = 0;
+		if (!Files.exists(Paths.get(logFileName))) {
+			return;
+		}
+		long tornTail;
+		try (BufferedRecordReader reader = BufferedRecordReader.open(logFileName)) {
+			tornTail = replayLog(reader, catalog, directory);
+		}
+		// The reader is closed, so the log can be truncated even where open files cannot be changed
+		if (tornTail >= 0) {
+			try (FileChannel channel = FileChannel.open(Paths.get(logFileName), StandardOpenOption.WRITE)) {
+				channel.truncate(tornTail);
+			}
+		}
+	}
+
+	/**
+	 * Replays the events of the log into the given catalog and directory. A last line without a line
+	 * break was cut off by a crash part way through an append, so it is not replayed.
+	 * @param reader the reader of the log
+	 * @param catalog the catalog holding the courses
+	 * @param directory the directory holding the students
+	 * @return the offset of the line that was cut off, or -1 if every line is complete
+	 * @throws IOException if the log cannot be read
+	 */
+	private long replayLog(BufferedRecordReader reader, CourseCatalog catalog, StudentDirectory directory)
+			throws IOException {
+		while (reader.nextRecord()) {
+			if (!reader.isTerminated()) {
+				return reader.getRecordOffset();
+			}
+			if (reader.getFieldCount() != 5) {
+				continue;
+			}
+			try {
+				// Events the snapshot already holds have sequence numbers at or below its own
+				long eventSequence = Long.parseLong(reader.getField(0));
+				if (eventSequence <= sequence) {
+					continue;
+				}
+				sequence = eventSequence;
+				eventsSinceCompaction++;
+				Course course = catalog.getCourseFromCatalog(reader.getField(2), reader.getField(3));
+				Student student = directory.getStudentById(reader.getField(4));
+				if (course == null || student == null) {
+					continue;
+				}
+				if (reader.isField(1, ENROLL)) {
+					replayEnrollment(course, student);
+				} else if (reader.isField(1, DROP)) {
+					CourseRoll roll = course.getCourseRoll();
+					if (roll.dropAndHold(student)) {
+						roll.releaseReservation();
+					}
+					student.getSchedule().removeCourseFromSchedule(course);
+				} else if (reader.isField(1, PROMOTE)) {
+					replayPromotion(course, student);
+				}
+			} catch (IllegalArgumentException e) {
+				// The event can no longer be applied, so skip it
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Enrolls a student in an open seat of a course and adds the course to their schedule, the way
+	 * RegistrationManager enrolls them: the seat is taken first, and the schedule is changed only once the
+	 * student is on the roll. Does nothing to either if the student is already on the roll or wait list,
+	 * the course no longer fits their schedule, or the course has no open seat, such as when its cap was
+	 * lowered in the course records.
+	 * @param course the course
+	 * @param student the student
+	 */
+	private static void replayEnrollment(Course course, Student student) {
+		CourseRoll roll = course.getCourseRoll();
+		if (!roll.canEnroll(student) || !student.getSchedule().canAdd(course) || !roll.reserveSeat()) {
+			return;
+		}
+		roll.confirmReservation(student);
+		student.getSchedule().addCourseToSchedule(course);
+	}
+
+	/**
+	 * Moves a wait listed student into an open seat of a course and adds the course to their schedule.
+	 * Does nothing if the student is not wait listed or the course has no open seat.
+	 * @param course the course
+	 * @param student the student
+	 */
+	private static void replayPromotion(Course course, Student student) {
+		CourseRoll roll = course.getCourseRoll();
+		if (!roll.isWaitlisted(student) || !roll.reserveSeat()) {
+			return;
+		}
+		roll.promoteFromWaitlist(student);
+		try {
+			student.getSchedule().addCourseToSchedule(course);
+		} catch (IllegalArgumentException e) {
+			// The course is already on the schedule or no longer fits it
+		}
+	}
+
+	/**
+	 * Writes the rolls, wait lists, and schedules of the given catalog and directory to the snapshot
+	 * file and empties the log. The snapshot replaces the old one atomically.
+	 * @param catalog the catalog holding the courses
+	 * @param directory the directory holding the students
+	 * @throws IOException if the snapshot cannot be written or the log cannot be emptied
+	 */
+	public synchronized void compact(CourseCatalog catalog, StudentDirectory directory) throws IOException {
+		try (RecordWriter writer = new RecordWriter(snapshotFileName)) {
+			writer.field(String.valueOf(SEQUENCE_LINE)).field(Long.toString(sequence));
+			writer.endRecord();
+			String[][] courses = catalog.getCourseCatalog();
+			for (int i = 0; i < courses.length; i++) {
+				Course course = catalog.getCourseFromCatalog(courses[i][0], courses[i][1]);
+				CourseRoll roll = course.getCourseRoll();
+				writeWaitlistSettings(writer, course);
+				writeStudents(writer, ROLL_LINE, course, roll.getEnrolledStudents());
+				writeStudents(writer, WAITLIST_LINE, course, roll.getWaitlistedStudents());
+			}
+			String[][] students = directory.getStudentDirectory();
+			for (int i = 0; i < students.length; i++) {
+				Student student = directory.getStudentById(students[i][2]);
+				String[][] schedule = student.getSchedule().getScheduledCourses();
+				if (schedule.length > 0) {
+					writer.field(String.valueOf(SCHEDULE_LINE)).field(student.getId());
+					for (int j = 0; j < schedule.length; j++) {
+						writer.field(schedule[j][0]).field(schedule[j][1]);
+					}
+					writer.endRecord();
+				}
+			}
+			writer.commit();
+		}
+		openLog();
+		log.truncate(0);
+		log.force(true);
+		eventsSinceCompaction = 0;
+	}
+
+	/**
+	 * Closes the log.
+	 * @throws IOException if the log cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (log != null) {
+			log.close();
+			log = null;
+		}
+	}
+
+	/**
+	 * Writes a snapshot line holding the wait list capacity and the name of the wait list priority of a
+	 * course, if either is not the default. An unregistered priority is written without a name.
+	 * @param writer the writer for the snapshot
+	 * @param course the course
+	 * @throws IOException if the line cannot be written
+	 */
+	private static void writeWaitlistSettings(RecordWriter writer, Course course) throws IOException {
+		CourseRoll roll = course.getCourseRoll();
+		if (roll.getWaitlistCapacity() == CourseRoll.DEFAULT_WAITLIST_SIZE
+				&& roll.getWaitlistPriority() == WaitlistPriority.FIRST_COME) {
+			return;
+		}
+		writer.field(String.valueOf(WAITLIST_SETTINGS_LINE)).field(course.getName()).field(course.getSection())
+				.field(Integer.toString(roll.getWaitlistCapacity()));
+		String priority = WaitlistPriority.nameOf(roll.getWaitlistPriority());
+		if (priority != null) {
+			writer.field(priority);
+		}
+		writer.endRecord();
+	}
+
+	/**
+	 * Writes one snapshot line listing a course and a group of its students, if there are any students.
+	 * @param writer the writer for the snapshot
+	 * @param type the type of line
+	 * @param course the course
+	 * @param students the students of the course
+	 * @throws IOException if the line cannot be written
+	 */
+	private static void writeStudents(RecordWriter writer, char type, Course course, Student[] students) throws IOException {
+		if (students.length == 0) {
+			return;
+		}
+		writer.field(String.valueOf(type)).field(course.getName()).field(course.getSection());
+		for (int i = 0; i < students.length; i++) {
+			writer.field(students[i].getId());
+		}
+		writer.endRecord();
+	}
+
+	/**
+	 * Loads the rolls, wait lists, and schedules in the snapshot file into the given catalog and directory.
+	 * @param catalog the catalog holding the courses
+	 * @param directory the directory holding the students
+	 * @return the sequence number of the last event included in the snapshot
+	 * @throws IOException if the snapshot cannot be read or is invalid
+	 */
+	private long loadSnapshot(CourseCatalog catalog, StudentDirectory directory) throws IOException {
+		try (BufferedRecordReader reader = BufferedRecordReader.open(snapshotFileName)) {
+			return loadSnapshot(reader, catalog, directory);
+		}
+	}
+
+	/**
+	 * Loads the rolls, wait lists, and schedules the reader reaches into the given catalog and directory.
+	 * @param reader the reader of the snapshot
+	 * @param catalog the catalog holding the courses
+	 * @param directory the directory holding the students
+	 * @return the sequence number of the last event included in the snapshot
+	 * @throws IOException if the snapshot cannot be read or is invalid
+	 */
+	private long loadSnapshot(BufferedRecordReader reader, CourseCatalog catalog, StudentDirectory directory)
+			throws IOException {
+		long snapshotSequence = 0;
+		while (reader.nextRecord()) {
+			if (reader.getFieldCount() < 2) {
+				continue;
+			}
+			if (reader.isField(0, SEQUENCE_LINE)) {
+				try {
+					snapshotSequence = Long.parseLong(reader.getField(1));
+				} catch (NumberFormatException e) {
+					throw new FileNotFoundException("Invalid snapshot " + snapshotFileName);
+				}
+			} else if (reader.isField(0, SCHEDULE_LINE)) {
+				Student student = directory.getStudentById(reader.getField(1));
+				if (student == null) {
+					continue;
+				}
+				for (int i = 3; i < reader.getFieldCount(); i += 2) {
+					Course course = catalog.getCourseFromCatalog(reader.getField(i - 1), reader.getField(i));
+					try {
+						if (course != null) {
+							student.getSchedule().addCourseToSchedule(course);
+						}
+					} catch (IllegalArgumentException e) {
+						// The course no longer fits the schedule, so skip it
+					}
+				}
+			} else if (reader.getFieldCount() >= 4 && reader.isField(0, WAITLIST_SETTINGS_LINE)) {
+				Course course = catalog.getCourseFromCatalog(reader.getField(1), reader.getField(2));
+				if (course == null) {
+					continue;
+				}
+				try {
+					course.getCourseRoll().setWaitlistCapacity(Integer.parseInt(reader.getField(3)));
+				} catch (IllegalArgumentException e) {
+					throw new FileNotFoundException("Invalid snapshot " + snapshotFileName);
+				}
+				WaitlistPriority priority = reader.getFieldCount() > 4 ? WaitlistPriority.forName(reader.getField(4)) : null;
+				if (priority != null) {
+					course.getCourseRoll().setWaitlistPriority(priority);
+				}
+			} else if (reader.getFieldCount() >= 3
+					&& (reader.isField(0, ROLL_LINE) || reader.isField(0, WAITLIST_LINE))) {
+				Course course = catalog.getCourseFromCatalog(reader.getField(1), reader.getField(2));
+				if (course == null) {
+					continue;
+				}
+				boolean waitlist = reader.isField(0, WAITLIST_LINE);
+				for (int i = 3; i < reader.getFieldCount(); i++) {
+					Student student = directory.getStudentById(reader.getField(i));
+					try {
+						if (student == null) {
+							continue;
+						} else if (waitlist) {
+							course.getCourseRoll().addToWaitlist(student);
+						} else {
+							course.getCourseRoll().enroll(student);
+						}
+					} catch (IllegalArgumentException e) {
+						// The student can no longer be added, so skip them
+					}
+				}
+			}
+		}
+		return snapshotSequence;
+	}
+
+	/**
+	 * Opens the log for appending if it is not already open.
+	 * @throws IOException if the log cannot be opened
+	 */
+	private void openLog() throws IOException {
+		if (log == null) {
+			log = FileChannel.open(Paths.get(logFileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+		}
+	}
+}
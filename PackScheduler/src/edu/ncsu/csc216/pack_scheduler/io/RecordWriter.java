@@ -0,0 +1,234 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.function.IntFunction;
+
+/**
+ * Writes comma separated records to a record file. Fields are appended straight into a reusable
+ * character buffer, encoded into a reusable byte buffer, and written through a FileChannel in large
+ * blocks, so no String is built for a whole record. Everything is written to a temporary file in the
+ * same directory as the record file through an AtomicFile, and commit() renames it over the record file.
+ * If the writer is closed without being committed, or the process stops part way through, the record
+ * file is left as it was.
+ *
+ * A writer is meant to be used in a try-with-resources block that calls commit() as its last step.
+ */
+final class RecordWriter implements Closeable {
+
+	/** Size, in bytes, of the blocks written to the file */
+	private static final int BLOCK_SIZE = 65536;
+
+	/** Number of characters buffered before they are encoded */
+	private static final int CHAR_BUFFER_SIZE = 8192;
+
+	/** Characters written at the end of each record */
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	/** The temporary file that replaces the record file */
+	private final AtomicFile file;
+	/** Encodes characters with the default charset */
+	private final CharsetEncoder encoder;
+	/** Characters that have not been encoded yet */
+	private final CharBuffer chars;
+	/** Encoded bytes that have not been written yet */
+	private final ByteBuffer bytes;
+	/** Scratch space int fields are formatted in */
+	private final char[] digits;
+	/** Whether the field being written is the first in its record */
+	private boolean firstField;
+
+	/**
+	 * Writes the fields of one element as a record.
+	 * @param <E> the type of element written
+	 */
+	@FunctionalInterface
+	interface FieldWriter<E> {
+
+		/**
+		 * Appends the fields of an element to the current record.
+		 * @param writer the writer to append the fields to
+		 * @param element the element to write
+		 * @throws IOException if the buffered records cannot be written
+		 */
+		void writeFields(RecordWriter writer, E element) throws IOException;
+	}
+
+	/**
+	 * Writes one record for each element to a record file and commits it, so a failed write leaves the
+	 * old file in place.
+	 * @param <E> the type of element written
+	 * @param fileName the name of the record file to write
+	 * @param size the number of elements to write
+	 * @param element returns the element at an index
+	 * @param fields appends the fields of an element to its record
+	 * @throws IOException if the records cannot be written or the file cannot be replaced
+	 */
+	static <E> void writeRecords(String fileName, int size, IntFunction<E> element, FieldWriter<E> fields)
+			throws IOException {
+		try (RecordWriter writer = new RecordWriter(fileName)) {
+			for (int i = 0; i < size; i++) {
+				fields.writeFields(writer, element.apply(i));
+				writer.endRecord();
+			}
+			writer.commit();
+		}
+	}
+
+	/**
+	 * Creates a writer for the given record file. A temporary file is created next to it.
+	 * @param fileName the name of the record file to write
+	 * @throws FileNotFoundException if the directory of the record file does not exist or cannot be written to
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	RecordWriter(String fileName) throws IOException {
+		file = new AtomicFile(fileName);
+		encoder = Charset.defaultCharset().newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+		bytes = ByteBuffer.allocate(BLOCK_SIZE);
+		digits = new char[11];
+		firstField = true;
+	}
+
+	/**
+	 * Appends a String field to the current record. A null field is written as "null", the same as
+	 * String concatenation writes it.
+	 * @param field the field to write
+	 * @return this writer
+	 * @throws IOException if the buffered records cannot be written
+	 */
+	RecordWriter field(String field) throws IOException {
+		startField();
+		write(String.valueOf(field));
+		return this;
+	}
+
+	/**
+	 * Appends an int field to the current record.
+	 * @param field the field to write
+	 * @return this writer
+	 * @throws IOException if the buffered records cannot be written
+	 */
+	RecordWriter field(int field) throws IOException {
+		startField();
+		int pos = digits.length;
+		long value = Math.abs((long) field);
+		do {
+			digits[--pos] = (char) ('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+		if (field < 0) {
+			digits[--pos] = '-';
+		}
+		for (; pos < digits.length; pos++) {
+			write(digits[pos]);
+		}
+		return this;
+	}
+
+	/**
+	 * Ends the current record with a line separator.
+	 * @throws IOException if the buffered records cannot be written
+	 */
+	void endRecord() throws IOException {
+		write(LINE_SEPARATOR);
+		firstField = true;
+	}
+
+	/**
+	 * Writes out everything buffered, forces it to the disk, and renames the temporary file over the
+	 * record file. The rename is atomic when the file system supports it.
+	 * @throws IOException if the records cannot be written or the file cannot be renamed
+	 */
+	void commit() throws IOException {
+		encodeChars(true);
+		while (encoder.flush(bytes) == CoderResult.OVERFLOW) {
+			writeBytes();
+		}
+		writeBytes();
+		file.commit();
+	}
+
+	/**
+	 * Closes the writer. If the records were not committed, the temporary file is deleted and the
+	 * record file is left as it was.
+	 * @throws IOException if the temporary file cannot be closed or deleted
+	 */
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+	/**
+	 * Writes a field delimiter unless the next field is the first in its record.
+	 * @throws IOException if the buffered records cannot be written
+	 */
+	private void startField() throws IOException {
+		if (!firstField) {
+			write(BufferedRecordReader.DELIMITER);
+		}
+		firstField = false;
+	}
+
+	/**
+	 * Buffers the characters of a String.
+	 * @param s the characters to write
+	 * @throws IOException if the buffered records cannot be written
+	 */
+	private void write(String s) throws IOException {
+		int offset = 0;
+		while (offset < s.length()) {
+			if (!chars.hasRemaining()) {
+				encodeChars(false);
+			}
+			int count = Math.min(chars.remaining(), s.length() - offset);
+			chars.put(s, offset, offset + count);
+			offset += count;
+		}
+	}
+
+	/**
+	 * Buffers a single character.
+	 * @param c the character to write
+	 * @throws IOException if the buffered records cannot be written
+	 */
+	private void write(char c) throws IOException {
+		if (!chars.hasRemaining()) {
+			encodeChars(false);
+		}
+		chars.put(c);
+	}
+
+	/**
+	 * Encodes the buffered characters into the byte buffer, writing the byte buffer out whenever it
+	 * fills. A surrogate pair split across two calls stays in the character buffer until the rest of it
+	 * is buffered, unless this is the end of the input.
+	 * @param endOfInput true if no more characters will be written
+	 * @throws IOException if the buffered records cannot be written
+	 */
+	private void encodeChars(boolean endOfInput) throws IOException {
+		chars.flip();
+		while (encoder.encode(chars, bytes, endOfInput) == CoderResult.OVERFLOW) {
+			writeBytes();
+		}
+		chars.compact();
+	}
+
+	/**
+	 * Writes the byte buffer out to the temporary file and clears it.
+	 * @throws IOException if the bytes cannot be written
+	 */
+	private void writeBytes() throws IOException {
+		bytes.flip();
+		file.write(bytes);
+	}
+}
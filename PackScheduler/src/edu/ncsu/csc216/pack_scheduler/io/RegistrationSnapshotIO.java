@@ -0,0 +1,376 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.course.roll.WaitlistPriority;
+import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
+import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Saves and loads everything the RegistrationManager holds as one binary snapshot file: the course
+ * catalog, the student and faculty directories, course rolls and wait lists with their capacities and
+ * priorities, student schedules, and faculty teaching assignments. A wait list's priority is saved by
+ * the name it is registered under with WaitlistPriority.register; a wait list with an unregistered
+ * priority is restored first come, first served, in the order it was saved in.
+ *
+ * Every String in the snapshot is stored once in a string table at the front of the file, and every
+ * other field is a fixed-width 4 byte int: a number, an index into the string table, or an index of
+ * a student or course in the snapshot. Loading reads the file into one buffer and takes the ints straight out of it.
+ * Every record is loaded through the same constructors as records read from text files, so a snapshot
+ * that was changed on disk is checked like any other input. Nothing in the catalog or directories is
+ * replaced until the whole snapshot has been read.
+ *
+ * Schedule entries for courses that are not in the catalog are not saved.
+ */
+public class RegistrationSnapshotIO {
+
+	/** First int of every snapshot file, "PKSS" in ASCII */
+	private static final int MAGIC = 0x504B5353;
+	/** Version of the snapshot format, which added wait list capacities and priorities in version 2 */
+	private static final int VERSION = 2;
+	/** String table index written for a null String */
+	private static final int NULL_STRING = -1;
+	/** Size, in bytes, of the blocks written to the file */
+	private static final int BLOCK_SIZE = 65536;
+
+	/**
+	 * Writes a snapshot of the given catalog and directories to a file. The snapshot replaces the file
+	 * atomically, so a failed write leaves the old file in place.
+	 * @param fileName the name of the snapshot file
+	 * @param catalog the course catalog
+	 * @param students the student directory
+	 * @param faculty the faculty directory
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writeSnapshot(String fileName, CourseCatalog catalog, StudentDirectory students,
+			FacultyDirectory faculty) throws IOException {
+		SnapshotEncoder encoder = new SnapshotEncoder();
+		List<Faculty> facultyList = faculty.getFacultyMembers();
+		List<Student> studentList = students.getStudents();
+		List<Course> courseList = catalog.getCourses();
+		IdentityHashMap<Student, Integer> studentIndexes = new IdentityHashMap<Student, Integer>();
+		IdentityHashMap<Course, Integer> courseIndexes = new IdentityHashMap<Course, Integer>();
+
+		encoder.putInt(facultyList.size());
+		for (Faculty f : facultyList) {
+			encoder.putString(f.getFirstName());
+			encoder.putString(f.getLastName());
+			encoder.putString(f.getId());
+			encoder.putString(f.getEmail());
+			encoder.putString(f.getPassword());
+			encoder.putInt(f.getMaxCourses());
+		}
+
+		encoder.putInt(studentList.size());
+		for (int i = 0; i < studentList.size(); i++) {
+			Student s = studentList.get(i);
+			studentIndexes.put(s, i);
+			encoder.putString(s.getFirstName());
+			encoder.putString(s.getLastName());
+			encoder.putString(s.getId());
+			encoder.putString(s.getEmail());
+			encoder.putString(s.getPassword());
+			encoder.putInt(s.getMaxCredits());
+		}
+
+		encoder.putInt(courseList.size());
+		for (int i = 0; i < courseList.size(); i++) {
+			Course c = courseList.get(i);
+			courseIndexes.put(c, i);
+			CourseRoll roll = c.getCourseRoll();
+			encoder.putString(c.getName());
+			encoder.putString(c.getTitle());
+			encoder.putString(c.getSection());
+			encoder.putInt(c.getCredits());
+			encoder.putString(c.getInstructorId());
+			encoder.putInt(roll.getEnrollmentCap());
+			encoder.putString(c.getMeetingDays());
+			encoder.putInt(c.getStartTime());
+			encoder.putInt(c.getEndTime());
+			encoder.putInt(roll.getWaitlistCapacity());
+			encoder.putString(WaitlistPriority.nameOf(roll.getWaitlistPriority()));
+			putStudents(encoder, roll.getEnrolledStudents(), studentIndexes);
+			putStudents(encoder, roll.getWaitlistedStudents(), studentIndexes);
+		}
+
+		for (Student s : studentList) {
+			putCourses(encoder, s.getSchedule().getScheduledCourses(), catalog, courseIndexes);
+		}
+		for (Faculty f : facultyList) {
+			putCourses(encoder, f.getSchedule().getScheduledCourses(), catalog, courseIndexes);
+		}
+
+		try (AtomicFile file = new AtomicFile(fileName)) {
+			encoder.writeTo(file);
+			file.commit();
+		}
+	}
+
+	/**
+	 * Loads a snapshot written by writeSnapshot into the given catalog and directories, replacing
+	 * everything they held. If the snapshot cannot be read, the catalog and directories are unchanged.
+	 * @param fileName the name of the snapshot file
+	 * @param catalog the course catalog to load into
+	 * @param students the student directory to load into
+	 * @param faculty the faculty directory to load into
+	 * @throws IOException if the file cannot be read or is not a valid snapshot
+	 */
+	public static void readSnapshot(String fileName, CourseCatalog catalog, StudentDirectory students,
+			FacultyDirectory faculty) throws IOException {
+		ByteBuffer buffer = BufferedRecordReader.readAll(fileName);
+		try {
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("Invalid snapshot " + fileName);
+			}
+			int version = buffer.getInt();
+			if (version < 1 || version > VERSION) {
+				throw new IOException("Invalid snapshot " + fileName);
+			}
+			String[] strings = new String[buffer.getInt()];
+			byte[] scratch = new byte[64];
+			for (int i = 0; i < strings.length; i++) {
+				int length = buffer.getInt();
+				if (length > scratch.length) {
+					scratch = new byte[Math.max(length, scratch.length * 2)];
+				}
+				buffer.get(scratch, 0, length);
+				strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+			}
+
+			Faculty[] facultyArray = new Faculty[buffer.getInt()];
+			for (int i = 0; i < facultyArray.length; i++) {
+				facultyArray[i] = new Faculty(getString(buffer, strings), getString(buffer, strings),
+						getString(buffer, strings), getString(buffer, strings), getString(buffer, strings), buffer.getInt());
+			}
+
+			Student[] studentArray = new Student[buffer.getInt()];
+			for (int i = 0; i < studentArray.length; i++) {
+				studentArray[i] = new Student(getString(buffer, strings), getString(buffer, strings),
+						getString(buffer, strings), getString(buffer, strings), getString(buffer, strings), buffer.getInt());
+			}
+
+			Course[] courseArray = new Course[buffer.getInt()];
+			for (int i = 0; i < courseArray.length; i++) {
+				Course c = new Course(getString(buffer, strings), getString(buffer, strings),
+						getString(buffer, strings), buffer.getInt(), getString(buffer, strings), buffer.getInt(),
+						getString(buffer, strings), buffer.getInt(), buffer.getInt());
+				CourseRoll roll = c.getCourseRoll();
+				if (version >= 2) {
+					// The capacity is restored before the wait list is refilled, so a long wait list fits
+					roll.setWaitlistCapacity(buffer.getInt());
+					WaitlistPriority priority = WaitlistPriority.forName(getString(buffer, strings));
+					if (priority != null) {
+						roll.setWaitlistPriority(priority);
+					}
+				}
+				int enrolled = buffer.getInt();
+				for (int j = 0; j < enrolled; j++) {
+					roll.enroll(studentArray[buffer.getInt()]);
+				}
+				int waitlisted = buffer.getInt();
+				for (int j = 0; j < waitlisted; j++) {
+					roll.addToWaitlist(studentArray[buffer.getInt()]);
+				}
+				courseArray[i] = c;
+			}
+
+			for (Student s : studentArray) {
+				int scheduled = buffer.getInt();
+				for (int j = 0; j < scheduled; j++) {
+					s.getSchedule().addCourseToSchedule(courseArray[buffer.getInt()]);
+				}
+			}
+			for (Faculty f : facultyArray) {
+				int scheduled = buffer.getInt();
+				for (int j = 0; j < scheduled; j++) {
+					Course c = courseArray[buffer.getInt()];
+					// the faculty schedule sets the instructor id when the course is added
+					c.setInstructorId(null);
+					f.getSchedule().addCourseToSchedule(c);
+				}
+			}
+
+			ArrayList<Faculty> facultyList = new ArrayList<Faculty>(facultyArray.length);
+			for (Faculty f : facultyArray) {
+				facultyList.add(f);
+			}
+			ArrayList<Student> studentList = new ArrayList<Student>(studentArray.length);
+			for (Student s : studentArray) {
+				studentList.add(s);
+			}
+			ArrayList<Course> courseList = new ArrayList<Course>(courseArray.length);
+			for (Course c : courseArray) {
+				courseList.add(c);
+			}
+			faculty.restoreFaculty(facultyList);
+			students.restoreStudents(studentList);
+			catalog.restoreCourses(courseList);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+				| NullPointerException e) {
+			throw new IOException("Invalid snapshot " + fileName);
+		}
+	}
+
+	/**
+	 * Reads a string table index and returns the String it refers to.
+	 * @param buffer the snapshot
+	 * @param strings the string table
+	 * @return the String, or null if the index is NULL_STRING
+	 */
+	private static String getString(ByteBuffer buffer, String[] strings) {
+		int index = buffer.getInt();
+		return index == NULL_STRING ? null : strings[index];
+	}
+
+	/**
+	 * Writes a count followed by the snapshot index of each student.
+	 * @param encoder the snapshot being written
+	 * @param list the students
+	 * @param studentIndexes snapshot index of each student in the directory
+	 */
+	private static void putStudents(SnapshotEncoder encoder, Student[] list, IdentityHashMap<Student, Integer> studentIndexes) {
+		int countPosition = encoder.reserveInt();
+		int count = 0;
+		for (Student s : list) {
+			Integer index = studentIndexes.get(s);
+			if (index != null) {
+				encoder.putInt(index);
+				count++;
+			}
+		}
+		encoder.setInt(countPosition, count);
+	}
+
+	/**
+	 * Writes a count followed by the snapshot index of each scheduled course that is in the catalog.
+	 * @param encoder the snapshot being written
+	 * @param scheduled name and section of each scheduled course
+	 * @param catalog the course catalog
+	 * @param courseIndexes snapshot index of each course in the catalog
+	 */
+	private static void putCourses(SnapshotEncoder encoder, String[][] scheduled, CourseCatalog catalog,
+			IdentityHashMap<Course, Integer> courseIndexes) {
+		int countPosition = encoder.reserveInt();
+		int count = 0;
+		for (String[] course : scheduled) {
+			Integer index = courseIndexes.get(catalog.getCourseFromCatalog(course[0], course[1]));
+			if (index != null) {
+				encoder.putInt(index);
+				count++;
+			}
+		}
+		encoder.setInt(countPosition, count);
+	}
+
+	/**
+	 * Builds the body of a snapshot as a list of ints while collecting its string table.
+	 */
+	private static class SnapshotEncoder {
+
+		/** Index of each String in the string table */
+		private final HashMap<String, Integer> stringIndexes = new HashMap<String, Integer>();
+		/** Strings in the string table, in index order */
+		private final ArrayList<String> strings = new ArrayList<String>();
+		/** The ints of the snapshot body */
+		private int[] body = new int[1024];
+		/** Number of ints in the body */
+		private int size;
+
+		/**
+		 * Appends an int to the body.
+		 * @param value the int to append
+		 */
+		void putInt(int value) {
+			if (size == body.length) {
+				int[] newBody = new int[body.length * 2];
+				System.arraycopy(body, 0, newBody, 0, size);
+				body = newBody;
+			}
+			body[size++] = value;
+		}
+
+		/**
+		 * Appends a placeholder int to the body to be set later.
+		 * @return the position of the placeholder
+		 */
+		int reserveInt() {
+			putInt(0);
+			return size - 1;
+		}
+
+		/**
+		 * Sets an int already in the body.
+		 * @param position the position of the int
+		 * @param value the value to set
+		 */
+		void setInt(int position, int value) {
+			body[position] = value;
+		}
+
+		/**
+		 * Appends the string table index of a String to the body, adding the String to the table if needed.
+		 * @param s the String to append, which may be null
+		 */
+		void putString(String s) {
+			if (s == null) {
+				putInt(NULL_STRING);
+				return;
+			}
+			Integer index = stringIndexes.get(s);
+			if (index == null) {
+				index = strings.size();
+				stringIndexes.put(s, index);
+				strings.add(s);
+			}
+			putInt(index);
+		}
+
+		/**
+		 * Writes the header, string table, and body to the file.
+		 * @param file the file to write to
+		 * @throws IOException if the file cannot be written
+		 */
+		void writeTo(AtomicFile file) throws IOException {
+			ByteBuffer bytes = ByteBuffer.allocate(BLOCK_SIZE);
+			bytes.putInt(MAGIC).putInt(VERSION).putInt(strings.size());
+			for (String s : strings) {
+				byte[] encoded = s.getBytes(StandardCharsets.UTF_8);
+				if (bytes.remaining() < Integer.BYTES) {
+					bytes.flip();
+					file.write(bytes);
+				}
+				bytes.putInt(encoded.length);
+				for (int offset = 0; offset < encoded.length; ) {
+					if (!bytes.hasRemaining()) {
+						bytes.flip();
+						file.write(bytes);
+					}
+					int length = Math.min(bytes.remaining(), encoded.length - offset);
+					bytes.put(encoded, offset, length);
+					offset += length;
+				}
+			}
+			for (int i = 0; i < size; i++) {
+				if (bytes.remaining() < Integer.BYTES) {
+					bytes.flip();
+					file.write(bytes);
+				}
+				bytes.putInt(body[i]);
+			}
+			bytes.flip();
+			file.write(bytes);
+		}
+	}
+}
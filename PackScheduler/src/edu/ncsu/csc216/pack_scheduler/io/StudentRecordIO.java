@@ -2,12 +2,12 @@ package edu.ncsu.csc216.pack_scheduler.io;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.io.FileInputStream;
-import java.io.File;
-import java.util.InputMismatchException;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc217.collections.list.SortedList;
@@ -32,72 +32,213 @@ public class StudentRecordIO {
      * @throws FileNotFoundException if the file is unable to be opened
      */
 	public static SortedList<Student> readStudentRecords(String fileName) throws FileNotFoundException {
-		Scanner fileReader = new Scanner(new FileInputStream(fileName));
 		SortedList<Student> students = new SortedList<Student>();
-		
-		while (fileReader.hasNextLine()){
-		    try {
-		        Student student = processStudent(fileReader.nextLine());
-		        students.add(student);
-		    } catch (IllegalArgumentException e) {
-		        // Invalid line because a student could not be created
-		        continue; // this line is to prevent a PMD for an empty catch block
-		    }
+		for (Student student : readStudentRecordsInParallel(fileName)) {
+			students.add(student);
 		}
-		    
-		fileReader.close();
 		return students;
 	}
 	
 	/**
-	 * Reads in the information from a student record on a single student and creates a 
+	 * Reads in student records from a file to create Students, parsing the file in parallel. The file is
+	 * read into one buffer and split into byte ranges that end on line breaks, each range is parsed and sorted as its own task on
+	 * the common fork-join pool, and the sorted ranges are merged back together. Invalid lines are skipped
+	 * and repeated records are kept only once, so the result is the same list, in the same order, as adding
+	 * each valid line to a SortedList in file order. If the file is unable to be opened, a
+	 * FileNotFoundException is thrown.
+	 * @param fileName the name of the file containing the student record
+	 * @return a list of Students created from the information in the record, sorted by last name,
+	 *         first name, and id
+	 * @throws FileNotFoundException if the file is unable to be opened
+	 */
+	public static List<Student> readStudentRecordsInParallel(String fileName) throws FileNotFoundException {
+		ByteBuffer data = BufferedRecordReader.readAll(fileName);
+		List<Student> students = ForkJoinPool.commonPool().invoke(new ChunkParser(data, 0, data.limit()));
+		removeRepeatedStudents(students);
+		return students;
+	}
+	
+	/**
+	 * Removes students that are equal to a student earlier in the list. Equal students always compare as
+	 * equal, so only the run of students that compare the same as each student needs to be checked.
+	 * @param students the sorted list of students
+	 */
+	private static void removeRepeatedStudents(List<Student> students) {
+		int runStart = 0;
+		int size = 0;
+		for (int i = 0; i < students.size(); i++) {
+			Student student = students.get(i);
+			if (size > 0 && students.get(size - 1).compareTo(student) != 0) {
+				runStart = size;
+			}
+			boolean repeated = false;
+			for (int j = runStart; j < size; j++) {
+				if (students.get(j).equals(student)) {
+					repeated = true;
+					break;
+				}
+			}
+			if (!repeated) {
+				students.set(size, student);
+				size++;
+			}
+		}
+		students.subList(size, students.size()).clear();
+	}
+	
+	/**
+	 * Reads in the information from the reader's current student record on a single student and creates a 
 	 * Student with that information. If the record is not in the right format, an IllegalArgumentException
-	 * is thrown.
-	 * @param studentLine the line containing the student's information
+	 * is thrown. Any fields after the max credits are ignored, and no Strings are built for the record
+	 * until its max credits are parsed.
+	 * @param reader the reader positioned at the line containing the student's information
 	 * @return a Student created with the line information
 	 * @throws IllegalArgumentException if input is not of the expected type or there is not enough input
 	 */
-	private static Student processStudent(String studentLine) {
-	    Scanner input = new Scanner(studentLine);
-	    input.useDelimiter(",");
-	    
-	    try {
-	        // read in tokens
-	        String firstName = input.next();
-	        String lastName = input.next();
-	        String id = input.next();
-	        String email = input.next();
-	        String hashPW = input.next();
-	        int maxCredits = input.nextInt();
-	        
-	        input.close();
-	        return new Student(firstName, lastName, id, email, hashPW, maxCredits);
-	        
-	    } catch (InputMismatchException e) {
-	        input.close();
-	        throw new IllegalArgumentException();
-	    } catch (NoSuchElementException e) {
-	        throw new IllegalArgumentException();
-	    } catch (IllegalArgumentException e) {
-	        throw new IllegalArgumentException();
-	    }
+	private static Student processStudent(BufferedRecordReader reader) {
+		if (reader.getFieldCount() < 6) {
+			throw new IllegalArgumentException();
+		}
+		// getIntField throws a NumberFormatException, which is an IllegalArgumentException
+		int maxCredits = reader.getIntField(5);
+		return new Student(reader.getField(0), reader.getField(1), reader.getField(2), reader.getField(3),
+				reader.getField(4), maxCredits);
+	}
+	
+	/**
+	 * Parses a byte range of a student record file into a sorted list of Students. Ranges larger than
+	 * CHUNK_SIZE are split in two at a line break and parsed as separate tasks.
+	 */
+	private static class ChunkParser extends RecursiveTask<List<Student>> {
+		
+		/** ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		
+		/** Largest range, in bytes, that is parsed without splitting it again */
+		private static final int CHUNK_SIZE = 65536;
+		
+		/** Contents of the whole file */
+		private final ByteBuffer data;
+		/** Index of the first byte in the range */
+		private final int start;
+		/** Index one past the last byte in the range */
+		private final int end;
+		
+		/**
+		 * Creates a task that parses the given range of the file.
+		 * @param data contents of the whole file
+		 * @param start index of the first byte in the range
+		 * @param end index one past the last byte in the range
+		 */
+		ChunkParser(ByteBuffer data, int start, int end) {
+			this.data = data;
+			this.start = start;
+			this.end = end;
+		}
+		
+		/**
+		 * Parses the range, splitting it into two tasks first if it is larger than CHUNK_SIZE.
+		 * @return the valid Students in the range, sorted
+		 */
+		@Override
+		protected List<Student> compute() {
+			if (end - start > CHUNK_SIZE) {
+				int split = start + (end - start) / 2;
+				while (split < end && !BufferedRecordReader.isLineBreak(data.get(split))) {
+					split++;
+				}
+				if (split < end) {
+					ChunkParser left = new ChunkParser(data, start, split);
+					ChunkParser right = new ChunkParser(data, split + 1, end);
+					left.fork();
+					List<Student> rightStudents = right.compute();
+					return merge(left.join(), rightStudents);
+				}
+			}
+			return parse();
+		}
+		
+		/**
+		 * Parses every line in the range straight from the bytes of the file. Lines may end with \n, \r\n,
+		 * or \r, and empty lines are skipped.
+		 * @return the valid Students in the range, sorted
+		 */
+		private List<Student> parse() {
+			ArrayList<Student> students = new ArrayList<Student>();
+			BufferedRecordReader reader = new BufferedRecordReader(data, start, end);
+			try {
+				while (reader.nextRecord()) {
+					try {
+						students.add(processStudent(reader));
+					} catch (IllegalArgumentException e) {
+						// Invalid line because a student could not be created
+					}
+				}
+			} catch (IOException e) {
+				// Only a reader that streams a file can fail, and this one reads bytes already in memory
+				throw new UncheckedIOException(e);
+			}
+			students.sort(null);
+			return students;
+		}
+		
+		/**
+		 * Merges two sorted lists of Students. Students in the left list come before students in the
+		 * right list that compare the same, which keeps students in file order when they compare the same.
+		 * @param left Students from the earlier part of the file
+		 * @param right Students from the later part of the file
+		 * @return the merged, sorted list
+		 */
+		private static List<Student> merge(List<Student> left, List<Student> right) {
+			ArrayList<Student> merged = new ArrayList<Student>(left.size() + right.size());
+			int i = 0;
+			int j = 0;
+			while (i < left.size() && j < right.size()) {
+				if (right.get(j).compareTo(left.get(i)) < 0) {
+					merged.add(right.get(j++));
+				} else {
+					merged.add(left.get(i++));
+				}
+			}
+			merged.addAll(left.subList(i, left.size()));
+			merged.addAll(right.subList(j, right.size()));
+			return merged;
+		}
 	}
 
 	/**
 	 * Writes the given record of Students to a file. Students are written to the file in alphabetical order. 
-	 * If the write is unsuccessful, an IOException is thrown.
+	 * The records are written to a temporary file that replaces the file once every record is written, so
+	 * an unsuccessful write leaves the old file in place. If the write is unsuccessful, an IOException is thrown.
 	 * @param fileName file to write record of students to
 	 * @param studentDirectory list of students to write
 	 * @throws IOException if the file cannot be written to
 	 */
 	public static void writeStudentRecords(String fileName, SortedList<Student> studentDirectory) throws IOException {
-		PrintStream fileWriter = new PrintStream(new File(fileName));
-		
-		for (int i = 0; i < studentDirectory.size(); i++) {
-		    fileWriter.println(studentDirectory.get(i).toString());
-		}
-		
-		fileWriter.close();
+		RecordWriter.writeRecords(fileName, studentDirectory.size(), studentDirectory::get, StudentRecordIO::writeStudent);
+	}
+
+	/**
+	 * Writes the given record of Students to a file. Students are written to the file in list order. 
+	 * The records are written to a temporary file that replaces the file once every record is written, so
+	 * an unsuccessful write leaves the old file in place. If the write is unsuccessful, an IOException is thrown.
+	 * @param fileName file to write record of students to
+	 * @param studentDirectory list of students to write
+	 * @throws IOException if the file cannot be written to
+	 */
+	public static void writeStudentRecords(String fileName, List<Student> studentDirectory) throws IOException {
+		RecordWriter.writeRecords(fileName, studentDirectory.size(), studentDirectory::get, StudentRecordIO::writeStudent);
+	}
+
+	/**
+	 * Appends the fields of a Student to the current record, the same fields as its toString().
+	 * @param fileWriter the writer to write the fields to
+	 * @param student the Student to write
+	 * @throws IOException if the file cannot be written to
+	 */
+	private static void writeStudent(RecordWriter fileWriter, Student student) throws IOException {
+		fileWriter.field(student.getFirstName()).field(student.getLastName()).field(student.getId())
+				.field(student.getEmail()).field(student.getPassword()).field(student.getMaxCredits());
 	}
 
 }
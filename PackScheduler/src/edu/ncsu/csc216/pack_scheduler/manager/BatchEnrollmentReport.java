@@ -0,0 +1,73 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+/**
+ * The result of each row of a batch enrollment, by row number in the order the rows were given.
+ */
+public class BatchEnrollmentReport {
+
+	/**
+	 * The outcome of one row of a batch enrollment.
+	 */
+	public enum Outcome {
+		/** The student was enrolled in the course */
+		ENROLLED,
+		/** No student has the row's id */
+		UNKNOWN_STUDENT,
+		/** No course has the row's name and section */
+		UNKNOWN_COURSE,
+		/** The course had no open seats */
+		COURSE_FULL,
+		/**
+		 * The student could not add the course, because they already have it, it conflicts with their
+		 * schedule, or it would take them over their maximum credits
+		 */
+		REJECTED
+	}
+
+	/** Outcome of each row */
+	private final Outcome[] outcomes;
+	/** Number of rows with each outcome, by Outcome ordinal */
+	private final int[] counts;
+
+	/**
+	 * Creates a report from the outcome of each row.
+	 * @param outcomes the outcome of each row
+	 */
+	BatchEnrollmentReport(Outcome[] outcomes) {
+		this.outcomes = outcomes;
+		this.counts = new int[Outcome.values().length];
+		for (Outcome o : outcomes) {
+			counts[o.ordinal()]++;
+		}
+	}
+
+	/**
+	 * Returns the number of rows in the batch.
+	 * @return the number of rows
+	 */
+	public int getRowCount() {
+		return outcomes.length;
+	}
+
+	/**
+	 * Returns the outcome of a row.
+	 * @param row the row number, counting from 0
+	 * @return the outcome of the row
+	 * @throws IllegalArgumentException if there is no such row
+	 */
+	public Outcome getOutcome(int row) {
+		if (row < 0 || row >= outcomes.length) {
+			throw new IllegalArgumentException("Invalid row.");
+		}
+		return outcomes[row];
+	}
+
+	/**
+	 * Returns the number of rows with the given outcome.
+	 * @param outcome the outcome
+	 * @return the number of rows with the outcome
+	 */
+	public int getCount(Outcome outcome) {
+		return counts[outcome.ordinal()];
+	}
+}
@@ -0,0 +1,55 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+/**
+ * One row of a batch enrollment: the id of a student and the name and section of the course to
+ * enroll them in.
+ */
+public final class BatchEnrollmentRequest {
+
+	/** Id of the student to enroll */
+	private final String studentId;
+	/** Name of the course */
+	private final String courseName;
+	/** Section of the course */
+	private final String section;
+
+	/**
+	 * Creates a batch enrollment row.
+	 * @param studentId id of the student to enroll
+	 * @param courseName name of the course
+	 * @param section section of the course
+	 * @throws IllegalArgumentException if any parameter is null
+	 */
+	public BatchEnrollmentRequest(String studentId, String courseName, String section) {
+		if (studentId == null || courseName == null || section == null) {
+			throw new IllegalArgumentException("Invalid batch enrollment.");
+		}
+		this.studentId = studentId;
+		this.courseName = courseName;
+		this.section = section;
+	}
+
+	/**
+	 * Returns the id of the student to enroll.
+	 * @return the student id
+	 */
+	public String getStudentId() {
+		return studentId;
+	}
+
+	/**
+	 * Returns the name of the course.
+	 * @return the course name
+	 */
+	public String getCourseName() {
+		return courseName;
+	}
+
+	/**
+	 * Returns the section of the course.
+	 * @return the section
+	 */
+	public String getSection() {
+		return section;
+	}
+}
@@ -0,0 +1,56 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import edu.ncsu.csc216.pack_scheduler.manager.BatchEnrollmentReport.Outcome;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationMetrics.Result;
+
+/**
+ * The result of asking the RegistrationManager to enroll a student in a course: ENROLLED, or the
+ * reason the student was turned away. Each result is the metrics result the enrollment is recorded with.
+ */
+public enum EnrollmentResult {
+	/** The student was enrolled in the course */
+	ENROLLED(Result.SUCCEEDED, Outcome.ENROLLED),
+	/** The user was not a student */
+	ILLEGAL_ACTION(Result.ILLEGAL_ACTION, Outcome.REJECTED),
+	/** The course had no open seat */
+	COURSE_FULL(Result.COURSE_FULL, Outcome.COURSE_FULL),
+	/** The student was already enrolled in or wait listed for the course */
+	ALREADY_ENROLLED(Result.ALREADY_ENROLLED, Outcome.REJECTED),
+	/** The student already had a course with the same name */
+	DUPLICATE_COURSE(Result.DUPLICATE_COURSE, Outcome.REJECTED),
+	/** The course conflicts with a course in the student's schedule */
+	CONFLICT(Result.CONFLICT, Outcome.REJECTED),
+	/** The course would take the student over their maximum credits */
+	CREDIT_LIMIT(Result.CREDIT_LIMIT, Outcome.REJECTED);
+
+	/** The result the enrollment is recorded with in the metrics */
+	private final Result metricsResult;
+	/** The outcome of a batch enrollment row with the result */
+	private final Outcome outcome;
+
+	/**
+	 * Creates an enrollment result.
+	 * @param metricsResult the result the enrollment is recorded with in the metrics
+	 * @param outcome the outcome of a batch enrollment row with the result
+	 */
+	EnrollmentResult(Result metricsResult, Outcome outcome) {
+		this.metricsResult = metricsResult;
+		this.outcome = outcome;
+	}
+
+	/**
+	 * Returns the result an enrollment with this result is recorded with in the RegistrationMetrics.
+	 * @return the metrics result
+	 */
+	public Result getMetricsResult() {
+		return metricsResult;
+	}
+
+	/**
+	 * Returns the outcome of a batch enrollment row with this result.
+	 * @return the batch outcome
+	 */
+	Outcome getOutcome() {
+		return outcome;
+	}
+}
@@ -0,0 +1,85 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Striped locks that serialize changes to student schedules and course rolls. Each student and each
+ * course roll maps to one of a fixed number of locks, so the memory used does not grow with the number
+ * of students and courses, and changes to different students and rolls usually take different locks.
+ *
+ * Schedule locks and roll locks are separate stripes. A registration action must take its student's
+ * schedule lock before any roll lock, and hold at most one roll lock at a time, so two actions can
+ * never wait on each other.
+ */
+class RegistrationLocks {
+
+	/** Locks for student schedules */
+	private final ReentrantLock[] scheduleLocks;
+	/** Locks for course rolls */
+	private final ReentrantLock[] rollLocks;
+	/** Mask that maps a hash code to a stripe */
+	private final int mask;
+
+	/**
+	 * Creates locks with at least the given number of stripes for schedules and for rolls. The number
+	 * of stripes is rounded up to a power of two.
+	 * @param stripes the minimum number of stripes
+	 * @throws IllegalArgumentException if stripes is less than 1
+	 */
+	RegistrationLocks(int stripes) {
+		if (stripes < 1) {
+			throw new IllegalArgumentException("Invalid number of lock stripes.");
+		}
+		int size = Integer.highestOneBit(stripes);
+		if (size < stripes) {
+			size <<= 1;
+		}
+		scheduleLocks = new ReentrantLock[size];
+		rollLocks = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			scheduleLocks[i] = new ReentrantLock();
+			rollLocks[i] = new ReentrantLock();
+		}
+		mask = size - 1;
+	}
+
+	/**
+	 * Returns the number of stripes for schedules and for rolls.
+	 * @return the number of stripes
+	 */
+	int getStripes() {
+		return mask + 1;
+	}
+
+	/**
+	 * Returns the lock for a student's schedule.
+	 * @param student the student
+	 * @return the schedule lock
+	 */
+	ReentrantLock scheduleLock(Student student) {
+		return scheduleLocks[stripe(student)];
+	}
+
+	/**
+	 * Returns the lock for a course roll.
+	 * @param roll the course roll
+	 * @return the roll lock
+	 */
+	ReentrantLock rollLock(CourseRoll roll) {
+		return rollLocks[stripe(roll)];
+	}
+
+	/**
+	 * Maps an object to a stripe by its identity, spreading the high bits of the hash code into the
+	 * low bits the mask keeps.
+	 * @param o the object
+	 * @return the stripe of the object
+	 */
+	private int stripe(Object o) {
+		int h = System.identityHashCode(o);
+		return (h ^ (h >>> 16)) & mask;
+	}
+}
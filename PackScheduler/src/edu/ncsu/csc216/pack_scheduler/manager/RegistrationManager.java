@@ -5,14 +5,29 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
 import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
 import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.io.EnrollmentJournal;
+import edu.ncsu.csc216.pack_scheduler.io.RegistrationSnapshotIO;
+import edu.ncsu.csc216.pack_scheduler.manager.BatchEnrollmentReport.Outcome;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationMetrics.Operation;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationMetrics.Result;
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc216.pack_scheduler.user.User;
@@ -24,6 +39,28 @@ import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
  * This singleton class is responsible for handling user logins,
  * storing user information, and providing access to the CourseCatalog
  * and StudentDirectory.
+ *
+ * Besides the single logged in user, any number of users can register at once
+ * through sessions. openSession returns a token that the session versions of
+ * enrollStudentInCourse, dropStudentFromCourse, and resetSchedule take in place
+ * of the current user. Registration actions take the striped lock of the
+ * student's schedule and then that of the course roll they change, so actions
+ * by different students on different courses run in parallel. The registrar can
+ * enroll many students at once with enrollStudentsInBatch, which takes each
+ * course roll's lock once for all of the batch's rows for that course.
+ *
+ * A drop does not promote from the wait list itself. It holds the dropped seat
+ * and publishes a seat freed event, and a worker thread later fills the seat with
+ * the first wait listed student who can still add the course, adding the course
+ * to their schedule and the student to the roll under the same locks. Wait listed
+ * students who cannot add the course keep their place. awaitPromotions waits for
+ * the worker to catch up.
+ *
+ * Every login, enrollment, drop, and schedule reset is counted in the
+ * RegistrationMetrics, with its latency, by its result and the reason it was
+ * rejected. The metrics are registered with JMX when the manager is created. If
+ * JMX is unavailable the manager is still created, and the metrics are still
+ * recorded and can be read through getMetrics.
  */
 public class RegistrationManager {
 
@@ -39,6 +76,27 @@ public class RegistrationManager {
     private User registrar;
     /** The currently logged-in user */
     private User currentUser;
+    /** Journal enrollment changes are logged to, or null if they are not persisted */
+    private volatile EnrollmentJournal enrollmentJournal;
+    /** Users logged in through sessions, by session token */
+    private final ConcurrentHashMap<String, User> sessions = new ConcurrentHashMap<String, User>();
+    /** Source of session tokens */
+    private final SecureRandom tokenSource = new SecureRandom();
+    /**
+     * Held shared by registration actions and exclusively while the journal is recovered or compacted,
+     * so a journal snapshot never holds part of an action
+     */
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    /** Fills seats held by drops from the wait lists, on a worker thread */
+    private final WaitlistPromoter promoter = new WaitlistPromoter(this::fillHeldSeat);
+    /** Counts and times registration actions by result */
+    private final RegistrationMetrics metrics = new RegistrationMetrics();
+    /** Striped locks registration actions take on schedules and course rolls */
+    private volatile RegistrationLocks locks = new RegistrationLocks(DEFAULT_LOCK_STRIPES);
+    /** Number of random bytes in a session token */
+    private static final int TOKEN_BYTES = 18;
+    /** Default number of lock stripes for schedules and for course rolls */
+    private static final int DEFAULT_LOCK_STRIPES = 16 * Runtime.getRuntime().availableProcessors();
     /** Hashing algorithm for password hashing */
     private static final String HASH_ALGORITHM = "SHA-256";
     /** Property file name for registrar information */
@@ -54,6 +112,8 @@ public class RegistrationManager {
         courseCatalog = new CourseCatalog(); 
         studentDirectory = new StudentDirectory();
         facultyDirectory = new FacultyDirectory();
+        // Registration failing only hides the metrics from JMX clients
+        metrics.tryRegisterMBean();
     }
 
     /**
@@ -132,6 +192,314 @@ public class RegistrationManager {
         return facultyDirectory;
     }
 
+    /**
+     * Returns the metrics of the registration actions.
+     *
+     * @return the RegistrationMetrics
+     */
+    public RegistrationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the EnrollmentJournal enrollment changes are logged to.
+     *
+     * @return the EnrollmentJournal, or null if enrollment changes are not persisted
+     */
+    public EnrollmentJournal getEnrollmentJournal() {
+        return enrollmentJournal;
+    }
+
+    /**
+     * Sets the EnrollmentJournal that enrollments, drops, and wait list promotions are logged to.
+     * The journal should be recovered with recoverEnrollments() before any registration actions
+     * are taken.
+     *
+     * @param enrollmentJournal the journal to log to, or null to stop persisting enrollment changes
+     */
+    public void setEnrollmentJournal(EnrollmentJournal enrollmentJournal) {
+        this.enrollmentJournal = enrollmentJournal;
+    }
+
+    /**
+     * Returns the number of lock stripes registration actions use for schedules and for course rolls.
+     *
+     * @return the number of lock stripes
+     */
+    public int getLockStripes() {
+        return locks.getStripes();
+    }
+
+    /**
+     * Sets the number of lock stripes registration actions use for schedules and for course rolls.
+     * The number is rounded up to a power of two. More stripes let more actions run in parallel, while
+     * one stripe makes every registration action run one at a time. This should only be called while
+     * no registration actions are running.
+     *
+     * @param stripes the minimum number of lock stripes
+     * @throws IllegalArgumentException if stripes is less than 1
+     */
+    public void setLockStripes(int stripes) {
+        locks = new RegistrationLocks(stripes);
+    }
+
+    /**
+     * Restores the course rolls, wait lists, and student schedules saved in the EnrollmentJournal.
+     * The CourseCatalog and StudentDirectory must already be loaded.
+     *
+     * @throws IllegalArgumentException if there is no journal or it cannot be read
+     */
+    public void recoverEnrollments() {
+        if (enrollmentJournal == null) {
+            throw new IllegalArgumentException("No enrollment journal.");
+        }
+        journalLock.writeLock().lock();
+        try {
+            enrollmentJournal.recover(courseCatalog, studentDirectory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read enrollment journal.");
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        promoteIntoOpenSeats();
+    }
+
+    /**
+     * Writes a snapshot of the course rolls, wait lists, and student schedules to the EnrollmentJournal
+     * and empties its log.
+     *
+     * @throws IllegalArgumentException if there is no journal or it cannot be written
+     */
+    public void compactEnrollmentJournal() {
+        if (enrollmentJournal == null) {
+            throw new IllegalArgumentException("No enrollment journal.");
+        }
+        journalLock.writeLock().lock();
+        try {
+            enrollmentJournal.compact(courseCatalog, studentDirectory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to write to enrollment journal.");
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the course catalog, student and faculty directories, course rolls, wait lists, and
+     * schedules to a binary snapshot file.
+     *
+     * @param fileName the name of the snapshot file
+     * @throws IllegalArgumentException if the file cannot be written
+     */
+    public void saveSnapshot(String fileName) {
+        try {
+            RegistrationSnapshotIO.writeSnapshot(fileName, courseCatalog, studentDirectory, facultyDirectory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to write to file " + fileName);
+        }
+    }
+
+    /**
+     * Replaces the course catalog, student and faculty directories, course rolls, wait lists, and
+     * schedules with those saved in a binary snapshot file.
+     *
+     * @param fileName the name of the snapshot file
+     * @throws IllegalArgumentException if the file cannot be read
+     */
+    public void loadSnapshot(String fileName) {
+        try {
+            RegistrationSnapshotIO.readSnapshot(fileName, courseCatalog, studentDirectory, facultyDirectory);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read file " + fileName);
+        }
+        promoteIntoOpenSeats();
+    }
+
+    /**
+     * Waits until every seat freed by a drop so far has been filled from its wait list, or opened
+     * if no wait listed student could take it.
+     *
+     * @throws IllegalArgumentException if a promotion could not be logged
+     */
+    public void awaitPromotions() {
+        try {
+            promoter.awaitIdle();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Holds an open seat for a promotion for each wait listed student of each course that has both
+     * open seats and wait listed students, as restored data may have if a promotion was not logged
+     * before the process stopped.
+     */
+    private void promoteIntoOpenSeats() {
+        for (Course c : courseCatalog.getCourses()) {
+            CourseRoll roll = c.getCourseRoll();
+            ReentrantLock rollLock = locks.rollLock(roll);
+            int held = 0;
+            rollLock.lock();
+            try {
+                while (held < roll.getNumberOnWaitlist() && roll.reserveSeat()) {
+                    held++;
+                }
+            } finally {
+                rollLock.unlock();
+            }
+            for (int i = 0; i < held; i++) {
+                promoter.publish(c);
+            }
+        }
+    }
+
+    /**
+     * Fills a seat a drop held in the given course with the first wait listed student who can add
+     * the course, or opens the seat if none can. Students who cannot add the course keep their place
+     * on the wait list. Runs on the promoter's worker thread.
+     *
+     * The wait list is walked in promotion order under the roll lock to find the next student to try,
+     * who is then promoted under the locks of their schedule and the roll. A student who cannot be
+     * promoted keeps their place, so each retry resumes just after the student tried last, and k
+     * failed promotions walk about k students. Only if that student left the wait list in the
+     * meantime does the walk start again from the front, skipping the students already tried.
+     *
+     * @param c the course with a held seat
+     * @throws IllegalArgumentException if the promotion cannot be logged
+     */
+    private void fillHeldSeat(Course c) {
+        CourseRoll roll = c.getCourseRoll();
+        RegistrationLocks l = locks;
+        ReentrantLock rollLock = l.rollLock(roll);
+        Set<Student> tried = Collections.newSetFromMap(new IdentityHashMap<Student, Boolean>());
+        Student last = null;
+        while (true) {
+            Student next = null;
+            rollLock.lock();
+            try {
+                Iterator<Student> it = last != null && roll.isWaitlisted(last)
+                        ? roll.waitlistIteratorAfter(last) : roll.waitlistIterator();
+                while (next == null && it.hasNext()) {
+                    Student s = it.next();
+                    if (!tried.contains(s)) {
+                        next = s;
+                    }
+                }
+                if (next == null) {
+                    roll.releaseReservation();
+                    return;
+                }
+            } finally {
+                rollLock.unlock();
+            }
+            tried.add(next);
+            last = next;
+            if (promote(next, c, l)) {
+                compactIfDue();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Promotes a wait listed student into a seat held in the given course if they can still add the
+     * course, holding the lock of the student's schedule and then the lock of the course roll while
+     * the course is added to the schedule, the student is moved onto the roll, and the promotion is
+     * logged.
+     *
+     * @param s the wait listed student
+     * @param c the course with a held seat
+     * @param l the locks to take
+     * @return true if the student was promoted
+     * @throws IllegalArgumentException if the promotion cannot be logged
+     */
+    private boolean promote(Student s, Course c, RegistrationLocks l) {
+        CourseRoll roll = c.getCourseRoll();
+        ReentrantLock scheduleLock = l.scheduleLock(s);
+        ReentrantLock rollLock = l.rollLock(roll);
+        journalLock.readLock().lock();
+        scheduleLock.lock();
+        rollLock.lock();
+        try {
+            if (!roll.isWaitlisted(s) || !s.canAdd(c)) {
+                return false;
+            }
+            s.getSchedule().addCourseToSchedule(c);
+            roll.promoteFromWaitlist(s);
+            logEnrollmentEvent(EnrollmentJournal.PROMOTE, c, s);
+            return true;
+        } finally {
+            rollLock.unlock();
+            scheduleLock.unlock();
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Logs an enrollment change to the EnrollmentJournal, if there is one. The change is logged
+     * while the course roll is still locked, so changes to a roll are logged in the order they
+     * were made.
+     *
+     * @param event the type of change
+     * @param c the course that changed
+     * @param s the student that changed
+     * @throws IllegalArgumentException if the journal cannot be written
+     */
+    private void logEnrollmentEvent(char event, Course c, Student s) {
+        EnrollmentJournal journal = enrollmentJournal;
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.logEvent(event, c, s);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to write to enrollment journal.");
+        }
+    }
+
+    /**
+     * Logs the enrollment of each of the given students in a course to the EnrollmentJournal, if there
+     * is one, with a single write.
+     *
+     * @param c the course
+     * @param students the enrolled students, in the order they were enrolled
+     * @throws IllegalArgumentException if the journal cannot be written
+     */
+    private void logEnrollmentEvents(Course c, List<Student> students) {
+        EnrollmentJournal journal = enrollmentJournal;
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.logEvents(EnrollmentJournal.ENROLL, c, students);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to write to enrollment journal.");
+        }
+    }
+
+    /**
+     * Compacts the EnrollmentJournal, if there is one, when enough changes have been logged since
+     * it was last compacted. Registration actions call this after releasing their locks.
+     *
+     * @throws IllegalArgumentException if the journal cannot be written
+     */
+    private void compactIfDue() {
+        EnrollmentJournal journal = enrollmentJournal;
+        if (journal == null || !journal.isCompactionDue()) {
+            return;
+        }
+        journalLock.writeLock().lock();
+        try {
+            if (journal.isCompactionDue()) {
+                journal.compact(courseCatalog, studentDirectory);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to write to enrollment journal.");
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Logs in a user with the specified ID and password. If the id doesn't match a user in the system, an
      * IllegalArgumentException is thrown.
@@ -142,9 +510,53 @@ public class RegistrationManager {
      * @throws IllegalArgumentException if the id is invalid and doesn't match a user in the system
      */
     public boolean login(String id, String password) {
+        long start = System.nanoTime();
         if (currentUser != null) { // Check if a user is already logged in
+            metrics.record(Operation.LOGIN, Result.ALREADY_LOGGED_IN, start);
             return false; // Prevent multiple logins
         }
+        User user = authenticate(id, password, start);
+        if (user == null) {
+            return false; // Login failed
+        }
+        currentUser = user;
+        metrics.record(Operation.LOGIN, Result.SUCCEEDED, start);
+        return true;
+    }
+
+    /**
+     * Returns the user with the specified ID if the password matches theirs, and records a login
+     * rejected for an unknown user or a wrong password in the metrics.
+     * 
+     * @param id the ID of the user (student, faculty, or registrar)
+     * @param password the password of the user
+     * @param start the System.nanoTime when the login started
+     * @return the user, or null if the password doesn't match
+     * @throws IllegalArgumentException if the id is invalid and doesn't match a user in the system
+     */
+    private User authenticate(String id, String password, long start) {
+        User user;
+        try {
+            user = authenticate(id, password);
+        } catch (IllegalArgumentException e) {
+            metrics.record(Operation.LOGIN, Result.UNKNOWN_USER, start);
+            throw e;
+        }
+        if (user == null) {
+            metrics.record(Operation.LOGIN, Result.BAD_PASSWORD, start);
+        }
+        return user;
+    }
+
+    /**
+     * Returns the user with the specified ID if the password matches theirs.
+     * 
+     * @param id the ID of the user (student, faculty, or registrar)
+     * @param password the password of the user
+     * @return the user, or null if the password doesn't match
+     * @throws IllegalArgumentException if the id is invalid and doesn't match a user in the system
+     */
+    private User authenticate(String id, String password) {
         Student student = studentDirectory.getStudentById(id);
         Faculty faculty = facultyDirectory.getFacultyById(id);
         String localHashPW = hashPW(password); // Hash the provided password
@@ -152,14 +564,12 @@ public class RegistrationManager {
         // Check if student exists and passwords match
         if (student != null) {
         	if (student.getPassword().equals(localHashPW)) {
-	            currentUser = student;
-	            return true;
+	            return student;
         	}
         	
         } else if (faculty != null && student == null) {
         	if (faculty.getPassword().equals(localHashPW)) {
-        		currentUser = faculty;
-        		return true;
+        		return faculty;
         	}
         } else {
         
@@ -172,11 +582,10 @@ public class RegistrationManager {
 
         // Check registrar credentials
         if (registrar.getId().equals(id) && registrar.getPassword().equals(localHashPW)) {
-            currentUser = registrar;
-            return true;
+            return registrar;
         }
 
-        return false; // Login failed
+        return null;
     }
 
     /**
@@ -195,11 +604,78 @@ public class RegistrationManager {
         return currentUser;
     }
 
+    /**
+     * Logs in a user with the specified ID and password in a new session. Any number of sessions
+     * can be open at once, alongside the current user.
+     * 
+     * @param id the ID of the user (student, faculty, or registrar)
+     * @param password the password of the user
+     * @return the session token, or null if the password doesn't match
+     * @throws IllegalArgumentException if the id is invalid and doesn't match a user in the system
+     */
+    public String openSession(String id, String password) {
+        long start = System.nanoTime();
+        User user = authenticate(id, password, start);
+        if (user == null) {
+            return null;
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        String token;
+        do {
+            tokenSource.nextBytes(bytes);
+            token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        } while (sessions.putIfAbsent(token, user) != null);
+        metrics.record(Operation.LOGIN, Result.SUCCEEDED, start);
+        return token;
+    }
+
+    /**
+     * Logs out the user of a session. Closing a session that is not open does nothing.
+     * 
+     * @param token the session token
+     */
+    public void closeSession(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    /**
+     * Returns the user logged in to a session.
+     * 
+     * @param token the session token
+     * @return the user, or null if the session is not open
+     */
+    public User getSessionUser(String token) {
+        return token == null ? null : sessions.get(token);
+    }
+
+    /**
+     * Returns the given user as a Student, for a registration action only a student can take. If the
+     * user is not a Student, the action is recorded in the metrics as an illegal action.
+     * 
+     * @param user the logged in user, or null if no one is logged in
+     * @param op the action
+     * @param start the System.nanoTime when the action started
+     * @return the student
+     * @throws IllegalArgumentException if the user is not a Student
+     */
+    private Student studentFor(User user, Operation op, long start) {
+        if (!(user instanceof Student)) {
+            metrics.record(op, Result.ILLEGAL_ACTION, start);
+            throw new IllegalArgumentException("Illegal Action");
+        }
+        return (Student) user;
+    }
+
     /**
      * Clears the data in the CourseCatalog and StudentDirectory.
-     * This method resets both data structures to their initial empty states.
+     * This method resets both data structures to their initial empty states
+     * and closes all sessions.
      */
     public void clearData() {
+        awaitPromotions();
+        sessions.clear();
         courseCatalog.newCourseCatalog();
         studentDirectory.newStudentDirectory();
         facultyDirectory.newFacultyDirectory();  }
@@ -208,71 +684,450 @@ public class RegistrationManager {
     
     /**
      * Returns true if the logged in student can enroll in the given course.
+     * The enrollment is logged to the EnrollmentJournal, if there is one.
      * @param c Course to enroll in
-     * @throws IllegalArgumentException if the current user is a Student
+     * @throws IllegalArgumentException if the current user is a Student, or the enrollment
+     *                                  cannot be logged
      * @return true if enrolled
      */
     public boolean enrollStudentInCourse(Course c) {
-        if (!(currentUser instanceof Student)) {
+        return enrolled(tryEnrollStudentInCourse(c));
+    }
+
+    /**
+     * Returns true if the student logged in to the session can enroll in the given course.
+     * The enrollment is logged to the EnrollmentJournal, if there is one.
+     * @param token the session token
+     * @param c Course to enroll in
+     * @throws IllegalArgumentException if the session's user is not a Student, or the enrollment
+     *                                  cannot be logged
+     * @return true if enrolled
+     */
+    public boolean enrollStudentInCourse(String token, Course c) {
+        return enrolled(tryEnrollStudentInCourse(token, c));
+    }
+
+    /**
+     * Enrolls the logged in student in the given course if they can enroll in it, and returns
+     * ENROLLED or why they could not enroll. A rejected enrollment is reported without
+     * throwing an exception. The enrollment is logged to the EnrollmentJournal, if there is one.
+     * @param c Course to enroll in
+     * @throws IllegalArgumentException if the enrollment cannot be logged
+     * @return ENROLLED, or why the student was not enrolled; ILLEGAL_ACTION if the current user
+     *         is not a Student
+     */
+    public EnrollmentResult tryEnrollStudentInCourse(Course c) {
+        return enroll(currentUser, c);
+    }
+
+    /**
+     * Enrolls the student logged in to the session in the given course if they can enroll in it,
+     * and returns ENROLLED or why they could not enroll. A rejected enrollment is reported without
+     * throwing an exception. The enrollment is logged to the EnrollmentJournal, if there is one.
+     * @param token the session token
+     * @param c Course to enroll in
+     * @throws IllegalArgumentException if the enrollment cannot be logged
+     * @return ENROLLED, or why the student was not enrolled; ILLEGAL_ACTION if the session's user
+     *         is not a Student
+     */
+    public EnrollmentResult tryEnrollStudentInCourse(String token, Course c) {
+        return enroll(getSessionUser(token), c);
+    }
+
+    /**
+     * Returns true if an enrollment enrolled the student, for the enrollStudentInCourse methods.
+     * @param result the result of the enrollment
+     * @return true if enrolled
+     * @throws IllegalArgumentException if the user was not a Student
+     */
+    private static boolean enrolled(EnrollmentResult result) {
+        if (result == EnrollmentResult.ILLEGAL_ACTION) {
             throw new IllegalArgumentException("Illegal Action");
         }
+        return result == EnrollmentResult.ENROLLED;
+    }
+
+    /**
+     * Enrolls the user in the given course if they are a student, holding the lock of the student's
+     * schedule and then the lock of the course roll while the enrollment is checked, made, and logged.
+     * The enrollment is recorded in the metrics with its result.
+     * @param user the user to enroll
+     * @param c Course to enroll in
+     * @throws IllegalArgumentException if the enrollment cannot be logged
+     * @return ENROLLED, or why the user was not enrolled
+     */
+    private EnrollmentResult enroll(User user, Course c) {
+        long start = System.nanoTime();
+        EnrollmentResult result;
+        if (!(user instanceof Student)) {
+            result = EnrollmentResult.ILLEGAL_ACTION;
+        } else if (c.getCourseRoll().getOpenSeats() <= 0) {
+            result = EnrollmentResult.COURSE_FULL; // Turn students away from full sections without taking any locks
+        } else {
+            result = enroll((Student) user, c, start);
+        }
+        metrics.record(Operation.ENROLL, result.getMetricsResult(), start);
+        if (result == EnrollmentResult.ENROLLED) {
+            compactIfDue();
+        }
+        return result;
+    }
+
+    /**
+     * Enrolls the student in the given course under the locks of the student's schedule and the course
+     * roll, and logs the enrollment.
+     * @param s Student to enroll
+     * @param c Course to enroll in
+     * @param start the System.nanoTime when the enrollment started, to record a failure with
+     * @throws IllegalArgumentException if the enrollment cannot be logged
+     * @return ENROLLED, or why the student was not enrolled
+     */
+    private EnrollmentResult enroll(Student s, Course c, long start) {
+        CourseRoll roll = c.getCourseRoll();
+        RegistrationLocks l = locks;
+        ReentrantLock scheduleLock = l.scheduleLock(s);
+        ReentrantLock rollLock = l.rollLock(roll);
+        journalLock.readLock().lock();
+        scheduleLock.lock();
+        rollLock.lock();
         try {
-            Student s = (Student)currentUser;
-            Schedule schedule = s.getSchedule();
-            CourseRoll roll = c.getCourseRoll();
-            
-            if (s.canAdd(c) && roll.canEnroll(s)) {
-                schedule.addCourseToSchedule(c);
-                roll.enroll(s);
-                return true;
+            EnrollmentResult result = enrollLocked(s, c, roll);
+            if (result == EnrollmentResult.ENROLLED) {
+                logEnrollmentEvent(EnrollmentJournal.ENROLL, c, s);
             }
-            
+            return result;
         } catch (IllegalArgumentException e) {
-            return false;
+            metrics.record(Operation.ENROLL, Result.FAILED, start);
+            throw e;
+        } finally {
+            rollLock.unlock();
+            scheduleLock.unlock();
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Enrolls the student in the given course if there is an open seat and the student can add it.
+     * Each reason the student cannot is checked for with a probe that does not throw, so a rejection
+     * costs no exception. The caller must hold the locks of the student's schedule and the course roll.
+     * @param s Student to enroll
+     * @param c Course to enroll in
+     * @param roll the course's roll
+     * @return ENROLLED if the student was enrolled, or why they were not
+     */
+    private EnrollmentResult enrollLocked(Student s, Course c, CourseRoll roll) {
+        if (roll.getOpenSeats() <= 0) {
+            return EnrollmentResult.COURSE_FULL;
+        }
+        if (!roll.canEnroll(s)) {
+            return EnrollmentResult.ALREADY_ENROLLED;
+        }
+        Schedule schedule = s.getSchedule();
+        Schedule.AddCheck check = schedule.checkAdd(c);
+        if (check == Schedule.AddCheck.DUPLICATE) {
+            return EnrollmentResult.DUPLICATE_COURSE;
+        }
+        if (check == Schedule.AddCheck.CONFLICT) {
+            return EnrollmentResult.CONFLICT;
+        }
+        if (schedule.getScheduleCredits() + c.getCredits() > s.getMaxCredits()) {
+            return EnrollmentResult.CREDIT_LIMIT;
+        }
+        schedule.addCourseToSchedule(c);
+        roll.enroll(s);
+        return EnrollmentResult.ENROLLED;
+    }
+
+    /**
+     * Enrolls students in courses for the registrar, one row per student and course, and reports the
+     * outcome of each row. Rows are grouped by course and each course's rows are applied, in the order
+     * they were given, while the lock of its roll is held once, so a batch costs one roll lock
+     * acquisition and one journal write per course rather than per row. A student whose schedule lock
+     * is busy when their row comes up is enrolled after the rest of the course's rows, the usual way.
+     * Students are never wait listed by a batch; rows for courses with no open seats are reported as
+     * COURSE_FULL.
+     *
+     * Because rows are applied course by course, a student with rows for two conflicting courses gets
+     * whichever course's rows are applied first, which is the course that appears first in the batch.
+     * @param rows the rows to enroll
+     * @return the outcome of each row, in the order the rows were given
+     * @throws IllegalArgumentException if the current user is not the registrar, rows or a row is
+     *                                  null, or an enrollment cannot be logged
+     */
+    public BatchEnrollmentReport enrollStudentsInBatch(Iterable<BatchEnrollmentRequest> rows) {
+        if (currentUser == null || currentUser != registrar) {
+            throw new IllegalArgumentException("Illegal Action");
+        }
+        if (rows == null) {
+            throw new IllegalArgumentException("Invalid batch enrollment.");
+        }
+        List<Student> students = new ArrayList<Student>();
+        List<Course> courses = new ArrayList<Course>();
+        for (BatchEnrollmentRequest row : rows) {
+            if (row == null) {
+                throw new IllegalArgumentException("Invalid batch enrollment.");
+            }
+            students.add(studentDirectory.getStudentById(row.getStudentId()));
+            courses.add(courseCatalog.getCourseFromCatalog(row.getCourseName(), row.getSection()));
+        }
+
+        // Number the courses in the order they first appear and sort the rows by course number
+        int rowCount = students.size();
+        Outcome[] outcomes = new Outcome[rowCount];
+        IdentityHashMap<Course, Integer> courseNumbers = new IdentityHashMap<Course, Integer>();
+        List<Course> groupCourses = new ArrayList<Course>();
+        int[] groupOfRow = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            Course c = courses.get(row);
+            if (students.get(row) == null) {
+                outcomes[row] = Outcome.UNKNOWN_STUDENT;
+            } else if (c == null) {
+                outcomes[row] = Outcome.UNKNOWN_COURSE;
+            } else {
+                Integer number = courseNumbers.get(c);
+                if (number == null) {
+                    number = groupCourses.size();
+                    courseNumbers.put(c, number);
+                    groupCourses.add(c);
+                }
+                groupOfRow[row] = number;
+                continue;
+            }
+            groupOfRow[row] = -1;
+        }
+        int[] groupStart = new int[groupCourses.size() + 1];
+        for (int row = 0; row < rowCount; row++) {
+            if (groupOfRow[row] >= 0) {
+                groupStart[groupOfRow[row] + 1]++;
+            }
         }
-        return false;
+        for (int g = 0; g < groupCourses.size(); g++) {
+            groupStart[g + 1] += groupStart[g];
+        }
+        int[] groupRows = new int[groupStart[groupCourses.size()]];
+        int[] next = groupStart.clone();
+        for (int row = 0; row < rowCount; row++) {
+            if (groupOfRow[row] >= 0) {
+                groupRows[next[groupOfRow[row]]++] = row;
+            }
+        }
+
+        for (int g = 0; g < groupCourses.size(); g++) {
+            enrollBatchGroup(groupCourses.get(g), students, groupRows, groupStart[g], groupStart[g + 1], outcomes);
+        }
+        return new BatchEnrollmentReport(outcomes);
+    }
+
+    /**
+     * Applies the batch rows of one course, holding the lock of its roll while every row whose
+     * student's schedule lock is free is applied and the enrollments are logged together. Since the
+     * usual lock order is schedule and then roll, schedule locks are only tried here, and rows whose
+     * schedule lock is busy are applied afterward through the usual lock order.
+     * @param c the course
+     * @param students the student of each row
+     * @param groupRows row numbers of the batch sorted by course
+     * @param from index in groupRows of the course's first row
+     * @param to index in groupRows after the course's last row
+     * @param outcomes the outcome of each row, filled in for the course's rows
+     * @throws IllegalArgumentException if an enrollment cannot be logged
+     */
+    private void enrollBatchGroup(Course c, List<Student> students, int[] groupRows, int from, int to,
+            Outcome[] outcomes) {
+        CourseRoll roll = c.getCourseRoll();
+        RegistrationLocks l = locks;
+        ReentrantLock rollLock = l.rollLock(roll);
+        List<Student> enrolled = new ArrayList<Student>();
+        int deferredEnd = from;
+        journalLock.readLock().lock();
+        rollLock.lock();
+        try {
+            for (int i = from; i < to; i++) {
+                int row = groupRows[i];
+                Student s = students.get(row);
+                ReentrantLock scheduleLock = l.scheduleLock(s);
+                if (!scheduleLock.tryLock()) {
+                    groupRows[deferredEnd++] = row;
+                    continue;
+                }
+                try {
+                    outcomes[row] = enrollLocked(s, c, roll).getOutcome();
+                } finally {
+                    scheduleLock.unlock();
+                }
+                if (outcomes[row] == Outcome.ENROLLED) {
+                    enrolled.add(s);
+                }
+            }
+            logEnrollmentEvents(c, enrolled);
+        } finally {
+            rollLock.unlock();
+            journalLock.readLock().unlock();
+        }
+        for (int i = from; i < deferredEnd; i++) {
+            int row = groupRows[i];
+            Student s = students.get(row);
+            ReentrantLock scheduleLock = l.scheduleLock(s);
+            journalLock.readLock().lock();
+            scheduleLock.lock();
+            rollLock.lock();
+            try {
+                outcomes[row] = enrollLocked(s, c, roll).getOutcome();
+                if (outcomes[row] == Outcome.ENROLLED) {
+                    logEnrollmentEvent(EnrollmentJournal.ENROLL, c, s);
+                }
+            } finally {
+                rollLock.unlock();
+                scheduleLock.unlock();
+                journalLock.readLock().unlock();
+            }
+        }
+        compactIfDue();
     }
 
     /**
      * Returns true if the logged in student can drop the given course.
+     * The drop is logged to the EnrollmentJournal, if there is one, and so is the wait list promotion
+     * into the freed seat when the promoter makes it.
      * @param c Course to drop
-     * @throws IllegalArgumentException if the currentUser is a Student
+     * @throws IllegalArgumentException if the currentUser is a Student, or the drop
+     *                                  cannot be logged
      * @return true if dropped
      */
     public boolean dropStudentFromCourse(Course c) {
-        if (!(currentUser instanceof Student)) {
-            throw new IllegalArgumentException("Illegal Action");
-        }
+        long start = System.nanoTime();
+        return drop(studentFor(currentUser, Operation.DROP, start), c, start);
+    }
+
+    /**
+     * Returns true if the student logged in to the session can drop the given course.
+     * The drop is logged to the EnrollmentJournal, if there is one, and so is the wait list promotion
+     * into the freed seat when the promoter makes it.
+     * @param token the session token
+     * @param c Course to drop
+     * @throws IllegalArgumentException if the session's user is not a Student, or the drop
+     *                                  cannot be logged
+     * @return true if dropped
+     */
+    public boolean dropStudentFromCourse(String token, Course c) {
+        long start = System.nanoTime();
+        return drop(studentFor(getSessionUser(token), Operation.DROP, start), c, start);
+    }
+
+    /**
+     * Drops the student from the given course, holding the lock of the student's schedule and then the
+     * lock of the course roll while the drop is made and logged. The drop is only logged if it removed
+     * the student from the roll, the wait list, or their schedule. If students are wait listed, the
+     * seat is held and a seat freed event is published once the locks are released. The drop is
+     * recorded in the metrics with its result.
+     * @param s Student to drop
+     * @param c Course to drop
+     * @param start the System.nanoTime when the drop started
+     * @throws IllegalArgumentException if the drop cannot be logged
+     * @return true if dropped
+     */
+    private boolean drop(Student s, Course c, long start) {
+        CourseRoll roll = c.getCourseRoll();
+        RegistrationLocks l = locks;
+        ReentrantLock scheduleLock = l.scheduleLock(s);
+        ReentrantLock rollLock = l.rollLock(roll);
+        boolean removed;
+        boolean held;
+        journalLock.readLock().lock();
+        scheduleLock.lock();
+        rollLock.lock();
         try {
-            Student s = (Student)currentUser;
-            c.getCourseRoll().drop(s);
-            return s.getSchedule().removeCourseFromSchedule(c);
+            boolean waitlisted = roll.isWaitlisted(s);
+            held = roll.dropAndHold(s);
+            removed = s.getSchedule().removeCourseFromSchedule(c);
+            // A drop that changed nothing would only add a record and a force to the log
+            if (removed || held || waitlisted) {
+                logEnrollmentEvent(EnrollmentJournal.DROP, c, s);
+            }
         } catch (IllegalArgumentException e) {
-            return false; 
+            metrics.record(Operation.DROP, Result.FAILED, start);
+            throw e;
+        } finally {
+            rollLock.unlock();
+            scheduleLock.unlock();
+            journalLock.readLock().unlock();
         }
+        if (held) {
+            promoter.publish(c);
+        }
+        metrics.record(Operation.DROP, removed ? Result.SUCCEEDED : Result.NOT_ENROLLED, start);
+        compactIfDue();
+        return removed;
     }
 
     /**
      * Resets the logged in student's schedule by dropping them
-     * from every course and then resetting the schedule.
-     * @throws IllegalArgumentException if the currentUser is a Student
+     * from every course and then resetting the schedule. Each drop is
+     * logged to the EnrollmentJournal, if there is one.
+     * @throws IllegalArgumentException if the currentUser is a Student, or a drop
+     *                                  cannot be logged
      */
     public void resetSchedule() {
-        if (!(currentUser instanceof Student)) {
-            throw new IllegalArgumentException("Illegal Action");
-        }
+        long start = System.nanoTime();
+        reset(studentFor(currentUser, Operation.RESET, start), start);
+    }
+
+    /**
+     * Resets the schedule of the student logged in to the session by dropping them
+     * from every course and then resetting the schedule. Each drop is
+     * logged to the EnrollmentJournal, if there is one.
+     * @param token the session token
+     * @throws IllegalArgumentException if the session's user is not a Student, or a drop
+     *                                  cannot be logged
+     */
+    public void resetSchedule(String token) {
+        long start = System.nanoTime();
+        reset(studentFor(getSessionUser(token), Operation.RESET, start), start);
+    }
+
+    /**
+     * Drops the student from every course and resets their schedule, holding the lock of the student's
+     * schedule throughout and the lock of each course roll while the student is dropped from it. The
+     * reset is recorded in the metrics with its result.
+     * @param s Student whose schedule is reset
+     * @param start the System.nanoTime when the reset started
+     * @throws IllegalArgumentException if a drop cannot be logged
+     */
+    private void reset(Student s, long start) {
+        RegistrationLocks l = locks;
+        ReentrantLock scheduleLock = l.scheduleLock(s);
+        List<Course> held = new ArrayList<Course>();
+        journalLock.readLock().lock();
+        scheduleLock.lock();
         try {
-            Student s = (Student)currentUser;
             Schedule schedule = s.getSchedule();
             String [][] scheduleArray = schedule.getScheduledCourses();
             for (int i = 0; i < scheduleArray.length; i++) {
                 Course c = courseCatalog.getCourseFromCatalog(scheduleArray[i][0], scheduleArray[i][1]);
-                c.getCourseRoll().drop(s);
+                CourseRoll roll = c.getCourseRoll();
+                ReentrantLock rollLock = l.rollLock(roll);
+                rollLock.lock();
+                try {
+                    if (roll.dropAndHold(s)) {
+                        held.add(c);
+                    }
+                    logEnrollmentEvent(EnrollmentJournal.DROP, c, s);
+                } finally {
+                    rollLock.unlock();
+                }
             }
             schedule.resetSchedule();
         } catch (IllegalArgumentException e) {
-            //do nothing 
+            metrics.record(Operation.RESET, Result.FAILED, start);
+            throw e;
+        } finally {
+            scheduleLock.unlock();
+            journalLock.readLock().unlock();
+            for (Course c : held) {
+                promoter.publish(c);
+            }
         }
+        metrics.record(Operation.RESET, Result.SUCCEEDED, start);
+        compactIfDue();
     }
 
     /**
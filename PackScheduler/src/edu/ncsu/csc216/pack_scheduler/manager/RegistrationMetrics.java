@@ -0,0 +1,297 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import edu.ncsu.csc216.pack_scheduler.util.LatencyHistogram;
+
+/**
+ * Counts the registration operations of the RegistrationManager and their latencies, by operation and
+ * by result: success, each reason the operation can be rejected for, or failure by an exception. Each
+ * pair of an operation and one of its results has a LatencyHistogram, which also gives its count.
+ * Recording takes no locks and creates no objects, so it can be done on every request.
+ * <p>
+ * The metrics can be read with the get methods here, or over JMX through RegistrationMetricsMXBean
+ * once registerMBean is called.
+ */
+public class RegistrationMetrics implements RegistrationMetricsMXBean {
+
+	/** Name the metrics are registered under in the platform MBean server */
+	public static final String OBJECT_NAME = "edu.ncsu.csc216.pack_scheduler:type=RegistrationMetrics";
+
+	/**
+	 * The result of an operation.
+	 */
+	public enum Result {
+		/** The operation succeeded */
+		SUCCEEDED,
+		/** The password did not match the user's */
+		BAD_PASSWORD,
+		/** No user has the id */
+		UNKNOWN_USER,
+		/** Another user was already logged in */
+		ALREADY_LOGGED_IN,
+		/** The user was not a student */
+		ILLEGAL_ACTION,
+		/** The course had no open seat */
+		COURSE_FULL,
+		/** The student was already enrolled in or wait listed for the course */
+		ALREADY_ENROLLED,
+		/** The student already had a course with the same name */
+		DUPLICATE_COURSE,
+		/** The course conflicts with a course in the student's schedule */
+		CONFLICT,
+		/** The course would take the student over their maximum credits */
+		CREDIT_LIMIT,
+		/** The student was not enrolled in the course */
+		NOT_ENROLLED,
+		/** The operation threw an exception, such as for a journal that could not be written */
+		FAILED
+	}
+
+	/**
+	 * A registration operation, with the reasons it can be rejected for.
+	 */
+	public enum Operation {
+		/** Logging in, as the current user or in a session */
+		LOGIN(Result.BAD_PASSWORD, Result.UNKNOWN_USER, Result.ALREADY_LOGGED_IN),
+		/** Enrolling a student in a course */
+		ENROLL(Result.ILLEGAL_ACTION, Result.COURSE_FULL, Result.ALREADY_ENROLLED, Result.DUPLICATE_COURSE,
+				Result.CONFLICT, Result.CREDIT_LIMIT),
+		/** Dropping a student from a course */
+		DROP(Result.ILLEGAL_ACTION, Result.NOT_ENROLLED),
+		/** Resetting a student's schedule */
+		RESET(Result.ILLEGAL_ACTION);
+
+		/** The reasons the operation can be rejected for */
+		private final Result[] rejections;
+
+		/**
+		 * Creates an operation.
+		 * @param rejections the reasons the operation can be rejected for
+		 */
+		Operation(Result... rejections) {
+			this.rejections = rejections;
+		}
+
+		/**
+		 * Returns true if the operation can end with the given result.
+		 * @param result the result
+		 * @return true if the result is success, failure, or one of the operation's rejections
+		 */
+		public boolean hasResult(Result result) {
+			return result == Result.SUCCEEDED || result == Result.FAILED
+					|| Arrays.asList(rejections).contains(result);
+		}
+	}
+
+	/** Index in latencies of each operation and result, or -1 if the operation cannot have the result */
+	private static final int[][] SLOTS = new int[Operation.values().length][Result.values().length];
+	/** Number of operation and result pairs */
+	private static final int SLOT_COUNT;
+
+	static {
+		int slot = 0;
+		for (Operation op : Operation.values()) {
+			for (Result result : Result.values()) {
+				SLOTS[op.ordinal()][result.ordinal()] = op.hasResult(result) ? slot++ : -1;
+			}
+		}
+		SLOT_COUNT = slot;
+	}
+
+	/** Latencies of each operation and result pair, by slot */
+	private final LatencyHistogram[] latencies = new LatencyHistogram[SLOT_COUNT];
+
+	/**
+	 * Creates empty metrics.
+	 */
+	public RegistrationMetrics() {
+		for (int i = 0; i < SLOT_COUNT; i++) {
+			latencies[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Records an operation that started at the given time and has just ended with the given result.
+	 * @param op the operation
+	 * @param result the result
+	 * @param startNanos the System.nanoTime when the operation started
+	 * @throws IllegalArgumentException if the operation cannot have the result
+	 */
+	public void record(Operation op, Result result, long startNanos) {
+		long nanos = System.nanoTime() - startNanos;
+		latencies[slot(op, result)].record(nanos);
+	}
+
+	/**
+	 * Returns the number of times an operation ended with a result.
+	 * @param op the operation
+	 * @param result the result
+	 * @return the count
+	 * @throws IllegalArgumentException if the operation cannot have the result
+	 */
+	public long getCount(Operation op, Result result) {
+		return latencies[slot(op, result)].getCount();
+	}
+
+	/**
+	 * Returns the number of times an operation was rejected, for any reason.
+	 * @param op the operation
+	 * @return the count
+	 */
+	public long getRejectionCount(Operation op) {
+		long n = 0;
+		for (Result r : op.rejections) {
+			n += getCount(op, r);
+		}
+		return n;
+	}
+
+	/**
+	 * Returns a copy of the latencies of an operation with a result.
+	 * @param op the operation
+	 * @param result the result
+	 * @return the latencies in nanoseconds
+	 * @throws IllegalArgumentException if the operation cannot have the result
+	 */
+	public LatencyHistogram getLatencies(Operation op, Result result) {
+		LatencyHistogram copy = new LatencyHistogram();
+		copy.add(latencies[slot(op, result)]);
+		return copy;
+	}
+
+	/**
+	 * Returns a copy of the latencies of an operation over all of its results.
+	 * @param op the operation
+	 * @return the latencies in nanoseconds
+	 */
+	public LatencyHistogram getLatencies(Operation op) {
+		LatencyHistogram all = new LatencyHistogram();
+		for (Result r : Result.values()) {
+			if (op.hasResult(r)) {
+				all.add(latencies[slot(op, r)]);
+			}
+		}
+		return all;
+	}
+
+	/**
+	 * Returns the number of times each operation ended with each of its results, keyed like ENROLL.CONFLICT.
+	 * @return the counts by operation and result
+	 */
+	@Override
+	public Map<String, Long> getCounts() {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		for (Operation op : Operation.values()) {
+			for (Result r : Result.values()) {
+				if (op.hasResult(r)) {
+					counts.put(op + "." + r, getCount(op, r));
+				}
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the median latency of each operation over all of its results.
+	 * @return the 50th percentile latencies in nanoseconds by operation
+	 */
+	@Override
+	public Map<String, Long> getLatencyP50Nanos() {
+		return percentiles(50);
+	}
+
+	/**
+	 * Returns the 99th percentile latency of each operation over all of its results.
+	 * @return the 99th percentile latencies in nanoseconds by operation
+	 */
+	@Override
+	public Map<String, Long> getLatencyP99Nanos() {
+		return percentiles(99);
+	}
+
+	/**
+	 * Returns the 99.9th percentile latency of each operation over all of its results.
+	 * @return the 99.9th percentile latencies in nanoseconds by operation
+	 */
+	@Override
+	public Map<String, Long> getLatencyP999Nanos() {
+		return percentiles(99.9);
+	}
+
+	/**
+	 * Clears every count and latency. Operations recorded while the metrics are cleared may or may not
+	 * be kept.
+	 */
+	@Override
+	public void reset() {
+		for (LatencyHistogram h : latencies) {
+			h.reset();
+		}
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server under OBJECT_NAME, replacing any metrics
+	 * registered there before.
+	 * @throws IllegalArgumentException if the metrics cannot be registered
+	 */
+	public void registerMBean() {
+		if (!tryRegisterMBean()) {
+			throw new IllegalArgumentException("Cannot register metrics.");
+		}
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server under OBJECT_NAME, replacing any metrics
+	 * registered there before, and reports whether it could. The metrics are recorded either way.
+	 * @return true if the metrics were registered, false if JMX is unavailable or refused them
+	 */
+	public boolean tryRegisterMBean() {
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+			return true;
+		} catch (JMException | SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the latency of each operation at a percentile.
+	 * @param percentile the percentile
+	 * @return the latencies in nanoseconds by operation
+	 */
+	private Map<String, Long> percentiles(double percentile) {
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (Operation op : Operation.values()) {
+			values.put(op.toString(), getLatencies(op).getValueAtPercentile(percentile));
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the slot of an operation and result.
+	 * @param op the operation
+	 * @param result the result
+	 * @return the slot
+	 * @throws IllegalArgumentException if the operation cannot have the result
+	 */
+	private static int slot(Operation op, Result result) {
+		int slot = SLOTS[op.ordinal()][result.ordinal()];
+		if (slot < 0) {
+			throw new IllegalArgumentException("Invalid metric.");
+		}
+		return slot;
+	}
+}
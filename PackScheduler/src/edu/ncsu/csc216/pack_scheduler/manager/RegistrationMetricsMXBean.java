@@ -0,0 +1,39 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the RegistrationMetrics. Counts are keyed by operation and result, such as
+ * ENROLL.CONFLICT, and latencies are keyed by operation over all of its results.
+ */
+public interface RegistrationMetricsMXBean {
+
+	/**
+	 * Returns the number of times each operation ended with each of its results.
+	 * @return the counts by operation and result
+	 */
+	Map<String, Long> getCounts();
+
+	/**
+	 * Returns the median latency of each operation.
+	 * @return the 50th percentile latencies in nanoseconds by operation
+	 */
+	Map<String, Long> getLatencyP50Nanos();
+
+	/**
+	 * Returns the 99th percentile latency of each operation.
+	 * @return the 99th percentile latencies in nanoseconds by operation
+	 */
+	Map<String, Long> getLatencyP99Nanos();
+
+	/**
+	 * Returns the 99.9th percentile latency of each operation.
+	 * @return the 99.9th percentile latencies in nanoseconds by operation
+	 */
+	Map<String, Long> getLatencyP999Nanos();
+
+	/**
+	 * Clears every count and latency.
+	 */
+	void reset();
+}
@@ -0,0 +1,102 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Queues seat freed events and hands them, one at a time and in the order they were published, to a
+ * handler running on a single worker thread. A drop publishes an event for the seat it holds and
+ * returns without waiting for the promotion, and the handler fills the seat from the wait list later.
+ * The worker is a daemon thread started by the first event.
+ */
+final class WaitlistPromoter {
+
+	/** Courses with a seat held for a promotion, one entry per seat */
+	private final LinkedBlockingQueue<Course> events = new LinkedBlockingQueue<Course>();
+	/** Fills a held seat of a course */
+	private final Consumer<Course> handler;
+	/** Guards pending, worker, and failure, and is notified when pending reaches 0 */
+	private final Object monitor = new Object();
+	/** Events published but not yet handled */
+	private int pending;
+	/** The worker thread, or null until the first event */
+	private Thread worker;
+	/** The first exception thrown by the handler since awaitIdle last returned, or null */
+	private RuntimeException failure;
+
+	/**
+	 * Creates a promoter that hands events to the given handler.
+	 * @param handler fills a held seat of a course
+	 */
+	WaitlistPromoter(Consumer<Course> handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 * Publishes a seat freed event for a course. This never blocks.
+	 * @param course the course with a seat held for a promotion
+	 */
+	void publish(Course course) {
+		synchronized (monitor) {
+			pending++;
+			if (worker == null) {
+				worker = new Thread(this::run, "waitlist-promoter");
+				worker.setDaemon(true);
+				worker.start();
+			}
+		}
+		events.add(course);
+	}
+
+	/**
+	 * Waits until every published event has been handled.
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws RuntimeException the first exception the handler threw since the last call, if any
+	 */
+	void awaitIdle() throws InterruptedException {
+		RuntimeException e;
+		synchronized (monitor) {
+			while (pending > 0) {
+				monitor.wait();
+			}
+			e = failure;
+			failure = null;
+		}
+		if (e != null) {
+			throw e;
+		}
+	}
+
+	/**
+	 * Handles events until the process exits. An exception thrown by the handler is kept for
+	 * awaitIdle and does not stop the worker.
+	 */
+	private void run() {
+		while (true) {
+			Course course;
+			try {
+				course = events.take();
+			} catch (InterruptedException e) {
+				continue;
+			}
+			try {
+				handler.accept(course);
+			} catch (RuntimeException e) {
+				synchronized (monitor) {
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			} finally {
+				synchronized (monitor) {
+					pending--;
+					if (pending == 0) {
+						monitor.notifyAll();
+					}
+				}
+			}
+		}
+	}
+}
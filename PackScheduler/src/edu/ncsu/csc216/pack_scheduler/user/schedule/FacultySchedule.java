@@ -1,11 +1,15 @@
 package edu.ncsu.csc216.pack_scheduler.user.schedule;
 
-import edu.ncsu.csc216.pack_scheduler.course.ConflictException;
+import java.util.HashSet;
+
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.util.LinkedListRecursive;
 
 /**
  * A Faculty's schedule
+ * 
+ * The schedule keeps the name and section of each Course for duplicate checks and an index of
+ * their meeting times for conflict checks, so assigning a Course does not walk the list.
  * @author Sarah Heckman
  */
 public class FacultySchedule {
@@ -14,6 +18,10 @@ public class FacultySchedule {
 	private LinkedListRecursive<Course> schedule;
 	/** Instructor id for updating courses */
 	private String instructorId;
+	/** Name and section of each Course in the schedule */
+	private HashSet<String> sections;
+	/** Meeting times of the Courses in the schedule */
+	private ScheduleIndex index;
 	
 	/**
 	 * Creates an empty schedule.
@@ -22,6 +30,8 @@ public class FacultySchedule {
 	public FacultySchedule(String instructorId) {
 		schedule = new LinkedListRecursive<Course>();
 		this.instructorId = instructorId;
+		sections = new HashSet<String>();
+		index = new ScheduleIndex();
 	}
 	
 	/**
@@ -30,22 +40,18 @@ public class FacultySchedule {
 	 * @return true if added
 	 */
 	public boolean addCourseToSchedule(Course course) {
-		for (int i = 0; i < schedule.size(); i++) {
-			if (schedule.get(i).isDuplicate(course)) {
-				if (schedule.get(i).getSection().equals(course.getSection())) {
-					throw new IllegalArgumentException("Already assigned " + course.getName());
-				}
-			}
-			try {
-				schedule.get(i).checkConflict(course);
-			} catch (ConflictException e) {
-				throw new IllegalArgumentException("The course cannot be assigned due to a conflict.");
-			}
+		if (sections.contains(sectionKey(course))) {
+			throw new IllegalArgumentException("Already assigned " + course.getName());
+		}
+		if (index.conflicts(course)) {
+			throw new IllegalArgumentException("The course cannot be assigned due to a conflict.");
 		}
 		if (course.getInstructorId() != null) {
 			throw new IllegalArgumentException("The course already has an instructor.");
 		}
 		if (schedule.add(course)) {
+			sections.add(sectionKey(course));
+			index.add(course);
 			course.setInstructorId(instructorId);
 			return true;
 		}
@@ -59,12 +65,23 @@ public class FacultySchedule {
 	 */
 	public boolean removeCourseFromSchedule(Course course) {
 		if (schedule.remove(course)) {
+			sections.remove(sectionKey(course));
+			index.remove(course);
 			course.setInstructorId(null);
 			return true;
 		}
 		return false;
 	}
 	
+	/**
+	 * Returns the key a Course's name and section are stored under in the set of sections.
+	 * @param course the Course
+	 * @return the name and section of the Course
+	 */
+	private static String sectionKey(Course course) {
+		return course.getName() + "," + course.getSection();
+	}
+	
 	/**
 	 * Resets the schedule to an empty schedule
 	 */
@@ -1,30 +1,58 @@
 package edu.ncsu.csc216.pack_scheduler.user.schedule;
 
+import java.util.HashSet;
+
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.util.ArrayList;
-import edu.ncsu.csc216.pack_scheduler.course.ConflictException;
 
 /**
  * A user's schedule of Courses in the Pack Scheduler system.
  * 
+ * Besides the list of Courses, the schedule keeps the set of their names for duplicate checks,
+ * an index of their meeting times for conflict checks, and their total credits, so checking
+ * whether a Course can be added does not walk the list.
+ * 
  * @author Kergan Sanderson
  * @author Artie Yakovlev
  * @author Cameron Edwards
  */
 public class Schedule {
 
+	/**
+	 * Whether a Course can be added to the schedule, or why not.
+	 */
+	public enum AddCheck {
+		/** The course can be added */
+		ADDABLE,
+		/** A course with the same name is already in the schedule */
+		DUPLICATE,
+		/** The course meets at the same time as a course in the schedule */
+		CONFLICT
+	}
+
 	/** Holds the list of Courses for the user. */
 	private ArrayList<Course> schedule;
 
 	/** The title of the user's schedule. */
 	private String title;
 
+	/** Names of the Courses in the schedule */
+	private HashSet<String> names;
+
+	/** Meeting times of the Courses in the schedule */
+	private ScheduleIndex index;
+
+	/** Total credits of the Courses in the schedule */
+	private int credits;
+
 	/**
 	 * Constructs a new Schedule. Sets the default title and creates an empty schedule.
 	 */
 	public Schedule() {
 		schedule = new ArrayList<Course>();
 		title = "My Schedule";
+		names = new HashSet<String>();
+		index = new ScheduleIndex();
 	}
 
 	/**
@@ -45,20 +73,17 @@ public class Schedule {
 	 * @throws NullPointerException if course is null.
 	 */
 	public boolean addCourseToSchedule(Course course) {
-		for (int i = 0; i < schedule.size(); i++) {
-			Course sCourse = schedule.get(i);
-			if (sCourse.isDuplicate(course)) {
-				throw new IllegalArgumentException("You are already enrolled in " + course.getName());
-			}
+		AddCheck check = checkAdd(course);
+		if (check == AddCheck.DUPLICATE) {
+			throw new IllegalArgumentException("You are already enrolled in " + course.getName());
 		}
-		for (Course sCourse : schedule) {
-			try {
-				sCourse.checkConflict(course);
-			} catch (ConflictException e) {
-				throw new IllegalArgumentException("The course cannot be added due to a conflict.");
-			}
+		if (check == AddCheck.CONFLICT) {
+			throw new IllegalArgumentException("The course cannot be added due to a conflict.");
 		}
 		schedule.add(course);
+		names.add(course.getName());
+		index.add(course);
+		credits += course.getCredits();
 		return true;
 	}
 
@@ -68,14 +93,12 @@ public class Schedule {
 	 * @return returns true if the course was successfully removed from the schedule and false if the course isn't in the schedule
 	 */
 	public boolean removeCourseFromSchedule(Course course) {
-		boolean inSchedule = false;
-		for (Course sCourse : schedule) {
-			if (sCourse.isDuplicate(course)) {
-				inSchedule = true;
+		if (course != null && names.contains(course.getName())) {
+			if (schedule.remove(course)) {
+				names.remove(course.getName());
+				index.remove(course);
+				credits -= course.getCredits();
 			}
-		}
-		if (inSchedule) {
-			schedule.remove(course);
 			return true;
 		}
 		return false;
@@ -87,6 +110,9 @@ public class Schedule {
 	 */
 	public void resetSchedule() {
 		schedule = new ArrayList<Course>();
+		names.clear();
+		index.clear();
+		credits = 0;
 	}
 
 	/**
@@ -121,10 +147,6 @@ public class Schedule {
 	 * @return the sum of credits of all the courses in the schedule
 	 */
 	public int getScheduleCredits() {
-		int credits = 0;
-		for (Course course : schedule) {
-			credits += course.getCredits();
-		}
 		return credits;
 	}
 	
@@ -139,17 +161,25 @@ public class Schedule {
 		if (other == null) {
 			return false;
 		}
-		for (Course course : schedule) {
-			if (course.isDuplicate(other)) {
-				return false;
-			}
-			try {
-				course.checkConflict(other);
-			} catch (ConflictException e) {
-				return false;
-			}
+		return checkAdd(other) == AddCheck.ADDABLE;
+	}
+
+	/**
+	 * Returns whether a course can be added to the schedule, or the reason it cannot: a Course with the
+	 * same name already in the schedule, or a time conflict with a Course in the schedule. Unlike
+	 * addCourseToSchedule, a course that cannot be added is reported without throwing an exception.
+	 * @param other the Course that is being checked
+	 * @return ADDABLE if the course can be added, or why it cannot
+	 * @throws NullPointerException if other is null
+	 */
+	public AddCheck checkAdd(Course other) {
+		if (names.contains(other.getName())) {
+			return AddCheck.DUPLICATE;
 		}
-		return true;
+		if (index.conflicts(other)) {
+			return AddCheck.CONFLICT;
+		}
+		return AddCheck.ADDABLE;
 	}
 
 }
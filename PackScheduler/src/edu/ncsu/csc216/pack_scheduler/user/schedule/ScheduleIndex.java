@@ -0,0 +1,100 @@
+package edu.ncsu.csc216.pack_scheduler.user.schedule;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.ncsu.csc216.pack_scheduler.course.Activity;
+
+/**
+ * Indexes the meeting times of the activities in a schedule by day so that a new activity can be
+ * checked for conflicts in logarithmic time. For each meeting day, the activities that meet on that
+ * day are kept in a tree ordered by start time.
+ *
+ * A schedule never holds two activities that conflict, so the activities on one day never overlap.
+ * A new activity conflicts with one of them exactly when the activity with the latest start time at
+ * or before the new activity's end time ends at or after the new activity's start time. This is the
+ * same rule as Activity.conflictsWith, including that an activity starting the minute another ends
+ * conflicts with it. Activities with arranged meeting days never conflict and are not indexed.
+ * An activity's meeting days and times must not change while it is in the index.
+ */
+final class ScheduleIndex {
+
+	/** Activities meeting on each day, by start time */
+	private final Map<Character, TreeMap<Integer, Activity>> days = new HashMap<Character, TreeMap<Integer, Activity>>();
+
+	/**
+	 * Returns true if the activity conflicts with an activity in the index.
+	 * @param activity the activity to check
+	 * @return true if there is a conflict
+	 */
+	boolean conflicts(Activity activity) {
+		String meetingDays = activity.getMeetingDays();
+		if (isArranged(meetingDays)) {
+			return false;
+		}
+		for (int i = 0; i < meetingDays.length(); i++) {
+			TreeMap<Integer, Activity> day = days.get(meetingDays.charAt(i));
+			if (day == null) {
+				continue;
+			}
+			Map.Entry<Integer, Activity> latest = day.floorEntry(activity.getEndTime());
+			if (latest != null && latest.getValue().getEndTime() >= activity.getStartTime()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds an activity to the index. The activity must not conflict with an activity in the index.
+	 * @param activity the activity to add
+	 */
+	void add(Activity activity) {
+		String meetingDays = activity.getMeetingDays();
+		if (isArranged(meetingDays)) {
+			return;
+		}
+		for (int i = 0; i < meetingDays.length(); i++) {
+			TreeMap<Integer, Activity> day = days.get(meetingDays.charAt(i));
+			if (day == null) {
+				day = new TreeMap<Integer, Activity>();
+				days.put(meetingDays.charAt(i), day);
+			}
+			day.put(activity.getStartTime(), activity);
+		}
+	}
+
+	/**
+	 * Removes an activity from the index.
+	 * @param activity the activity to remove
+	 */
+	void remove(Activity activity) {
+		String meetingDays = activity.getMeetingDays();
+		if (isArranged(meetingDays)) {
+			return;
+		}
+		for (int i = 0; i < meetingDays.length(); i++) {
+			TreeMap<Integer, Activity> day = days.get(meetingDays.charAt(i));
+			if (day != null) {
+				day.remove(activity.getStartTime(), activity);
+			}
+		}
+	}
+
+	/**
+	 * Removes every activity from the index.
+	 */
+	void clear() {
+		days.clear();
+	}
+
+	/**
+	 * Returns true if the meeting days are arranged, so the activity has no meeting times.
+	 * @param meetingDays the meeting days
+	 * @return true if the meeting days are arranged
+	 */
+	private static boolean isArranged(String meetingDays) {
+		return meetingDays == null || "A".equals(meetingDays);
+	}
+}
@@ -0,0 +1,277 @@
+package edu.ncsu.csc216.pack_scheduler.util;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A first in, first out queue that also finds and removes any element in constant time. The elements
+ * are kept in a doubly linked list in queue order, and an IdentityHashMap from each element to its node
+ * finds an element without walking the list. An element can be in the queue only once. Elements are
+ * found by identity rather than with equals and hashCode, so an element whose fields, and so its
+ * hashCode, change while it is in the queue is still found.
+ * @param <E> type of the elements
+ */
+public class IndexedQueue<E> implements Queue<E>, Iterable<E> {
+
+	/** Node of each element in the queue */
+	private final IdentityHashMap<E, ListNode> index;
+	/** Node at the front of the queue, or null if the queue is empty */
+	private ListNode front;
+	/** Node at the back of the queue, or null if the queue is empty */
+	private ListNode back;
+	/** The maximum number of elements in the queue */
+	private int capacity;
+
+	/**
+	 * Creates an empty queue with the given capacity.
+	 * @param capacity the maximum number of elements in the queue
+	 * @throws IllegalArgumentException if capacity is negative
+	 */
+	public IndexedQueue(int capacity) {
+		index = new IdentityHashMap<E, ListNode>();
+		setCapacity(capacity);
+	}
+
+	/**
+	 * Adds an element to the back of the queue.
+	 * @param element the element to add
+	 * @throws IllegalArgumentException if the element is null or already in the queue, or the queue
+	 *                                  is full
+	 */
+	@Override
+	public void enqueue(E element) {
+		if (element == null || index.containsKey(element)) {
+			throw new IllegalArgumentException("Invalid element.");
+		}
+		if (index.size() == capacity) {
+			throw new IllegalArgumentException("Size cannot be bigger than capacity.");
+		}
+		ListNode node = new ListNode(element);
+		if (back == null) {
+			front = node;
+		} else {
+			back.next = node;
+			node.prev = back;
+		}
+		back = node;
+		index.put(element, node);
+	}
+
+	/**
+	 * Removes and returns the element at the front of the queue.
+	 * @return the element removed from the front of the queue
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	@Override
+	public E dequeue() {
+		if (front == null) {
+			throw new NoSuchElementException();
+		}
+		E element = front.data;
+		index.remove(element);
+		unlink(front);
+		return element;
+	}
+
+	/**
+	 * Returns true if the element is in the queue.
+	 * @param element the element to look for
+	 * @return true if the element is in the queue
+	 */
+	public boolean contains(E element) {
+		return element != null && index.containsKey(element);
+	}
+
+	/**
+	 * Removes an element from wherever it is in the queue. The other elements keep their order.
+	 * @param element the element to remove
+	 * @return true if the element was in the queue
+	 */
+	public boolean remove(E element) {
+		if (element == null) {
+			return false;
+		}
+		ListNode node = index.remove(element);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	/**
+	 * Returns the position of an element in the queue, counting from 0 at the front. This walks the
+	 * queue from the front to the element, so it takes time in proportion to the position.
+	 * @param element the element to look for
+	 * @return the position of the element, or -1 if it is not in the queue
+	 */
+	public int indexOf(E element) {
+		if (element == null || !index.containsKey(element)) {
+			return -1;
+		}
+		ListNode target = index.get(element);
+		int position = 0;
+		for (ListNode n = front; n != target; n = n.next) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the elements in the queue, from front to back, in the given array if it is large enough
+	 * or otherwise in a new array of the same type. The queue is unchanged.
+	 * @param a the array to fill
+	 * @return the array of elements
+	 */
+	public E[] toArray(E[] a) {
+		E[] elements = a.length >= index.size() ? a : Arrays.copyOf(a, index.size());
+		int i = 0;
+		for (E element : this) {
+			elements[i++] = element;
+		}
+		if (elements.length > i) {
+			elements[i] = null;
+		}
+		return elements;
+	}
+
+	/**
+	 * Returns an iterator over the elements from front to back. The queue must not be changed while the
+	 * iterator is in use, and the iterator cannot remove elements.
+	 * @return an iterator over the elements
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new QueueIterator(front);
+	}
+
+	/**
+	 * Returns an iterator over the elements behind the given element, from front to back. The element
+	 * is found through the index, so this takes constant time. The queue must not be changed while the
+	 * iterator is in use, and the iterator cannot remove elements.
+	 * @param element the element to start after
+	 * @return an iterator over the elements behind the element
+	 * @throws IllegalArgumentException if the element is not in the queue
+	 */
+	public Iterator<E> iteratorAfter(E element) {
+		ListNode node = element == null ? null : index.get(element);
+		if (node == null) {
+			throw new IllegalArgumentException("Element is not in the queue.");
+		}
+		return new QueueIterator(node.next);
+	}
+
+	/**
+	 * Returns true if the queue is empty.
+	 * @return true if the queue is empty
+	 */
+	@Override
+	public boolean isEmpty() {
+		return index.isEmpty();
+	}
+
+	/**
+	 * Returns the number of elements in the queue.
+	 * @return the number of elements
+	 */
+	@Override
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * Sets the capacity of the queue.
+	 * @param capacity the maximum number of elements in the queue
+	 * @throws IllegalArgumentException if capacity is negative or less than the number of elements
+	 */
+	@Override
+	public void setCapacity(int capacity) {
+		if (capacity < 0 || capacity < index.size()) {
+			throw new IllegalArgumentException("Invalid capacity.");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Takes a node out of the linked list.
+	 * @param node the node to take out
+	 */
+	private void unlink(ListNode node) {
+		if (node.prev == null) {
+			front = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+		if (node.next == null) {
+			back = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+		node.prev = null;
+		node.next = null;
+	}
+
+	/**
+	 * Walks the linked list from the front to the back.
+	 */
+	private class QueueIterator implements Iterator<E> {
+
+		/** Node holding the element next returns, or null at the end */
+		private ListNode next;
+
+		/**
+		 * Creates an iterator that starts at the given node.
+		 * @param first node holding the first element to return, or null for none
+		 */
+		QueueIterator(ListNode first) {
+			next = first;
+		}
+
+		/**
+		 * Returns true if there are more elements.
+		 * @return true if next has an element to return
+		 */
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		/**
+		 * Returns the next element.
+		 * @return the next element
+		 * @throws NoSuchElementException if there are no more elements
+		 */
+		@Override
+		public E next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			E element = next.data;
+			next = next.next;
+			return element;
+		}
+	}
+
+	/**
+	 * A node of the linked list holding one element.
+	 */
+	private class ListNode {
+
+		/** The element */
+		private final E data;
+		/** The node in front of this one, or null if this is the front */
+		private ListNode prev;
+		/** The node behind this one, or null if this is the back */
+		private ListNode next;
+
+		/**
+		 * Creates a node holding an element.
+		 * @param data the element
+		 */
+		ListNode(E data) {
+			this.data = data;
+		}
+	}
+}
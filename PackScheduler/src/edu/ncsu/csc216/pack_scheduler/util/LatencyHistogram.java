@@ -0,0 +1,175 @@
+package edu.ncsu.csc216.pack_scheduler.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts recorded latencies in buckets whose width grows with the value, in the manner of an HDR
+ * histogram, so percentiles can be read to within 1% from a fixed number of counters. Values below
+ * 128 have a bucket each. Above that, each power of two is split into 64 buckets of equal width, so a
+ * bucket is never wider than 1/64 of its lowest value. Any long can be recorded.
+ * <p>
+ * Recording is thread safe, takes no locks, and creates no objects. Values recorded while a percentile
+ * is read may or may not be counted by it.
+ */
+public class LatencyHistogram {
+
+	/** Number of buckets each power of two above the exact range is split into */
+	private static final int SUB_BUCKETS = 64;
+	/** log2 of SUB_BUCKETS */
+	private static final int SUB_BUCKET_BITS = 6;
+	/** Values below this have a bucket each */
+	private static final int EXACT_LIMIT = 2 * SUB_BUCKETS;
+	/** Number of buckets, enough for Long.MAX_VALUE */
+	private static final int BUCKETS = bucketOf(Long.MAX_VALUE) + 1;
+
+	/** Count of values in each bucket */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	/** Number of values recorded */
+	private final LongAdder count = new LongAdder();
+	/** Sum of the values recorded */
+	private final LongAdder total = new LongAdder();
+	/** Largest value recorded */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a value. A negative value is recorded as 0.
+	 * @param value the value, such as a latency in nanoseconds
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		counts.incrementAndGet(bucketOf(v));
+		count.increment();
+		total.add(v);
+		long m = max.get();
+		while (v > m && !max.compareAndSet(m, v)) {
+			m = max.get();
+		}
+	}
+
+	/**
+	 * Adds the counts of another histogram to this one.
+	 * @param other the other histogram
+	 * @throws IllegalArgumentException if other is null
+	 */
+	public void add(LatencyHistogram other) {
+		if (other == null) {
+			throw new IllegalArgumentException("Invalid histogram.");
+		}
+		for (int i = 0; i < BUCKETS; i++) {
+			long c = other.counts.get(i);
+			if (c != 0) {
+				counts.addAndGet(i, c);
+			}
+		}
+		count.add(other.count.sum());
+		total.add(other.total.sum());
+		long v = other.max.get();
+		long m = max.get();
+		while (v > m && !max.compareAndSet(m, v)) {
+			m = max.get();
+		}
+	}
+
+	/**
+	 * Returns the number of values recorded.
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the sum of the values recorded.
+	 * @return the sum
+	 */
+	public long getTotal() {
+		return total.sum();
+	}
+
+	/**
+	 * Returns the mean of the values recorded, or 0 if none were.
+	 * @return the mean
+	 */
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) total.sum() / n;
+	}
+
+	/**
+	 * Returns the largest value recorded, or 0 if none were.
+	 * @return the largest value
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the value at the given percentile: the highest value in the bucket holding the value that
+	 * the given percent of values are at or below, but no more than the largest value recorded.
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the value at the percentile, or 0 if no values were recorded
+	 * @throws IllegalArgumentException if percentile is not from 0 to 100
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("Invalid percentile.");
+		}
+		long n = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			n += counts.get(i);
+		}
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Clears the histogram. Values recorded while it is cleared may or may not be kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		total.reset();
+		max.set(0);
+	}
+
+	/**
+	 * Returns the bucket of a value.
+	 * @param value a value that is not negative
+	 * @return the bucket
+	 */
+	private static int bucketOf(long value) {
+		if (value < EXACT_LIMIT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return shift * SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	/**
+	 * Returns the highest value that falls in a bucket.
+	 * @param bucket the bucket
+	 * @return the highest value in the bucket
+	 */
+	private static long highestValueOf(int bucket) {
+		if (bucket < EXACT_LIMIT) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		return ((sub + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,133 @@
+package edu.ncsu.csc216.pack_scheduler.bench;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.bench.RegistrationLoadSimulator.Mode;
+import edu.ncsu.csc216.pack_scheduler.bench.RegistrationLoadSimulator.Request;
+import edu.ncsu.csc216.pack_scheduler.bench.RegistrationLoadSimulator.Result;
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationManager;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests RegistrationLoadSimulator.
+ */
+public class RegistrationLoadSimulatorTest {
+
+	/** Number of students in the term */
+	private static final int STUDENTS = 300;
+	/** Number of courses in the term */
+	private static final int COURSES = 60;
+
+	/**
+	 * Clears the manager.
+	 */
+	@AfterEach
+	public void tearDown() {
+		RegistrationManager manager = RegistrationManager.getInstance();
+		manager.logout();
+		manager.clearData();
+	}
+
+	/**
+	 * Tests a concurrent replay in SESSIONS mode.
+	 * @throws Exception if the replay fails
+	 */
+	@Test
+	public void testSessions() throws Exception {
+		checkReplay(Mode.SESSIONS, 8);
+	}
+
+	/**
+	 * Tests a replay in SINGLE_USER mode.
+	 * @throws Exception if the replay fails
+	 */
+	@Test
+	public void testSingleUser() throws Exception {
+		checkReplay(Mode.SINGLE_USER, 4);
+	}
+
+	/**
+	 * Tests that invalid simulations are rejected.
+	 */
+	@Test
+	public void testInvalid() {
+		RegistrationManager manager = RegistrationManager.getInstance();
+		assertThrows(IllegalArgumentException.class, () -> new RegistrationLoadSimulator(null, Mode.SESSIONS, 1));
+		assertThrows(IllegalArgumentException.class, () -> new RegistrationLoadSimulator(manager, null, 1));
+		assertThrows(IllegalArgumentException.class, () -> new RegistrationLoadSimulator(manager, Mode.SESSIONS, 0));
+		RegistrationLoadSimulator simulator = new RegistrationLoadSimulator(manager, Mode.SESSIONS, 1);
+		assertThrows(IllegalArgumentException.class,
+				() -> simulator.replay(new BufferedReader(new StringReader("X,id\n")), 0));
+		// Lines missing fields are rejected before they reach a worker, so the replay cannot hang
+		for (String line : new String[] {"E,id", "D,id,CSC116", "L", "L,id,extra", ",id", "EE,id,CSC116,001"}) {
+			assertThrows(IllegalArgumentException.class,
+					() -> simulator.replay(new BufferedReader(new StringReader("L,id\n" + line + "\n")), 0), line);
+		}
+	}
+
+	/**
+	 * Replays a generated trace and checks that every request is counted and that the rolls and the
+	 * schedules agree afterward.
+	 * @param mode the mode
+	 * @param threads the number of threads
+	 * @throws IOException if the trace cannot be written or read
+	 * @throws InterruptedException if interrupted while replaying
+	 */
+	private void checkReplay(Mode mode, int threads) throws IOException, InterruptedException {
+		SyntheticData data = new SyntheticData(217);
+		RegistrationManager manager = RegistrationManager.getInstance();
+		manager.logout();
+		manager.clearData();
+		manager.getStudentDirectory().restoreStudents(data.students(STUDENTS));
+		manager.getCourseCatalog().restoreCourses(data.courses(COURSES));
+		StringWriter trace = new StringWriter();
+		new TermDataGenerator(217).writeEnrollmentTrace(trace, STUDENTS, COURSES);
+
+		int[] lines = new int[Request.values().length];
+		for (String line : trace.toString().split("\n")) {
+			lines[Request.of(line.charAt(0)).ordinal()]++;
+		}
+
+		RegistrationLoadSimulator simulator = new RegistrationLoadSimulator(manager, mode, threads);
+		simulator.replay(new BufferedReader(new StringReader(trace.toString())), 0);
+		manager.awaitPromotions();
+		for (Request r : Request.values()) {
+			long counted = 0;
+			for (Result result : Result.values()) {
+				counted += simulator.getCount(r, result);
+			}
+			assertEquals(lines[r.ordinal()], counted, r.toString());
+			assertEquals(0, simulator.getCount(r, Result.ERROR), r.toString());
+		}
+		assertEquals(lines[Request.LOGIN.ordinal()], simulator.getCount(Request.LOGIN, Result.OK));
+		assertTrue(simulator.getCount(Request.ENROLL, Result.OK) > 0);
+		assertTrue(simulator.getLatencies(Request.ENROLL).getValueAtPercentile(99) > 0);
+
+		int seats = 0;
+		for (Course c : manager.getCourseCatalog().getCourses()) {
+			seats += c.getCourseRoll().getEnrollmentCap() - c.getCourseRoll().getOpenSeats();
+		}
+		int scheduled = 0;
+		for (Student s : manager.getStudentDirectory().getStudents()) {
+			scheduled += s.getSchedule().getScheduledCourses().length;
+		}
+		assertEquals(seats, scheduled);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		simulator.printReport(new PrintStream(out, true, "UTF-8"));
+		assertTrue(out.toString("UTF-8").contains("requests/s"));
+	}
+}
@@ -0,0 +1,101 @@
+package edu.ncsu.csc216.pack_scheduler.bench;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests SyntheticData.
+ */
+public class SyntheticDataTest {
+
+	/**
+	 * Tests that the same seed gives the same data and another seed gives other data.
+	 */
+	@Test
+	public void testDeterministic() {
+		List<Course> a = new SyntheticData(5).courses(500);
+		List<Course> b = new SyntheticData(5).courses(500);
+		List<Course> c = new SyntheticData(6).courses(500);
+		assertEquals(a.toString(), b.toString());
+		assertNotEquals(a.toString(), c.toString());
+		assertEquals(new SyntheticData(5).student(42).toString(), new SyntheticData(5).student(42).toString());
+		assertNotEquals(new SyntheticData(5).student(42).toString(), new SyntheticData(6).student(42).toString());
+		assertEquals(new SyntheticData(5).facultyMember(7).toString(),
+				new SyntheticData(5).facultyMember(7).toString());
+	}
+
+	/**
+	 * Tests that the courses are sorted and unique, and that no faculty member teaches more courses
+	 * than their maximum or two courses that conflict.
+	 */
+	@Test
+	public void testCourses() {
+		SyntheticData data = new SyntheticData(217);
+		List<Course> courses = data.courses(5000);
+		assertEquals(5000, courses.size());
+		Map<String, List<Course>> taught = new HashMap<String, List<Course>>();
+		int assigned = 0;
+		for (int i = 0; i < courses.size(); i++) {
+			Course course = courses.get(i);
+			if (i > 0) {
+				assertTrue(courses.get(i - 1).compareTo(course) < 0);
+			}
+			if (course.getInstructorId() != null) {
+				assigned++;
+				taught.computeIfAbsent(course.getInstructorId(), k -> new ArrayList<Course>()).add(course);
+			}
+		}
+		assertTrue(assigned > courses.size() / 2);
+		for (int k = 0; k <= 4999 / 3; k++) {
+			Faculty f = data.facultyMember(k);
+			List<Course> list = taught.remove(f.getId());
+			if (list != null) {
+				assertTrue(list.size() <= f.getMaxCourses());
+				for (int i = 0; i < list.size(); i++) {
+					for (int j = i + 1; j < list.size(); j++) {
+						assertFalse(list.get(i).conflictsWith(list.get(j)));
+					}
+				}
+			}
+		}
+		assertTrue(taught.isEmpty());
+	}
+
+	/**
+	 * Tests that students and faculty members have unique ids and the shared password.
+	 */
+	@Test
+	public void testUsers() {
+		SyntheticData data = new SyntheticData(217);
+		Set<String> ids = new HashSet<String>();
+		List<Student> students = data.students(2000);
+		for (int i = 0; i < students.size(); i++) {
+			Student s = students.get(i);
+			if (i > 0) {
+				assertTrue(students.get(i - 1).compareTo(s) < 0);
+			}
+			assertTrue(ids.add(s.getId()));
+			assertEquals(SyntheticData.HASHED_PASSWORD, s.getPassword());
+			assertTrue(s.getMaxCredits() >= 3 && s.getMaxCredits() <= 18);
+		}
+		for (Faculty f : data.faculty(2000)) {
+			assertTrue(ids.add(f.getId()));
+			assertTrue(f.getMaxCourses() >= 1 && f.getMaxCourses() <= 3);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package edu.ncsu.csc216.pack_scheduler.bench;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.FacultyRecordIO;
+import edu.ncsu.csc216.pack_scheduler.io.StudentRecordIO;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationManager;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests TermDataGenerator.
+ */
+public class TermDataGeneratorTest {
+
+	/** Directory the term is written to */
+	private static final String DIRECTORY = "test-files/actual_term";
+
+	/**
+	 * Deletes the written term.
+	 * @throws IOException if a file cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		for (String name : new String[] { TermDataGenerator.COURSE_FILE, TermDataGenerator.STUDENT_FILE,
+				TermDataGenerator.FACULTY_FILE, TermDataGenerator.TRACE_FILE }) {
+			Files.deleteIfExists(Paths.get(DIRECTORY, name));
+		}
+		new File(DIRECTORY).delete();
+		RegistrationManager.getInstance().clearData();
+	}
+
+	/**
+	 * Tests that every record the generator writes is read back by the record readers.
+	 * @throws IOException if the term cannot be written or read
+	 */
+	@Test
+	public void testRecordsReadBack() throws IOException {
+		RegistrationManager.getInstance().clearData();
+		new TermDataGenerator(217).writeTerm(DIRECTORY, 3000, 600, 200);
+		assertEquals(600, CourseRecordIO.streamCourseRecords(DIRECTORY + "/" + TermDataGenerator.COURSE_FILE).size());
+		assertEquals(3000, StudentRecordIO
+				.readStudentRecordsInParallel(DIRECTORY + "/" + TermDataGenerator.STUDENT_FILE).size());
+		assertEquals(200, FacultyRecordIO.readFacultyRecords(DIRECTORY + "/" + TermDataGenerator.FACULTY_FILE).size());
+		for (String line : Files.readAllLines(Paths.get(DIRECTORY, TermDataGenerator.COURSE_FILE))) {
+			String[] fields = line.split(",");
+			if (fields.length == 9) {
+				assertEquals(4, fields[7].length());
+				assertEquals(4, fields[8].length());
+			}
+		}
+	}
+
+	/**
+	 * Tests that the trace is made of sessions from a login to a logout by one known student, naming
+	 * only known sections.
+	 * @throws IOException if the term cannot be written or read
+	 */
+	@Test
+	public void testEnrollmentTrace() throws IOException {
+		RegistrationManager.getInstance().clearData();
+		new TermDataGenerator(217).writeTerm(DIRECTORY, 2000, 400, 0);
+		Set<String> ids = new HashSet<String>();
+		for (Student s : StudentRecordIO.readStudentRecordsInParallel(DIRECTORY + "/" + TermDataGenerator.STUDENT_FILE)) {
+			ids.add(s.getId());
+		}
+		Set<String> sections = new HashSet<String>();
+		List<Course> courses = CourseRecordIO.streamCourseRecords(DIRECTORY + "/" + TermDataGenerator.COURSE_FILE);
+		for (Course c : courses) {
+			sections.add(c.getName() + "," + c.getSection());
+		}
+
+		Set<String> firstSessions = new HashSet<String>();
+		int sessions = 0;
+		String current = null;
+		int enrolls = 0;
+		for (String line : Files.readAllLines(Paths.get(DIRECTORY, TermDataGenerator.TRACE_FILE))) {
+			String[] fields = line.split(",");
+			char type = fields[0].charAt(0);
+			assertTrue(ids.contains(fields[1]));
+			if (type == TermDataGenerator.LOGIN) {
+				assertEquals(null, current);
+				current = fields[1];
+				sessions++;
+				firstSessions.add(current);
+				continue;
+			}
+			assertEquals(current, fields[1]);
+			if (type == TermDataGenerator.ENROLL || type == TermDataGenerator.DROP) {
+				assertEquals(4, fields.length);
+				assertTrue(sections.contains(fields[2] + "," + fields[3]));
+				enrolls += type == TermDataGenerator.ENROLL ? 1 : 0;
+			} else if (type == TermDataGenerator.LOGOUT) {
+				current = null;
+			} else {
+				assertEquals(TermDataGenerator.RESET, type);
+			}
+		}
+		assertEquals(null, current);
+		assertEquals(2000, firstSessions.size());
+		assertTrue(sessions > 2000 && sessions < 3000);
+		assertTrue(enrolls >= 3 * 2000);
+	}
+
+	/**
+	 * Tests that the same seed writes the same term and another seed writes another.
+	 * @throws IOException if the term cannot be written
+	 */
+	@Test
+	public void testDeterministic() throws IOException {
+		StringWriter a = new StringWriter();
+		StringWriter b = new StringWriter();
+		StringWriter c = new StringWriter();
+		new TermDataGenerator(5).writeEnrollmentTrace(a, 500, 100);
+		new TermDataGenerator(5).writeEnrollmentTrace(b, 500, 100);
+		new TermDataGenerator(6).writeEnrollmentTrace(c, 500, 100);
+		assertEquals(a.toString(), b.toString());
+		assertTrue(!a.toString().equals(c.toString()));
+
+		new TermDataGenerator(5).writeTerm(DIRECTORY, 100, 50, 20);
+		Path courses = Paths.get(DIRECTORY, TermDataGenerator.COURSE_FILE);
+		byte[] first = Files.readAllBytes(courses);
+		new TermDataGenerator(5).writeTerm(DIRECTORY, 100, 50, 20);
+		assertArrayEquals(first, Files.readAllBytes(courses));
+	}
+
+	/**
+	 * Tests that invalid term sizes are rejected.
+	 */
+	@Test
+	public void testInvalid() {
+		TermDataGenerator generator = new TermDataGenerator(5);
+		assertThrows(IllegalArgumentException.class, () -> generator.writeTerm(DIRECTORY, -1, 10, 10));
+		assertThrows(IllegalArgumentException.class, () -> generator.writeTerm(DIRECTORY, 10, 0, 10));
+		assertThrows(IllegalArgumentException.class, () -> generator.writeEnrollmentTrace(new StringWriter(), 10, 0));
+	}
+}
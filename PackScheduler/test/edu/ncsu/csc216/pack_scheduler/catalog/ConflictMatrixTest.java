@@ -0,0 +1,72 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Tests ConflictMatrix.
+ */
+public class ConflictMatrixTest {
+
+	/** Meets MW 1:30-2:45 */
+	private final Course mw = new Course("CSC216", "Software Development Fundamentals", "001", 3, null, 10, "MW", 1330, 1445);
+	/** Meets W 2:45-4:00, touching mw */
+	private final Course w = new Course("CSC217", "Software Development Fundamentals Lab", "202", 1, null, 10, "W", 1445, 1600);
+	/** Meets TH 1:30-2:45 */
+	private final Course th = new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, null, 10, "TH", 1330, 1445);
+	/** Arranged */
+	private final Course arranged = new Course("CSC230", "C and Software Tools", "601", 3, null, 10, "A", 0, 0);
+
+	/**
+	 * Tests the conflicts of single Courses and of sets of Courses.
+	 */
+	@Test
+	public void testConflictsWith() {
+		ConflictMatrix matrix = new ConflictMatrix(Arrays.asList(mw, w, th, arranged));
+		BitSet conflicts = matrix.conflictsWith(Collections.singletonList(mw));
+		assertTrue(matrix.contains(conflicts, mw));
+		assertTrue(matrix.contains(conflicts, w));
+		assertFalse(matrix.contains(conflicts, th));
+		assertFalse(matrix.contains(conflicts, arranged));
+		assertEquals(2, conflicts.cardinality());
+
+		conflicts = matrix.conflictsWith(Arrays.asList(w, th));
+		assertEquals(3, conflicts.cardinality());
+		assertEquals(0, matrix.conflictsWith(Collections.singletonList(arranged)).cardinality());
+	}
+
+	/**
+	 * Tests that removed slots are reused and that adding and removing keeps both rows of a conflict
+	 * up to date.
+	 */
+	@Test
+	public void testAddAndRemove() {
+		ConflictMatrix matrix = new ConflictMatrix(Arrays.asList(mw, th));
+		matrix.remove(mw);
+		assertFalse(matrix.contains(matrix.conflictsWith(Collections.singletonList(mw)), mw));
+		matrix.add(w);
+		matrix.add(w);
+		matrix.add(mw);
+		BitSet conflicts = matrix.conflictsWith(Collections.singletonList(w));
+		assertTrue(matrix.contains(conflicts, mw));
+		assertEquals(2, conflicts.cardinality());
+
+		matrix.remove(w);
+		conflicts = matrix.conflictsWith(Collections.singletonList(mw));
+		assertEquals(1, conflicts.cardinality());
+		assertFalse(matrix.contains(conflicts, w));
+		for (int i = 0; i < 40; i++) {
+			matrix.add(new Course("CSC" + (300 + i), "Topics", "001", 3, null, 10, "M", 1400, 1500));
+		}
+		assertEquals(41, matrix.conflictsWith(Collections.singletonList(mw)).cardinality());
+	}
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -20,6 +21,7 @@ import java.util.Scanner;
 
 import edu.ncsu.csc216.pack_scheduler.course.Activity;
 import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
 
 /**
  * Tests the CourseCatalog class. Tests are based off of the tests used in GP3 for the WolfScheduler class.
@@ -257,6 +259,44 @@ public class CourseCatalogTest {
         //Attempt to get a course that does exist
         Activity c = new Course(NAME, TITLE, SECTION, CREDITS, null, CAP, MEETING_DAYS, START_TIME, END_TIME);
         assertEquals(c, cC.getCourseFromCatalog("CSC216", "001"));
+
+        //Same name with a different section and same section with a different name are not matches
+        assertNull(cC.getCourseFromCatalog("CSC216", "003"));
+        assertNull(cC.getCourseFromCatalog("CSC215", "001"));
+    }
+
+    /**
+     * Tests that getCourseFromCatalog() stays in sync with adds, removes, and resets of the catalog.
+     */
+    @Test
+    public void testGetCourseFromCatalogAfterChanges() {
+        CourseCatalog cC = new CourseCatalog();
+        assertTrue(cC.addCourseToCatalog(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, CAP,
+                MEETING_DAYS, START_TIME, END_TIME));
+        assertTrue(cC.addCourseToCatalog(NAME, TITLE, "002", CREDITS, INSTRUCTOR_ID, CAP,
+                "MW", START_TIME, END_TIME));
+        assertEquals("002", cC.getCourseFromCatalog(NAME, "002").getSection());
+
+        // Removed course is no longer found, but the other section is
+        assertTrue(cC.removeCourseFromCatalog(NAME, SECTION));
+        assertNull(cC.getCourseFromCatalog(NAME, SECTION));
+        assertEquals(1, cC.getCourseCatalog().length);
+        assertEquals("002", cC.getCourseCatalog()[0][1]);
+        assertFalse(cC.removeCourseFromCatalog(NAME, SECTION));
+
+        // Removed course can be added back
+        assertTrue(cC.addCourseToCatalog(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, CAP,
+                MEETING_DAYS, START_TIME, END_TIME));
+        assertEquals(SECTION, cC.getCourseCatalog()[0][1]);
+
+        // Reset and load clear out old entries
+        cC.newCourseCatalog();
+        assertNull(cC.getCourseFromCatalog(NAME, "002"));
+        cC.loadCoursesFromFile(validTestFile);
+        assertEquals("002", cC.getCourseFromCatalog(NAME, "002").getSection());
+        assertTrue(cC.removeCourseFromCatalog("CSC316", "001"));
+        assertNull(cC.getCourseFromCatalog("CSC316", "001"));
+        assertEquals(12, cC.getCourseCatalog().length);
     }
 
     /**
@@ -311,6 +351,107 @@ public class CourseCatalogTest {
         checkFiles("test-files/expected_catalog_export.txt", "test-files/actual_catalog_export.txt");
     }
 
+    /**
+     * Tests getConflictingCourses against checking every catalog course with conflictsWith, before
+     * and after courses are added to and removed from the catalog.
+     */
+    @Test
+    public void testGetConflictingCourses() {
+        CourseCatalog cc = new CourseCatalog();
+        cc.loadCoursesFromFile(validTestFile);
+        Student student = new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw");
+        assertEquals(0, cc.getConflictingCourses(student).length);
+        assertThrows(IllegalArgumentException.class, () -> cc.getConflictingCourses(null));
+
+        student.getSchedule().addCourseToSchedule(cc.getCourseFromCatalog(NAME, SECTION));
+        student.getSchedule().addCourseToSchedule(cc.getCourseFromCatalog("CSC226", "001"));
+        checkConflictingCourses(cc, student);
+        String[][] conflicting = cc.getConflictingCourses(student);
+        assertEquals(NAME, conflicting[1][0]);
+        assertEquals(SECTION, conflicting[1][1]);
+
+        assertTrue(cc.addCourseToCatalog("CSC333", "Automata", "001", 3, "jtking", 10, "H", 1400, 1500));
+        assertTrue(cc.addCourseToCatalog("CSC334", "Automata Lab", "001", 1, "jtking", 10, "F", 1400, 1500));
+        checkConflictingCourses(cc, student);
+        assertTrue(cc.removeCourseFromCatalog("CSC216", "002"));
+        assertTrue(cc.removeCourseFromCatalog("CSC226", "001"));
+        checkConflictingCourses(cc, student);
+        assertTrue(cc.addCourseToCatalog("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes",
+                10, "MWF", 935, 1025));
+        checkConflictingCourses(cc, student);
+        cc.loadCoursesFromFile(validTestFile);
+        checkConflictingCourses(cc, student);
+    }
+
+    /**
+     * Tests that getAddableCourses returns the catalog courses the student can add that have an open
+     * seat or wait list room.
+     */
+    @Test
+    public void testGetAddableCourses() {
+        CourseCatalog cc = new CourseCatalog();
+        cc.loadCoursesFromFile(validTestFile);
+        Student student = new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw", 7);
+        assertEquals(cc.getCourses().size(), cc.getAddableCourses(student).length);
+        assertThrows(IllegalArgumentException.class, () -> cc.getAddableCourses(null));
+
+        student.getSchedule().addCourseToSchedule(cc.getCourseFromCatalog(NAME, SECTION));
+        student.getSchedule().addCourseToSchedule(cc.getCourseFromCatalog("CSC217", "202"));
+        Course full = cc.getCourseFromCatalog("CSC230", "001");
+        for (int i = 0; i < 20; i++) {
+            full.getCourseRoll().enroll(new Student("First", "Last", "id" + i, "id" + i + "@ncsu.edu", "pw"));
+        }
+        assertTrue(full.getCourseRoll().isWaitlistFull());
+        Course waitlisted = cc.getCourseFromCatalog("CSC116", "003");
+        for (int i = 0; i < 15; i++) {
+            waitlisted.getCourseRoll().enroll(new Student("First", "Last", "id" + i, "id" + i + "@ncsu.edu", "pw"));
+        }
+        assertFalse(waitlisted.getCourseRoll().isWaitlistFull());
+
+        String[][] addable = cc.getAddableCourses(student);
+        int count = 0;
+        for (Course c : cc.getCourses()) {
+            if (student.canAdd(c) && (c.getCourseRoll().getOpenSeats() > 0 || !c.getCourseRoll().isWaitlistFull())) {
+                assertEquals(c.getName(), addable[count][0]);
+                assertEquals(c.getSection(), addable[count][1]);
+                count++;
+            } else {
+                assertFalse(c == waitlisted);
+            }
+        }
+        assertEquals(count, addable.length);
+        assertTrue(count > 0);
+        for (String[] course : addable) {
+            assertFalse("CSC230".equals(course[0]));
+            assertFalse(NAME.equals(course[0]));
+        }
+    }
+
+    /**
+     * Checks that getConflictingCourses returns the catalog courses that conflict with a course in the
+     * student's schedule, in catalog order.
+     * @param cc the catalog
+     * @param student the student
+     */
+    private void checkConflictingCourses(CourseCatalog cc, Student student) {
+        String[][] scheduled = student.getSchedule().getScheduledCourses();
+        int count = 0;
+        String[][] conflicting = cc.getConflictingCourses(student);
+        for (Course c : cc.getCourses()) {
+            boolean expected = false;
+            for (String[] s : scheduled) {
+                Course scheduledCourse = cc.getCourseFromCatalog(s[0], s[1]);
+                expected |= scheduledCourse != null && scheduledCourse.conflictsWith(c);
+            }
+            if (expected) {
+                assertEquals(c.getName(), conflicting[count][0]);
+                assertEquals(c.getSection(), conflicting[count][1]);
+                count++;
+            }
+        }
+        assertEquals(count, conflicting.length);
+    }
+
     /**
      * Helper method to compare two files for the same contents
      * @param expFile expected output
@@ -0,0 +1,235 @@
+package edu.ncsu.csc216.pack_scheduler.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests ScheduleBuilder.
+ */
+public class ScheduleBuilderTest {
+
+	/** Course records */
+	private static final String TEST_FILE = "test-files/starter_course_records.txt";
+	/** Wanted course names */
+	private static final List<String> WANTED = Arrays.asList("CSC116", "CSC216", "CSC217", "CSC226", "CSC230",
+			"CSC316");
+
+	/**
+	 * Tests that the builder finds every valid non-empty choice of sections when asked for enough
+	 * options, and ranks them.
+	 */
+	@Test
+	public void testBuildSchedulesMatchesBruteForce() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(TEST_FILE);
+		Student student = new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw", 18);
+
+		List<ScheduleOption> options = new ScheduleBuilder(cc).buildSchedules(student, WANTED, 100000, 10000);
+		Set<String> expected = new HashSet<String>();
+		bruteForce(cc, student, new ArrayList<Course>(), 0, expected);
+		assertEquals(expected.size(), options.size());
+		Set<String> found = new HashSet<String>();
+		for (ScheduleOption option : options) {
+			checkValid(student, option);
+			found.add(key(option.getCourses()));
+		}
+		assertEquals(expected, found);
+		for (int i = 1; i < options.size(); i++) {
+			assertTrue(options.get(i - 1).compareRank(options.get(i)) < 0);
+		}
+
+		int mostPlaced = 0;
+		for (String k : expected) {
+			mostPlaced = Math.max(mostPlaced, k.trim().split(" ").length);
+		}
+		ScheduleOption best = options.get(0);
+		assertEquals(mostPlaced, best.getNumberOfCourses());
+		Course[] courses = best.getCourses();
+		for (int i = 1; i < courses.length; i++) {
+			assertTrue(WANTED.indexOf(courses[i - 1].getName()) < WANTED.indexOf(courses[i].getName()));
+		}
+		assertEquals(courses.length, best.getScheduledCourses().length);
+	}
+
+	/**
+	 * Tests that the builder returns the best options when asked for fewer than exist, and that the
+	 * result does not depend on the pool.
+	 */
+	@Test
+	public void testBuildSchedulesLimit() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(TEST_FILE);
+		Student student = new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw", 18);
+		List<ScheduleOption> all = new ScheduleBuilder(cc).buildSchedules(student, WANTED, 100000, 10000);
+		ForkJoinPool pool = new ForkJoinPool(1);
+		try {
+			List<ScheduleOption> top = new ScheduleBuilder(cc, pool).buildSchedules(student, WANTED, 3, 10000);
+			assertEquals(3, top.size());
+			for (int i = 0; i < top.size(); i++) {
+				assertEquals(key(all.get(i).getCourses()), key(top.get(i).getCourses()));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that the builder leaves out courses the student already has, full sections, repeated and
+	 * unknown names, and courses that do not fit the student's credits.
+	 */
+	@Test
+	public void testBuildSchedulesPartial() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(TEST_FILE);
+		Student student = new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw", 7);
+		student.getSchedule().addCourseToSchedule(cc.getCourseFromCatalog("CSC216", "001"));
+		Course full = cc.getCourseFromCatalog("CSC230", "001");
+		for (int i = 0; i < 10; i++) {
+			full.getCourseRoll().enroll(new Student("First", "Last", "id" + i, "id" + i + "@ncsu.edu", "pw"));
+		}
+
+		List<ScheduleOption> options = new ScheduleBuilder(cc).buildSchedules(student,
+				Arrays.asList("CSC216", "CSC230", "CSC116", "CSC217", "CSC116", "CSC999"), 100, 10000);
+		assertFalse(options.isEmpty());
+		for (ScheduleOption option : options) {
+			checkValid(student, option);
+			assertTrue(option.getCredits() <= 4);
+			for (Course c : option.getCourses()) {
+				assertFalse("CSC216".equals(c.getName()));
+				assertFalse(c == full);
+			}
+		}
+		assertEquals(2, options.get(0).getNumberOfCourses());
+		assertEquals("CSC116", options.get(0).getCourses()[0].getName());
+
+		assertTrue(new ScheduleBuilder(cc).buildSchedules(student, Arrays.asList("CSC230"), 10, 10000).isEmpty());
+	}
+
+	/**
+	 * Tests that a search with no time returns without error and only valid options.
+	 */
+	@Test
+	public void testBuildSchedulesTimeLimit() {
+		CourseCatalog cc = new CourseCatalog();
+		cc.loadCoursesFromFile(TEST_FILE);
+		Student student = new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw", 18);
+		List<ScheduleOption> options = new ScheduleBuilder(cc).buildSchedules(student, WANTED, 10, 0);
+		assertTrue(options.size() <= 10);
+		for (ScheduleOption option : options) {
+			checkValid(student, option);
+		}
+	}
+
+	/**
+	 * Tests that invalid requests are rejected.
+	 */
+	@Test
+	public void testBuildSchedulesInvalid() {
+		CourseCatalog cc = new CourseCatalog();
+		Student student = new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw");
+		ScheduleBuilder builder = new ScheduleBuilder(cc);
+		assertThrows(IllegalArgumentException.class, () -> new ScheduleBuilder(null));
+		assertThrows(IllegalArgumentException.class, () -> new ScheduleBuilder(cc, null));
+		assertThrows(IllegalArgumentException.class, () -> builder.buildSchedules(null, WANTED, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> builder.buildSchedules(student, null, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> builder.buildSchedules(student, WANTED, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> builder.buildSchedules(student, WANTED, 1, -1));
+		assertTrue(builder.buildSchedules(student, WANTED, 1, 1).isEmpty());
+	}
+
+	/**
+	 * Checks that an option's sections can all be added to the student's schedule together.
+	 * @param student the student
+	 * @param option the option
+	 */
+	private void checkValid(Student student, ScheduleOption option) {
+		Course[] courses = option.getCourses();
+		assertTrue(courses.length > 0);
+		int credits = student.getSchedule().getScheduleCredits();
+		Set<String> days = new HashSet<String>();
+		int seats = 0;
+		for (int i = 0; i < courses.length; i++) {
+			assertTrue(student.canAdd(courses[i]));
+			assertTrue(courses[i].getCourseRoll().getOpenSeats() > 0);
+			for (int j = i + 1; j < courses.length; j++) {
+				assertFalse(courses[i].conflictsWith(courses[j]));
+				assertFalse(courses[i].getName().equals(courses[j].getName()));
+			}
+			credits += courses[i].getCredits();
+			seats += courses[i].getCourseRoll().getOpenSeats();
+			if (!"A".equals(courses[i].getMeetingDays())) {
+				for (char day : courses[i].getMeetingDays().toCharArray()) {
+					days.add(String.valueOf(day));
+				}
+			}
+		}
+		assertTrue(credits <= student.getMaxCredits());
+		assertEquals(credits - student.getSchedule().getScheduleCredits(), option.getCredits());
+		assertEquals(days.size(), option.getMeetingDayCount());
+		assertEquals(seats, option.getOpenSeats());
+	}
+
+	/**
+	 * Adds the key of every valid non-empty choice of sections of the wanted courses to found.
+	 * @param cc the catalog
+	 * @param student the student
+	 * @param chosen the sections chosen so far
+	 * @param level index of the next wanted course
+	 * @param found keys of the valid choices
+	 */
+	private void bruteForce(CourseCatalog cc, Student student, List<Course> chosen, int level, Set<String> found) {
+		if (level == WANTED.size()) {
+			if (!chosen.isEmpty()) {
+				found.add(key(chosen.toArray(new Course[chosen.size()])));
+			}
+			return;
+		}
+		bruteForce(cc, student, chosen, level + 1, found);
+		int credits = student.getSchedule().getScheduleCredits();
+		for (Course c : chosen) {
+			credits += c.getCredits();
+		}
+		for (Course c : cc.getCourses()) {
+			if (!c.getName().equals(WANTED.get(level)) || !student.canAdd(c)
+					|| c.getCourseRoll().getOpenSeats() <= 0 || credits + c.getCredits() > student.getMaxCredits()) {
+				continue;
+			}
+			boolean conflict = false;
+			for (Course other : chosen) {
+				conflict |= other.conflictsWith(c);
+			}
+			if (!conflict) {
+				chosen.add(c);
+				bruteForce(cc, student, chosen, level + 1, found);
+				chosen.remove(chosen.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Returns a key naming the given sections in order.
+	 * @param courses the sections
+	 * @return the key
+	 */
+	private String key(Course[] courses) {
+		StringBuilder sb = new StringBuilder();
+		for (Course c : courses) {
+			sb.append(c.getName()).append('-').append(c.getSection()).append(' ');
+		}
+		return sb.toString();
+	}
+}
@@ -5,6 +5,8 @@ package edu.ncsu.csc216.pack_scheduler.course;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
@@ -61,4 +63,80 @@ class ActivityTest {
         assertEquals("Schedule conflict.", e4.getMessage());
     }
 
+    /**
+     * Tests that conflictsWith agrees with comparing the meeting day chars and times directly for
+     * every pair of a set of meeting days and times, and that checkConflict throws exactly when
+     * conflictsWith is true.
+     */
+    @Test
+    public void testConflictsWith() {
+        String[] days = {"M", "T", "W", "H", "F", "MW", "TH", "MWF", "MTWHF", "A"};
+        int[][] times = {{800, 915}, {915, 1030}, {916, 1030}, {1000, 1000}, {1330, 1445}, {0, 2359}};
+        for (String days1 : days) {
+            for (int[] times1 : times) {
+                Activity a1 = newCourse(days1, times1);
+                for (String days2 : days) {
+                    for (int[] times2 : times) {
+                        Activity a2 = newCourse(days2, times2);
+                        boolean sharesDay = false;
+                        if (!"A".equals(days1) && !"A".equals(days2)) {
+                            for (char day : days2.toCharArray()) {
+                                sharesDay |= days1.indexOf(day) != -1;
+                            }
+                        }
+                        boolean expected = sharesDay && a2.getStartTime() <= a1.getEndTime()
+                                && a2.getEndTime() >= a1.getStartTime();
+                        assertEquals(expected, a1.conflictsWith(a2), days1 + " " + a1.getMeetingString() + " / " + a2.getMeetingString());
+                        if (expected) {
+                            assertThrows(ConflictException.class, () -> a1.checkConflict(a2));
+                        } else {
+                            assertDoesNotThrow(() -> a1.checkConflict(a2));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that changing the meeting days and times changes the conflicts.
+     */
+    @Test
+    public void testConflictsWithAfterUpdate() {
+        Activity a1 = new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 150, "MW", 1330, 1445);
+        Activity a2 = new Course("CSC226", "Discrete Mathematics for Computer Scientists", "001", 3, "tmbarnes", 150, "TH", 1330, 1445);
+        assertFalse(a1.conflictsWith(a2));
+        a2.setMeetingDaysAndTime("WF", 1445, 1500);
+        assertTrue(a1.conflictsWith(a2));
+        assertTrue(a2.conflictsWith(a1));
+        a2.setMeetingDaysAndTime("A", 0, 0);
+        assertFalse(a1.conflictsWith(a2));
+    }
+
+    /**
+     * Tests that the day mask has one bit for each meeting day and follows changes to the days.
+     */
+    @Test
+    public void testGetDayMask() {
+        Activity a = new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 150, "MWF", 1330, 1445);
+        assertEquals(1 << ('M' - 'A') | 1 << ('W' - 'A') | 1 << ('F' - 'A'), a.getDayMask());
+        a.setMeetingDaysAndTime("TH", 1330, 1445);
+        assertEquals(1 << ('T' - 'A') | 1 << ('H' - 'A'), a.getDayMask());
+        a.setMeetingDaysAndTime("A", 0, 0);
+        assertEquals(0, a.getDayMask());
+    }
+
+    /**
+     * Creates a Course with the given meeting days and times, or arranged meetings if days is "A".
+     * @param days the meeting days
+     * @param times the start and end times
+     * @return the Course
+     */
+    private static Activity newCourse(String days, int[] times) {
+        if ("A".equals(days)) {
+            return new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 150, "A", 0, 0);
+        }
+        return new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 150, days, times[0], times[1]);
+    }
+
 }
@@ -5,6 +5,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -199,6 +205,205 @@ public class CourseRollTest {
        }
     }
     
+    /**
+     * Tests that drop returns the student promoted from the waitlist, and that the roll
+     * and waitlist can be read back in order.
+     */
+    @Test
+    public void testDropPromotesAndListsStudents() {
+        Student[] students = {s1, s2, s3, s4, s5, s6, s7, s8, s9, s10};
+        for (Student student : students) {
+            roll.enroll(student);
+        }
+        roll.enroll(s11);
+        roll.addToWaitlist(s12);
+        assertEquals(10, roll.getEnrolledStudents().length);
+        assertEquals(s1, roll.getEnrolledStudents()[0]);
+        assertEquals(s10, roll.getEnrolledStudents()[9]);
+        assertEquals(2, roll.getWaitlistedStudents().length);
+        assertEquals(s11, roll.getWaitlistedStudents()[0]);
+        assertEquals(s12, roll.getWaitlistedStudents()[1]);
+        assertEquals(2, roll.getNumberOnWaitlist());
+        
+        assertEquals(s11, roll.drop(s1));
+        assertEquals(s11, roll.getEnrolledStudents()[9]);
+        assertEquals(null, roll.drop(s12));
+        assertEquals(0, roll.getWaitlistedStudents().length);
+        assertEquals(null, roll.drop(s2));
+        assertEquals(1, roll.getOpenSeats());
+        
+        assertThrows(IllegalArgumentException.class, () -> roll.addToWaitlist(s3));
+        assertThrows(IllegalArgumentException.class, () -> roll.addToWaitlist(null));
+        roll.addToWaitlist(s13);
+        assertThrows(IllegalArgumentException.class, () -> roll.addToWaitlist(s13));
+        assertEquals(1, roll.getNumberOnWaitlist());
+    }
+
+    /**
+     * Tests finding students' places on the waitlist as students ahead of them drop.
+     */
+    @Test
+    public void testGetWaitlistPosition() {
+        Student[] students = {s1, s2, s3, s4, s5, s6, s7, s8, s9, s10};
+        for (Student student : students) {
+            roll.enroll(student);
+        }
+        roll.enroll(s11);
+        roll.enroll(s12);
+        roll.enroll(s13);
+        assertEquals(1, roll.getWaitlistPosition(s11));
+        assertEquals(3, roll.getWaitlistPosition(s13));
+        assertEquals(-1, roll.getWaitlistPosition(s1));
+        assertEquals(-1, roll.getWaitlistPosition(null));
+        assertThrows(IllegalArgumentException.class, () -> roll.enroll(s12));
+        assertFalse(roll.canEnroll(s12));
+
+        assertEquals(null, roll.drop(s12));
+        assertEquals(2, roll.getWaitlistPosition(s13));
+        assertEquals(s11, roll.drop(s1));
+        assertEquals(1, roll.getWaitlistPosition(s13));
+        assertEquals(-1, roll.getWaitlistPosition(s11));
+        assertEquals(1, roll.getNumberOnWaitlist());
+    }
+
+    /**
+     * Tests that a wait listed student whose fields change is still found on the waitlist and
+     * cannot be wait listed again.
+     */
+    @Test
+    public void testWaitlistedStudentChanges() {
+        Student[] students = {s1, s2, s3, s4, s5, s6, s7, s8, s9, s10};
+        for (Student student : students) {
+            roll.enroll(student);
+        }
+        roll.enroll(s11);
+        roll.enroll(s12);
+        s11.setMaxCredits(12);
+        s12.setEmail("lane@ncsu.edu");
+        assertEquals(1, roll.getWaitlistPosition(s11));
+        assertEquals(2, roll.getWaitlistPosition(s12));
+        assertThrows(IllegalArgumentException.class, () -> roll.enroll(s11));
+        assertThrows(IllegalArgumentException.class, () -> roll.addToWaitlist(s12));
+        assertEquals(2, roll.getNumberOnWaitlist());
+        roll.setWaitlistPriority(s -> s == s12 ? 0 : 1);
+        assertEquals(1, roll.getWaitlistPosition(s12));
+    }
+
+    /**
+     * Tests setting the waitlist capacity and the priority that orders promotions.
+     */
+    @Test
+    public void testWaitlistCapacityAndPriority() {
+        assertEquals(CourseRoll.DEFAULT_WAITLIST_SIZE, roll.getWaitlistCapacity());
+        roll.setWaitlistCapacity(TieredWaitlist.UNBOUNDED);
+        for (int i = 0; i < 60; i++) {
+            roll.enroll(new Student("Student" + i, "LastName" + i, "student" + i, "student" + i + "@ncsu.edu", "pw"));
+        }
+        assertEquals(10, roll.getEnrolledStudents().length);
+        assertEquals(50, roll.getNumberOnWaitlist());
+        assertFalse(roll.isWaitlistFull());
+        assertThrows(IllegalArgumentException.class, () -> roll.setWaitlistCapacity(49));
+        roll.setWaitlistCapacity(50);
+        assertTrue(roll.isWaitlistFull());
+        assertThrows(IllegalArgumentException.class, () -> roll.enroll(s1));
+
+        Student late = roll.getWaitlistedStudents()[49];
+        roll.setWaitlistPriority(s -> s.equals(late) ? 0 : 1);
+        assertEquals(1, roll.getWaitlistPosition(late));
+        assertEquals(late, roll.drop(roll.getEnrolledStudents()[0]));
+        assertEquals(49, roll.getNumberOnWaitlist());
+        assertThrows(IllegalArgumentException.class, () -> roll.setWaitlistPriority(null));
+    }
+
+    /**
+     * Tests dropping a student while holding their seat for a promotion, then promoting wait listed
+     * students into held seats.
+     */
+    @Test
+    public void testDropAndHold() {
+        Student[] students = {s1, s2, s3, s4, s5, s6, s7, s8, s9, s10};
+        for (Student student : students) {
+            roll.enroll(student);
+        }
+        roll.enroll(s11);
+        roll.enroll(s12);
+        assertThrows(IllegalArgumentException.class, () -> roll.dropAndHold(null));
+
+        assertTrue(roll.dropAndHold(s1));
+        assertEquals(0, roll.getOpenSeats());
+        assertEquals(9, roll.getEnrolledStudents().length);
+        assertEquals(2, roll.getNumberOnWaitlist());
+        roll.promoteFromWaitlist(s12);
+        assertEquals(s12, roll.getEnrolledStudents()[9]);
+        assertEquals(1, roll.getWaitlistPosition(s11));
+        assertThrows(IllegalArgumentException.class, () -> roll.promoteFromWaitlist(s12));
+
+        assertFalse(roll.dropAndHold(s11));
+        assertEquals(0, roll.getNumberOnWaitlist());
+        assertFalse(roll.dropAndHold(s2));
+        assertEquals(1, roll.getOpenSeats());
+        assertFalse(roll.dropAndHold(s13));
+        assertEquals(1, roll.getOpenSeats());
+    }
+
+    /**
+     * Tests that drop keeps schedules in step with the roll: the dropped student loses the course, and
+     * the seat goes to the first wait listed student who can add the course, who gains it.
+     */
+    @Test
+    public void testDropUpdatesSchedules() {
+        Student[] students = {s1, s2, s3, s4, s5, s6, s7, s8, s9, s10};
+        for (Student student : students) {
+            student.getSchedule().addCourseToSchedule(c);
+            roll.enroll(student);
+        }
+        roll.enroll(s11);
+        roll.enroll(s12);
+        s11.getSchedule().addCourseToSchedule(new Course("CSC216", "Programming Concepts - Java", "601", 4, "sesmith5", 10, "A"));
+        assertTrue(roll.isWaitlisted(s11));
+        assertFalse(roll.isWaitlisted(s1));
+        assertFalse(roll.isWaitlisted(null));
+
+        assertEquals(s12, roll.drop(s1));
+        assertEquals(0, s1.getSchedule().getScheduledCourses().length);
+        assertEquals("001", s12.getSchedule().getScheduledCourses()[0][1]);
+        assertTrue(roll.isWaitlisted(s11));
+        assertFalse(roll.isWaitlisted(s12));
+        assertEquals(0, roll.getOpenSeats());
+
+        assertEquals(null, roll.drop(s2));
+        assertEquals(1, roll.getOpenSeats());
+        assertEquals(1, roll.getNumberOnWaitlist());
+        assertEquals("601", s11.getSchedule().getScheduledCourses()[0][1]);
+    }
+
+    /**
+     * Tests walking the wait list in promotion order.
+     */
+    @Test
+    public void testWaitlistIterator() {
+        Student[] students = {s1, s2, s3, s4, s5, s6, s7, s8, s9, s10};
+        for (Student student : students) {
+            roll.enroll(student);
+        }
+        assertFalse(roll.waitlistIterator().hasNext());
+        roll.enroll(s11);
+        roll.enroll(s12);
+        roll.enroll(s13);
+        roll.setWaitlistPriority(s -> s == s13 ? 0 : 1);
+        Iterator<Student> it = roll.waitlistIterator();
+        assertEquals(s13, it.next());
+        assertEquals(s11, it.next());
+        assertEquals(s12, it.next());
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, () -> it.next());
+
+        Iterator<Student> after = roll.waitlistIteratorAfter(s13);
+        assertEquals(s11, after.next());
+        assertEquals(s12, after.next());
+        assertFalse(after.hasNext());
+        assertThrows(IllegalArgumentException.class, () -> roll.waitlistIteratorAfter(s1));
+    }
 
     /**
      * Tests the setEnrollmentCap method when the cap is less than the current 
@@ -220,4 +425,72 @@ public class CourseRollTest {
     }
 
     
+    /**
+     * Tests reserving seats, then confirming or releasing the reservations.
+     */
+    @Test
+    public void testReserveSeat() {
+        assertTrue(roll.reserveSeat());
+        assertTrue(roll.reserveSeat());
+        assertEquals(8, roll.getOpenSeats());
+        assertEquals(0, roll.getEnrolledStudents().length);
+
+        roll.confirmReservation(s1);
+        assertEquals(8, roll.getOpenSeats());
+        assertEquals(1, roll.getEnrolledStudents().length);
+        assertThrows(IllegalArgumentException.class, () -> roll.confirmReservation(s1));
+        assertEquals(9, roll.getOpenSeats());
+        assertFalse(roll.canEnroll(s1));
+
+        assertTrue(roll.reserveSeat());
+        roll.releaseReservation();
+        assertEquals(9, roll.getOpenSeats());
+
+        for (int i = 0; i < 9; i++) {
+            assertTrue(roll.reserveSeat());
+        }
+        assertFalse(roll.reserveSeat());
+        assertEquals(0, roll.getOpenSeats());
+        assertFalse(roll.canEnroll(s2));
+        roll.enroll(s2);
+        assertEquals(1, roll.getNumberOnWaitlist());
+        assertThrows(IllegalArgumentException.class, () -> roll.setEnrollmentCap(10 - 1));
+
+        roll.releaseReservation();
+        assertEquals(1, roll.getOpenSeats());
+        roll.setEnrollmentCap(12);
+        assertEquals(3, roll.getOpenSeats());
+        assertEquals(12, roll.getEnrollmentCap());
+    }
+
+    /**
+     * Tests that threads racing to reserve seats never take more seats than the roll has.
+     * @throws InterruptedException if a thread is interrupted
+     */
+    @Test
+    public void testConcurrentReserveSeat() throws InterruptedException {
+        AtomicInteger reserved = new AtomicInteger();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (roll.reserveSeat()) {
+                        reserved.incrementAndGet();
+                        if (j % 2 == 0) {
+                            roll.releaseReservation();
+                            reserved.decrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(10, reserved.get());
+        assertEquals(0, roll.getOpenSeats());
+    }
+
 }
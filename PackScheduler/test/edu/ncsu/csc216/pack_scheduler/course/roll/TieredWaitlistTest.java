@@ -0,0 +1,136 @@
+package edu.ncsu.csc216.pack_scheduler.course.roll;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests TieredWaitlist.
+ */
+public class TieredWaitlistTest {
+
+	/** Puts students with ids starting with "sr" in tier 0, "mj" in tier 1, and everyone else in tier 2 */
+	private static final WaitlistPriority SENIORS_MAJORS_OTHERS = s -> s.getId().startsWith("sr") ? 0
+			: s.getId().startsWith("mj") ? 1 : 2;
+
+	/**
+	 * Creates a student with the given id.
+	 * @param id the id
+	 * @return the student
+	 */
+	private static Student student(String id) {
+		return new Student("First", "Last", id, id + "@ncsu.edu", "pw");
+	}
+
+	/**
+	 * Tests that a first come, first served wait list keeps the order students were added in.
+	 */
+	@Test
+	public void testFirstCome() {
+		TieredWaitlist waitlist = new TieredWaitlist(3);
+		Student a = student("a");
+		Student b = student("b");
+		Student c = student("c");
+		assertThrows(NoSuchElementException.class, () -> waitlist.dequeue());
+		waitlist.enqueue(a);
+		waitlist.enqueue(b);
+		waitlist.enqueue(c);
+		assertTrue(waitlist.isFull());
+		assertThrows(IllegalArgumentException.class, () -> waitlist.enqueue(student("d")));
+		assertThrows(IllegalArgumentException.class, () -> waitlist.setCapacity(2));
+		assertEquals(a, waitlist.dequeue());
+		assertThrows(IllegalArgumentException.class, () -> waitlist.enqueue(b));
+		assertThrows(IllegalArgumentException.class, () -> waitlist.enqueue(null));
+		assertEquals(b, waitlist.dequeue());
+		assertEquals(c, waitlist.dequeue());
+		assertTrue(waitlist.isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> new TieredWaitlist(-1));
+		assertThrows(IllegalArgumentException.class, () -> new TieredWaitlist(1, null));
+	}
+
+	/**
+	 * Tests that students are promoted by tier and then in the order they were added, and that
+	 * removal and positions account for the tiers.
+	 */
+	@Test
+	public void testTiers() {
+		TieredWaitlist waitlist = new TieredWaitlist(TieredWaitlist.UNBOUNDED, SENIORS_MAJORS_OTHERS);
+		Student other1 = student("other1");
+		Student major1 = student("mj1");
+		Student senior1 = student("sr1");
+		Student other2 = student("other2");
+		Student senior2 = student("sr2");
+		for (Student s : new Student[] {other1, major1, senior1, other2, senior2}) {
+			waitlist.enqueue(s);
+		}
+		assertArrayEquals(new Student[] {senior1, senior2, major1, other1, other2}, waitlist.toArray(new Student[0]));
+		java.util.Iterator<Student> it = waitlist.iterator();
+		for (Student expected : new Student[] {senior1, senior2, major1, other1, other2}) {
+			assertEquals(expected, it.next());
+		}
+		assertFalse(it.hasNext());
+		assertThrows(NoSuchElementException.class, () -> it.next());
+
+		// Resuming after a student walks the rest of their tier and then the later tiers
+		java.util.Iterator<Student> after = waitlist.iteratorAfter(senior2);
+		assertEquals(major1, after.next());
+		assertEquals(other1, after.next());
+		assertEquals(other2, after.next());
+		assertFalse(after.hasNext());
+		after = waitlist.iteratorAfter(senior1);
+		assertEquals(senior2, after.next());
+		assertFalse(waitlist.iteratorAfter(other2).hasNext());
+		assertThrows(IllegalArgumentException.class, () -> waitlist.iteratorAfter(null));
+		assertEquals(3, waitlist.indexOf(other1));
+		assertEquals(-1, waitlist.indexOf(student("nobody")));
+		assertEquals(-1, waitlist.indexOf(null));
+
+		assertTrue(waitlist.remove(major1));
+		assertFalse(waitlist.remove(major1));
+		assertFalse(waitlist.remove(null));
+		assertFalse(waitlist.contains(major1));
+		assertEquals(2, waitlist.indexOf(other1));
+		assertEquals(senior1, waitlist.dequeue());
+		assertEquals(senior2, waitlist.dequeue());
+		Student major2 = student("mj2");
+		waitlist.enqueue(major2);
+		assertEquals(major2, waitlist.dequeue());
+		assertEquals(other1, waitlist.dequeue());
+		assertEquals(1, waitlist.size());
+
+		waitlist.enqueue(senior1);
+		waitlist.setPriority(WaitlistPriority.FIRST_COME);
+		assertArrayEquals(new Student[] {senior1, other2}, waitlist.toArray(new Student[0]));
+		waitlist.setPriority(s -> s == other2 ? -1 : 0);
+		assertArrayEquals(new Student[] {other2, senior1}, waitlist.toArray(new Student[0]));
+		assertThrows(IllegalArgumentException.class, () -> waitlist.setPriority(null));
+	}
+
+	/**
+	 * Tests that an unbounded wait list holds thousands of students and promotes them in tier order.
+	 */
+	@Test
+	public void testUnbounded() {
+		TieredWaitlist waitlist = new TieredWaitlist(TieredWaitlist.UNBOUNDED, SENIORS_MAJORS_OTHERS);
+		String[] prefixes = {"other", "mj", "sr"};
+		for (int i = 0; i < 3000; i++) {
+			waitlist.enqueue(student(prefixes[i % 3] + i));
+		}
+		assertEquals(3000, waitlist.size());
+		assertFalse(waitlist.isFull());
+		for (int i = 0; i < 3000; i++) {
+			Student s = waitlist.dequeue();
+			String expected = i < 1000 ? "sr" : i < 2000 ? "mj" : "other";
+			assertTrue(s.getId().startsWith(expected));
+		}
+		assertTrue(waitlist.isEmpty());
+	}
+}
@@ -0,0 +1,45 @@
+package edu.ncsu.csc216.pack_scheduler.course.roll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the names WaitlistPriority instances are registered under.
+ */
+public class WaitlistPriorityTest {
+
+	/** Puts every student in tier 1 */
+	private static final WaitlistPriority TIER_ONE = s -> 1;
+	/** Puts every student in tier 2 */
+	private static final WaitlistPriority TIER_TWO = s -> 2;
+
+	/**
+	 * Tests registering priorities and finding them by name.
+	 */
+	@Test
+	public void testRegister() {
+		assertSame(WaitlistPriority.FIRST_COME, WaitlistPriority.forName("FIRST_COME"));
+		assertEquals("FIRST_COME", WaitlistPriority.nameOf(WaitlistPriority.FIRST_COME));
+
+		WaitlistPriority.register("TEST_TIER_ONE", TIER_ONE);
+		WaitlistPriority.register("TEST_TIER_ONE", TIER_ONE);
+		assertSame(TIER_ONE, WaitlistPriority.forName("TEST_TIER_ONE"));
+		assertEquals("TEST_TIER_ONE", WaitlistPriority.nameOf(TIER_ONE));
+
+		assertNull(WaitlistPriority.forName("NO_SUCH_PRIORITY"));
+		assertNull(WaitlistPriority.forName(null));
+		assertNull(WaitlistPriority.nameOf(TIER_TWO));
+		assertNull(WaitlistPriority.nameOf(null));
+
+		assertThrows(IllegalArgumentException.class, () -> WaitlistPriority.register("TEST_TIER_ONE", TIER_TWO));
+		assertThrows(IllegalArgumentException.class, () -> WaitlistPriority.register("TEST_TIER_1", TIER_ONE));
+		assertThrows(IllegalArgumentException.class, () -> WaitlistPriority.register("TEST,TIER", TIER_TWO));
+		assertThrows(IllegalArgumentException.class, () -> WaitlistPriority.register("", TIER_TWO));
+		assertThrows(IllegalArgumentException.class, () -> WaitlistPriority.register(null, TIER_TWO));
+		assertThrows(IllegalArgumentException.class, () -> WaitlistPriority.register("TEST_TIER_TWO", null));
+	}
+}
@@ -5,6 +5,7 @@ package edu.ncsu.csc216.pack_scheduler.directory;
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -195,6 +196,32 @@ public class FacultyDirectoryTest {
 		assertEquals("Ashely", newFac.getFirstName());
 	}
 	
+	/**
+	 * Tests that FacultyDirectory.getFacultyById() stays in sync with adds, removes, loads, and resets.
+	 */
+	@Test
+	public void testGetFacultyByIdAfterChanges() {
+		FacultyDirectory fd = new FacultyDirectory();
+		fd.loadFacultyFromFile(validTestFile);
+		assertEquals(8, fd.getFacultyDirectory().length);
+		assertEquals("Ashely", fd.getFacultyById("awitt").getFirstName());
+		
+		// Duplicate id is rejected
+		assertFalse(fd.addFaculty("Other", "Name", "awitt", "other@ncsu.edu", "pw", "pw", 2));
+		
+		// Removed faculty member is no longer found and can be added again
+		assertTrue(fd.removeFaculty("awitt"));
+		assertNull(fd.getFacultyById("awitt"));
+		assertFalse(fd.removeFaculty("awitt"));
+		assertEquals(7, fd.getFacultyDirectory().length);
+		assertTrue(fd.addFaculty("Other", "Name", "awitt", "other@ncsu.edu", "pw", "pw", 2));
+		assertEquals("Other", fd.getFacultyById("awitt").getFirstName());
+		
+		// Reset clears the index
+		fd.newFacultyDirectory();
+		assertNull(fd.getFacultyById("awitt"));
+	}
+	
 	@Test
 	public void testLoadFacultyFromFileEdgeCases() {
 	    FacultyDirectory sd = new FacultyDirectory();
@@ -288,4 +288,33 @@ public class StudentDirectoryTest {
     	assertNull(sd.getStudentById("ajens"));
     }
 
+    /**
+     * Tests that StudentDirectory.getStudentById() stays in sync with adds, removes, and resets.
+     */
+    @Test
+    void testGetStudentByIdAfterChanges() {
+    	StudentDirectory sd = new StudentDirectory();
+    	sd.loadStudentsFromFile(validTestFile);
+    	
+    	// Added student is found, and a second student with the same id is rejected
+    	assertTrue(sd.addStudent(FIRST_NAME, LAST_NAME, ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS));
+    	assertEquals(FIRST_NAME, sd.getStudentById(ID).getFirstName());
+    	assertFalse(sd.addStudent("Other", "Name", ID, EMAIL, PASSWORD, PASSWORD, MAX_CREDITS));
+    	assertEquals(FIRST_NAME, sd.getStudentById(ID).getFirstName());
+    	
+    	// Removed student is no longer found and can be added again
+    	int size = sd.getStudentDirectory().length;
+    	assertTrue(sd.removeStudent("efrost"));
+    	assertNull(sd.getStudentById("efrost"));
+    	assertFalse(sd.removeStudent("efrost"));
+    	assertEquals(size - 1, sd.getStudentDirectory().length);
+    	assertTrue(sd.addStudent("Emerald", "Frost", "efrost", "efrost@ncsu.edu", PASSWORD, PASSWORD, 3));
+    	assertEquals("efrost@ncsu.edu", sd.getStudentById("efrost").getEmail());
+    	
+    	// Reset clears the index
+    	sd.newStudentDirectory();
+    	assertNull(sd.getStudentById(ID));
+    	assertNull(sd.getStudentById("efrost"));
+    }
+
 }
@@ -0,0 +1,214 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests BufferedRecordReader. The expected fields are the tokens a Scanner using a "," delimiter
+ * returns for the same line.
+ */
+public class BufferedRecordReaderTest {
+
+	/** File the streaming test writes */
+	private static final Path STREAM_FILE = Paths.get("test-files/actual_buffered_record_reader.txt");
+
+	/**
+	 * Creates a reader over the given text.
+	 * @param text the text to read
+	 * @return a reader over the text
+	 */
+	private static BufferedRecordReader reader(String text) {
+		return new BufferedRecordReader(ByteBuffer.wrap(text.getBytes(Charset.defaultCharset())));
+	}
+
+	/**
+	 * Returns the fields of the first record in the given text.
+	 * @param text the text to read
+	 * @return the fields of the first record
+	 * @throws IOException never, since the reader only reads memory
+	 */
+	private static String[] fields(String text) throws IOException {
+		BufferedRecordReader reader = reader(text);
+		assertTrue(reader.nextRecord());
+		String[] fields = new String[reader.getFieldCount()];
+		for (int i = 0; i < fields.length; i++) {
+			fields[i] = reader.getField(i);
+		}
+		return fields;
+	}
+
+	/**
+	 * Tests splitting lines with no empty fields.
+	 * @throws IOException never, since the reader only reads memory
+	 */
+	@Test
+	public void testFields() throws IOException {
+		assertArrayEquals(new String[] {"CSC216", "Software Development Fundamentals", "001"},
+				fields("CSC216,Software Development Fundamentals,001"));
+		assertArrayEquals(new String[] {"one"}, fields("one"));
+		assertArrayEquals(new String[] {" a", "b "}, fields(" a,b "));
+	}
+
+	/**
+	 * Tests splitting lines with empty fields and leading or trailing commas.
+	 * @throws IOException never, since the reader only reads memory
+	 */
+	@Test
+	public void testEmptyFields() throws IOException {
+		assertArrayEquals(new String[0], fields(","));
+		assertArrayEquals(new String[] {"a", "", "b"}, fields("a,,b"));
+		assertArrayEquals(new String[] {"a"}, fields(",a"));
+		assertArrayEquals(new String[] {"", "a"}, fields(",,a"));
+		assertArrayEquals(new String[] {"a", "b"}, fields("a,b,"));
+		assertArrayEquals(new String[] {"a", "b", ""}, fields("a,b,,"));
+		assertArrayEquals(new String[] {"a", "b", "", ""}, fields("a,b,,,"));
+	}
+
+	/**
+	 * Tests reading several lines with each kind of line ending, and that empty lines are skipped.
+	 * @throws IOException never, since the reader only reads memory
+	 */
+	@Test
+	public void testNextRecord() throws IOException {
+		BufferedRecordReader reader = reader("\na,b\r\nc\rd,e,f\n\n\r\ng");
+		assertTrue(reader.nextRecord());
+		assertEquals(2, reader.getFieldCount());
+		assertEquals("b", reader.getField(1));
+		assertTrue(reader.nextRecord());
+		assertEquals("c", reader.getField(0));
+		assertTrue(reader.nextRecord());
+		assertEquals(3, reader.getFieldCount());
+		assertEquals("f", reader.getField(2));
+		assertTrue(reader.nextRecord());
+		assertEquals("g", reader.getField(0));
+		assertFalse(reader.nextRecord());
+		assertFalse(reader("").nextRecord());
+
+		// A reader over part of a buffer stops at the end of its range
+		ByteBuffer buffer = ByteBuffer.wrap("a,b\nc,d\ne,f".getBytes(Charset.defaultCharset()));
+		reader = new BufferedRecordReader(buffer, 4, 7);
+		assertTrue(reader.nextRecord());
+		assertEquals("c", reader.getField(0));
+		assertEquals("d", reader.getField(1));
+		assertFalse(reader.nextRecord());
+
+		// Lines with more fields than the initial capacity
+		assertEquals(40, fields("0,1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6,7,8,9,"
+				+ "0,1,2,3,4,5,6,7,8,9,0,1,2,3,4,5,6,7,8,9").length);
+	}
+
+	/**
+	 * Tests comparing a field to a single character.
+	 * @throws IOException never, since the reader only reads memory
+	 */
+	@Test
+	public void testIsField() throws IOException {
+		BufferedRecordReader reader = reader("A,AB,,a");
+		assertTrue(reader.nextRecord());
+		assertTrue(reader.isField(0, 'A'));
+		assertFalse(reader.isField(1, 'A'));
+		assertFalse(reader.isField(2, 'A'));
+		assertFalse(reader.isField(3, 'A'));
+		assertThrows(IndexOutOfBoundsException.class, () -> reader.isField(4, 'A'));
+	}
+
+	/**
+	 * Tests parsing int fields. Valid and invalid fields match Integer.parseInt.
+	 * @throws IOException never, since the reader only reads memory
+	 */
+	@Test
+	public void testGetIntField() throws IOException {
+		BufferedRecordReader reader = reader("3,-12,+7,0010,2147483647,-2147483648");
+		assertTrue(reader.nextRecord());
+		assertEquals(3, reader.getIntField(0));
+		assertEquals(-12, reader.getIntField(1));
+		assertEquals(7, reader.getIntField(2));
+		assertEquals(10, reader.getIntField(3));
+		assertEquals(Integer.MAX_VALUE, reader.getIntField(4));
+		assertEquals(Integer.MIN_VALUE, reader.getIntField(5));
+		assertThrows(IndexOutOfBoundsException.class, () -> reader.getIntField(6));
+
+		BufferedRecordReader invalid = reader("2147483648,-2147483649,,-,+, 3,3 ,3a,1.5,99999999999999999999");
+		assertTrue(invalid.nextRecord());
+		for (int i = 0; i < invalid.getFieldCount(); i++) {
+			final int field = i;
+			assertThrows(NumberFormatException.class, () -> invalid.getIntField(field),
+					"Field " + field + " should not parse");
+		}
+	}
+
+	/**
+	 * Tests reading a whole record file into a heap buffer.
+	 * @throws IOException if the file cannot be read
+	 */
+	@Test
+	public void testReadAll() throws IOException {
+		BufferedRecordReader reader = new BufferedRecordReader(BufferedRecordReader.readAll("test-files/course_records.txt"));
+		assertTrue(reader.nextRecord());
+		assertEquals("CSC116", reader.getField(0));
+		assertThrows(FileNotFoundException.class, () -> BufferedRecordReader.readAll("test-files/not_a_file.txt"));
+		ByteBuffer buffer = BufferedRecordReader.readAll("test-files/course_records.txt");
+		assertEquals(0, buffer.position());
+		assertEquals(Files.size(Paths.get("test-files/course_records.txt")), buffer.limit());
+		assertTrue(buffer.hasArray());
+	}
+
+	/**
+	 * Tests streaming a file through the chunk buffer: lines and line breaks that cross a chunk
+	 * boundary, a line longer than a chunk, the offsets of lines, and a last line without a line break.
+	 * @throws IOException if the file cannot be written or read
+	 */
+	@Test
+	public void testOpen() throws IOException {
+		assertThrows(FileNotFoundException.class, () -> BufferedRecordReader.open("test-files/not_a_file.txt"));
+		StringBuilder text = new StringBuilder();
+		int lines = 3 * BufferedRecordReader.CHUNK_SIZE / 10;
+		for (int i = 0; i < lines; i++) {
+			// 5 to 8 bytes per line, so lines and \r\n pairs land across every chunk boundary
+			text.append(i % 1000).append(',').append(i % 2 == 0 ? "ab" : "c").append("\r\n");
+		}
+		char[] longField = new char[BufferedRecordReader.CHUNK_SIZE * 2 + 5];
+		Arrays.fill(longField, 'x');
+		text.append("long,").append(longField).append('\n');
+		text.append("torn,li");
+		byte[] bytes = text.toString().getBytes(Charset.defaultCharset());
+		try {
+			Files.write(STREAM_FILE, bytes);
+			try (BufferedRecordReader reader = BufferedRecordReader.open(STREAM_FILE.toString())) {
+				long offset = 0;
+				for (int i = 0; i < lines; i++) {
+					assertTrue(reader.nextRecord());
+					assertEquals(offset, reader.getRecordOffset());
+					assertTrue(reader.isTerminated());
+					assertEquals(i % 1000, reader.getIntField(0));
+					assertEquals(i % 2 == 0 ? "ab" : "c", reader.getField(1));
+					offset += String.valueOf(i % 1000).length() + (i % 2 == 0 ? 5 : 4);
+				}
+				assertTrue(reader.nextRecord());
+				assertEquals(offset, reader.getRecordOffset());
+				assertEquals(new String(longField), reader.getField(1));
+				assertTrue(reader.nextRecord());
+				assertEquals(bytes.length - 7, reader.getRecordOffset());
+				assertFalse(reader.isTerminated());
+				assertEquals("li", reader.getField(1));
+				assertFalse(reader.nextRecord());
+			}
+		} finally {
+			Files.deleteIfExists(STREAM_FILE);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package edu.ncsu.csc216.pack_scheduler.io;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import org.junit.Before;
@@ -12,10 +13,14 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 
 import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationManager;
 import edu.ncsu.csc217.collections.list.SortedList;
 
 /**
@@ -108,6 +113,78 @@ public class CourseRecordIOTest {
 		}
 	}
 	
+	/**
+	 * Tests streamCourseRecords() with valid, invalid, and missing files.
+	 */
+	@Test
+	public void testStreamCourseRecords() {
+		try {
+			List<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile);
+			assertEquals(13, courses.size());
+			for (int i = 0; i < validCourses.length; i++) {
+				assertEquals(validCourses[i], courses.get(i).toString());
+			}
+			
+			assertEquals(0, CourseRecordIO.streamCourseRecords(invalidTestFile).size());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading course records");
+		}
+		assertThrows(FileNotFoundException.class, () -> CourseRecordIO.streamCourseRecords("test-files/dne.txt"));
+	}
+	
+	/**
+	 * Tests that streamCourseRecords() keeps the first of several lines with the same name and section
+	 * and sorts Courses that are out of order in the file.
+	 */
+	@Test
+	public void testStreamCourseRecordsDuplicatesAndOrder() {
+		Path path = FileSystems.getDefault().getPath("test-files", "actual_stream_course_records.txt");
+		try {
+			Files.write(path, Arrays.asList(
+					"CSC316,Data Structures and Algorithms,001,3,jtking,10,MW,830,945",
+					"CSC116,Intro to Programming - Java,002,3,jdyoung2,10,MW,1120,1310",
+					"CSC116,Intro to Programming - Java,002,3,spbalik,10,TH,1120,1310",
+					"CSC116,Intro to Programming - Java,001,3,jdyoung2,10,A,910,1100",
+					"CSC116,Intro to Programming - Java,001,3,jdyoung2,10,A"));
+			List<Course> courses = CourseRecordIO.streamCourseRecords(path.toString());
+			assertEquals(3, courses.size());
+			assertEquals("CSC116,Intro to Programming - Java,001,3,null,10,A", courses.get(0).toString());
+			assertEquals("CSC116,Intro to Programming - Java,002,3,null,10,MW,1120,1310", courses.get(1).toString());
+			assertEquals("CSC316,Data Structures and Algorithms,001,3,null,10,MW,830,945", courses.get(2).toString());
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		}
+	}
+	
+	/**
+	 * Tests that a line rejected because its instructor cannot take it does not hide a later valid line
+	 * with the same name and section.
+	 */
+	@Test
+	public void testStreamCourseRecordsRejectedThenDuplicate() {
+		FacultyDirectory directory = RegistrationManager.getInstance().getFacultyDirectory();
+		directory.newFacultyDirectory();
+		directory.addFaculty("Jane", "Doe", "jdoe", "jdoe@ncsu.edu", "pw", "pw", 3);
+		Path path = FileSystems.getDefault().getPath("test-files", "actual_stream_course_records.txt");
+		try {
+			Files.write(path, Arrays.asList(
+					"CSC116,Intro to Programming - Java,001,3,jdoe,10,MW,910,1100",
+					"CSC216,Software Development Fundamentals,001,3,jdoe,10,MW,1000,1115",
+					"CSC216,Software Development Fundamentals,001,3,null,10,TH,1330,1445"));
+			List<Course> courses = CourseRecordIO.streamCourseRecords(path.toString());
+			assertEquals(2, courses.size());
+			assertEquals("CSC116,Intro to Programming - Java,001,3,jdoe,10,MW,910,1100", courses.get(0).toString());
+			assertEquals("CSC216,Software Development Fundamentals,001,3,null,10,TH,1330,1445", courses.get(1).toString());
+			assertEquals(1, directory.getFacultyById("jdoe").getSchedule().getNumScheduledCourses());
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			fail("Unexpected error reading course records");
+		} finally {
+			directory.newFacultyDirectory();
+		}
+	}
+	
 	/**
 	 * Tests writeCourseRecords()
 	 */
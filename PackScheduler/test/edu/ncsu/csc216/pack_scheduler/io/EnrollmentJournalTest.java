@@ -0,0 +1,397 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.course.roll.TieredWaitlist;
+import edu.ncsu.csc216.pack_scheduler.course.roll.WaitlistPriority;
+import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests EnrollmentJournal.
+ */
+public class EnrollmentJournalTest {
+
+	/** Snapshot file the tests write */
+	private static final String SNAPSHOT_FILE = "test-files/actual_enrollment_snapshot.txt";
+	/** Log file the tests write */
+	private static final String LOG_FILE = "test-files/actual_enrollment_log.txt";
+	/** Ids of the students in the student records, in file order */
+	private static final String[] IDS = {"daustin", "lberg", "rbrennan", "efrost", "shansen", "ahicks", "zking",
+			"dnolan", "cschwartz", "gstone"};
+
+	/** Puts students whose ids end in 3 ahead of everyone else */
+	private static final WaitlistPriority THREES_FIRST = s -> s.getId().endsWith("3") ? 0 : 1;
+
+	/** Catalog the events are logged from */
+	private CourseCatalog catalog;
+	/** Directory the events are logged from */
+	private StudentDirectory directory;
+	/** Journal the events are logged to */
+	private EnrollmentJournal journal;
+
+	/**
+	 * Removes any journal files and loads the catalog and directory.
+	 * @throws IOException if the files cannot be removed
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		tearDown();
+		catalog = newCatalog();
+		directory = newDirectory();
+		journal = new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE);
+		journal.recover(catalog, directory);
+	}
+
+	/**
+	 * Closes the journal and removes its files.
+	 * @throws IOException if the files cannot be removed
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		if (journal != null) {
+			journal.close();
+		}
+		Files.deleteIfExists(Paths.get(SNAPSHOT_FILE));
+		Files.deleteIfExists(Paths.get(LOG_FILE));
+	}
+
+	/**
+	 * Creates a catalog loaded with the course records.
+	 * @return the catalog
+	 */
+	private static CourseCatalog newCatalog() {
+		CourseCatalog c = new CourseCatalog();
+		c.loadCoursesFromFile("test-files/course_records.txt");
+		return c;
+	}
+
+	/**
+	 * Creates a directory loaded with the student records and one extra student.
+	 * @return the directory
+	 */
+	private static StudentDirectory newDirectory() {
+		StudentDirectory d = new StudentDirectory();
+		d.loadStudentsFromFile("test-files/student_records.txt");
+		d.addStudent("Extra", "Student", "xstudent", "xstudent@ncsu.edu", "pw", "pw", 18);
+		return d;
+	}
+
+	/**
+	 * Enrolls a student in a course the way RegistrationManager does and logs it.
+	 * @param name the course name
+	 * @param section the course section
+	 * @param id the student id
+	 * @throws IOException if the event cannot be logged
+	 */
+	private void enroll(String name, String section, String id) throws IOException {
+		Course course = catalog.getCourseFromCatalog(name, section);
+		Student student = directory.getStudentById(id);
+		student.getSchedule().addCourseToSchedule(course);
+		course.getCourseRoll().enroll(student);
+		journal.logEvent(EnrollmentJournal.ENROLL, course, student);
+	}
+
+	/**
+	 * Drops a student from a course the way RegistrationManager does and logs it.
+	 * @param name the course name
+	 * @param section the course section
+	 * @param id the student id
+	 * @throws IOException if the event cannot be logged
+	 */
+	private void drop(String name, String section, String id) throws IOException {
+		Course course = catalog.getCourseFromCatalog(name, section);
+		Student student = directory.getStudentById(id);
+		Student promoted = course.getCourseRoll().drop(student);
+		student.getSchedule().removeCourseFromSchedule(course);
+		journal.logEvent(EnrollmentJournal.DROP, course, student);
+		if (promoted != null) {
+			journal.logEvent(EnrollmentJournal.PROMOTE, course, promoted);
+		}
+	}
+
+	/**
+	 * Returns the ids of the given students.
+	 * @param students the students
+	 * @return their ids, comma separated
+	 */
+	private static String ids(Student[] students) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < students.length; i++) {
+			if (i > 0) {
+				sb.append(",");
+			}
+			sb.append(students[i].getId());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Tests that enrollments and drops logged since the last compaction are replayed.
+	 * @throws IOException if the journal cannot be used
+	 */
+	@Test
+	public void testRecoverFromLog() throws IOException {
+		for (String id : IDS) {
+			enroll("CSC216", "001", id);
+		}
+		enroll("CSC226", "001", "lberg");
+		drop("CSC216", "001", "daustin");
+		journal.close();
+
+		CourseCatalog recoveredCatalog = newCatalog();
+		StudentDirectory recoveredDirectory = newDirectory();
+		EnrollmentJournal recovered = new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE);
+		recovered.recover(recoveredCatalog, recoveredDirectory);
+		assertEquals(12, recovered.getSequence());
+
+		Course csc216 = recoveredCatalog.getCourseFromCatalog("CSC216", "001");
+		assertEquals("lberg,rbrennan,efrost,shansen,ahicks,zking,dnolan,cschwartz,gstone",
+				ids(csc216.getCourseRoll().getEnrolledStudents()));
+		assertEquals(1, csc216.getCourseRoll().getOpenSeats());
+		assertEquals(0, recoveredDirectory.getStudentById("daustin").getSchedule().getScheduledCourses().length);
+		String[][] schedule = recoveredDirectory.getStudentById("lberg").getSchedule().getScheduledCourses();
+		assertEquals(2, schedule.length);
+		assertEquals("CSC216", schedule[0][0]);
+		assertEquals("CSC226", schedule[1][0]);
+		recovered.close();
+	}
+
+	/**
+	 * Tests that a logged enrollment that no longer has an open seat is skipped as a whole, leaving the
+	 * student neither wait listed nor with the course on their schedule.
+	 * @throws IOException if the journal cannot be used
+	 */
+	@Test
+	public void testRecoverEnrollmentWithoutSeat() throws IOException {
+		catalog.getCourseFromCatalog("CSC216", "001").getCourseRoll().setEnrollmentCap(11);
+		for (String id : IDS) {
+			enroll("CSC216", "001", id);
+		}
+		enroll("CSC216", "001", "xstudent");
+		journal.close();
+
+		CourseCatalog recoveredCatalog = newCatalog();
+		StudentDirectory recoveredDirectory = newDirectory();
+		EnrollmentJournal recovered = new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE);
+		recovered.recover(recoveredCatalog, recoveredDirectory);
+		recovered.close();
+		assertEquals(11, recovered.getSequence());
+		CourseRoll roll = recoveredCatalog.getCourseFromCatalog("CSC216", "001").getCourseRoll();
+		assertEquals(String.join(",", IDS), ids(roll.getEnrolledStudents()));
+		assertEquals(0, roll.getNumberOnWaitlist());
+		assertEquals(0, recoveredDirectory.getStudentById("xstudent").getSchedule().getScheduledCourses().length);
+		assertEquals(1, recoveredDirectory.getStudentById("gstone").getSchedule().getScheduledCourses().length);
+	}
+
+	/**
+	 * Tests that a batch of events logged together is replayed like events logged one at a time.
+	 * @throws IOException if the journal cannot be used
+	 */
+	@Test
+	public void testLogEvents() throws IOException {
+		Course csc216 = catalog.getCourseFromCatalog("CSC216", "001");
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < 3; i++) {
+			Student student = directory.getStudentById(IDS[i]);
+			student.getSchedule().addCourseToSchedule(csc216);
+			csc216.getCourseRoll().enroll(student);
+			students.add(student);
+		}
+		journal.logEvents(EnrollmentJournal.ENROLL, csc216, students);
+		journal.logEvents(EnrollmentJournal.ENROLL, csc216, new ArrayList<Student>());
+		enroll("CSC226", "001", "lberg");
+		assertEquals(4, journal.getSequence());
+		assertThrows(IllegalArgumentException.class, () -> journal.logEvents('X', csc216, students));
+		assertThrows(IllegalArgumentException.class, () -> journal.logEvents(EnrollmentJournal.ENROLL, null, students));
+		assertThrows(IllegalArgumentException.class,
+				() -> journal.logEvents(EnrollmentJournal.ENROLL, csc216, Arrays.asList((Student) null)));
+		journal.close();
+
+		CourseCatalog recoveredCatalog = newCatalog();
+		StudentDirectory recoveredDirectory = newDirectory();
+		EnrollmentJournal recovered = new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE);
+		recovered.recover(recoveredCatalog, recoveredDirectory);
+		assertEquals(4, recovered.getSequence());
+		assertEquals("daustin,lberg,rbrennan",
+				ids(recoveredCatalog.getCourseFromCatalog("CSC216", "001").getCourseRoll().getEnrolledStudents()));
+		assertEquals(2, recoveredDirectory.getStudentById("lberg").getSchedule().getScheduledCourses().length);
+		recovered.close();
+	}
+
+	/**
+	 * Tests that compaction writes rolls, wait lists, and schedules to the snapshot and empties the
+	 * log, and that recovery combines the snapshot with events logged after it.
+	 * @throws IOException if the journal cannot be used
+	 */
+	@Test
+	public void testCompactAndRecover() throws IOException {
+		for (String id : IDS) {
+			enroll("CSC216", "001", id);
+		}
+		catalog.getCourseFromCatalog("CSC216", "001").getCourseRoll().addToWaitlist(directory.getStudentById("xstudent"));
+		journal.setCompactionInterval(10);
+		assertTrue(journal.isCompactionDue());
+		journal.compact(catalog, directory);
+		assertFalse(journal.isCompactionDue());
+		assertEquals(0, Files.size(Paths.get(LOG_FILE)));
+
+		drop("CSC216", "001", "lberg");
+		enroll("CSC226", "001", "lberg");
+		journal.close();
+
+		CourseCatalog recoveredCatalog = newCatalog();
+		StudentDirectory recoveredDirectory = newDirectory();
+		EnrollmentJournal recovered = new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE);
+		recovered.recover(recoveredCatalog, recoveredDirectory);
+		assertEquals(13, recovered.getSequence());
+
+		Course csc216 = recoveredCatalog.getCourseFromCatalog("CSC216", "001");
+		assertEquals("daustin,rbrennan,efrost,shansen,ahicks,zking,dnolan,cschwartz,gstone,xstudent",
+				ids(csc216.getCourseRoll().getEnrolledStudents()));
+		assertEquals(0, csc216.getCourseRoll().getNumberOnWaitlist());
+		String[][] schedule = recoveredDirectory.getStudentById("lberg").getSchedule().getScheduledCourses();
+		assertEquals(1, schedule.length);
+		assertEquals("CSC226", schedule[0][0]);
+		assertEquals(1, recoveredDirectory.getStudentById("gstone").getSchedule().getScheduledCourses().length);
+
+		// Waitlists are restored from the snapshot
+		recovered.compact(recoveredCatalog, recoveredDirectory);
+		recoveredCatalog.getCourseFromCatalog("CSC226", "001").getCourseRoll()
+				.addToWaitlist(recoveredDirectory.getStudentById("efrost"));
+		recovered.compact(recoveredCatalog, recoveredDirectory);
+		recovered.close();
+		CourseCatalog again = newCatalog();
+		new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE).recover(again, newDirectory());
+		assertEquals("efrost", ids(again.getCourseFromCatalog("CSC226", "001").getCourseRoll().getWaitlistedStudents()));
+		assertEquals("lberg", ids(again.getCourseFromCatalog("CSC226", "001").getCourseRoll().getEnrolledStudents()));
+	}
+
+	/**
+	 * Tests that compaction saves a wait list longer than the default capacity with its capacity and
+	 * registered priority, and that recovery restores them before refilling the wait list.
+	 * @throws IOException if the journal cannot be used
+	 */
+	@Test
+	public void testCompactWaitlistCapacityAndPriority() throws IOException {
+		WaitlistPriority.register("JOURNAL_THREES_FIRST", THREES_FIRST);
+		for (int i = 0; i < 25; i++) {
+			directory.addStudent("Wait", "Student", "wait" + i, "wait" + i + "@ncsu.edu", "pw", "pw", 18);
+		}
+		CourseRoll roll = catalog.getCourseFromCatalog("CSC216", "001").getCourseRoll();
+		roll.setWaitlistCapacity(TieredWaitlist.UNBOUNDED);
+		roll.setWaitlistPriority(THREES_FIRST);
+		for (int i = 0; i < 25; i++) {
+			enroll("CSC216", "001", "wait" + i);
+		}
+		String waitlisted = ids(roll.getWaitlistedStudents());
+		assertEquals(15, roll.getNumberOnWaitlist());
+		journal.compact(catalog, directory);
+		journal.close();
+
+		CourseCatalog recoveredCatalog = newCatalog();
+		StudentDirectory recoveredDirectory = newDirectory();
+		for (int i = 0; i < 25; i++) {
+			recoveredDirectory.addStudent("Wait", "Student", "wait" + i, "wait" + i + "@ncsu.edu", "pw", "pw", 18);
+		}
+		EnrollmentJournal recovered = new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE);
+		recovered.recover(recoveredCatalog, recoveredDirectory);
+		recovered.close();
+		CourseRoll recoveredRoll = recoveredCatalog.getCourseFromCatalog("CSC216", "001").getCourseRoll();
+		assertEquals(TieredWaitlist.UNBOUNDED, recoveredRoll.getWaitlistCapacity());
+		assertSame(THREES_FIRST, recoveredRoll.getWaitlistPriority());
+		assertEquals(10, recoveredRoll.getEnrolledStudents().length);
+		assertEquals(waitlisted, ids(recoveredRoll.getWaitlistedStudents()));
+		assertEquals(CourseRoll.DEFAULT_WAITLIST_SIZE,
+				recoveredCatalog.getCourseFromCatalog("CSC226", "001").getCourseRoll().getWaitlistCapacity());
+	}
+
+	/**
+	 * Tests that log events the snapshot already holds are not replayed when the process stopped
+	 * between writing the snapshot and emptying the log.
+	 * @throws IOException if the journal cannot be used
+	 */
+	@Test
+	public void testRecoverSkipsEventsInSnapshot() throws IOException {
+		enroll("CSC216", "001", "daustin");
+		enroll("CSC216", "001", "lberg");
+		drop("CSC216", "001", "daustin");
+		byte[] log = Files.readAllBytes(Paths.get(LOG_FILE));
+		journal.compact(catalog, directory);
+		journal.close();
+		Files.write(Paths.get(LOG_FILE), log);
+
+		CourseCatalog recoveredCatalog = newCatalog();
+		EnrollmentJournal recovered = new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE);
+		recovered.setCompactionInterval(1);
+		recovered.recover(recoveredCatalog, newDirectory());
+		assertEquals(3, recovered.getSequence());
+		assertFalse(recovered.isCompactionDue());
+		assertEquals("lberg", ids(recoveredCatalog.getCourseFromCatalog("CSC216", "001").getCourseRoll().getEnrolledStudents()));
+		recovered.close();
+	}
+
+	/**
+	 * Tests that a partial event at the end of the log is ignored and removed.
+	 * @throws IOException if the journal cannot be used
+	 */
+	@Test
+	public void testRecoverPartialEvent() throws IOException {
+		enroll("CSC216", "001", "daustin");
+		enroll("CSC216", "001", "lberg");
+		journal.close();
+		Path logPath = Paths.get(LOG_FILE);
+		long size = Files.size(logPath);
+		Files.write(logPath, "3,E,CSC216,001,rbre".getBytes(Charset.defaultCharset()), StandardOpenOption.APPEND);
+
+		catalog = newCatalog();
+		directory = newDirectory();
+		journal = new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE);
+		journal.recover(catalog, directory);
+		assertEquals(2, journal.getSequence());
+		assertEquals(size, Files.size(logPath));
+		enroll("CSC216", "001", "rbrennan");
+		journal.close();
+
+		CourseCatalog recoveredCatalog = newCatalog();
+		new EnrollmentJournal(SNAPSHOT_FILE, LOG_FILE).recover(recoveredCatalog, newDirectory());
+		assertEquals("daustin,lberg,rbrennan",
+				ids(recoveredCatalog.getCourseFromCatalog("CSC216", "001").getCourseRoll().getEnrolledStudents()));
+	}
+
+	/**
+	 * Tests invalid journal files and events.
+	 */
+	@Test
+	public void testInvalid() {
+		assertThrows(IllegalArgumentException.class, () -> new EnrollmentJournal(null, LOG_FILE));
+		assertThrows(IllegalArgumentException.class, () -> new EnrollmentJournal(SNAPSHOT_FILE, ""));
+		assertThrows(IllegalArgumentException.class, () -> journal.setCompactionInterval(0));
+		Course course = catalog.getCourseFromCatalog("CSC216", "001");
+		Student student = directory.getStudentById("daustin");
+		assertThrows(IllegalArgumentException.class, () -> journal.logEvent('X', course, student));
+		assertThrows(IllegalArgumentException.class, () -> journal.logEvent(EnrollmentJournal.ENROLL, null, student));
+		assertThrows(IllegalArgumentException.class, () -> journal.logEvent(EnrollmentJournal.ENROLL, course, null));
+	}
+}
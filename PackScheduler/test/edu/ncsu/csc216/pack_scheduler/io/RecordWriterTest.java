@@ -0,0 +1,149 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests RecordWriter.
+ */
+public class RecordWriterTest {
+
+	/** File the tests write to */
+	private static final String OUTPUT_FILE = "test-files/actual_record_writer.txt";
+
+	/**
+	 * Deletes the output file after each test.
+	 * @throws IOException if the file cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(Paths.get(OUTPUT_FILE));
+	}
+
+	/**
+	 * Returns the lines of the output file.
+	 * @return the lines of the output file
+	 */
+	private static List<String> readOutput() {
+		try {
+			return Files.readAllLines(Paths.get(OUTPUT_FILE), Charset.defaultCharset());
+		} catch (IOException e) {
+			fail("Unable to read " + OUTPUT_FILE);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the number of files left in test-files by writers for the output file.
+	 * @return the number of temporary files
+	 */
+	private static int countTempFiles() {
+		String[] names = new File("test-files").list((dir, name) -> name.startsWith(".actual_record_writer.txt."));
+		return names.length;
+	}
+
+	/**
+	 * Tests writing records of String and int fields.
+	 * @throws IOException if the records cannot be written
+	 */
+	@Test
+	public void testWriteRecords() throws IOException {
+		try (RecordWriter writer = new RecordWriter(OUTPUT_FILE)) {
+			writer.field("CSC216").field("Software Development Fundamentals").field(3).field(null);
+			writer.endRecord();
+			writer.field(0).field(-45).field(Integer.MAX_VALUE).field(Integer.MIN_VALUE);
+			writer.endRecord();
+			writer.field("café").field("");
+			writer.endRecord();
+			writer.commit();
+		}
+		// Characters are written in the default charset, which may not be able to represent all of them
+		String encoded = new String("café".getBytes(Charset.defaultCharset()), Charset.defaultCharset());
+		assertEquals(Arrays.asList("CSC216,Software Development Fundamentals,3,null",
+				"0,-45,2147483647,-2147483648", encoded + ","), readOutput());
+		assertEquals(0, countTempFiles());
+	}
+
+	/**
+	 * Tests writing more records than fit in the writer's buffers, and replacing an existing file.
+	 * @throws IOException if the records cannot be written
+	 */
+	@Test
+	public void testWriteManyRecords() throws IOException {
+		Files.write(Paths.get(OUTPUT_FILE), Arrays.asList("old record"), Charset.defaultCharset());
+		try (RecordWriter writer = new RecordWriter(OUTPUT_FILE)) {
+			for (int i = 0; i < 20000; i++) {
+				writer.field("student" + i).field(i);
+				writer.endRecord();
+			}
+			writer.commit();
+		}
+		List<String> lines = readOutput();
+		assertEquals(20000, lines.size());
+		assertEquals("student0,0", lines.get(0));
+		assertEquals("student12345,12345", lines.get(12345));
+		assertEquals("student19999,19999", lines.get(19999));
+		assertEquals(0, countTempFiles());
+	}
+
+	/**
+	 * Tests that closing a writer without committing it leaves the file as it was.
+	 * @throws IOException if the records cannot be written
+	 */
+	@Test
+	public void testCloseWithoutCommit() throws IOException {
+		Files.write(Paths.get(OUTPUT_FILE), Arrays.asList("old record"), Charset.defaultCharset());
+		try (RecordWriter writer = new RecordWriter(OUTPUT_FILE)) {
+			writer.field("new record");
+			writer.endRecord();
+		}
+		assertEquals(Arrays.asList("old record"), readOutput());
+		assertEquals(0, countTempFiles());
+	}
+
+	/**
+	 * Tests writing one record for each element of a list, and that a failed element leaves the file
+	 * as it was.
+	 * @throws IOException if the records cannot be written
+	 */
+	@Test
+	public void testWriteRecordsFromElements() throws IOException {
+		List<String> names = Arrays.asList("a", "bb", "ccc");
+		RecordWriter.writeRecords(OUTPUT_FILE, names.size(), names::get,
+				(writer, name) -> writer.field(name).field(name.length()));
+		assertEquals(Arrays.asList("a,1", "bb,2", "ccc,3"), readOutput());
+
+		assertThrows(IOException.class, () -> RecordWriter.writeRecords(OUTPUT_FILE, names.size(), names::get,
+				(writer, name) -> {
+					if (name.length() == 3) {
+						throw new IOException();
+					}
+					writer.field(name);
+				}));
+		assertEquals(Arrays.asList("a,1", "bb,2", "ccc,3"), readOutput());
+		assertEquals(0, countTempFiles());
+	}
+
+	/**
+	 * Tests writing to a directory that does not exist.
+	 */
+	@Test
+	public void testMissingDirectory() {
+		Exception exception = assertThrows(FileNotFoundException.class,
+				() -> new RecordWriter("test-files/no_such_dir/records.txt"));
+		assertEquals("test-files/no_such_dir/records.txt (No such file or directory)", exception.getMessage());
+	}
+}
@@ -0,0 +1,242 @@
+package edu.ncsu.csc216.pack_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.course.roll.TieredWaitlist;
+import edu.ncsu.csc216.pack_scheduler.course.roll.WaitlistPriority;
+import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
+import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.user.Faculty;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests RegistrationSnapshotIO.
+ */
+public class RegistrationSnapshotIOTest {
+
+	/** Snapshot file the tests write */
+	private static final String SNAPSHOT_FILE = "test-files/actual_registration_snapshot.bin";
+
+	/** Puts students whose ids end in 3 ahead of everyone else */
+	private static final WaitlistPriority THREES_FIRST = s -> s.getId().endsWith("3") ? 0 : 1;
+
+	/**
+	 * Deletes the snapshot file after each test.
+	 * @throws IOException if the file cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(Paths.get(SNAPSHOT_FILE));
+	}
+
+	/**
+	 * Tests that a snapshot restores the catalog, directories, rolls, wait lists, and schedules.
+	 * @throws IOException if the snapshot cannot be written or read
+	 */
+	@Test
+	public void testWriteAndReadSnapshot() throws IOException {
+		CourseCatalog catalog = new CourseCatalog();
+		catalog.loadCoursesFromFile("test-files/course_records.txt");
+		StudentDirectory students = new StudentDirectory();
+		students.loadStudentsFromFile("test-files/student_records.txt");
+		FacultyDirectory faculty = new FacultyDirectory();
+		faculty.loadFacultyFromFile("test-files/faculty_records.txt");
+
+		Course csc216 = catalog.getCourseFromCatalog("CSC216", "001");
+		Course csc116 = catalog.getCourseFromCatalog("CSC116", "001");
+		Student daustin = students.getStudentById("daustin");
+		daustin.getSchedule().addCourseToSchedule(csc216);
+		csc216.getCourseRoll().enroll(daustin);
+		csc216.getCourseRoll().enroll(students.getStudentById("lberg"));
+		csc216.getCourseRoll().addToWaitlist(students.getStudentById("zking"));
+		Faculty awitt = faculty.getFacultyById("awitt");
+		csc116.setInstructorId(null);
+		awitt.getSchedule().addCourseToSchedule(csc116);
+
+		RegistrationSnapshotIO.writeSnapshot(SNAPSHOT_FILE, catalog, students, faculty);
+
+		CourseCatalog loadedCatalog = new CourseCatalog();
+		StudentDirectory loadedStudents = new StudentDirectory();
+		FacultyDirectory loadedFaculty = new FacultyDirectory();
+		RegistrationSnapshotIO.readSnapshot(SNAPSHOT_FILE, loadedCatalog, loadedStudents, loadedFaculty);
+
+		assertEquals(catalog.getCourseCatalog().length, loadedCatalog.getCourseCatalog().length);
+		for (int i = 0; i < catalog.getCourseCatalog().length; i++) {
+			Course expected = catalog.getCourses().get(i);
+			Course actual = loadedCatalog.getCourses().get(i);
+			assertEquals(expected, actual);
+			assertEquals(expected.getInstructorId(), actual.getInstructorId());
+			assertEquals(expected.getCourseRoll().getEnrollmentCap(), actual.getCourseRoll().getEnrollmentCap());
+			assertEquals(expected.getCourseRoll().getOpenSeats(), actual.getCourseRoll().getOpenSeats());
+		}
+		assertEquals(students.getStudentDirectory().length, loadedStudents.getStudentDirectory().length);
+		assertEquals(faculty.getFacultyDirectory().length, loadedFaculty.getFacultyDirectory().length);
+
+		Student loadedDaustin = loadedStudents.getStudentById("daustin");
+		assertEquals(daustin.getPassword(), loadedDaustin.getPassword());
+		assertEquals(daustin.getMaxCredits(), loadedDaustin.getMaxCredits());
+		Course loaded216 = loadedCatalog.getCourseFromCatalog("CSC216", "001");
+		Student[] enrolled = loaded216.getCourseRoll().getEnrolledStudents();
+		assertEquals(2, enrolled.length);
+		assertEquals("daustin", enrolled[0].getId());
+		assertEquals("lberg", enrolled[1].getId());
+		assertEquals(loadedDaustin, enrolled[0]);
+		assertEquals(1, loaded216.getCourseRoll().getNumberOnWaitlist());
+		assertEquals("zking", loaded216.getCourseRoll().getWaitlistedStudents()[0].getId());
+
+		String[][] schedule = loadedDaustin.getSchedule().getScheduledCourses();
+		assertEquals(1, schedule.length);
+		assertEquals("CSC216", schedule[0][0]);
+		assertEquals(0, loadedStudents.getStudentById("lberg").getSchedule().getScheduledCourses().length);
+
+		Faculty loadedAwitt = loadedFaculty.getFacultyById("awitt");
+		assertEquals(awitt.getMaxCourses(), loadedAwitt.getMaxCourses());
+		assertEquals(1, loadedAwitt.getSchedule().getNumScheduledCourses());
+		assertEquals("awitt", loadedCatalog.getCourseFromCatalog("CSC116", "001").getInstructorId());
+	}
+
+	/**
+	 * Tests that a wait list longer than the default capacity round trips with its capacity and its
+	 * registered priority, and that the priority still places students added after the snapshot is read.
+	 * @throws IOException if the snapshot cannot be written or read
+	 */
+	@Test
+	public void testWaitlistCapacityAndPriority() throws IOException {
+		WaitlistPriority.register("SNAPSHOT_THREES_FIRST", THREES_FIRST);
+		CourseCatalog catalog = new CourseCatalog();
+		catalog.addCourseToCatalog("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "A", 0, 0);
+		catalog.addCourseToCatalog("CSC216", "Software Development Fundamentals", "001", 3, null, 10, "A", 0, 0);
+		StudentDirectory students = new StudentDirectory();
+		for (int i = 0; i < 26; i++) {
+			students.addStudent("Wait", "Student", "wait" + i, "wait" + i + "@ncsu.edu", "pw", "pw", 18);
+		}
+		CourseRoll roll = catalog.getCourseFromCatalog("CSC116", "001").getCourseRoll();
+		roll.setWaitlistCapacity(TieredWaitlist.UNBOUNDED);
+		roll.setWaitlistPriority(THREES_FIRST);
+		for (int i = 0; i < 25; i++) {
+			roll.enroll(students.getStudentById("wait" + i));
+		}
+		assertEquals(15, roll.getNumberOnWaitlist());
+		CourseRoll unregistered = catalog.getCourseFromCatalog("CSC216", "001").getCourseRoll();
+		unregistered.setWaitlistCapacity(20);
+		unregistered.setWaitlistPriority(s -> s.getId().endsWith("1") ? 0 : 1);
+		for (int i = 0; i < 14; i++) {
+			unregistered.enroll(students.getStudentById("wait" + i));
+		}
+
+		RegistrationSnapshotIO.writeSnapshot(SNAPSHOT_FILE, catalog, students, new FacultyDirectory());
+		CourseCatalog loaded = new CourseCatalog();
+		StudentDirectory loadedStudents = new StudentDirectory();
+		RegistrationSnapshotIO.readSnapshot(SNAPSHOT_FILE, loaded, loadedStudents, new FacultyDirectory());
+
+		CourseRoll loadedRoll = loaded.getCourseFromCatalog("CSC116", "001").getCourseRoll();
+		assertEquals(TieredWaitlist.UNBOUNDED, loadedRoll.getWaitlistCapacity());
+		assertSame(THREES_FIRST, loadedRoll.getWaitlistPriority());
+		assertEquals(10, loadedRoll.getEnrolledStudents().length);
+		assertEquals(15, loadedRoll.getNumberOnWaitlist());
+		assertEquals(ids(roll.getWaitlistedStudents()), ids(loadedRoll.getWaitlistedStudents()));
+		loadedRoll.enroll(loadedStudents.getStudentById("wait25"));
+		assertEquals(16, loadedRoll.getNumberOnWaitlist());
+
+		CourseRoll loadedUnregistered = loaded.getCourseFromCatalog("CSC216", "001").getCourseRoll();
+		assertEquals(20, loadedUnregistered.getWaitlistCapacity());
+		assertSame(WaitlistPriority.FIRST_COME, loadedUnregistered.getWaitlistPriority());
+		assertEquals("wait11,wait10,wait12,wait13", ids(loadedUnregistered.getWaitlistedStudents()));
+	}
+
+	/**
+	 * Returns the ids of the given students.
+	 * @param list the students
+	 * @return their ids, comma separated
+	 */
+	private static String ids(Student[] list) {
+		StringBuilder sb = new StringBuilder();
+		for (Student s : list) {
+			if (sb.length() > 0) {
+				sb.append(",");
+			}
+			sb.append(s.getId());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Tests that an empty catalog and directories round trip, including a course with no instructor.
+	 * @throws IOException if the snapshot cannot be written or read
+	 */
+	@Test
+	public void testNoInstructor() throws IOException {
+		CourseCatalog catalog = new CourseCatalog();
+		catalog.addCourseToCatalog("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "A", 0, 0);
+		RegistrationSnapshotIO.writeSnapshot(SNAPSHOT_FILE, catalog, new StudentDirectory(), new FacultyDirectory());
+
+		CourseCatalog loaded = new CourseCatalog();
+		RegistrationSnapshotIO.readSnapshot(SNAPSHOT_FILE, loaded, new StudentDirectory(), new FacultyDirectory());
+		Course course = loaded.getCourseFromCatalog("CSC116", "001");
+		assertNull(course.getInstructorId());
+		assertEquals("A", course.getMeetingDays());
+		assertEquals(10, course.getCourseRoll().getOpenSeats());
+	}
+
+	/**
+	 * Tests that a file that is not a complete snapshot cannot be read and leaves the catalog unchanged.
+	 * @throws IOException if the test file cannot be written
+	 */
+	@Test
+	public void testInvalidSnapshot() throws IOException {
+		CourseCatalog catalog = new CourseCatalog();
+		catalog.loadCoursesFromFile("test-files/course_records.txt");
+		int count = catalog.getCourseCatalog().length;
+		StudentDirectory students = new StudentDirectory();
+		FacultyDirectory faculty = new FacultyDirectory();
+
+		assertThrows(IOException.class,
+				() -> RegistrationSnapshotIO.readSnapshot("test-files/course_records.txt", catalog, students, faculty));
+
+		RegistrationSnapshotIO.writeSnapshot(SNAPSHOT_FILE, catalog, students, faculty);
+		byte[] bytes = Files.readAllBytes(Paths.get(SNAPSHOT_FILE));
+		byte[] truncated = new byte[bytes.length - 4];
+		System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+		Files.write(Paths.get(SNAPSHOT_FILE), truncated);
+		CourseCatalog other = new CourseCatalog();
+		assertThrows(IOException.class, () -> RegistrationSnapshotIO.readSnapshot(SNAPSHOT_FILE, other, students, faculty));
+		assertEquals(0, other.getCourseCatalog().length);
+		assertEquals(count, catalog.getCourseCatalog().length);
+
+		assertThrows(IOException.class,
+				() -> RegistrationSnapshotIO.readSnapshot("test-files/no_such_snapshot.bin", catalog, students, faculty));
+	}
+
+	/**
+	 * Tests that a snapshot whose course fields were changed on disk is checked like any other input.
+	 * @throws IOException if the test file cannot be written
+	 */
+	@Test
+	public void testInvalidCourseInSnapshot() throws IOException {
+		CourseCatalog catalog = new CourseCatalog();
+		catalog.addCourseToCatalog("CSC116", "Intro to Programming - Java", "001", 3, null, 10, "MW", 910, 1100);
+		StudentDirectory students = new StudentDirectory();
+		FacultyDirectory faculty = new FacultyDirectory();
+		RegistrationSnapshotIO.writeSnapshot(SNAPSHOT_FILE, catalog, students, faculty);
+
+		String bytes = new String(Files.readAllBytes(Paths.get(SNAPSHOT_FILE)), "ISO-8859-1");
+		assertEquals(1, bytes.split("CSC116", -1).length - 1);
+		Files.write(Paths.get(SNAPSHOT_FILE), bytes.replace("CSC116", "CSC1X6").getBytes("ISO-8859-1"));
+		CourseCatalog other = new CourseCatalog();
+		assertThrows(IOException.class, () -> RegistrationSnapshotIO.readSnapshot(SNAPSHOT_FILE, other, students, faculty));
+		assertEquals(0, other.getCourseCatalog().length);
+	}
+}
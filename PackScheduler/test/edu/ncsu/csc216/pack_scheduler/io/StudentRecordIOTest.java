@@ -6,12 +6,16 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.Base64;
+import java.util.List;
 import java.util.Scanner;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -130,6 +134,55 @@ class StudentRecordIOTest {
         assertThrows(FileNotFoundException.class, () -> StudentRecordIO.readStudentRecords(DNE_FILE));
     }
 
+    /**
+     * Tests the readStudentRecordsInParallel method in StudentRecordIO with the small valid, invalid, and
+     * missing files.
+     */
+    @Test
+    void testReadStudentRecordsInParallel() {
+        try {
+            List<Student> students = StudentRecordIO.readStudentRecordsInParallel(ACTUAL_FILE);
+            assertEquals(validStudents.length, students.size());
+            for (int i = 0; i < students.size(); i++) {
+                assertEquals(validStudents[i], students.get(i).toString());
+            }
+            assertEquals(0, StudentRecordIO.readStudentRecordsInParallel(INVALID_FILE).size());
+        } catch (FileNotFoundException e) {
+            fail("Unable to read input file.");
+        }
+        assertThrows(FileNotFoundException.class, () -> StudentRecordIO.readStudentRecordsInParallel(DNE_FILE));
+    }
+    
+    /**
+     * Tests readStudentRecordsInParallel with a file large enough to be split into several chunks. The file
+     * is written in reverse sorted order with mixed line endings, repeated records, and invalid lines.
+     */
+    @Test
+    void testReadStudentRecordsInParallelLargeFile() {
+        int count = 5000;
+        Path path = FileSystems.getDefault().getPath("test-files", "actual_parallel_student_records.txt");
+        StringBuilder file = new StringBuilder();
+        for (int i = count - 1; i >= 0; i--) {
+            String record = String.format("First%05d,Last%05d,id%05d,id%05d@ncsu.edu,%s,15", i, i, i, i, hashPW);
+            file.append(record).append(i % 2 == 0 ? "\r\n" : "\n");
+            if (i % 100 == 0) {
+                file.append(record).append("\n");
+                file.append("Invalid,Line,").append(i).append("\n");
+            }
+        }
+        try {
+            Files.write(path, file.toString().getBytes());
+            List<Student> students = StudentRecordIO.readStudentRecordsInParallel(path.toString());
+            assertEquals(count, students.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(String.format("id%05d", i), students.get(i).getId());
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            fail("Unable to write or read the large student file.");
+        }
+    }
+
     /**
      * Tests the writeStudentRecords method in StudentRecordIO. Evaluates that writing a list of students to a file 
      * results in the expected output and that an IOException is thrown if a file can't be written to.
@@ -0,0 +1,48 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+import edu.ncsu.csc216.pack_scheduler.course.roll.CourseRoll;
+import edu.ncsu.csc216.pack_scheduler.user.Student;
+
+/**
+ * Tests RegistrationLocks.
+ */
+public class RegistrationLocksTest {
+
+	/**
+	 * Tests that the number of stripes is rounded up to a power of two.
+	 */
+	@Test
+	public void testStripes() {
+		assertEquals(1, new RegistrationLocks(1).getStripes());
+		assertEquals(8, new RegistrationLocks(5).getStripes());
+		assertEquals(64, new RegistrationLocks(64).getStripes());
+		assertThrows(IllegalArgumentException.class, () -> new RegistrationLocks(0));
+	}
+
+	/**
+	 * Tests that a student or roll always maps to the same lock, and that schedule and roll locks are
+	 * separate.
+	 */
+	@Test
+	public void testLocks() {
+		RegistrationLocks locks = new RegistrationLocks(1);
+		Student student = new Student("Zahir", "King", "zking", "zking@ncsu.edu", "pw");
+		CourseRoll roll = new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 10, "A")
+				.getCourseRoll();
+		assertSame(locks.scheduleLock(student), locks.scheduleLock(student));
+		assertSame(locks.rollLock(roll), locks.rollLock(roll));
+		assertNotSame(locks.scheduleLock(student), locks.rollLock(roll));
+
+		locks = new RegistrationLocks(32);
+		assertSame(locks.scheduleLock(student), locks.scheduleLock(student));
+		assertSame(locks.rollLock(roll), locks.rollLock(roll));
+	}
+}
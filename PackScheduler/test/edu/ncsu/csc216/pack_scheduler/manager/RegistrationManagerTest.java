@@ -11,6 +11,13 @@ import java.util.Properties;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +26,9 @@ import edu.ncsu.csc216.pack_scheduler.catalog.CourseCatalog;
 import edu.ncsu.csc216.pack_scheduler.course.Course;
 import edu.ncsu.csc216.pack_scheduler.directory.FacultyDirectory;
 import edu.ncsu.csc216.pack_scheduler.directory.StudentDirectory;
+import edu.ncsu.csc216.pack_scheduler.io.EnrollmentJournal;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationMetrics.Operation;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationMetrics.Result;
 import edu.ncsu.csc216.pack_scheduler.user.Faculty;
 import edu.ncsu.csc216.pack_scheduler.user.Student;
 import edu.ncsu.csc216.pack_scheduler.user.schedule.Schedule;
@@ -605,5 +615,561 @@ public class RegistrationManagerTest {
 	    assertEquals("jdoe", course2.getInstructorId(), "Course 2 should still have the instructor assigned.");
 	}
 
+	/**
+	 * Tests that enrollments and drops are logged to the EnrollmentJournal and restored by
+	 * RegistrationManager.recoverEnrollments(), and that drops that change nothing are not logged.
+	 * @throws IOException if the journal files cannot be removed
+	 */
+	@Test
+	public void testEnrollmentJournal() throws IOException {
+		String snapshotFile = "test-files/actual_manager_snapshot.txt";
+		String logFile = "test-files/actual_manager_log.txt";
+		Files.deleteIfExists(Paths.get(snapshotFile));
+		Files.deleteIfExists(Paths.get(logFile));
+		assertThrows(IllegalArgumentException.class, () -> manager.recoverEnrollments());
+		try {
+			manager.setEnrollmentJournal(new EnrollmentJournal(snapshotFile, logFile));
+			manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+			manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+			manager.recoverEnrollments();
+			
+			CourseCatalog catalog = manager.getCourseCatalog();
+			manager.login("ahicks", "pw");
+			assertTrue(manager.enrollStudentInCourse(catalog.getCourseFromCatalog("CSC216", "001")));
+			assertTrue(manager.enrollStudentInCourse(catalog.getCourseFromCatalog("CSC226", "001")));
+			assertFalse(manager.enrollStudentInCourse(catalog.getCourseFromCatalog("CSC226", "001")));
+			assertTrue(manager.dropStudentFromCourse(catalog.getCourseFromCatalog("CSC216", "001")));
+			// A drop that changes nothing is not logged
+			long logSize = Files.size(Paths.get(logFile));
+			assertFalse(manager.dropStudentFromCourse(catalog.getCourseFromCatalog("CSC216", "001")));
+			assertFalse(manager.dropStudentFromCourse(catalog.getCourseFromCatalog("CSC116", "001")));
+			assertEquals(logSize, Files.size(Paths.get(logFile)));
+			manager.logout();
+			assertEquals(3, manager.getEnrollmentJournal().getSequence());
+			manager.compactEnrollmentJournal();
+			manager.getEnrollmentJournal().close();
+			
+			manager.clearData();
+			manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+			manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+			manager.recoverEnrollments();
+			String[][] schedule = manager.getStudentDirectory().getStudentById("ahicks").getSchedule().getScheduledCourses();
+			assertEquals(1, schedule.length);
+			assertEquals("CSC226", schedule[0][0]);
+			assertEquals(9, manager.getCourseCatalog().getCourseFromCatalog("CSC226", "001").getCourseRoll().getOpenSeats());
+			assertEquals(10, manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001").getCourseRoll().getOpenSeats());
+			manager.getEnrollmentJournal().close();
+		} finally {
+			manager.setEnrollmentJournal(null);
+			Files.deleteIfExists(Paths.get(snapshotFile));
+			Files.deleteIfExists(Paths.get(logFile));
+		}
+	}
+
+	/**
+	 * Tests saving and loading a snapshot of the manager's data.
+	 * @throws IOException if the snapshot file cannot be removed
+	 */
+	@Test
+	public void testSnapshot() throws IOException {
+		String snapshotFile = "test-files/actual_manager_snapshot.bin";
+		try {
+			manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+			manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+			manager.login("ahicks", "pw");
+			assertTrue(manager.enrollStudentInCourse(manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001")));
+			manager.logout();
+			manager.saveSnapshot(snapshotFile);
+
+			manager.clearData();
+			manager.loadSnapshot(snapshotFile);
+			String[][] schedule = manager.getStudentDirectory().getStudentById("ahicks").getSchedule().getScheduledCourses();
+			assertEquals(1, schedule.length);
+			assertEquals("CSC216", schedule[0][0]);
+			assertEquals(9, manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001").getCourseRoll().getOpenSeats());
+
+			Exception exception = assertThrows(IllegalArgumentException.class,
+					() -> manager.loadSnapshot("test-files/no_such_snapshot.bin"));
+			assertEquals("Unable to read file test-files/no_such_snapshot.bin", exception.getMessage());
+			exception = assertThrows(IllegalArgumentException.class,
+					() -> manager.saveSnapshot("test-files/no_such_dir/snapshot.bin"));
+			assertEquals("Unable to write to file test-files/no_such_dir/snapshot.bin", exception.getMessage());
+		} finally {
+			Files.deleteIfExists(Paths.get(snapshotFile));
+		}
+	}
+
+	/**
+	 * Tests that several users can be logged in through sessions alongside the current user.
+	 */
+	@Test
+	public void testSessions() {
+		manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+		manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+		CourseCatalog catalog = manager.getCourseCatalog();
+		Course csc216 = catalog.getCourseFromCatalog("CSC216", "001");
+
+		assertTrue(manager.login("daustin", "pw"));
+		String ahicks = manager.openSession("ahicks", "pw");
+		String lberg = manager.openSession("lberg", "pw");
+		String registrar = manager.openSession(registrarUsername, registrarPassword);
+		assertNull(manager.openSession("zking", "wrong"));
+		assertThrows(IllegalArgumentException.class, () -> manager.openSession("nobody", "pw"));
+		assertFalse(ahicks.equals(lberg));
+		assertEquals("ahicks", manager.getSessionUser(ahicks).getId());
+		assertEquals("daustin", manager.getCurrentUser().getId());
+
+		assertTrue(manager.enrollStudentInCourse(csc216));
+		assertTrue(manager.enrollStudentInCourse(ahicks, csc216));
+		assertTrue(manager.enrollStudentInCourse(lberg, csc216));
+		assertFalse(manager.enrollStudentInCourse(lberg, csc216));
+		assertEquals(7, csc216.getCourseRoll().getOpenSeats());
+		assertTrue(manager.dropStudentFromCourse(ahicks, csc216));
+		assertEquals(0, manager.getStudentDirectory().getStudentById("ahicks").getSchedule().getScheduledCourses().length);
+		manager.resetSchedule(lberg);
+		assertEquals(9, csc216.getCourseRoll().getOpenSeats());
+		assertThrows(IllegalArgumentException.class, () -> manager.enrollStudentInCourse(registrar, csc216));
+
+		manager.closeSession(ahicks);
+		assertNull(manager.getSessionUser(ahicks));
+		assertThrows(IllegalArgumentException.class, () -> manager.enrollStudentInCourse(ahicks, csc216));
+		manager.clearData();
+		assertNull(manager.getSessionUser(lberg));
+	}
+
+	/**
+	 * Tests that concurrent sessions enrolling in and dropping the same courses never overfill a
+	 * roll and leave every roll matching the students' schedules.
+	 * @throws Exception if a session fails
+	 */
+	@Test
+	public void testConcurrentSessions() throws Exception {
+		manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+		for (int i = 0; i < 5; i++) {
+			manager.getStudentDirectory().addStudent("Extra", "Student", "extra" + i, "extra" + i + "@ncsu.edu", "pw", "pw", 18);
+		}
+		manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+		CourseCatalog catalog = manager.getCourseCatalog();
+		Course[] courses = {catalog.getCourseFromCatalog("CSC216", "001"), catalog.getCourseFromCatalog("CSC226", "001"),
+				catalog.getCourseFromCatalog("CSC230", "001")};
+		String[][] students = manager.getStudentDirectory().getStudentDirectory();
+
+		int defaultStripes = manager.getLockStripes();
+		try {
+			for (int stripes : new int[] {1, 4, defaultStripes}) {
+				manager.setLockStripes(stripes);
+				runConcurrentSessions(courses, students);
+			}
+		} finally {
+			manager.setLockStripes(defaultStripes);
+		}
+	}
+
+	/**
+	 * Runs a session for each student that enrolls in and drops the given courses many times, then
+	 * checks that no roll was overfilled and every roll matches the students' schedules.
+	 * @param courses the courses the students enroll in
+	 * @param students the students
+	 * @throws Exception if a session fails
+	 */
+	private void runConcurrentSessions(Course[] courses, String[][] students) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(students.length);
+		try {
+			List<Future<?>> results = new ArrayList<Future<?>>();
+			for (String[] student : students) {
+				String token = manager.openSession(student[2], "pw");
+				results.add(pool.submit(() -> {
+					for (int i = 0; i < 100; i++) {
+						for (Course c : courses) {
+							manager.enrollStudentInCourse(token, c);
+						}
+						manager.dropStudentFromCourse(token, courses[i % courses.length]);
+						if (i % 10 == 0) {
+							manager.resetSchedule(token);
+						}
+					}
+					for (Course c : courses) {
+						manager.enrollStudentInCourse(token, c);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		for (Course c : courses) {
+			int scheduled = 0;
+			for (String[] student : students) {
+				String[][] schedule = manager.getStudentDirectory().getStudentById(student[2]).getSchedule().getScheduledCourses();
+				for (String[] course : schedule) {
+					if (course[0].equals(c.getName())) {
+						scheduled++;
+					}
+				}
+			}
+			assertEquals(10, c.getCourseRoll().getEnrolledStudents().length);
+			assertEquals(0, c.getCourseRoll().getOpenSeats());
+			assertEquals(10, scheduled);
+		}
+		for (String[] student : students) {
+			manager.getStudentDirectory().getStudentById(student[2]).getSchedule().resetSchedule();
+		}
+		for (Course c : courses) {
+			for (Student s : c.getCourseRoll().getEnrolledStudents()) {
+				c.getCourseRoll().drop(s);
+			}
+		}
+	}
+
+	/**
+	 * Tests setting the number of lock stripes.
+	 */
+	@Test
+	public void testLockStripes() {
+		int stripes = manager.getLockStripes();
+		try {
+			manager.setLockStripes(5);
+			assertEquals(8, manager.getLockStripes());
+			assertThrows(IllegalArgumentException.class, () -> manager.setLockStripes(0));
+			assertEquals(8, manager.getLockStripes());
+		} finally {
+			manager.setLockStripes(stripes);
+		}
+	}
+
+	/**
+	 * Tests enrolling students in courses in a batch, the outcome reported for each row, and that the
+	 * enrollments are logged to the journal.
+	 * @throws IOException if the journal files cannot be removed
+	 */
+	@Test
+	public void testEnrollStudentsInBatch() throws IOException {
+		String snapshotFile = "test-files/actual_manager_snapshot.txt";
+		String logFile = "test-files/actual_manager_log.txt";
+		Files.deleteIfExists(Paths.get(snapshotFile));
+		Files.deleteIfExists(Paths.get(logFile));
+		try {
+			manager.setEnrollmentJournal(new EnrollmentJournal(snapshotFile, logFile));
+			manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+			manager.getStudentDirectory().addStudent("Extra", "Student", "xstudent", "xstudent@ncsu.edu", "pw", "pw", 18);
+			manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+			manager.recoverEnrollments();
+
+			List<BatchEnrollmentRequest> rows = new ArrayList<BatchEnrollmentRequest>();
+			rows.add(new BatchEnrollmentRequest("daustin", "CSC216", "001"));
+			rows.add(new BatchEnrollmentRequest("nobody", "CSC216", "001"));
+			rows.add(new BatchEnrollmentRequest("lberg", "CSC999", "001"));
+			rows.add(new BatchEnrollmentRequest("lberg", "CSC216", "001"));
+			rows.add(new BatchEnrollmentRequest("daustin", "CSC216", "001"));
+			rows.add(new BatchEnrollmentRequest("lberg", "CSC226", "001"));
+			String[][] students = manager.getStudentDirectory().getStudentDirectory();
+			for (String[] student : students) {
+				rows.add(new BatchEnrollmentRequest(student[2], "CSC230", "001"));
+			}
+			rows.add(new BatchEnrollmentRequest("lberg", "CSC116", "001"));
+			rows.add(new BatchEnrollmentRequest("efrost", "CSC116", "002"));
 
-}
\ No newline at end of file
+			assertThrows(IllegalArgumentException.class, () -> manager.enrollStudentsInBatch(rows));
+			manager.login("ahicks", "pw");
+			assertThrows(IllegalArgumentException.class, () -> manager.enrollStudentsInBatch(rows));
+			manager.logout();
+			manager.login(registrarUsername, registrarPassword);
+			assertThrows(IllegalArgumentException.class, () -> manager.enrollStudentsInBatch(null));
+			assertThrows(IllegalArgumentException.class, () -> new BatchEnrollmentRequest(null, "CSC216", "001"));
+
+			BatchEnrollmentReport report = manager.enrollStudentsInBatch(rows);
+			assertEquals(rows.size(), report.getRowCount());
+			assertEquals(BatchEnrollmentReport.Outcome.ENROLLED, report.getOutcome(0));
+			assertEquals(BatchEnrollmentReport.Outcome.UNKNOWN_STUDENT, report.getOutcome(1));
+			assertEquals(BatchEnrollmentReport.Outcome.UNKNOWN_COURSE, report.getOutcome(2));
+			assertEquals(BatchEnrollmentReport.Outcome.ENROLLED, report.getOutcome(3));
+			assertEquals(BatchEnrollmentReport.Outcome.REJECTED, report.getOutcome(4));
+			assertEquals(BatchEnrollmentReport.Outcome.ENROLLED, report.getOutcome(5));
+			for (int i = 0; i < students.length; i++) {
+				BatchEnrollmentReport.Outcome expected = i < 10 ? BatchEnrollmentReport.Outcome.ENROLLED
+						: BatchEnrollmentReport.Outcome.COURSE_FULL;
+				assertEquals(expected, report.getOutcome(6 + i));
+			}
+			assertEquals(BatchEnrollmentReport.Outcome.REJECTED, report.getOutcome(rows.size() - 2));
+			assertEquals(BatchEnrollmentReport.Outcome.REJECTED, report.getOutcome(rows.size() - 1));
+			assertEquals(13, report.getCount(BatchEnrollmentReport.Outcome.ENROLLED));
+			assertEquals(3, report.getCount(BatchEnrollmentReport.Outcome.REJECTED));
+			assertThrows(IllegalArgumentException.class, () -> report.getOutcome(rows.size()));
+			manager.logout();
+			assertEquals(13, manager.getEnrollmentJournal().getSequence());
+			manager.getEnrollmentJournal().close();
+
+			manager.clearData();
+			manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+			manager.getStudentDirectory().addStudent("Extra", "Student", "xstudent", "xstudent@ncsu.edu", "pw", "pw", 18);
+			manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+			manager.recoverEnrollments();
+			String[][] schedule = manager.getStudentDirectory().getStudentById("lberg").getSchedule().getScheduledCourses();
+			assertEquals(3, schedule.length);
+			assertEquals(8, manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001").getCourseRoll().getOpenSeats());
+			assertEquals(0, manager.getCourseCatalog().getCourseFromCatalog("CSC230", "001").getCourseRoll().getOpenSeats());
+			manager.getEnrollmentJournal().close();
+		} finally {
+			manager.setEnrollmentJournal(null);
+			Files.deleteIfExists(Paths.get(snapshotFile));
+			Files.deleteIfExists(Paths.get(logFile));
+		}
+	}
+
+	/**
+	 * Tests that a batch enrollment running alongside sessions that enroll and drop the same students
+	 * leaves every roll matching the students' schedules.
+	 * @throws Exception if a session or the batch fails
+	 */
+	@Test
+	public void testEnrollStudentsInBatchConcurrent() throws Exception {
+		manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+		manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+		CourseCatalog catalog = manager.getCourseCatalog();
+		Course[] courses = {catalog.getCourseFromCatalog("CSC216", "001"), catalog.getCourseFromCatalog("CSC226", "001")};
+		String[][] students = manager.getStudentDirectory().getStudentDirectory();
+		List<BatchEnrollmentRequest> rows = new ArrayList<BatchEnrollmentRequest>();
+		for (int i = 0; i < 200; i++) {
+			for (String[] student : students) {
+				rows.add(new BatchEnrollmentRequest(student[2], courses[i % 2].getName(), courses[i % 2].getSection()));
+			}
+		}
+		manager.login(registrarUsername, registrarPassword);
+		ExecutorService pool = Executors.newFixedThreadPool(students.length);
+		try {
+			List<Future<?>> results = new ArrayList<Future<?>>();
+			for (String[] student : students) {
+				String token = manager.openSession(student[2], "pw");
+				results.add(pool.submit(() -> {
+					for (int i = 0; i < 200; i++) {
+						manager.enrollStudentInCourse(token, courses[i % 2]);
+						manager.dropStudentFromCourse(token, courses[(i + 1) % 2]);
+					}
+					return null;
+				}));
+			}
+			BatchEnrollmentReport report = manager.enrollStudentsInBatch(rows);
+			assertEquals(rows.size(), report.getRowCount());
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			pool.shutdown();
+			manager.logout();
+		}
+
+		for (Course c : courses) {
+			int scheduled = 0;
+			for (String[] student : students) {
+				Student s = manager.getStudentDirectory().getStudentById(student[2]);
+				for (String[] course : s.getSchedule().getScheduledCourses()) {
+					if (course[0].equals(c.getName())) {
+						scheduled++;
+						assertTrue(c.getCourseRoll().getOpenSeats() < 10);
+					}
+				}
+			}
+			assertEquals(scheduled, c.getCourseRoll().getEnrolledStudents().length);
+			assertEquals(10 - scheduled, c.getCourseRoll().getOpenSeats());
+		}
+	}
+
+	/**
+	 * Tests that a drop from a course with a wait list promotes the first wait listed student who can
+	 * add the course, adding it to their schedule, passes over students who cannot, and that
+	 * promotions are recovered from the journal.
+	 * @throws IOException if the journal files cannot be removed
+	 */
+	@Test
+	public void testWaitlistPromotion() throws IOException {
+		String snapshotFile = "test-files/actual_manager_snapshot.txt";
+		String logFile = "test-files/actual_manager_log.txt";
+		Files.deleteIfExists(Paths.get(snapshotFile));
+		Files.deleteIfExists(Paths.get(logFile));
+		try {
+			manager.setEnrollmentJournal(new EnrollmentJournal(snapshotFile, logFile));
+			loadWaitlistData();
+			manager.recoverEnrollments();
+			CourseCatalog catalog = manager.getCourseCatalog();
+			StudentDirectory directory = manager.getStudentDirectory();
+			Course csc216 = catalog.getCourseFromCatalog("CSC216", "001");
+			Course csc226 = catalog.getCourseFromCatalog("CSC226", "001");
+			String[][] students = directory.getStudentDirectory();
+			for (String[] student : students) {
+				if (!student[2].startsWith("extra")) {
+					assertTrue(manager.enrollStudentInCourse(manager.openSession(student[2], "pw"), csc216));
+				}
+			}
+			String extra0 = manager.openSession("extra0", "pw");
+			assertTrue(manager.enrollStudentInCourse(extra0, csc226));
+			Student full = directory.getStudentById("extra0");
+			Student eligible = directory.getStudentById("extra1");
+			csc216.getCourseRoll().addToWaitlist(full);
+			csc216.getCourseRoll().addToWaitlist(eligible);
+			manager.compactEnrollmentJournal();
+
+			// extra0 has no credits left, so extra1 takes the seat and extra0 keeps their place
+			assertTrue(manager.dropStudentFromCourse(manager.openSession("daustin", "pw"), csc216));
+			manager.awaitPromotions();
+			assertEquals(0, csc216.getCourseRoll().getOpenSeats());
+			assertEquals(eligible, csc216.getCourseRoll().getEnrolledStudents()[9]);
+			assertEquals("CSC216", eligible.getSchedule().getScheduledCourses()[0][0]);
+			assertEquals(1, csc216.getCourseRoll().getWaitlistPosition(full));
+
+			// No wait listed student can add the course, so the seat opens
+			manager.resetSchedule(manager.openSession("lberg", "pw"));
+			manager.awaitPromotions();
+			assertEquals(1, csc216.getCourseRoll().getOpenSeats());
+			assertEquals(1, csc216.getCourseRoll().getNumberOnWaitlist());
+
+			// Once extra0 drops CSC226, recovery finds the open seat and promotes them into it
+			assertTrue(manager.dropStudentFromCourse(extra0, csc226));
+			manager.getEnrollmentJournal().close();
+			manager.clearData();
+			loadWaitlistData();
+			manager.recoverEnrollments();
+			manager.awaitPromotions();
+			csc216 = manager.getCourseCatalog().getCourseFromCatalog("CSC216", "001");
+			assertEquals(0, csc216.getCourseRoll().getOpenSeats());
+			assertEquals(0, csc216.getCourseRoll().getNumberOnWaitlist());
+			String[][] schedule = manager.getStudentDirectory().getStudentById("extra0").getSchedule().getScheduledCourses();
+			assertEquals(1, schedule.length);
+			assertEquals("CSC216", schedule[0][0]);
+			assertEquals(1, manager.getStudentDirectory().getStudentById("extra1").getSchedule().getScheduledCourses().length);
+			assertEquals(0, manager.getStudentDirectory().getStudentById("lberg").getSchedule().getScheduledCourses().length);
+			manager.getEnrollmentJournal().close();
+		} finally {
+			manager.setEnrollmentJournal(null);
+			Files.deleteIfExists(Paths.get(snapshotFile));
+			Files.deleteIfExists(Paths.get(logFile));
+		}
+	}
+
+	/**
+	 * Tests that logins, enrollments, drops, and resets are counted in the metrics by their result.
+	 */
+	@Test
+	public void testMetrics() {
+		manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+		CourseCatalog catalog = manager.getCourseCatalog();
+		catalog.loadCoursesFromFile("test-files/course_records.txt");
+		RegistrationMetrics metrics = manager.getMetrics();
+		metrics.reset();
+
+		assertThrows(IllegalArgumentException.class, () -> manager.login("nobody", "pw"));
+		assertFalse(manager.login("ahicks", "wrong"));
+		assertNull(manager.openSession("ahicks", "wrong"));
+		assertTrue(manager.login(registrarUsername, registrarPassword));
+		assertFalse(manager.login("ahicks", "pw"));
+		assertThrows(IllegalArgumentException.class,
+				() -> manager.enrollStudentInCourse(catalog.getCourseFromCatalog("CSC216", "001")));
+		manager.logout();
+		assertEquals(1, metrics.getCount(Operation.LOGIN, Result.UNKNOWN_USER));
+		assertEquals(2, metrics.getCount(Operation.LOGIN, Result.BAD_PASSWORD));
+		assertEquals(1, metrics.getCount(Operation.LOGIN, Result.ALREADY_LOGGED_IN));
+		assertEquals(1, metrics.getCount(Operation.LOGIN, Result.SUCCEEDED));
+		assertEquals(1, metrics.getCount(Operation.ENROLL, Result.ILLEGAL_ACTION));
+
+		String token = manager.openSession("ahicks", "pw");
+		assertEquals(2, metrics.getCount(Operation.LOGIN, Result.SUCCEEDED));
+		assertTrue(manager.enrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC216", "001")));
+		assertTrue(manager.enrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC226", "001")));
+		assertFalse(manager.enrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC226", "001")));
+		assertFalse(manager.enrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC116", "001")));
+		assertTrue(manager.enrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC116", "003")));
+		assertFalse(manager.enrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC216", "601")));
+		assertFalse(manager.enrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC230", "001")));
+		assertEquals(3, metrics.getCount(Operation.ENROLL, Result.SUCCEEDED));
+		assertEquals(1, metrics.getCount(Operation.ENROLL, Result.ALREADY_ENROLLED));
+		assertEquals(1, metrics.getCount(Operation.ENROLL, Result.CONFLICT));
+		assertEquals(1, metrics.getCount(Operation.ENROLL, Result.DUPLICATE_COURSE));
+		assertEquals(1, metrics.getCount(Operation.ENROLL, Result.CREDIT_LIMIT));
+		assertEquals(5, metrics.getRejectionCount(Operation.ENROLL));
+		assertEquals(0, metrics.getCount(Operation.ENROLL, Result.FAILED));
+		assertEquals(8, metrics.getLatencies(Operation.ENROLL).getCount());
+
+		assertTrue(manager.dropStudentFromCourse(token, catalog.getCourseFromCatalog("CSC216", "001")));
+		assertFalse(manager.dropStudentFromCourse(token, catalog.getCourseFromCatalog("CSC216", "001")));
+		manager.resetSchedule(token);
+		assertThrows(IllegalArgumentException.class, () -> manager.resetSchedule("no such session"));
+		manager.awaitPromotions();
+		assertEquals(1, metrics.getCount(Operation.DROP, Result.SUCCEEDED));
+		assertEquals(1, metrics.getCount(Operation.DROP, Result.NOT_ENROLLED));
+		assertEquals(1, metrics.getCount(Operation.RESET, Result.SUCCEEDED));
+		assertEquals(1, metrics.getCount(Operation.RESET, Result.ILLEGAL_ACTION));
+		assertEquals(Long.valueOf(1), metrics.getCounts().get("ENROLL.CONFLICT"));
+
+		metrics.reset();
+		assertEquals(0, metrics.getLatencies(Operation.ENROLL).getCount());
+	}
+
+	/**
+	 * Tests that tryEnrollStudentInCourse() reports why a student was not enrolled without throwing, and
+	 * that each result is counted in the metrics.
+	 */
+	@Test
+	public void testTryEnrollStudentInCourse() {
+		manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+		CourseCatalog catalog = manager.getCourseCatalog();
+		catalog.loadCoursesFromFile("test-files/course_records.txt");
+		RegistrationMetrics metrics = manager.getMetrics();
+		metrics.reset();
+		Course csc216 = catalog.getCourseFromCatalog("CSC216", "001");
+
+		assertEquals(EnrollmentResult.ILLEGAL_ACTION, manager.tryEnrollStudentInCourse(csc216));
+		assertEquals(EnrollmentResult.ILLEGAL_ACTION, manager.tryEnrollStudentInCourse("no such session", csc216));
+		manager.login(registrarUsername, registrarPassword);
+		assertEquals(EnrollmentResult.ILLEGAL_ACTION, manager.tryEnrollStudentInCourse(csc216));
+		manager.logout();
+
+		String token = manager.openSession("ahicks", "pw");
+		assertEquals(EnrollmentResult.ENROLLED, manager.tryEnrollStudentInCourse(token, csc216));
+		assertEquals(EnrollmentResult.ALREADY_ENROLLED, manager.tryEnrollStudentInCourse(token, csc216));
+		assertEquals(EnrollmentResult.ENROLLED,
+				manager.tryEnrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC226", "001")));
+		assertEquals(EnrollmentResult.DUPLICATE_COURSE,
+				manager.tryEnrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC216", "601")));
+		assertEquals(EnrollmentResult.CONFLICT,
+				manager.tryEnrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC116", "001")));
+		assertEquals(EnrollmentResult.ENROLLED,
+				manager.tryEnrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC116", "003")));
+		assertEquals(EnrollmentResult.CREDIT_LIMIT,
+				manager.tryEnrollStudentInCourse(token, catalog.getCourseFromCatalog("CSC230", "001")));
+		assertEquals(3, manager.getStudentDirectory().getStudentById("ahicks").getSchedule().getScheduledCourses().length);
+
+		for (Student s : manager.getStudentDirectory().getStudents()) {
+			if (!"ahicks".equals(s.getId())) {
+				assertEquals(EnrollmentResult.ENROLLED, manager.tryEnrollStudentInCourse(manager.openSession(s.getId(), "pw"), csc216));
+			}
+		}
+		manager.getStudentDirectory().addStudent("Extra", "Student", "extra0", "extra0@ncsu.edu", "pw", "pw", 18);
+		assertEquals(EnrollmentResult.COURSE_FULL, manager.tryEnrollStudentInCourse(manager.openSession("extra0", "pw"), csc216));
+
+		manager.login("extra0", "pw");
+		assertFalse(manager.enrollStudentInCourse(csc216));
+		manager.logout();
+		assertThrows(IllegalArgumentException.class, () -> manager.enrollStudentInCourse(csc216));
+		for (EnrollmentResult result : EnrollmentResult.values()) {
+			assertTrue(Operation.ENROLL.hasResult(result.getMetricsResult()), result.toString());
+		}
+		assertEquals(4, metrics.getCount(Operation.ENROLL, Result.ILLEGAL_ACTION));
+		assertEquals(2, metrics.getCount(Operation.ENROLL, Result.COURSE_FULL));
+		assertEquals(1, metrics.getCount(Operation.ENROLL, Result.CONFLICT));
+		assertEquals(0, metrics.getCount(Operation.ENROLL, Result.FAILED));
+	}
+
+	/**
+	 * Loads the students, two extra students with 3 credits each, and the courses.
+	 */
+	private void loadWaitlistData() {
+		manager.getStudentDirectory().loadStudentsFromFile(STUDENT_FILE);
+		for (int i = 0; i < 2; i++) {
+			manager.getStudentDirectory().addStudent("Extra", "Student", "extra" + i, "extra" + i + "@ncsu.edu", "pw", "pw", 3);
+		}
+		manager.getCourseCatalog().loadCoursesFromFile("test-files/course_records.txt");
+	}
+}
@@ -0,0 +1,118 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationMetrics.Operation;
+import edu.ncsu.csc216.pack_scheduler.manager.RegistrationMetrics.Result;
+import edu.ncsu.csc216.pack_scheduler.util.LatencyHistogram;
+
+/**
+ * Tests RegistrationMetrics.
+ */
+public class RegistrationMetricsTest {
+
+	/**
+	 * Tests recording and reading counts and latencies.
+	 */
+	@Test
+	public void testRecord() {
+		RegistrationMetrics metrics = new RegistrationMetrics();
+		long start = System.nanoTime();
+		metrics.record(Operation.ENROLL, Result.SUCCEEDED, start);
+		metrics.record(Operation.ENROLL, Result.SUCCEEDED, start);
+		metrics.record(Operation.ENROLL, Result.CONFLICT, start);
+		metrics.record(Operation.ENROLL, Result.FAILED, start);
+		metrics.record(Operation.LOGIN, Result.BAD_PASSWORD, start);
+
+		assertEquals(2, metrics.getCount(Operation.ENROLL, Result.SUCCEEDED));
+		assertEquals(1, metrics.getCount(Operation.ENROLL, Result.CONFLICT));
+		assertEquals(0, metrics.getCount(Operation.ENROLL, Result.COURSE_FULL));
+		assertEquals(1, metrics.getRejectionCount(Operation.ENROLL));
+		assertEquals(1, metrics.getRejectionCount(Operation.LOGIN));
+		assertEquals(0, metrics.getRejectionCount(Operation.DROP));
+		assertEquals(4, metrics.getLatencies(Operation.ENROLL).getCount());
+		assertTrue(metrics.getLatencies(Operation.ENROLL).getMax() > 0);
+
+		LatencyHistogram copy = metrics.getLatencies(Operation.ENROLL, Result.SUCCEEDED);
+		assertEquals(2, copy.getCount());
+		copy.record(1);
+		assertEquals(2, metrics.getCount(Operation.ENROLL, Result.SUCCEEDED));
+
+		metrics.reset();
+		assertEquals(0, metrics.getCount(Operation.ENROLL, Result.SUCCEEDED));
+		assertEquals(0, metrics.getLatencies(Operation.LOGIN).getCount());
+	}
+
+	/**
+	 * Tests that results an operation cannot have are rejected.
+	 */
+	@Test
+	public void testInvalidResult() {
+		RegistrationMetrics metrics = new RegistrationMetrics();
+		assertFalse(Operation.LOGIN.hasResult(Result.CONFLICT));
+		assertFalse(Operation.RESET.hasResult(Result.NOT_ENROLLED));
+		assertTrue(Operation.DROP.hasResult(Result.FAILED));
+		assertThrows(IllegalArgumentException.class,
+				() -> metrics.record(Operation.LOGIN, Result.CONFLICT, System.nanoTime()));
+		assertThrows(IllegalArgumentException.class, () -> metrics.getCount(Operation.DROP, Result.COURSE_FULL));
+		assertThrows(IllegalArgumentException.class,
+				() -> metrics.getLatencies(Operation.RESET, Result.CREDIT_LIMIT));
+	}
+
+	/**
+	 * Tests the counts and percentiles keyed for JMX.
+	 */
+	@Test
+	public void testMaps() {
+		RegistrationMetrics metrics = new RegistrationMetrics();
+		metrics.record(Operation.DROP, Result.NOT_ENROLLED, System.nanoTime());
+		Map<String, Long> counts = metrics.getCounts();
+		assertEquals(Long.valueOf(1), counts.get("DROP.NOT_ENROLLED"));
+		assertEquals(Long.valueOf(0), counts.get("LOGIN.SUCCEEDED"));
+		assertFalse(counts.containsKey("LOGIN.CONFLICT"));
+		assertEquals(5 + 8 + 4 + 3, counts.size());
+
+		Map<String, Long> p99 = metrics.getLatencyP99Nanos();
+		assertEquals(Operation.values().length, p99.size());
+		assertEquals(Long.valueOf(0), p99.get("ENROLL"));
+		assertTrue(p99.get("DROP") >= metrics.getLatencyP50Nanos().get("DROP"));
+		assertTrue(metrics.getLatencyP999Nanos().get("DROP") >= p99.get("DROP"));
+	}
+
+	/**
+	 * Tests that the metrics can be read and reset over JMX, and that registering again replaces the
+	 * metrics registered before.
+	 * @throws Exception if the MBean cannot be found
+	 */
+	@Test
+	public void testRegisterMBean() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(RegistrationMetrics.OBJECT_NAME);
+		RegistrationMetrics metrics = new RegistrationMetrics();
+		try {
+			metrics.registerMBean();
+			assertTrue(metrics.tryRegisterMBean());
+			assertTrue(server.isRegistered(name));
+			metrics.record(Operation.RESET, Result.SUCCEEDED, System.nanoTime());
+
+			RegistrationMetricsMXBean proxy = JMX.newMXBeanProxy(server, name, RegistrationMetricsMXBean.class);
+			assertEquals(Long.valueOf(1), proxy.getCounts().get("RESET.SUCCEEDED"));
+			proxy.reset();
+			assertEquals(0, metrics.getCount(Operation.RESET, Result.SUCCEEDED));
+		} finally {
+			RegistrationManager.getInstance().getMetrics().registerMBean();
+		}
+	}
+}
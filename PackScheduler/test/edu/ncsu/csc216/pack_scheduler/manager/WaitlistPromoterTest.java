@@ -0,0 +1,58 @@
+package edu.ncsu.csc216.pack_scheduler.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Tests WaitlistPromoter.
+ */
+public class WaitlistPromoterTest {
+
+	/**
+	 * Tests that events are handled in the order they were published and that awaitIdle waits for them.
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	@Test
+	public void testPublishInOrder() throws InterruptedException {
+		List<Course> handled = Collections.synchronizedList(new ArrayList<Course>());
+		WaitlistPromoter promoter = new WaitlistPromoter(handled::add);
+		promoter.awaitIdle();
+		List<Course> published = new ArrayList<Course>();
+		for (int i = 0; i < 100; i++) {
+			Course c = new Course("CSC216", "Software Development Fundamentals", String.format("%03d", i % 1000), 3,
+					"sesmith5", 10, "A");
+			published.add(c);
+			promoter.publish(c);
+		}
+		promoter.awaitIdle();
+		assertEquals(published, handled);
+	}
+
+	/**
+	 * Tests that an exception thrown by the handler is reported by awaitIdle and does not stop the worker.
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	@Test
+	public void testHandlerFailure() throws InterruptedException {
+		List<Course> handled = Collections.synchronizedList(new ArrayList<Course>());
+		WaitlistPromoter promoter = new WaitlistPromoter(c -> {
+			if ("001".equals(c.getSection())) {
+				throw new IllegalArgumentException("Unable to write to enrollment journal.");
+			}
+			handled.add(c);
+		});
+		promoter.publish(new Course("CSC216", "Software Development Fundamentals", "001", 3, "sesmith5", 10, "A"));
+		promoter.publish(new Course("CSC216", "Software Development Fundamentals", "002", 3, "sesmith5", 10, "A"));
+		assertThrows(IllegalArgumentException.class, () -> promoter.awaitIdle());
+		assertEquals(1, handled.size());
+		promoter.awaitIdle();
+	}
+}
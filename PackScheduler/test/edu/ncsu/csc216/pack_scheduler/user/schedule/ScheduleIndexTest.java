@@ -0,0 +1,91 @@
+package edu.ncsu.csc216.pack_scheduler.user.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.pack_scheduler.course.Course;
+
+/**
+ * Tests ScheduleIndex.
+ */
+public class ScheduleIndexTest {
+
+	/**
+	 * Creates a Course with the given name, meeting days, and times.
+	 * @param name the course name
+	 * @param days the meeting days
+	 * @param start the start time
+	 * @param end the end time
+	 * @return the Course
+	 */
+	private static Course course(String name, String days, int start, int end) {
+		return new Course(name, "Test Course", "001", 3, null, 10, days, start, end);
+	}
+
+	/**
+	 * Tests conflicts with indexed courses, including courses that touch at an endpoint.
+	 */
+	@Test
+	public void testConflicts() {
+		ScheduleIndex index = new ScheduleIndex();
+		Course mw = course("CSC216", "MW", 1330, 1445);
+		Course th = course("CSC226", "TH", 900, 1015);
+		index.add(mw);
+		index.add(th);
+		index.add(course("CSC217", "A", 0, 0));
+
+		assertTrue(index.conflicts(course("CSC230", "M", 1400, 1500)));
+		assertTrue(index.conflicts(course("CSC230", "W", 1200, 1330)));
+		assertFalse(index.conflicts(course("CSC230", "F", 1445, 1500)));
+		assertTrue(index.conflicts(course("CSC230", "MF", 1445, 1500)));
+		assertTrue(index.conflicts(course("CSC230", "H", 800, 1600)));
+		assertFalse(index.conflicts(course("CSC230", "MW", 1446, 1600)));
+		assertFalse(index.conflicts(course("CSC230", "MW", 1200, 1329)));
+		assertFalse(index.conflicts(course("CSC230", "A", 0, 0)));
+
+		index.remove(mw);
+		assertFalse(index.conflicts(course("CSC230", "M", 1400, 1500)));
+		assertTrue(index.conflicts(course("CSC230", "T", 1000, 1100)));
+		index.clear();
+		assertFalse(index.conflicts(course("CSC230", "T", 1000, 1100)));
+	}
+
+	/**
+	 * Tests that the index finds the same conflicts as checking each course with conflictsWith, for
+	 * randomly built schedules.
+	 */
+	@Test
+	public void testMatchesConflictsWith() {
+		String[] days = {"M", "T", "W", "H", "F", "MW", "TH", "MWF", "MTWHF"};
+		Random random = new Random(216);
+		for (int round = 0; round < 50; round++) {
+			ScheduleIndex index = new ScheduleIndex();
+			List<Course> courses = new ArrayList<Course>();
+			for (int i = 0; i < 200; i++) {
+				int start = 8 * 60 + random.nextInt(48) * 15;
+				int end = start + random.nextInt(12) * 15;
+				Course c = course("CSC" + (100 + i), days[random.nextInt(days.length)],
+						start / 60 * 100 + start % 60, end / 60 * 100 + end % 60);
+				boolean expected = false;
+				for (Course scheduled : courses) {
+					expected |= scheduled.conflictsWith(c);
+				}
+				assertEquals(expected, index.conflicts(c));
+				if (!expected) {
+					index.add(c);
+					courses.add(c);
+				}
+				if (!courses.isEmpty() && random.nextInt(4) == 0) {
+					index.remove(courses.remove(random.nextInt(courses.size())));
+				}
+			}
+		}
+	}
+}
@@ -212,4 +212,26 @@ public class ScheduleTest {
 		assertFalse(schedule.canAdd(c2Conflict));
 	}
 
+	/**
+	 * Tests Schedule.checkAdd() reports why a course cannot be added.
+	 */
+	@Test
+	public void testCheckAdd() {
+		Schedule schedule = new Schedule();
+		Course c1 = new Course("CSC116", "Intro to Programming - Java", "001", 4, "jdyoung2", 10, "MW", 1100, 1150);
+		Course c1OtherSection = new Course("CSC116", "Intro to Programming - Java", "002", 4, "jdyoung2", 10, "TH", 800, 850);
+		Course c1Conflict = new Course("CSC316", "Super Cool Class", "001", 4, "jdyoung2", 10, "M", 1130, 1230);
+		Course arranged = new Course("CSC499", "Independent Study", "001", 3, "jdyoung2", 10, "A");
+
+		assertEquals(Schedule.AddCheck.ADDABLE, schedule.checkAdd(c1));
+		schedule.addCourseToSchedule(c1);
+		assertEquals(Schedule.AddCheck.DUPLICATE, schedule.checkAdd(c1OtherSection));
+		assertEquals(Schedule.AddCheck.CONFLICT, schedule.checkAdd(c1Conflict));
+		assertEquals(Schedule.AddCheck.ADDABLE, schedule.checkAdd(arranged));
+		assertThrows(NullPointerException.class, () -> schedule.checkAdd(null));
+
+		schedule.removeCourseFromSchedule(c1);
+		assertEquals(Schedule.AddCheck.ADDABLE, schedule.checkAdd(c1Conflict));
+	}
+
 }
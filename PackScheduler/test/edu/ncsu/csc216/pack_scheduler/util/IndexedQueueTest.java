@@ -0,0 +1,146 @@
+package edu.ncsu.csc216.pack_scheduler.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests IndexedQueue.
+ */
+public class IndexedQueueTest {
+
+	/**
+	 * Tests enqueue, dequeue, size, and capacity.
+	 */
+	@Test
+	public void testEnqueueDequeue() {
+		IndexedQueue<String> queue = new IndexedQueue<String>(3);
+		assertTrue(queue.isEmpty());
+		assertThrows(NoSuchElementException.class, () -> queue.dequeue());
+		queue.enqueue("First");
+		queue.enqueue("Second");
+		queue.enqueue("Third");
+		assertEquals(3, queue.size());
+		assertThrows(IllegalArgumentException.class, () -> queue.enqueue("Fourth"));
+		assertThrows(IllegalArgumentException.class, () -> queue.setCapacity(2));
+		assertEquals("First", queue.dequeue());
+		assertThrows(IllegalArgumentException.class, () -> queue.enqueue("Second"));
+		assertThrows(IllegalArgumentException.class, () -> queue.enqueue(null));
+		queue.enqueue("First");
+		assertEquals("Second", queue.dequeue());
+		assertEquals("Third", queue.dequeue());
+		assertEquals("First", queue.dequeue());
+		assertTrue(queue.isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> new IndexedQueue<String>(-1));
+	}
+
+	/**
+	 * Tests contains, remove, indexOf, and toArray.
+	 */
+	@Test
+	public void testRemoveAndIndexOf() {
+		IndexedQueue<String> queue = new IndexedQueue<String>(10);
+		for (String s : new String[] {"a", "b", "c", "d"}) {
+			queue.enqueue(s);
+		}
+		assertTrue(queue.contains("c"));
+		assertFalse(queue.contains("e"));
+		assertFalse(queue.contains(null));
+		assertEquals(2, queue.indexOf("c"));
+		assertEquals(-1, queue.indexOf("e"));
+
+		assertTrue(queue.remove("b"));
+		assertFalse(queue.remove("b"));
+		assertFalse(queue.remove(null));
+		assertFalse(queue.contains("b"));
+		assertEquals(1, queue.indexOf("c"));
+		assertArrayEquals(new String[] {"a", "c", "d"}, queue.toArray(new String[0]));
+
+		assertTrue(queue.remove("a"));
+		assertTrue(queue.remove("d"));
+		assertArrayEquals(new String[] {"c", null}, queue.toArray(new String[2]));
+		queue.enqueue("e");
+		assertEquals("c", queue.dequeue());
+		assertEquals("e", queue.dequeue());
+		assertTrue(queue.isEmpty());
+		assertEquals(0, queue.toArray(new String[0]).length);
+	}
+
+	/**
+	 * Tests iterating over the queue from front to back.
+	 */
+	@Test
+	public void testIterator() {
+		IndexedQueue<String> queue = new IndexedQueue<String>(10);
+		assertFalse(queue.iterator().hasNext());
+		for (String s : new String[] {"a", "b", "c"}) {
+			queue.enqueue(s);
+		}
+		queue.remove("b");
+		java.util.Iterator<String> it = queue.iterator();
+		assertEquals("a", it.next());
+		assertEquals("c", it.next());
+		assertFalse(it.hasNext());
+		assertThrows(NoSuchElementException.class, () -> it.next());
+
+		java.util.Iterator<String> after = queue.iteratorAfter("a");
+		assertEquals("c", after.next());
+		assertFalse(after.hasNext());
+		assertFalse(queue.iteratorAfter("c").hasNext());
+		assertThrows(IllegalArgumentException.class, () -> queue.iteratorAfter("b"));
+		assertThrows(IllegalArgumentException.class, () -> queue.iteratorAfter(null));
+	}
+
+	/**
+	 * Tests that elements are found by identity, so an element whose hashCode changes while it is in
+	 * the queue is still found, and an equal element that is not in the queue is not.
+	 */
+	@Test
+	public void testIdentity() {
+		IndexedQueue<java.util.List<String>> queue = new IndexedQueue<java.util.List<String>>(10);
+		java.util.List<String> a = new java.util.ArrayList<String>();
+		java.util.List<String> b = new java.util.ArrayList<String>();
+		queue.enqueue(a);
+		queue.enqueue(b);
+		a.add("changed");
+		assertTrue(queue.contains(a));
+		assertEquals(0, queue.indexOf(a));
+		assertThrows(IllegalArgumentException.class, () -> queue.enqueue(a));
+		assertFalse(queue.contains(new java.util.ArrayList<String>()));
+		assertTrue(queue.remove(a));
+		assertEquals(1, queue.size());
+		assertEquals(b, queue.dequeue());
+	}
+
+	/**
+	 * Tests random enqueues, dequeues, and removals against a java.util.LinkedList.
+	 */
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(216);
+		IndexedQueue<Integer> queue = new IndexedQueue<Integer>(50);
+		java.util.LinkedList<Integer> expected = new java.util.LinkedList<Integer>();
+		for (int i = 0; i < 10000; i++) {
+			int value = random.nextInt(60);
+			int op = random.nextInt(3);
+			if (op == 0 && expected.size() < 50 && !expected.contains(value)) {
+				queue.enqueue(value);
+				expected.addLast(value);
+			} else if (op == 1 && !expected.isEmpty()) {
+				assertEquals(expected.removeFirst(), queue.dequeue());
+			} else {
+				assertEquals(expected.remove(Integer.valueOf(value)), queue.remove(value));
+			}
+			assertEquals(expected.size(), queue.size());
+			assertEquals(expected.indexOf(value), queue.indexOf(value));
+		}
+		assertArrayEquals(expected.toArray(new Integer[0]), queue.toArray(new Integer[0]));
+	}
+}
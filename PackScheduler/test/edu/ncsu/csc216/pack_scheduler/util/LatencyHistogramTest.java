@@ -0,0 +1,110 @@
+package edu.ncsu.csc216.pack_scheduler.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+
+	/**
+	 * Tests that small values are counted exactly.
+	 */
+	@Test
+	public void testExactValues() {
+		LatencyHistogram h = new LatencyHistogram();
+		assertEquals(0, h.getValueAtPercentile(50));
+		for (int i = 1; i <= 100; i++) {
+			h.record(i);
+		}
+		h.record(-5);
+		assertEquals(101, h.getCount());
+		assertEquals(5050, h.getTotal());
+		assertEquals(100, h.getMax());
+		assertEquals(0, h.getValueAtPercentile(0));
+		assertEquals(50, h.getValueAtPercentile(50));
+		assertEquals(100, h.getValueAtPercentile(99.9));
+		assertEquals(100, h.getValueAtPercentile(100));
+		assertEquals(5050.0 / 101, h.getMean(), 1e-9);
+	}
+
+	/**
+	 * Tests that percentiles of large values are within 1/64 of the exact percentiles.
+	 */
+	@Test
+	public void testPercentilesWithinPrecision() {
+		LatencyHistogram h = new LatencyHistogram();
+		Random random = new Random(7);
+		long[] values = new long[20000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) Math.exp(random.nextDouble() * 30);
+			h.record(values[i]);
+		}
+		Arrays.sort(values);
+		for (double p : new double[] { 10, 50, 90, 99, 99.9 }) {
+			long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+			long found = h.getValueAtPercentile(p);
+			assertTrue(found >= exact, p + ": " + found + " < " + exact);
+			assertTrue(found <= exact + exact / 64, p + ": " + found + " > " + exact);
+		}
+		assertEquals(values[values.length - 1], h.getValueAtPercentile(100));
+
+		h.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, h.getValueAtPercentile(100));
+	}
+
+	/**
+	 * Tests adding one histogram to another and resetting.
+	 */
+	@Test
+	public void testAddAndReset() {
+		LatencyHistogram a = new LatencyHistogram();
+		LatencyHistogram b = new LatencyHistogram();
+		a.record(10);
+		b.record(1000);
+		b.record(20);
+		a.add(b);
+		assertEquals(3, a.getCount());
+		assertEquals(1030, a.getTotal());
+		assertEquals(1000, a.getMax());
+		assertEquals(20, a.getValueAtPercentile(50));
+		assertThrows(IllegalArgumentException.class, () -> a.add(null));
+		assertThrows(IllegalArgumentException.class, () -> a.getValueAtPercentile(101));
+		assertThrows(IllegalArgumentException.class, () -> a.getValueAtPercentile(Double.NaN));
+
+		a.reset();
+		assertEquals(0, a.getCount());
+		assertEquals(0, a.getMax());
+		assertEquals(0, a.getValueAtPercentile(50));
+	}
+
+	/**
+	 * Tests that values recorded by many threads at once are all counted.
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	@Test
+	public void testConcurrentRecord() throws InterruptedException {
+		LatencyHistogram h = new LatencyHistogram();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 10000; i++) {
+					h.record(i);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(40000, h.getCount());
+		assertEquals(9999, h.getMax());
+	}
+}